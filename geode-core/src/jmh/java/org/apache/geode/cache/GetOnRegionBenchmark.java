@@ -26,12 +26,15 @@ import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.annotations.Warmup;
 
+import org.apache.geode.internal.cache.AbstractRegionMap;
+
 /**
  * This benchmark measures the raw throughput of get actions on a region
  */
@@ -40,11 +43,19 @@ import org.openjdk.jmh.annotations.Warmup;
 public class GetOnRegionBenchmark {
   private static final int ENTRIES = 1_000_000;
 
+  /**
+   * Whether the region's entries are stored in an open addressing map instead of the default
+   * CustomEntryConcurrentHashMap
+   */
+  @Param({"false", "true"})
+  String openAddressing;
+
   Cache cache;
   Region<String, String> region;
 
   @Setup(Level.Trial)
   public void setup() {
+    System.setProperty(AbstractRegionMap.OPEN_ADDRESSING_ENTRY_MAP_PROPERTY, openAddressing);
     cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
     region = createRegion(cache);
   }
@@ -52,6 +63,7 @@ public class GetOnRegionBenchmark {
   @TearDown(Level.Trial)
   public void tearDown() {
     cache.close();
+    System.clearProperty(AbstractRegionMap.OPEN_ADDRESSING_ENTRY_MAP_PROPERTY);
   }
 
   @State(Scope.Thread)
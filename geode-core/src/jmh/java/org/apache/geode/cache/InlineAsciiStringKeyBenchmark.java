@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.internal.cache.InlineKeyHelper;
+import org.apache.geode.internal.cache.LocalRegion;
+
+/**
+ * This benchmark measures what storing ascii string keys inline costs the operations that read
+ * the keys of a region's entries. Run it with -prof gc to see the String each key read creates,
+ * and compare with the estimate of the heap the inline keys save, which is logged at setup.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class InlineAsciiStringKeyBenchmark {
+  private static final int ENTRIES = 1_000_000;
+
+  private static final String KEY_PREFIX = "customer-account-";
+
+  /**
+   * Whether ascii string keys are stored inline as bytes instead of as separate Strings
+   */
+  @Param({"false", "true"})
+  boolean inlineAsciiStringKeys;
+
+  Cache cache;
+  Region<String, String> region;
+  Iterator<String> keys;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = inlineAsciiStringKeys;
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = createRegion(cache);
+    keys = region.keySet().iterator();
+    cache.getLogger().info("inline key bytes saved: "
+        + ((LocalRegion) region).estimateInlineKeyBytesSaved());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = false;
+  }
+
+  @State(Scope.Thread)
+  public static class MyState {
+    Random random = new Random();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 20)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String get(MyState state) {
+    return region.get(KEY_PREFIX + state.random.nextInt(ENTRIES));
+  }
+
+  @Benchmark
+  @Measurement(iterations = 20)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String iterateKeys() {
+    if (!keys.hasNext()) {
+      keys = region.keySet().iterator();
+    }
+    return keys.next();
+  }
+
+  private Region<String, String> createRegion(Cache cache) {
+    Region<String, String> region =
+        cache.<String, String>createRegionFactory(RegionShortcut.LOCAL).create("testRegion");
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(KEY_PREFIX + i, "value");
+    }
+    return region;
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_FILE;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.internal.PoolImpl;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
+
+/**
+ * This benchmark measures how long it takes a cache server to answer a get from each of many
+ * active clients while it also holds a connection open for each of many more idle clients. Each
+ * connection has a thread on a cache server without a selector, so this compares platform threads
+ * to virtual threads, which the server uses when started with
+ * {@link VirtualThreads#USE_VIRTUAL_THREADS_PROPERTY} on a JVM that has them.
+ * <p>
+ * The server runs in its own JVM, launched with the same java and class path as the benchmark. Both
+ * JVMs need a file descriptor limit above the total number of clients.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class ServerConnectionThreadsBenchmark {
+  private static final String REGION_NAME = "region";
+
+  private static final String PORT_PREFIX = "port=";
+
+  @Param({"false", "true"})
+  String useVirtualThreads;
+
+  @Param({"50000"})
+  int idleClients;
+
+  @Param({"5000"})
+  int activeClients;
+
+  Process server;
+  ClientCache clientCache;
+  Region<String, String> region;
+  ExecutorService clients;
+  List<Callable<String>> gets;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    int port = startServer();
+    clientCache = new ClientCacheFactory().set(LOG_LEVEL, "warn").create();
+    createPool("idle", port, idleClients);
+    createPool("active", port, activeClients);
+    region = clientCache.<String, String>createClientRegionFactory(ClientRegionShortcut.PROXY)
+        .setPoolName("active").create(REGION_NAME);
+    clients = Executors.newFixedThreadPool(activeClients);
+    gets = new ArrayList<>(activeClients);
+    for (int i = 0; i < activeClients; i++) {
+      gets.add(() -> region.get("key"));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    if (clients != null) {
+      clients.shutdownNow();
+    }
+    if (clientCache != null) {
+      clientCache.close();
+    }
+    if (server != null) {
+      server.getOutputStream().close();
+      if (!server.waitFor(1, TimeUnit.MINUTES)) {
+        server.destroyForcibly();
+      }
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int getFromEachActiveClient() throws Exception {
+    int found = 0;
+    for (Future<String> get : clients.invokeAll(gets)) {
+      if (get.get() != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  private int startServer() throws IOException {
+    String java =
+        System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+        "-D" + VirtualThreads.USE_VIRTUAL_THREADS_PROPERTY + "=" + useVirtualThreads,
+        Server.class.getName(), Integer.toString(idleClients + activeClients + 100));
+    builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+    server = builder.start();
+    BufferedReader output = new BufferedReader(new InputStreamReader(server.getInputStream()));
+    String line;
+    while ((line = output.readLine()) != null) {
+      if (line.startsWith(PORT_PREFIX)) {
+        return Integer.parseInt(line.substring(PORT_PREFIX.length()));
+      }
+    }
+    throw new IOException("The server exited before it started listening");
+  }
+
+  private void createPool(String name, int port, int connections) throws InterruptedException {
+    Pool pool = PoolManager.createFactory().addServer("localhost", port)
+        .setMinConnections(connections).setMaxConnections(connections).setIdleTimeout(-1)
+        .setReadTimeout(60_000).create(name);
+    while (((PoolImpl) pool).getConnectionCount() < connections) {
+      Thread.sleep(100);
+    }
+  }
+
+  /**
+   * The cache server, which runs until the benchmark closes its standard input.
+   */
+  public static class Server {
+    public static void main(String[] args) throws Exception {
+      Cache cache = new CacheFactory().set(LOG_LEVEL, "warn").set(LOG_FILE, "server.log").create();
+      cache.<String, String>createRegionFactory(RegionShortcut.REPLICATE).create(REGION_NAME)
+          .put("key", "value");
+      CacheServer cacheServer = cache.addCacheServer();
+      cacheServer.setPort(0);
+      cacheServer.setMaxConnections(Integer.parseInt(args[0]));
+      cacheServer.start();
+      System.out.println(PORT_PREFIX + cacheServer.getPort());
+      System.out.flush();
+      while (System.in.read() != -1) {
+        // wait for the benchmark to finish
+      }
+      cache.close();
+    }
+  }
+}
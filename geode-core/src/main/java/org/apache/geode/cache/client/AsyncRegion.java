@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.execute.ResultCollector;
+
+/**
+ * Operations on a client region that do not make the calling thread wait for the server. Each
+ * operation returns a {@link CompletableFuture} that is completed with what the corresponding
+ * {@link Region} operation would have returned, or completed exceptionally with what it would have
+ * thrown.
+ * <p>
+ * When the region's pool has pipelined connections, gets and puts of a region that stores no data
+ * locally and has no cache loader, writer or listeners are sent on one of those connections and
+ * the thread that reads the server's replies completes their futures, so any number of them can
+ * be in progress without a thread each. Other operations are executed by a thread of the pool.
+ * Dependent stages that do not specify an executor may run on the thread that completes the
+ * future, so they should not block.
+ * <p>
+ * Operations called in a transaction are executed by the calling thread, since the transaction
+ * belongs to it, and return a completed future.
+ *
+ * @see ClientCache#getAsyncRegion(String)
+ * @since Geode 1.6
+ */
+public interface AsyncRegion<K, V> {
+
+  /**
+   * Returns the region this object operates on
+   */
+  Region<K, V> getRegion();
+
+  /**
+   * Returns a future of the value of the given key.
+   *
+   * @see Region#get(Object)
+   */
+  CompletableFuture<V> getAsync(K key);
+
+  /**
+   * Returns a future that completes once the given value has been put.
+   *
+   * @see Region#put(Object, Object)
+   */
+  CompletableFuture<Void> putAsync(K key, V value);
+
+  /**
+   * Returns a future of the values of the given keys.
+   *
+   * @see Region#getAll(Collection)
+   */
+  CompletableFuture<Map<K, V>> getAllAsync(Collection<? extends K> keys);
+
+  /**
+   * Executes the function with the given id on the region's servers and returns a future of its
+   * result, as returned by {@link ResultCollector#getResult()}.
+   *
+   * @param functionId the id of a function registered on the servers
+   * @param filter the keys the function operates on, or null for all of them
+   * @param arguments the arguments to pass to the function, or null for none
+   * @see FunctionService#onRegion(Region)
+   */
+  CompletableFuture<Object> executeAsync(String functionId, Set<? extends K> filter,
+      Object arguments);
+}
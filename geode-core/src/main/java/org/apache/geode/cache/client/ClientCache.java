@@ -154,6 +154,16 @@ public interface ClientCache extends GemFireCache {
    */
   RegionService createAuthenticatedView(Properties userSecurityProperties, String poolName);
 
+  /**
+   * Returns an object that performs operations on the region with the given path without making
+   * the calling thread wait for the server.
+   *
+   * @param path the path to the region, as given to {@link #getRegion(String)}
+   * @return the asynchronous operations of the region, or null if there is no such region
+   * @since Geode 1.6
+   */
+  <K, V> AsyncRegion<K, V> getAsyncRegion(String path);
+
   /**
    * Returns a set of the servers to which this client is currently connected.
    *
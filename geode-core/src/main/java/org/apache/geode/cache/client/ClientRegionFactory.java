@@ -20,6 +20,7 @@ import org.apache.geode.cache.CacheListener;
 import org.apache.geode.cache.CustomExpiry;
 import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.ExpirationAttributes;
+import org.apache.geode.cache.InterestResultPolicy;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.RegionExistsException;
@@ -277,6 +278,27 @@ public interface ClientRegionFactory<K, V> {
    */
   ClientRegionFactory<K, V> setCompressor(Compressor compressor);
 
+  /**
+   * Makes the region a near cache of its server region. A near cache keeps the entries it reads
+   * from the server and answers later reads of them locally until the server changes them. Instead
+   * of sending it new values, the server sends it only the keys and versions of changed entries,
+   * and invalidations of keys the region has not read are ignored. Use
+   * {@link #setEvictionAttributes} with {@link EvictionAttributes#createLRUEntryAttributes(int)} or
+   * {@link EvictionAttributes#createLRUMemoryAttributes(int)} to bound the number of entries or the
+   * memory the near cache uses.
+   * <p>
+   * A near cache must store data locally, so it can not be created with
+   * {@link ClientRegionShortcut#PROXY}, it must have concurrency checks enabled, and its pool must
+   * have subscriptions enabled. When the region is created it registers interest in all keys
+   * without values, as with
+   * {@link Region#registerInterestForAllKeys(InterestResultPolicy, boolean, boolean)}.
+   *
+   * @param nearCache whether the region is a near cache
+   * @return a reference to this ClientRegionFactory object
+   * @since Geode 1.6
+   */
+  ClientRegionFactory<K, V> setNearCache(boolean nearCache);
+
   /**
    * Creates a region in the {@link ClientCache} using the configuration contained in this
    * ClientRegionFactory. Validation of the provided attributes may cause exceptions to be thrown if
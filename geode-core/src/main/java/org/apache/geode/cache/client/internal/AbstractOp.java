@@ -17,10 +17,15 @@ package org.apache.geode.cache.client.internal;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.internal.HeapDataOutputStream;
@@ -398,6 +403,114 @@ public abstract class AbstractOp implements Op {
     }
   }
 
+  /**
+   * Attempts this operation on the given pipelined connection, which other operations may be using
+   * at the same time. Only operations that {@link #canPipeline can be pipelined} may be attempted
+   * this way.
+   */
+  Object attemptPipelined(PipelinedConnection cnx) throws Exception {
+    this.failed = true;
+    this.timedOut = false;
+    long start = startAttempt(cnx.getStats());
+    try {
+      PipelinedConnection.PendingReply reply;
+      try {
+        reply = cnx.send(this);
+        this.failed = false;
+      } finally {
+        endSendAttempt(cnx.getStats(), start);
+      }
+      this.failed = true;
+      try {
+        Object result = processResponse(cnx.receive(reply), cnx);
+        this.failed = false;
+        return result;
+      } catch (SocketTimeoutException ste) {
+        this.failed = false;
+        this.timedOut = true;
+        throw ste;
+      }
+    } finally {
+      endAttempt(cnx.getStats(), start);
+    }
+  }
+
+  /**
+   * Like {@link #attemptPipelined} but does not wait for the reply. The reply is processed by the
+   * connection's reader thread, or the given timer fails the attempt if the reply does not arrive
+   * within the read timeout. The returned future is then completed on the given executor, so that
+   * whatever depends on it does not hold up the reader thread.
+   */
+  CompletableFuture<Object> attemptPipelinedAsync(PipelinedConnection cnx,
+      ScheduledExecutorService timer, Executor executor) throws Exception {
+    this.failed = true;
+    this.timedOut = false;
+    final long start = startAttempt(cnx.getStats());
+    PipelinedConnection.PendingReply reply;
+    boolean sent = false;
+    try {
+      try {
+        reply = cnx.send(this);
+        this.failed = false;
+      } finally {
+        endSendAttempt(cnx.getStats(), start);
+      }
+      sent = true;
+    } finally {
+      if (!sent) {
+        endAttempt(cnx.getStats(), start);
+      }
+    }
+    this.failed = true;
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    cnx.receiveAsync(reply, timer).whenComplete((msg, failure) -> {
+      Object value = null;
+      Throwable error = failure;
+      if (failure instanceof SocketTimeoutException) {
+        this.failed = false;
+        this.timedOut = true;
+      } else if (failure == null) {
+        try {
+          value = processResponse(msg, cnx);
+          this.failed = false;
+        } catch (VirtualMachineError err) {
+          SystemFailure.initiateFailure(err);
+          throw err;
+        } catch (Throwable t) {
+          SystemFailure.checkFailure();
+          error = t;
+        }
+      }
+      endAttempt(cnx.getStats(), start);
+      final Object completedValue = value;
+      final Throwable completedError = error;
+      try {
+        executor.execute(() -> complete(result, completedValue, completedError));
+      } catch (RejectedExecutionException e) {
+        // the pool is closing
+        complete(result, completedValue, completedError);
+      }
+    });
+    return result;
+  }
+
+  private static void complete(CompletableFuture<Object> result, Object value, Throwable error) {
+    if (error == null) {
+      result.complete(value);
+    } else {
+      result.completeExceptionally(error);
+    }
+  }
+
+  /**
+   * Subclasses should override this method to return true if the server answers this operation
+   * with a single, non-chunked message so that it can share a {@link PipelinedConnection} with
+   * other operations.
+   */
+  protected boolean canPipeline() {
+    return false;
+  }
+
   protected boolean hasFailed() {
     return this.failed;
   }
@@ -24,6 +24,7 @@ import org.apache.geode.cache.CustomExpiry;
 import org.apache.geode.cache.EvictionAttributes;
 import org.apache.geode.cache.ExpirationAttributes;
 import org.apache.geode.cache.InterestPolicy;
+import org.apache.geode.cache.InterestResultPolicy;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionAttributes;
 import org.apache.geode.cache.RegionExistsException;
@@ -32,9 +33,11 @@ import org.apache.geode.cache.SubscriptionAttributes;
 import org.apache.geode.cache.client.ClientRegionFactory;
 import org.apache.geode.cache.client.ClientRegionShortcut;
 import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.PoolManager;
 import org.apache.geode.compression.Compressor;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.UserSpecifiedRegionAttributes;
 
 /**
@@ -46,6 +49,7 @@ import org.apache.geode.internal.cache.UserSpecifiedRegionAttributes;
 public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V> {
   private final AttributesFactory<K, V> attrsFactory;
   private final InternalClientCache cache;
+  private boolean nearCache;
 
   /**
    * Constructs a ClientRegionFactory by creating a DistributedSystem and a Cache. If no
@@ -206,17 +210,57 @@ public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V>
     return this;
   }
 
+  @Override
+  public ClientRegionFactory<K, V> setNearCache(boolean nearCache) {
+    this.nearCache = nearCache;
+    return this;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public Region<K, V> create(String name) throws RegionExistsException {
-    return getCache().basicCreateRegion(name, createRegionAttributes());
+    RegionAttributes<K, V> ra = createRegionAttributes();
+    return initNearCache(getCache().basicCreateRegion(name, ra));
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public Region<K, V> createSubregion(Region<?, ?> parent, String name)
       throws RegionExistsException {
-    return ((InternalRegion) parent).createSubregion(name, createRegionAttributes());
+    RegionAttributes<K, V> ra = createRegionAttributes();
+    return initNearCache(((InternalRegion) parent).createSubregion(name, ra));
+  }
+
+  /**
+   * Makes the given region a near cache if this factory creates near caches. Interest in all keys
+   * is registered without values so that the servers only send invalidations.
+   */
+  private Region<K, V> initNearCache(Region<K, V> region) {
+    if (this.nearCache) {
+      ((LocalRegion) region).enableNearCache();
+      try {
+        region.registerInterestForAllKeys(InterestResultPolicy.NONE, false, false);
+      } catch (RuntimeException e) {
+        // without interest the near cache would never be invalidated
+        region.localDestroyRegion();
+        throw e;
+      }
+    }
+    return region;
+  }
+
+  private void validateNearCache(RegionAttributes<K, V> ra) {
+    if (!ra.getDataPolicy().withStorage()) {
+      throw new IllegalStateException("A near cache region must have local storage.");
+    }
+    if (!ra.getConcurrencyChecksEnabled()) {
+      throw new IllegalStateException("A near cache region must have concurrency checks enabled.");
+    }
+    Pool pool = PoolManager.find(ra.getPoolName());
+    if (pool == null || !pool.getSubscriptionEnabled()) {
+      throw new IllegalStateException(
+          "The pool of a near cache region must have subscriptions enabled.");
+    }
   }
 
   @SuppressWarnings("deprecation")
@@ -235,6 +279,9 @@ public class ClientRegionFactoryImpl<K, V> implements ClientRegionFactory<K, V>
         }
       }
     }
+    if (this.nearCache) {
+      validateNearCache(ra);
+    }
     return ra;
   }
 }
@@ -236,6 +236,11 @@ public class DestroyOp {
       return null;
     }
 
+    @Override
+    protected boolean canPipeline() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.DESTROY_DATA_ERROR;
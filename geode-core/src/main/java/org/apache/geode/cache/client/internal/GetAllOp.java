@@ -62,47 +62,42 @@ public class GetAllOp {
 
   public static VersionedObjectList execute(ExecutablePool pool, Region region, List keys,
       int retryAttempts, Object callback) {
-    AbstractOp op = new GetAllOpImpl(region.getFullPath(), keys, callback);
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
     Map<ServerLocation, HashSet> serverToFilterMap = cms.getServerToFilterMap(keys, region, true);
 
     if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
-      op.initMessagePart();
-      return ((VersionedObjectList) pool.execute(op)).setKeys(keys);
+      return execute(pool, region.getFullPath(), keys, callback);
     } else {
-      VersionedObjectList result = null;
-      ServerConnectivityException se = null;
       List retryList = new ArrayList();
-      List callableTasks =
-          constructGetAllTasks(region.getFullPath(), serverToFilterMap, (PoolImpl) pool, callback);
-      Map<ServerLocation, Object> results = SingleHopClientExecutor.submitGetAll(serverToFilterMap,
-          callableTasks, cms, (LocalRegion) region);
-      for (ServerLocation server : results.keySet()) {
-        Object serverResult = results.get(server);
-        if (serverResult instanceof ServerConnectivityException) {
-          se = (ServerConnectivityException) serverResult;
-          retryList.addAll(serverToFilterMap.get(server));
+      VersionedObjectList result =
+          executeSingleHop(pool, region, serverToFilterMap, callback, retryList, retryAttempts);
+
+      if (!retryList.isEmpty()) {
+        // the servers that failed have been removed from the metadata, so only their keys are
+        // sent again, each to the server now known to host its bucket
+        serverToFilterMap = cms.getServerToFilterMap(retryList, region, true);
+        VersionedObjectList retryResult;
+        if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
+          retryResult = execute(pool, region.getFullPath(), retryList, callback);
         } else {
-          if (result == null) {
-            result = (VersionedObjectList) serverResult;
-          } else {
-            result.addAll((VersionedObjectList) serverResult);
+          List failedList = new ArrayList();
+          retryResult = executeSingleHop(pool, region, serverToFilterMap, callback, failedList,
+              retryAttempts);
+          if (!failedList.isEmpty()) {
+            VersionedObjectList failedResult =
+                execute(pool, region.getFullPath(), failedList, callback);
+            if (retryResult == null) {
+              retryResult = failedResult;
+            } else {
+              retryResult.addAll(failedResult);
+            }
           }
         }
-      }
-
-      if (se != null) {
-        if (retryAttempts == 0) {
-          throw se;
+        if (result == null) {
+          result = retryResult;
         } else {
-          VersionedObjectList retryResult =
-              GetAllOp.execute(pool, region.getFullPath(), retryList, callback);
-          if (result == null) {
-            result = retryResult;
-          } else {
-            result.addAll(retryResult);
-          }
+          result.addAll(retryResult);
         }
       }
 
@@ -110,6 +105,40 @@ public class GetAllOp {
     }
   }
 
+  /**
+   * Sends the keys for each server to that server, all at the same time, and returns the
+   * combined results. The keys for the servers that could not be reached are added to retryList,
+   * or if there are no retries left the exception is thrown.
+   */
+  private static VersionedObjectList executeSingleHop(ExecutablePool pool, Region region,
+      Map<ServerLocation, HashSet> serverToFilterMap, Object callback, List retryList,
+      int retryAttempts) {
+    ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
+    VersionedObjectList result = null;
+    ServerConnectivityException se = null;
+    List callableTasks =
+        constructGetAllTasks(region.getFullPath(), serverToFilterMap, (PoolImpl) pool, callback);
+    Map<ServerLocation, Object> results = SingleHopClientExecutor.submitGetAll(serverToFilterMap,
+        callableTasks, cms, (LocalRegion) region);
+    for (ServerLocation server : results.keySet()) {
+      Object serverResult = results.get(server);
+      if (serverResult instanceof ServerConnectivityException) {
+        se = (ServerConnectivityException) serverResult;
+        retryList.addAll(serverToFilterMap.get(server));
+      } else {
+        if (result == null) {
+          result = (VersionedObjectList) serverResult;
+        } else {
+          result.addAll((VersionedObjectList) serverResult);
+        }
+      }
+    }
+    if (se != null && retryAttempts == 0) {
+      throw se;
+    }
+    return result;
+  }
+
   private GetAllOp() {
     // no instances allowed
   }
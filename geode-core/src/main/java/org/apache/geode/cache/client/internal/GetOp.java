@@ -14,6 +14,8 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.cache.CacheClosedException;
@@ -91,6 +93,24 @@ public class GetOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does a region get on a server like {@link #execute} but without waiting for the server's reply.
+   *
+   * @return a future of the entry value found by the get if any
+   */
+  public static CompletableFuture<Object> executeAsync(PoolImpl pool, LocalRegion region,
+      Object key, Object callbackArg, boolean prSingleHopEnabled, EntryEventImpl clientEvent) {
+    GetOpImpl op = new GetOpImpl(region, key, callbackArg, prSingleHopEnabled, clientEvent);
+    if (prSingleHopEnabled) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      ServerLocation server =
+          cms.getBucketServerLocation(region, Operation.GET, key, null, callbackArg);
+      if (server != null) {
+        return pool.executeOnBucketServerAsync(server, op, cms);
+      }
+    }
+    return pool.executeAsync(op);
+  }
 
   private GetOp() {
     // no instances allowed
@@ -211,6 +231,11 @@ public class GetOp {
       return object;
     }
 
+    @Override
+    protected boolean canPipeline() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.REQUESTDATAERROR;
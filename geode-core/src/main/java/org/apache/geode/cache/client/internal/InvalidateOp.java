@@ -99,6 +99,11 @@ public class InvalidateOp {
       return null;
     }
 
+    @Override
+    protected boolean canPipeline() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.INVALIDATE_ERROR;
@@ -26,6 +26,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.logging.log4j.Logger;
 
@@ -35,6 +40,7 @@ import org.apache.geode.CopyException;
 import org.apache.geode.GemFireException;
 import org.apache.geode.GemFireIOException;
 import org.apache.geode.SerializationException;
+import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.CacheRuntimeException;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.SynchronizationCommitConflictException;
@@ -93,6 +99,7 @@ public class OpExecutorImpl implements ExecutablePool {
   private final QueueManager queueManager;
   private final CancelCriterion cancelCriterion;
   private /* final */ PoolImpl pool;
+  private final OpPipeline pipeline;
   private final ThreadLocal<Boolean> serverAffinity = new ThreadLocal<Boolean>() {
     @Override
     protected Boolean initialValue() {
@@ -121,6 +128,7 @@ public class OpExecutorImpl implements ExecutablePool {
     this.threadLocalConnections = threadLocalConnections;
     this.cancelCriterion = cancelCriterion;
     this.pool = pool;
+    this.pipeline = pool == null ? null : pool.getOpPipeline();
   }
 
   public Object execute(Op op) {
@@ -139,6 +147,10 @@ public class OpExecutorImpl implements ExecutablePool {
       }
       return executeWithServerAffinity(loc, op);
     }
+    Object pipelinedResult = executePipelined(null, op);
+    if (pipelinedResult != NOT_PIPELINED) {
+      return pipelinedResult;
+    }
     boolean success = false;
 
     Set attemptedServers = new HashSet();
@@ -363,6 +375,12 @@ public class OpExecutorImpl implements ExecutablePool {
         }
       }
     }
+    if (conn == null && !pingOp && !onlyUseExistingCnx) {
+      Object pipelinedResult = executePipelined(server, op);
+      if (pipelinedResult != NOT_PIPELINED) {
+        return pipelinedResult;
+      }
+    }
     if (conn == null) {
       if (useThreadLocalConnection(op, pingOp)) {
         // no need to set threadLocal to null while the op is in progress since
@@ -402,6 +420,113 @@ public class OpExecutorImpl implements ExecutablePool {
     }
   }
 
+  /**
+   * Returned by {@link #executePipelined} when it did not execute the op
+   */
+  private static final Object NOT_PIPELINED = new Object();
+
+  /**
+   * Executes the given op on a pipelined connection to the given server, or to any server if it is
+   * null, if the op can be pipelined and there is such a connection. If the connection fails the op
+   * is left to be retried on a pooled connection.
+   *
+   * @return the result of the op, or {@link #NOT_PIPELINED} if it still needs to be executed
+   */
+  private Object executePipelined(ServerLocation server, Op op) {
+    if (this.pipeline == null || !this.pipeline.canPipeline(op)) {
+      return NOT_PIPELINED;
+    }
+    PipelinedConnection conn =
+        server == null ? this.pipeline.getConnection() : this.pipeline.getConnection(server);
+    if (conn == null) {
+      return NOT_PIPELINED;
+    }
+    try {
+      return conn.execute(op);
+    } catch (Exception e) {
+      // This method will throw an exception if the op should not be retried
+      handleException(e, conn, 0, false);
+      ((AbstractOp) op).getMessage().setIsRetry();
+      return NOT_PIPELINED;
+    }
+  }
+
+  /**
+   * Executes the given op on the given server, or on any server if it is null, without making the
+   * caller wait for it. If the op can be pipelined and there is a pipelined connection it is sent
+   * on that connection, and the returned future is completed on the given executor once the reply
+   * is processed. Otherwise, or if the connection fails, the op is executed with retries on the
+   * given executor.
+   *
+   * @param timer enforces the read timeout of pipelined attempts
+   */
+  public CompletableFuture<Object> executeAsync(ServerLocation server, Op op, Executor executor,
+      ScheduledExecutorService timer) {
+    final CompletableFuture<Object> result = new CompletableFuture<>();
+    PipelinedConnection conn = null;
+    if (this.pipeline != null && !this.serverAffinity.get() && this.pipeline.canPipeline(op)) {
+      conn = server == null ? this.pipeline.getConnection() : this.pipeline.getConnection(server);
+    }
+    if (conn == null) {
+      executeOnExecutor(server, op, executor, result, null);
+      return result;
+    }
+    final PipelinedConnection pipelinedConn = conn;
+    CompletableFuture<Object> attempt;
+    try {
+      attempt = ((AbstractOp) op).attemptPipelinedAsync(pipelinedConn, timer, executor);
+    } catch (Exception e) {
+      attempt = new CompletableFuture<>();
+      attempt.completeExceptionally(e);
+    }
+    attempt.whenComplete((value, failure) -> {
+      if (failure == null) {
+        pipelinedConn.getEndpoint().updateLastExecute();
+        result.complete(value);
+      } else {
+        // the failure is handled, and the op retried, off the connection's reader thread
+        executeOnExecutor(server, op, executor, result, () -> {
+          Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+              ? failure.getCause() : failure;
+          // This method will throw an exception if the op should not be retried
+          handleException(cause, pipelinedConn, 0, false);
+          ((AbstractOp) op).getMessage().setIsRetry();
+        });
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Executes the given op with retries on the given executor and completes the given future with
+   * its result
+   *
+   * @param beforeExecute run on the executor before the op is executed, unless null
+   */
+  private void executeOnExecutor(ServerLocation server, Op op, Executor executor,
+      CompletableFuture<Object> result, Runnable beforeExecute) {
+    try {
+      executor.execute(() -> {
+        try {
+          if (beforeExecute != null) {
+            beforeExecute.run();
+          }
+          result.complete(server == null ? execute(op) : executeOn(server, op));
+        } catch (VirtualMachineError err) {
+          SystemFailure.initiateFailure(err);
+          throw err;
+        } catch (Throwable t) {
+          SystemFailure.checkFailure();
+          result.completeExceptionally(t);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // the pool is closing
+      RuntimeException cancelled = this.cancelCriterion.generateCancelledException(e);
+      result.completeExceptionally(cancelled != null ? cancelled : e);
+    }
+  }
+
   private boolean useThreadLocalConnection(Op op, boolean pingOp) {
     return threadLocalConnections && !pingOp && op.useThreadLocalConnection();
   }
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.io.EOFException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.TXManagerImpl;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Keeps a few {@link PipelinedConnection}s per server that the operations which can be pipelined
+ * share, instead of each of them borrowing a connection of its own from the pool. Operations that
+ * cannot be pipelined, and operations on servers that cannot pipeline, use the pool as before.
+ * <p>
+ * Pipelined connections do not count against the pool's max-connections.
+ */
+public class OpPipeline {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The number of pipelined connections to keep to each server. The default of 0 disables
+   * pipelining.
+   */
+  public static final int PIPELINED_CONNECTIONS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.PIPELINED_CONNECTIONS", 0);
+
+  /**
+   * How long to wait after failing to connect before trying again
+   */
+  private static final long RETRY_CONNECT_INTERVAL = 1000;
+
+  private final ConnectionFactory connectionFactory;
+
+  private final int connectionsPerServer;
+
+  private final int readTimeout;
+
+  private final boolean keepAlive;
+
+  /** the connections to each server, for operations that must go to a particular server */
+  private final ConcurrentMap<ServerLocation, Slots> serverSlots = new ConcurrentHashMap<>();
+
+  /** the connections for operations that may go to any server */
+  private final Slots balancedSlots;
+
+  /** servers that cannot pipeline */
+  private final Set<ServerLocation> unsupportedServers = ConcurrentHashMap.newKeySet();
+
+  private final AtomicInteger nextSlot = new AtomicInteger();
+
+  private volatile boolean closed;
+
+  /**
+   * @param keepAlive whether to keep the client's proxy alive on servers that refuse pipelining
+   *        when their connection is closed
+   */
+  OpPipeline(ConnectionFactory connectionFactory, int connectionsPerServer, int readTimeout,
+      boolean keepAlive) {
+    this.connectionFactory = connectionFactory;
+    this.connectionsPerServer = connectionsPerServer;
+    this.readTimeout = readTimeout;
+    this.keepAlive = keepAlive;
+    this.balancedSlots = new Slots(connectionsPerServer);
+  }
+
+  /**
+   * Returns true if the given operation can share a pipelined connection. Operations in a
+   * transaction cannot since the transaction id of their messages is taken, and neither can those
+   * of multiuser secure mode.
+   */
+  boolean canPipeline(Op op) {
+    return op instanceof AbstractOp && ((AbstractOp) op).canPipeline()
+        && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX
+        && UserAttributes.userAttributes.get() == null;
+  }
+
+  /**
+   * Returns a pipelined connection to any server, or null if there is none.
+   */
+  PipelinedConnection getConnection() {
+    return getConnection(this.balancedSlots, null);
+  }
+
+  /**
+   * Returns a pipelined connection to the given server, or null if there is none.
+   */
+  PipelinedConnection getConnection(ServerLocation server) {
+    if (this.unsupportedServers.contains(server)) {
+      return null;
+    }
+    Slots slots = this.serverSlots.get(server);
+    if (slots == null) {
+      slots = new Slots(this.connectionsPerServer);
+      Slots existing = this.serverSlots.putIfAbsent(server, slots);
+      if (existing != null) {
+        slots = existing;
+      }
+    }
+    return getConnection(slots, server);
+  }
+
+  private PipelinedConnection getConnection(Slots slots, ServerLocation server) {
+    if (this.closed) {
+      return null;
+    }
+    final int slot = (this.nextSlot.getAndIncrement() & Integer.MAX_VALUE) % slots.length();
+    PipelinedConnection connection = slots.get(slot);
+    if (connection != null && !connection.isDestroyed()) {
+      return connection;
+    }
+    if (System.currentTimeMillis() < slots.retryConnectTime) {
+      return null;
+    }
+    synchronized (slots) {
+      connection = slots.get(slot);
+      if (connection != null && !connection.isDestroyed()) {
+        return connection;
+      }
+      connection = connect(server);
+      if (connection == null) {
+        slots.retryConnectTime = System.currentTimeMillis() + RETRY_CONNECT_INTERVAL;
+      }
+      slots.set(slot, connection);
+    }
+    if (this.closed && connection != null) {
+      // raced with close
+      connection.destroy();
+      return null;
+    }
+    return connection;
+  }
+
+  /**
+   * Connects to the given server, or to any server that may pipeline if it is null, and asks the
+   * server to pipeline the connection.
+   *
+   * @return the pipelined connection, or null if there is no server that will pipeline it
+   */
+  private PipelinedConnection connect(ServerLocation server) {
+    Connection connection = null;
+    try {
+      if (server == null) {
+        connection = this.connectionFactory.createClientToServerConnection(this.unsupportedServers);
+      } else {
+        connection = this.connectionFactory.createClientToServerConnection(server, false);
+      }
+      if (connection == null) {
+        return null;
+      }
+      // secure replies change the connection id that the next request must carry
+      if (connection.getServer().getRequiresCredentials()
+          || !EnablePipeliningOp.execute(connection)) {
+        refused(connection);
+        connection.close(this.keepAlive);
+        return null;
+      }
+      PipelinedConnection pipelined = new PipelinedConnection(connection, this.readTimeout);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Created {}", pipelined);
+      }
+      return pipelined;
+    } catch (EOFException e) {
+      // a server of an older version closes the connection on a message type it does not know
+      refused(connection);
+      connection.destroy();
+      return null;
+    } catch (Exception e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to create a pipelined connection to {}", server, e);
+      }
+      if (connection != null) {
+        connection.destroy();
+      }
+      return null;
+    }
+  }
+
+  private void refused(Connection connection) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("Server {} does not pipeline connections", connection.getServer());
+    }
+    this.unsupportedServers.add(connection.getServer());
+  }
+
+  /**
+   * Closes all the pipelined connections.
+   */
+  void close(boolean keepAlive) {
+    this.closed = true;
+    close(this.balancedSlots, keepAlive);
+    for (Slots slots : this.serverSlots.values()) {
+      close(slots, keepAlive);
+    }
+    this.serverSlots.clear();
+  }
+
+  private void close(Slots slots, boolean keepAlive) {
+    for (int i = 0; i < slots.length(); i++) {
+      PipelinedConnection connection = slots.getAndSet(i, null);
+      if (connection != null) {
+        try {
+          connection.close(keepAlive);
+        } catch (Exception e) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Error closing {}", connection, e);
+          }
+        }
+      }
+    }
+  }
+
+  private static class Slots extends AtomicReferenceArray<PipelinedConnection> {
+    private static final long serialVersionUID = 1L;
+
+    /** when to try connecting again after failing to, written while synchronized on this */
+    private volatile long retryConnectTime;
+
+    Slots(int length) {
+      super(length);
+    }
+  }
+}
@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.TXManagerImpl;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * A client to server connection that many operations use at the same time. Each operation sends
+ * its request with a transaction id of its own, the server executes the requests concurrently and
+ * answers each with the same transaction id, and a reader thread hands each reply to the operation
+ * waiting for it, in whatever order the replies arrive.
+ * <p>
+ * The server must have agreed to pipeline the connection with {@link EnablePipeliningOp} first.
+ *
+ * @see OpPipeline
+ */
+public class PipelinedConnection implements Connection {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private final Connection connection;
+
+  /** held while a request is written to the connection */
+  private final Lock sendLock = new ReentrantLock();
+
+  private final AtomicInteger lastCorrelationId = new AtomicInteger();
+
+  private final ConcurrentMap<Integer, CompletableFuture<Message>> pendingReplies =
+      new ConcurrentHashMap<>();
+
+  private final AtomicBoolean destroyed = new AtomicBoolean();
+
+  /** how long an operation waits for its reply, 0 for ever */
+  private final int readTimeout;
+
+  /** the comm buffer the reader thread reads replies through */
+  private final ByteBuffer readBuffer;
+
+  /**
+   * Wraps the given connection, which the server has agreed to pipeline, and starts reading its
+   * replies.
+   */
+  PipelinedConnection(Connection connection, int readTimeout) throws IOException {
+    this.connection = connection;
+    this.readTimeout = readTimeout;
+    Socket socket = connection.getSocket();
+    // the reader waits for replies for as long as the connection is open. Each operation times
+    // out on its own.
+    socket.setSoTimeout(0);
+    this.readBuffer =
+        ServerConnection.allocateCommBuffer(connection.getCommBuffer().capacity(), socket);
+    Thread reader = new Thread(
+        LoggingThreadGroup.createThreadGroup("Pipelined Connection Readers", logger),
+        this::readReplies, "Pipelined Connection Reader for " + connection.getServer());
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  /**
+   * Identifies the reply an operation waits for
+   */
+  static class PendingReply {
+    private final int correlationId;
+    private final CompletableFuture<Message> future;
+
+    private PendingReply(int correlationId, CompletableFuture<Message> future) {
+      this.correlationId = correlationId;
+      this.future = future;
+    }
+  }
+
+  /**
+   * Sends the message of the given operation, with a transaction id that matches it to its reply.
+   */
+  PendingReply send(AbstractOp op) throws Exception {
+    final int correlationId = this.lastCorrelationId.incrementAndGet() & Integer.MAX_VALUE;
+    final CompletableFuture<Message> future = new CompletableFuture<>();
+    this.pendingReplies.put(correlationId, future);
+    boolean sent = false;
+    try {
+      if (isDestroyed()) {
+        throw new ConnectionDestroyedException();
+      }
+      final Message message = op.getMessage();
+      this.sendLock.lock();
+      try {
+        message.setTransactionId(correlationId);
+        op.attemptSend(this);
+      } finally {
+        // a retry of this operation must not reuse the transaction id
+        message.setTransactionId(TXManagerImpl.NOTX);
+        this.sendLock.unlock();
+      }
+      sent = true;
+    } finally {
+      if (!sent) {
+        this.pendingReplies.remove(correlationId);
+      }
+    }
+    return new PendingReply(correlationId, future);
+  }
+
+  /**
+   * Waits for the given reply for up to the read timeout.
+   *
+   * @throws SocketTimeoutException if the reply did not arrive in time
+   */
+  Message receive(PendingReply reply) throws Exception {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.readTimeout);
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          if (this.readTimeout <= 0) {
+            return reply.future.get();
+          }
+          return reply.future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+          // like a blocking socket read, waiting for a reply is not interruptible
+          interrupted = true;
+        } catch (TimeoutException e) {
+          this.pendingReplies.remove(reply.correlationId);
+          throw new SocketTimeoutException(
+              "Timed out after " + this.readTimeout + " ms waiting for a pipelined reply");
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof Exception) {
+            throw (Exception) cause;
+          }
+          throw new InternalGemFireException(cause);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Returns a future of the given reply that the reader thread completes when the reply arrives,
+   * so that the caller does not wait for it. The future fails with a SocketTimeoutException if the
+   * reply has not arrived within the read timeout, which the given timer enforces.
+   */
+  CompletableFuture<Message> receiveAsync(PendingReply reply, ScheduledExecutorService timer) {
+    if (this.readTimeout > 0 && !reply.future.isDone()) {
+      try {
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+          if (this.pendingReplies.remove(reply.correlationId, reply.future)) {
+            reply.future.completeExceptionally(new SocketTimeoutException(
+                "Timed out after " + this.readTimeout + " ms waiting for a pipelined reply"));
+          }
+        }, this.readTimeout, TimeUnit.MILLISECONDS);
+        reply.future.whenComplete((message, failure) -> timeout.cancel(false));
+      } catch (RejectedExecutionException e) {
+        // the pool is closing, which fails the replies still pending
+      }
+    }
+    return reply.future;
+  }
+
+  private void readReplies() {
+    try {
+      while (!isDestroyed()) {
+        Message reply = new Message(1, Version.CURRENT);
+        reply.setComms(getSocket(), getInputStream(), getOutputStream(), this.readBuffer,
+            getStats());
+        try {
+          reply.receive();
+        } finally {
+          reply.unsetComms();
+        }
+        CompletableFuture<Message> future = this.pendingReplies.remove(reply.getTransactionId());
+        if (future != null) {
+          future.complete(reply);
+        } else if (logger.isDebugEnabled()) {
+          // the operation timed out
+          logger.debug("{} dropping reply with transaction id {}", this,
+              reply.getTransactionId());
+        }
+      }
+    } catch (Exception e) {
+      if (!isDestroyed()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("{} failed reading a pipelined reply", this, e);
+        }
+        failPendingReplies(e);
+        destroy();
+      }
+    } finally {
+      ServerConnection.releaseCommBuffer(this.readBuffer);
+    }
+  }
+
+  private void failPendingReplies(Exception cause) {
+    Iterator<CompletableFuture<Message>> it = this.pendingReplies.values().iterator();
+    while (it.hasNext()) {
+      CompletableFuture<Message> future = it.next();
+      it.remove();
+      future.completeExceptionally(cause);
+    }
+  }
+
+  @Override
+  public Object execute(Op op) throws Exception {
+    Object result = ((AbstractOp) op).attemptPipelined(this);
+    getEndpoint().updateLastExecute();
+    return result;
+  }
+
+  @Override
+  public void destroy() {
+    if (!this.destroyed.compareAndSet(false, true)) {
+      return;
+    }
+    // operations still waiting will be retried on other connections to the same server
+    failPendingReplies(new ConnectionDestroyedException());
+    this.connection.destroy();
+  }
+
+  @Override
+  public boolean isDestroyed() {
+    return this.destroyed.get();
+  }
+
+  @Override
+  public void close(boolean keepAlive) throws Exception {
+    try {
+      if (!isDestroyed()) {
+        CloseConnectionOp.execute(this, keepAlive);
+      }
+    } finally {
+      destroy();
+    }
+  }
+
+  @Override
+  public void emergencyClose() {
+    this.destroyed.set(true);
+    this.connection.emergencyClose();
+  }
+
+  @Override
+  public Socket getSocket() {
+    return this.connection.getSocket();
+  }
+
+  @Override
+  public ByteBuffer getCommBuffer() throws SocketException {
+    return this.connection.getCommBuffer();
+  }
+
+  @Override
+  public ConnectionStats getStats() {
+    return this.connection.getStats();
+  }
+
+  @Override
+  public ServerLocation getServer() {
+    return this.connection.getServer();
+  }
+
+  @Override
+  public Endpoint getEndpoint() {
+    return this.connection.getEndpoint();
+  }
+
+  @Override
+  public ServerQueueStatus getQueueStatus() {
+    return this.connection.getQueueStatus();
+  }
+
+  @Override
+  public short getWanSiteVersion() {
+    return this.connection.getWanSiteVersion();
+  }
+
+  @Override
+  public void setWanSiteVersion(short wanSiteVersion) {
+    this.connection.setWanSiteVersion(wanSiteVersion);
+  }
+
+  @Override
+  public int getDistributedSystemId() {
+    return this.connection.getDistributedSystemId();
+  }
+
+  @Override
+  public OutputStream getOutputStream() {
+    return this.connection.getOutputStream();
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return this.connection.getInputStream();
+  }
+
+  @Override
+  public void setConnectionID(long id) {
+    this.connection.setConnectionID(id);
+  }
+
+  @Override
+  public long getConnectionID() {
+    return this.connection.getConnectionID();
+  }
+
+  @Override
+  public String toString() {
+    return "PipelinedConnection[" + this.connection + "]";
+  }
+}
@@ -25,9 +25,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -43,6 +47,7 @@ import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionService;
 import org.apache.geode.cache.client.Pool;
 import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.pooling.ConnectionManager;
 import org.apache.geode.cache.client.internal.pooling.ConnectionManagerImpl;
@@ -89,6 +94,13 @@ public class PoolImpl implements InternalPool {
   private static final int BACKGROUND_TASK_POOL_KEEP_ALIVE = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.BACKGROUND_TASK_POOL_KEEP_ALIVE", 1000);
 
+  /**
+   * The most threads that execute asynchronous region operations which cannot be sent without
+   * blocking a thread. Fewer are used if the pool has fewer max-connections.
+   */
+  private static final int ASYNC_EXECUTOR_THREADS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.ASYNC_EXECUTOR_THREADS", 16);
+
   /**
    * For durable client tests only. Connection Sources read this flag and return an empty list of
    * servers.
@@ -131,7 +143,10 @@ public class PoolImpl implements InternalPool {
   protected volatile boolean destroyed;
   private final PoolStats stats;
   private ScheduledExecutorService backgroundProcessor;
+  /** executes the ops of asynchronous region operations that cannot be pipelined */
+  private ExecutorService asyncExecutor;
   private final OpExecutorImpl executor;
+  private final OpPipeline opPipeline;
   private final RegisterInterestTracker riTracker = new RegisterInterestTracker();
   private final InternalDistributedSystem dsys;
   private InternalCache cache;
@@ -259,6 +274,15 @@ public class PoolImpl implements InternalPool {
     manager = new ConnectionManagerImpl(name, connectionFactory, endpointManager, maxConnections,
         minConnections, idleTimeout, loadConditioningInterval, securityLogWriter, pingInterval,
         cancelCriterion, getStats());
+    // pipelined connections cannot carry a transaction or the credentials of multiple users, and a
+    // thread local connection already keeps an op from waiting for a connection
+    if (OpPipeline.PIPELINED_CONNECTIONS > 0 && !usedByGateway && !threadLocalConnections
+        && !multiuserSecureModeEnabled) {
+      opPipeline = new OpPipeline(connectionFactory, OpPipeline.PIPELINED_CONNECTIONS, readTimeout,
+          isDurableClient());
+    } else {
+      opPipeline = null;
+    }
     // Fix for 43468 - make sure we check the cache cancel criterion if we get
     // an exception, by passing in the poolOrCache stopper
     executor = new OpExecutorImpl(manager, queueManager, endpointManager, riTracker, retryAttempts,
@@ -329,6 +353,21 @@ public class PoolImpl implements InternalPool {
         .setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
     ((ScheduledThreadPoolExecutorWithKeepAlive) backgroundProcessor)
         .setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    final String asyncThreadName = "Pool Async Executor-" + getName() + "-";
+    final int asyncThreads = maxConnections > 0
+        ? Math.min(ASYNC_EXECUTOR_THREADS, maxConnections) : ASYNC_EXECUTOR_THREADS;
+    ThreadPoolExecutor asyncThreadPool = new ThreadPoolExecutor(asyncThreads, asyncThreads, 60,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ThreadFactory() {
+          AtomicInteger threadNum = new AtomicInteger();
+
+          public Thread newThread(final Runnable r) {
+            Thread result = new Thread(r, asyncThreadName + threadNum.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+          }
+        });
+    asyncThreadPool.allowCoreThreadTimeOut(true);
+    asyncExecutor = asyncThreadPool;
 
     source.start(this);
     connectionFactory.start(backgroundProcessor);
@@ -618,6 +657,14 @@ public class PoolImpl implements InternalPool {
             e);
       }
 
+      try {
+        if (this.opPipeline != null) {
+          opPipeline.close(keepAlive);
+        }
+      } catch (RuntimeException e) {
+        logger.error("Error encountered while closing pipelined connections", e);
+      }
+
       try {
         if (this.manager != null) {
           manager.close(keepAlive);
@@ -627,6 +674,11 @@ public class PoolImpl implements InternalPool {
             LocalizedStrings.PoolImpl_ERROR_ENCOUNTERED_WHILE_STOPPING_CONNECTION_MANAGER), e);
       }
 
+      if (this.asyncExecutor != null) {
+        // ops still queued fail since the pool is destroyed
+        asyncExecutor.shutdown();
+      }
+
       try {
         endpointManager.close();
       } catch (RuntimeException e) {
@@ -822,6 +874,73 @@ public class PoolImpl implements InternalPool {
     return executor.executeOn(server, op, accessed, onlyUseExistingCnx);
   }
 
+  /**
+   * Execute the given op on the servers that this pool connects to without waiting for it. The op
+   * is retried like one given to {@link #execute(Op)}.
+   *
+   * @param op the operation to execute
+   * @return a future of the result of execution, which may be completed by the thread that reads
+   *         the server's reply
+   */
+  public CompletableFuture<Object> executeAsync(Op op) {
+    authenticateIfRequired(op);
+    return executor.executeAsync(null, op, asyncExecutor, backgroundProcessor);
+  }
+
+  /**
+   * Execute the given op on the given server without waiting for it.
+   *
+   * @param server the server to do the execution on
+   * @param op the operation to execute
+   * @return a future of the result of execution, which may be completed by the thread that reads
+   *         the server's reply
+   */
+  public CompletableFuture<Object> executeOnAsync(ServerLocation server, Op op) {
+    authenticateIfRequired(server, op);
+    return executor.executeAsync(server, op, asyncExecutor, backgroundProcessor);
+  }
+
+  /**
+   * Executes the given op on the server that single hop found to host its bucket without waiting
+   * for it. If that server cannot be reached it is forgotten as the bucket's server and the op is
+   * executed on any server, like the ops do when waiting for their result.
+   */
+  CompletableFuture<Object> executeOnBucketServerAsync(ServerLocation server, Op op,
+      ClientMetadataService cms) {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    executeOnAsync(new ServerLocation(server.getHostName(), server.getPort()), op)
+        .whenComplete((value, failure) -> {
+          if (failure == null) {
+            result.complete(value);
+          } else if (failure instanceof ServerConnectivityException
+              && !(failure instanceof ServerOperationException)) {
+            cms.removeBucketServerLocation(server);
+            try {
+              executeAsync(op).whenComplete((retryValue, retryFailure) -> {
+                if (retryFailure == null) {
+                  result.complete(retryValue);
+                } else {
+                  result.completeExceptionally(retryFailure);
+                }
+              });
+            } catch (RuntimeException e) {
+              result.completeExceptionally(e);
+            }
+          } else {
+            result.completeExceptionally(failure);
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Returns the executor that runs the asynchronous operations of this pool's regions that cannot
+   * be sent without blocking a thread
+   */
+  public ExecutorService getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
   /**
    * Execute the given op on the given connection.
    *
@@ -1011,6 +1130,14 @@ public class PoolImpl implements InternalPool {
 
   }
 
+  /**
+   * Returns the pipelined connections that ops which can be pipelined share, or null if this pool
+   * does not pipeline ops.
+   */
+  OpPipeline getOpPipeline() {
+    return this.opPipeline;
+  }
+
   public boolean isDurableClient() {
     boolean isDurable = false;
     DistributionConfig config = dsys.getConfig();
@@ -23,6 +23,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.logging.log4j.Logger;
 
@@ -163,14 +164,15 @@ public class PutAllOp {
         result.addKeys(succeedKeySet);
       }
 
-      // send maps for the failed servers one by one instead of merging
+      // send maps for the failed servers separately instead of merging
       // them into one big map. The reason is, we have to keep the same event
       // ids for each sub map. There is a unit test in PutAllCSDUnitTest for
-      // the otherwise case.
+      // the otherwise case. The sub maps are sent at the same time.
       boolean oneSubMapRetryFailed = false;
-      Set<ServerLocation> failedServerSet = failedServers.keySet();
-      for (ServerLocation failedServer : failedServerSet) {
-        RuntimeException savedRTE = failedServers.get(failedServer);
+      Map<ServerLocation, Callable<VersionedObjectList>> retryTasks =
+          new HashMap<ServerLocation, Callable<VersionedObjectList>>();
+      for (Map.Entry<ServerLocation, RuntimeException> failedServer : failedServers.entrySet()) {
+        RuntimeException savedRTE = failedServer.getValue();
         if (savedRTE instanceof PutAllPartialResultException) {
           // will not retry for PutAllPartialResultException
           // but it means at least one sub map ever failed
@@ -178,32 +180,37 @@ public class PutAllOp {
           continue;
         }
         Map newMap = new LinkedHashMap();
-        Set keySet = serverToFilterMap.get(failedServer);
+        Set keySet = serverToFilterMap.get(failedServer.getKey());
         for (Object key : keySet) {
           newMap.put(key, map.get(key));
         }
+        retryTasks.put(failedServer.getKey(), () -> PutAllOp.execute(pool, region, newMap, eventId,
+            skipCallbacks, true, callbackArg));
+      }
 
-        try {
-          VersionedObjectList v =
-              PutAllOp.execute(pool, region, newMap, eventId, skipCallbacks, true, callbackArg);
-          if (v == null) {
-            result.addKeys(keySet);
-          } else {
-            result.addKeysAndVersions(v);
-          }
-        } catch (PutAllPartialResultException pre) {
+      Map<ServerLocation, Object> retryResults =
+          SingleHopClientExecutor.submitBulkOpRetries(retryTasks);
+      for (Map.Entry<ServerLocation, Object> retryResult : retryResults.entrySet()) {
+        Set keySet = serverToFilterMap.get(retryResult.getKey());
+        Object value = retryResult.getValue();
+        if (value instanceof PutAllPartialResultException) {
+          PutAllPartialResultException pre = (PutAllPartialResultException) value;
           oneSubMapRetryFailed = true;
           if (logger.isDebugEnabled()) {
             logger.debug("Retry failed with PutAllPartialResultException: {} Before retry: {}", pre,
                 result.getKeyListString());
           }
           result.consolidate(pre.getResult());
-        } catch (Exception rte) {
+        } else if (value instanceof Exception) {
           oneSubMapRetryFailed = true;
-          Object firstKey = newMap.keySet().iterator().next();
-          result.saveFailedKey(firstKey, rte);
+          Object firstKey = keySet.iterator().next();
+          result.saveFailedKey(firstKey, (Exception) value);
+        } else if (value == null) {
+          result.addKeys(keySet);
+        } else {
+          result.addKeysAndVersions((VersionedObjectList) value);
         }
-      } // for failedServer
+      }
 
       // If all retries succeeded, the PRE in first tries can be ignored
       if (oneSubMapRetryFailed && result.hasFailure()) {
@@ -16,6 +16,7 @@ package org.apache.geode.cache.client.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.Logger;
 
@@ -91,6 +92,30 @@ public class PutOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does a region put on a server like {@link #execute} but without waiting for the server's
+   * reply.
+   *
+   * @return a future of the result of the put
+   */
+  public static CompletableFuture<Object> executeAsync(PoolImpl pool, LocalRegion region,
+      Object key, Object value, byte[] deltaBytes, EntryEventImpl event, Operation operation,
+      boolean requireOldValue, Object expectedOldValue, Object callbackArg,
+      boolean prSingleHopEnabled) {
+    PutOpImpl op = new PutOpImpl(region, key, value, deltaBytes, event, operation, requireOldValue,
+        expectedOldValue, callbackArg, false/* donot send full obj; send delta */,
+        prSingleHopEnabled);
+    if (prSingleHopEnabled) {
+      ClientMetadataService cms = region.getCache().getClientMetadataService();
+      ServerLocation server =
+          cms.getBucketServerLocation(region, Operation.UPDATE, key, value, callbackArg);
+      if (server != null) {
+        return pool.executeOnBucketServerAsync(server, op, cms);
+      }
+    }
+    return pool.executeAsync(op);
+  }
+
   public static Object execute(ExecutablePool pool, String regionName, Object key, Object value,
       byte[] deltaBytes, EntryEventImpl event, Operation operation, boolean requireOldValue,
       Object expectedOldValue, Object callbackArg, boolean prSingleHopEnabled,
@@ -414,6 +439,11 @@ public class PutOp {
       return ret;
     }
 
+    @Override
+    protected boolean canPipeline() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.PUT_DATA_ERROR;
@@ -48,13 +48,14 @@ public class RegisterInterestOp {
    * @param policy the interest result policy for this registration
    * @param isDurable true if this registration is durable
    * @param regionDataPolicy the data policy ordinal of the region
+   * @param nearCache whether the registration without values is for a near cache of the region
    * @return list of keys
    */
   public static List execute(ExecutablePool pool, String region, Object key, int interestType,
       InterestResultPolicy policy, boolean isDurable, boolean receiveUpdatesAsInvalidates,
-      byte regionDataPolicy) {
+      byte regionDataPolicy, boolean nearCache) {
     AbstractOp op = new RegisterInterestOpImpl(region, key, interestType, policy, isDurable,
-        receiveUpdatesAsInvalidates, regionDataPolicy);
+        receiveUpdatesAsInvalidates, regionDataPolicy, nearCache);
     return (List) pool.executeOnQueuesAndReturnPrimaryResult(op);
   }
 
@@ -70,13 +71,14 @@ public class RegisterInterestOp {
    * @param policy the interest result policy for this registration
    * @param isDurable true if this registration is durable
    * @param regionDataPolicy the data policy ordinal of the region
+   * @param nearCache whether the registration without values is for a near cache of the region
    * @return list of keys
    */
   public static List executeOn(ServerLocation sl, ExecutablePool pool, String region, Object key,
       int interestType, InterestResultPolicy policy, boolean isDurable,
-      boolean receiveUpdatesAsInvalidates, byte regionDataPolicy) {
+      boolean receiveUpdatesAsInvalidates, byte regionDataPolicy, boolean nearCache) {
     AbstractOp op = new RegisterInterestOpImpl(region, key, interestType, policy, isDurable,
-        receiveUpdatesAsInvalidates, regionDataPolicy);
+        receiveUpdatesAsInvalidates, regionDataPolicy, nearCache);
     return (List) pool.executeOn(sl, op);
   }
 
@@ -93,13 +95,14 @@ public class RegisterInterestOp {
    * @param policy the interest result policy for this registration
    * @param isDurable true if this registration is durable
    * @param regionDataPolicy the data policy ordinal of the region
+   * @param nearCache whether the registration without values is for a near cache of the region
    * @return list of keys
    */
   public static List executeOn(Connection conn, ExecutablePool pool, String region, Object key,
       int interestType, InterestResultPolicy policy, boolean isDurable,
-      boolean receiveUpdatesAsInvalidates, byte regionDataPolicy) {
+      boolean receiveUpdatesAsInvalidates, byte regionDataPolicy, boolean nearCache) {
     AbstractOp op = new RegisterInterestOpImpl(region, key, interestType, policy, isDurable,
-        receiveUpdatesAsInvalidates, regionDataPolicy);
+        receiveUpdatesAsInvalidates, regionDataPolicy, nearCache);
     return (List) pool.executeOn(conn, op);
   }
 
@@ -116,7 +119,7 @@ public class RegisterInterestOp {
      */
     public RegisterInterestOpImpl(String region, Object key, int interestType,
         InterestResultPolicy policy, boolean isDurable, boolean receiveUpdatesAsInvalidates,
-        byte regionDataPolicy) {
+        byte regionDataPolicy, boolean nearCache) {
       super(MessageType.REGISTER_INTEREST, 7);
       this.region = region;
       getMessage().addStringPart(region);
@@ -128,7 +131,13 @@ public class RegisterInterestOp {
       }
       getMessage().addStringOrObjPart(key);
       byte notifyByte = (byte) (receiveUpdatesAsInvalidates ? 0x01 : 0x00);
-      getMessage().addBytesPart(new byte[] {notifyByte});
+      if (nearCache) {
+        // The second byte tells the server that the interest is for a near cache. Older servers
+        // only read the first one.
+        getMessage().addBytesPart(new byte[] {notifyByte, (byte) 0x01});
+      } else {
+        getMessage().addBytesPart(new byte[] {notifyByte});
+      }
 
       // The second byte '1' below tells server to serialize values in VersionObjectList.
       // Java clients always expect serializeValues to be true in VersionObjectList unlike Native
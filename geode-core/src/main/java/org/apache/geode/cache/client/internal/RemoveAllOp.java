@@ -22,6 +22,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.logging.log4j.Logger;
 
@@ -158,40 +159,47 @@ public class RemoveAllOp {
         result.addKeys(succeedKeySet);
       }
 
-      // send maps for the failed servers one by one instead of merging
+      // send maps for the failed servers separately instead of merging
       // them into one big map. The reason is, we have to keep the same event
       // ids for each sub map. There is a unit test in PutAllCSDUnitTest for
-      // the otherwise case.
+      // the otherwise case. The sub maps are sent at the same time.
       boolean oneSubMapRetryFailed = false;
-      Set<ServerLocation> failedServerSet = failedServers.keySet();
-      for (ServerLocation failedServer : failedServerSet) {
-        RuntimeException savedRTE = failedServers.get(failedServer);
+      Map<ServerLocation, Callable<VersionedObjectList>> retryTasks =
+          new HashMap<ServerLocation, Callable<VersionedObjectList>>();
+      for (Map.Entry<ServerLocation, RuntimeException> failedServer : failedServers.entrySet()) {
+        RuntimeException savedRTE = failedServer.getValue();
         if (savedRTE instanceof PutAllPartialResultException) {
           // will not retry for BulkOpPartialResultException
           // but it means at least one sub map ever failed
           oneSubMapRetryFailed = true;
           continue;
         }
-        Collection<Object> newKeys = serverToFilterMap.get(failedServer);
-        try {
-          VersionedObjectList v =
-              RemoveAllOp.execute(pool, region, newKeys, eventId, true, callbackArg);
-          if (v == null) {
-            result.addKeys(newKeys);
-          } else {
-            result.addKeysAndVersions(v);
-          }
-        } catch (PutAllPartialResultException pre) {
+        Collection<Object> newKeys = serverToFilterMap.get(failedServer.getKey());
+        retryTasks.put(failedServer.getKey(),
+            () -> RemoveAllOp.execute(pool, region, newKeys, eventId, true, callbackArg));
+      }
+
+      Map<ServerLocation, Object> retryResults =
+          SingleHopClientExecutor.submitBulkOpRetries(retryTasks);
+      for (Map.Entry<ServerLocation, Object> retryResult : retryResults.entrySet()) {
+        Collection<Object> newKeys = serverToFilterMap.get(retryResult.getKey());
+        Object value = retryResult.getValue();
+        if (value instanceof PutAllPartialResultException) {
+          PutAllPartialResultException pre = (PutAllPartialResultException) value;
           oneSubMapRetryFailed = true;
           logger.debug("Retry failed with BulkOpPartialResultException: {} Before retry: {}", pre,
               result.getKeyListString());
           result.consolidate(pre.getResult());
-        } catch (Exception rte) {
+        } else if (value instanceof Exception) {
           oneSubMapRetryFailed = true;
           Object firstKey = newKeys.iterator().next();
-          result.saveFailedKey(firstKey, rte);
+          result.saveFailedKey(firstKey, (Exception) value);
+        } else if (value == null) {
+          result.addKeys(newKeys);
+        } else {
+          result.addKeysAndVersions((VersionedObjectList) value);
         }
-      } // for failedServer
+      }
 
       // If all retries succeeded, the PRE in first tries can be ignored
       if (oneSubMapRetryFailed && result.hasFailure()) {
@@ -20,6 +20,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.Logger;
 
@@ -114,6 +115,16 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
         this.pool.getPRSingleHopEnabled(), clientEvent);
   }
 
+  /**
+   * Does a get on the server without waiting for its reply. Must not be called in a transaction.
+   *
+   * @return a future of the value found by the get if any
+   */
+  public CompletableFuture<Object> getAsync(Object key, Object callbackArg,
+      EntryEventImpl clientEvent) {
+    return GetOp.executeAsync((PoolImpl) this.pool, this.region, key, callbackArg,
+        this.pool.getPRSingleHopEnabled(), clientEvent);
+  }
 
 
   public int size() {
@@ -162,6 +173,22 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
   }
 
 
+  /**
+   * Does a put on the server without waiting for its reply. Must not be called in a transaction.
+   *
+   * @return a future of the result of the put
+   */
+  public CompletableFuture<Object> putAsync(Object key, Object value, byte[] deltaBytes,
+      EntryEventImpl event, Operation op, Object callbackArg) {
+    Operation operation = op;
+    if (this.region.getDataPolicy() == DataPolicy.EMPTY && op.isCreate()
+        && op != Operation.PUT_IF_ABSENT) {
+      operation = Operation.UPDATE;
+    }
+    return PutOp.executeAsync((PoolImpl) this.pool, this.region, key, value, deltaBytes, event,
+        operation, false, null, callbackArg, this.pool.getPRSingleHopEnabled());
+  }
+
   /**
    * Does a region put on the server using the given connection.
    *
@@ -358,7 +385,8 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
         rit.addSingleInterest(this.region, key, interestType, policy, isDurable,
             receiveUpdatesAsInvalidates);
         result = RegisterInterestOp.execute(this.pool, this.regionName, key, interestType, policy,
-            isDurable, receiveUpdatesAsInvalidates, regionDataPolicy);
+            isDurable, receiveUpdatesAsInvalidates, regionDataPolicy,
+            isNearCacheInterest(receiveUpdatesAsInvalidates));
         //////// TEST PURPOSE ONLY ///////////
         if (PoolImpl.AFTER_REGISTER_CALLBACK_FLAG) {
           ClientServerObserver bo = ClientServerObserverHolder.getInstance();
@@ -464,7 +492,8 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
           isDurable, receiveUpdatesAsInvalidates, regionDataPolicy);
     } else {
       return RegisterInterestOp.executeOn(sl, this.pool, this.regionName, key, interestType, policy,
-          isDurable, receiveUpdatesAsInvalidates, regionDataPolicy);
+          isDurable, receiveUpdatesAsInvalidates, regionDataPolicy,
+          isNearCacheInterest(receiveUpdatesAsInvalidates));
     }
   }
 
@@ -508,10 +537,20 @@ public class ServerRegionProxy extends ServerProxy implements ServerRegionDataAc
           isDurable, receiveUpdatesAsInvalidates, regionDataPolicy);
     } else {
       return RegisterInterestOp.executeOn(conn, this.pool, this.regionName, key, interestType,
-          policy, isDurable, receiveUpdatesAsInvalidates, regionDataPolicy);
+          policy, isDurable, receiveUpdatesAsInvalidates, regionDataPolicy,
+          isNearCacheInterest(receiveUpdatesAsInvalidates));
     }
   }
 
+  /**
+   * Returns whether interest registered without values is for a near cache, whose servers then
+   * need not keep values in the messages they queue only for it
+   */
+  private boolean isNearCacheInterest(boolean receiveUpdatesAsInvalidates) {
+    return receiveUpdatesAsInvalidates && this.region != null
+        && this.region.getNearCache() != null;
+  }
+
 
 
   /**
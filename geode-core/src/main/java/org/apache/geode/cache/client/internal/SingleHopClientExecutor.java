@@ -14,16 +14,21 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -229,74 +234,66 @@ public class SingleHopClientExecutor {
     if (callableTasks != null && !callableTasks.isEmpty()) {
       Map<ServerLocation, Object> resultMap = new HashMap<ServerLocation, Object>();
       boolean anyPartialResults = false;
-      List futures = null;
-      try {
-        futures = execService.invokeAll(callableTasks);
-      } catch (InterruptedException e) {
-        throw new InternalGemFireException(e.getMessage());
-      }
-      if (futures != null) {
-        Iterator futureItr = futures.iterator();
-        Iterator taskItr = callableTasks.iterator();
-        RuntimeException rte = null;
-        final boolean isDebugEnabled = logger.isDebugEnabled();
-        while (futureItr.hasNext() && !execService.isShutdown() && !execService.isTerminated()) {
-          Future fut = (Future) futureItr.next();
-          SingleHopOperationCallable task = (SingleHopOperationCallable) taskItr.next();
-          ServerLocation server = task.getServer();
-          try {
-            VersionedObjectList versions = (VersionedObjectList) fut.get();
+      BlockingQueue<CompletedTask> completedTasks = invokeAll(callableTasks);
+      RuntimeException rte = null;
+      final boolean isDebugEnabled = logger.isDebugEnabled();
+      for (int i = 0; i < callableTasks.size() && !execService.isShutdown()
+          && !execService.isTerminated(); i++) {
+        CompletedTask fut = takeCompletedTask(completedTasks);
+        SingleHopOperationCallable task = (SingleHopOperationCallable) fut.getTask();
+        ServerLocation server = task.getServer();
+        try {
+          VersionedObjectList versions = (VersionedObjectList) fut.get();
+          if (logger.isDebugEnabled()) {
+            logger.debug("submitBulkOp#got result from {}:{}", server, versions);
+          }
+          resultMap.put(server, versions);
+        } catch (InterruptedException e) {
+          InternalGemFireException ige = new InternalGemFireException(e);
+          // only to make this server as failed server, not to throw right now
+          failedServers.put(server, ige);
+          if (rte == null) {
+            rte = ige;
+          }
+        } catch (ExecutionException ee) {
+          if (ee.getCause() instanceof ServerOperationException) {
             if (logger.isDebugEnabled()) {
-              logger.debug("submitBulkOp#got result from {}:{}", server, versions);
+              logger.debug("submitBulkOp#ExecutionException from server {}", server, ee);
             }
-            resultMap.put(server, versions);
-          } catch (InterruptedException e) {
-            InternalGemFireException ige = new InternalGemFireException(e);
+            ServerOperationException soe = (ServerOperationException) ee.getCause();
             // only to make this server as failed server, not to throw right now
-            failedServers.put(server, ige);
+            failedServers.put(server, soe);
             if (rte == null) {
-              rte = ige;
+              rte = soe;
             }
-          } catch (ExecutionException ee) {
-            if (ee.getCause() instanceof ServerOperationException) {
-              if (logger.isDebugEnabled()) {
-                logger.debug("submitBulkOp#ExecutionException from server {}", server, ee);
-              }
-              ServerOperationException soe = (ServerOperationException) ee.getCause();
-              // only to make this server as failed server, not to throw right now
-              failedServers.put(server, soe);
-              if (rte == null) {
-                rte = soe;
-              }
-            } else if (ee.getCause() instanceof ServerConnectivityException) {
-              if (logger.isDebugEnabled()) {
-                logger.debug("submitBulkOp#ExecutionException for server {}", server, ee);
-              }
-              cms = region.getCache().getClientMetadataService();
-              cms.removeBucketServerLocation(server);
-              cms.scheduleGetPRMetaData(region, false);
-              failedServers.put(server, (ServerConnectivityException) ee.getCause());
+          } else if (ee.getCause() instanceof ServerConnectivityException) {
+            if (logger.isDebugEnabled()) {
+              logger.debug("submitBulkOp#ExecutionException for server {}", server, ee);
+            }
+            cms = region.getCache().getClientMetadataService();
+            cms.removeBucketServerLocation(server);
+            cms.scheduleGetPRMetaData(region, false);
+            failedServers.put(server, (ServerConnectivityException) ee.getCause());
+          } else {
+            Throwable t = ee.getCause();
+            if (t instanceof PutAllPartialResultException) {
+              resultMap.put(server, t);
+              anyPartialResults = true;
+              failedServers.put(server, (PutAllPartialResultException) t);
             } else {
-              Throwable t = ee.getCause();
-              if (t instanceof PutAllPartialResultException) {
-                resultMap.put(server, t);
-                anyPartialResults = true;
-                failedServers.put(server, (PutAllPartialResultException) t);
-              } else {
-                RuntimeException other_rte = executionThrowable(ee.getCause());
-                failedServers.put(server, other_rte);
-                if (rte == null) {
-                  rte = other_rte;
-                }
+              RuntimeException other_rte = executionThrowable(ee.getCause());
+              failedServers.put(server, other_rte);
+              if (rte == null) {
+                rte = other_rte;
               }
             }
-          } // catch
-        } // while
-        // if there are any partial results we suppress throwing an exception
-        // so the partial results can be processed
-        if (rte != null && !anyPartialResults) {
-          throw rte;
-        }
+          }
+        } // catch
+      } // for
+      // if there are any partial results we suppress throwing an exception
+      // so the partial results can be processed
+      if (rte != null && !anyPartialResults) {
+        throw rte;
       }
       return resultMap;
     }
@@ -307,80 +304,220 @@ public class SingleHopClientExecutor {
       List callableTasks, ClientMetadataService cms, LocalRegion region) {
 
     if (callableTasks != null && !callableTasks.isEmpty()) {
-      Map<ServerLocation, Object> resultMap = new HashMap<ServerLocation, Object>();
-      List futures = null;
+      List<CompletedTask> submittedTasks = new ArrayList<CompletedTask>(callableTasks.size());
+      BlockingQueue<CompletedTask> completedTasks = invokeAll(callableTasks, submittedTasks);
       try {
-        futures = execService.invokeAll(callableTasks);
-      } catch (InterruptedException e) {
-        throw new InternalGemFireException(e.getMessage());
+        return getAllResults(callableTasks.size(), completedTasks, cms, region);
+      } finally {
+        // don't leave the other tasks running once one of them has failed the whole getAll
+        cancelAll(submittedTasks);
       }
-      if (futures != null) {
-        Iterator futureItr = futures.iterator();
-        Iterator taskItr = callableTasks.iterator();
-        while (futureItr.hasNext() && !execService.isShutdown() && !execService.isTerminated()) {
-          Future fut = (Future) futureItr.next();
-          SingleHopOperationCallable task = (SingleHopOperationCallable) taskItr.next();
-          List keys = ((GetAllOpImpl) task.getOperation()).getKeyList();
-          ServerLocation server = task.getServer();
-          try {
+    }
+    return null;
+  }
 
-            VersionedObjectList valuesFromServer = (VersionedObjectList) fut.get();
-            valuesFromServer.setKeys(keys);
-
-            for (VersionedObjectList.Iterator it = valuesFromServer.iterator(); it.hasNext();) {
-              VersionedObjectList.Entry entry = it.next();
-              Object key = entry.getKey();
-              Object value = entry.getValue();
-              if (!entry.isKeyNotOnServer()) {
-                if (value instanceof Throwable) {
-                  logger.warn(LocalizedMessage.create(
-                      LocalizedStrings.GetAll_0_CAUGHT_THE_FOLLOWING_EXCEPTION_ATTEMPTING_TO_GET_VALUE_FOR_KEY_1,
-                      new Object[] {value, key}), (Throwable) value);
-                }
-              }
-            }
-            if (logger.isDebugEnabled()) {
-              logger.debug("GetAllOp#got result from {}: {}", server, valuesFromServer);
-            }
-            resultMap.put(server, valuesFromServer);
-          } catch (InterruptedException e) {
-            throw new InternalGemFireException(e.getMessage());
-          } catch (ExecutionException ee) {
-            if (ee.getCause() instanceof ServerOperationException) {
-              if (logger.isDebugEnabled()) {
-                logger.debug("GetAllOp#ExecutionException.ServerOperationException : Caused by :{}",
-                    ee.getCause());
-              }
-              throw (ServerOperationException) ee.getCause();
-            } else if (ee.getCause() instanceof ServerConnectivityException) {
-              if (logger.isDebugEnabled()) {
-                logger.debug(
-                    "GetAllOp#ExecutionException.ServerConnectivityException : Caused by :{} The failed server is: {}",
-                    ee.getCause(), server);
-              }
-              try {
-                cms = region.getCache().getClientMetadataService();
-              } catch (CacheClosedException e) {
-                return null;
-              }
-              cms.removeBucketServerLocation(server);
-              cms.scheduleGetPRMetaData((LocalRegion) region, false);
-              resultMap.put(server, ee.getCause());
-            } else {
-              throw executionThrowable(ee.getCause());
+  private static Map<ServerLocation, Object> getAllResults(int taskCount,
+      BlockingQueue<CompletedTask> completedTasks, ClientMetadataService cms, LocalRegion region) {
+    Map<ServerLocation, Object> resultMap = new HashMap<ServerLocation, Object>();
+    for (int i = 0; i < taskCount && !execService.isShutdown()
+        && !execService.isTerminated(); i++) {
+      CompletedTask fut = takeCompletedTask(completedTasks);
+      SingleHopOperationCallable task = (SingleHopOperationCallable) fut.getTask();
+      List keys = ((GetAllOpImpl) task.getOperation()).getKeyList();
+      ServerLocation server = task.getServer();
+      try {
+
+        VersionedObjectList valuesFromServer = (VersionedObjectList) fut.get();
+        valuesFromServer.setKeys(keys);
+
+        for (VersionedObjectList.Iterator it = valuesFromServer.iterator(); it.hasNext();) {
+          VersionedObjectList.Entry entry = it.next();
+          Object key = entry.getKey();
+          Object value = entry.getValue();
+          if (!entry.isKeyNotOnServer()) {
+            if (value instanceof Throwable) {
+              logger.warn(LocalizedMessage.create(
+                  LocalizedStrings.GetAll_0_CAUGHT_THE_FOLLOWING_EXCEPTION_ATTEMPTING_TO_GET_VALUE_FOR_KEY_1,
+                  new Object[] {value, key}), (Throwable) value);
             }
           }
         }
-        return resultMap;
+        if (logger.isDebugEnabled()) {
+          logger.debug("GetAllOp#got result from {}: {}", server, valuesFromServer);
+        }
+        resultMap.put(server, valuesFromServer);
+      } catch (InterruptedException e) {
+        throw new InternalGemFireException(e.getMessage());
+      } catch (ExecutionException ee) {
+        if (ee.getCause() instanceof ServerOperationException) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("GetAllOp#ExecutionException.ServerOperationException : Caused by :{}",
+                ee.getCause());
+          }
+          throw (ServerOperationException) ee.getCause();
+        } else if (ee.getCause() instanceof ServerConnectivityException) {
+          if (logger.isDebugEnabled()) {
+            logger.debug(
+                "GetAllOp#ExecutionException.ServerConnectivityException : Caused by :{} The failed server is: {}",
+                ee.getCause(), server);
+          }
+          try {
+            cms = region.getCache().getClientMetadataService();
+          } catch (CacheClosedException e) {
+            return null;
+          }
+          cms.removeBucketServerLocation(server);
+          cms.scheduleGetPRMetaData((LocalRegion) region, false);
+          resultMap.put(server, ee.getCause());
+        } else {
+          throw executionThrowable(ee.getCause());
+        }
       }
     }
-    return null;
+    return resultMap;
+  }
+
+  /**
+   * Retries the bulk op (putAll or removeAll) sub-maps of the servers that failed, all at the same
+   * time, and returns the result of each retry, either a VersionedObjectList or the exception the
+   * retry threw.
+   *
+   * @param retryTasks the task that retries the sub-map of each failed server
+   * @return the per-server retry results
+   */
+  static Map<ServerLocation, Object> submitBulkOpRetries(
+      Map<ServerLocation, Callable<VersionedObjectList>> retryTasks) {
+    Map<ServerLocation, Object> resultMap = new HashMap<ServerLocation, Object>();
+    List<ServerLocation> servers = new ArrayList<ServerLocation>(retryTasks.keySet());
+    List<Callable> callableTasks = new ArrayList<Callable>(servers.size());
+    for (ServerLocation server : servers) {
+      callableTasks.add(withUserAttributes(retryTasks.get(server)));
+    }
+    BlockingQueue<CompletedTask> completedTasks = invokeAll(callableTasks);
+    for (int i = 0; i < callableTasks.size(); i++) {
+      CompletedTask fut = takeCompletedTask(completedTasks);
+      ServerLocation server = servers.get(fut.getIndex());
+      try {
+        resultMap.put(server, fut.get());
+      } catch (InterruptedException e) {
+        resultMap.put(server, new InternalGemFireException(e));
+      } catch (ExecutionException ee) {
+        if (ee.getCause() instanceof Error) {
+          throw (Error) ee.getCause();
+        }
+        resultMap.put(server, ee.getCause());
+      }
+    }
+    return resultMap;
   }
 
   static void submitTask(Runnable task) {
     execService.execute(task);
   }
 
+  /**
+   * Runs the given tasks at the same time, the first of them in the calling thread and the rest in
+   * the executor, and returns them in the order in which they complete. The result of each task can
+   * then be handled as soon as it arrives instead of after those of the tasks submitted before it.
+   */
+  private static BlockingQueue<CompletedTask> invokeAll(List<? extends Callable> callableTasks) {
+    return invokeAll(callableTasks, new ArrayList<CompletedTask>(callableTasks.size()));
+  }
+
+  /**
+   * Like {@link #invokeAll(List)}, also adding each task to submittedTasks so that the tasks that
+   * have not started yet can be cancelled.
+   */
+  private static BlockingQueue<CompletedTask> invokeAll(List<? extends Callable> callableTasks,
+      List<CompletedTask> submittedTasks) {
+    BlockingQueue<CompletedTask> completedTasks = new LinkedBlockingQueue<CompletedTask>();
+    CompletedTask first = null;
+    for (int i = 0; i < callableTasks.size(); i++) {
+      CompletedTask task = new CompletedTask(callableTasks.get(i), i, completedTasks);
+      submittedTasks.add(task);
+      if (first == null) {
+        first = task;
+      } else {
+        execService.execute(task);
+      }
+    }
+    if (first != null) {
+      first.run();
+    }
+    return completedTasks;
+  }
+
+  /**
+   * Cancels the tasks that have not started yet. Tasks already running are left to complete so
+   * that they return their connections to the pool.
+   */
+  private static void cancelAll(List<CompletedTask> submittedTasks) {
+    for (CompletedTask task : submittedTasks) {
+      task.cancel(false);
+    }
+  }
+
+  private static CompletedTask takeCompletedTask(BlockingQueue<CompletedTask> completedTasks) {
+    try {
+      return completedTasks.take();
+    } catch (InterruptedException e) {
+      throw new InternalGemFireException(e.getMessage());
+    }
+  }
+
+  /**
+   * Returns a task that runs the given one with the user attributes of the calling thread, so that
+   * it can be run by another thread in multiuser mode.
+   */
+  private static <T> Callable<T> withUserAttributes(final Callable<T> task) {
+    final UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    return () -> {
+      UserAttributes previous = UserAttributes.userAttributes.get();
+      UserAttributes.userAttributes.set(userAttributes);
+      try {
+        return task.call();
+      } finally {
+        UserAttributes.userAttributes.set(previous);
+      }
+    };
+  }
+
+  /**
+   * A task that adds itself to a queue when it completes.
+   */
+  private static class CompletedTask extends FutureTask<Object> {
+
+    private final Callable task;
+
+    private final int index;
+
+    private final BlockingQueue<CompletedTask> completedTasks;
+
+    @SuppressWarnings("unchecked")
+    CompletedTask(Callable task, int index, BlockingQueue<CompletedTask> completedTasks) {
+      super(task);
+      this.task = task;
+      this.index = index;
+      this.completedTasks = completedTasks;
+    }
+
+    Callable getTask() {
+      return this.task;
+    }
+
+    /**
+     * Returns the position of the task in the list it was submitted with.
+     */
+    int getIndex() {
+      return this.index;
+    }
+
+    @Override
+    protected void done() {
+      this.completedTasks.add(this);
+    }
+  }
+
   // Find out what exception to throw?
   private static RuntimeException executionThrowable(Throwable t) {
     if (t instanceof RuntimeException)
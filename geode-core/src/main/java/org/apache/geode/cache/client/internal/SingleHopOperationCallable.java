@@ -50,6 +50,8 @@ public class SingleHopOperationCallable implements Callable {
         ((pool.getMaxConnections() != -1 && pool.getConnectionCount() >= pool.getMaxConnections())
             ? true : false);
     op.setAllowDuplicateMetadataRefresh(!onlyUseExistingCnx);
+    // this may be run by the thread that submitted it, so its attributes are put back afterwards
+    UserAttributes previousAttributes = UserAttributes.userAttributes.get();
     try {
       UserAttributes.userAttributes.set(securityAttributes);
       result = this.pool.executeOn(server, op, true, onlyUseExistingCnx);
@@ -65,7 +67,7 @@ public class SingleHopOperationCallable implements Callable {
         result = this.pool.execute(this.op);
       }
     } finally {
-      UserAttributes.userAttributes.set(null);
+      UserAttributes.userAttributes.set(previousAttributes);
     }
     return result;
   }
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.query.NameNotFoundException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.i18n.StringId;
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.pdx.PdxInstance;
+
+/**
+ * Reads an attribute of the objects a query iterates over through a {@link MethodHandle} of the
+ * field or method that {@link AttributeDescriptor} finds for it, instead of reflecting on each
+ * object. The handle of the class of the last object read is remembered, since the objects a path
+ * of a query reads are nearly always of one class. Structs, PdxInstances and tokens are read by
+ * {@link PathUtils#evaluateAttribute} as before.
+ */
+class AttributeAccessor {
+
+  private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  /** the handles of the members of classes read by any query, by member */
+  private static final ConcurrentMap<Member, MethodHandle> handles = new ConcurrentHashMap<>();
+
+  private final String name;
+
+  private volatile Reader lastReader;
+
+  AttributeAccessor(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the value of this attribute of the given object, like
+   * {@link PathUtils#evaluateAttribute} does.
+   *
+   * @param authorizer the authorizer of methods invoked by the query
+   */
+  Object read(ExecutionContext context, MethodInvocationAuthorizer authorizer, Object target)
+      throws NameNotFoundException, QueryInvocationTargetException {
+    if (target == null || target == QueryService.UNDEFINED) {
+      return QueryService.UNDEFINED;
+    }
+    if (target instanceof Struct || target instanceof PdxInstance || target instanceof Token) {
+      return PathUtils.evaluateAttribute(context, target, this.name);
+    }
+    Reader reader = this.lastReader;
+    if (reader == null || reader.targetClass != target.getClass()) {
+      try {
+        reader = newReader(authorizer, target.getClass());
+      } catch (NameNotFoundException e) {
+        if (DefaultQueryService.QUERY_HETEROGENEOUS_OBJECTS
+            || DefaultQueryService.TEST_QUERY_HETEROGENEOUS_OBJECTS) {
+          return QueryService.UNDEFINED;
+        }
+        throw e;
+      }
+      this.lastReader = reader;
+    }
+    if (reader.method != null) {
+      authorizer.authorizeMethodInvocation(reader.method, target);
+    }
+    try {
+      return (Object) reader.handle.invokeExact(target);
+    } catch (EntryDestroyedException e) {
+      return QueryService.UNDEFINED;
+    } catch (Exception e) {
+      throw new QueryInvocationTargetException(e);
+    } catch (Throwable t) {
+      // reflection wraps errors of the method in an InvocationTargetException
+      throw new QueryInvocationTargetException(new InvocationTargetException(t));
+    }
+  }
+
+  private Reader newReader(MethodInvocationAuthorizer authorizer, Class<?> targetClass)
+      throws NameNotFoundException {
+    Member member = new AttributeDescriptor(authorizer, this.name).getReadMember(targetClass);
+    MethodHandle handle = handles.get(member);
+    if (handle == null) {
+      handle = unreflect(member, targetClass);
+      handles.putIfAbsent(member, handle);
+    }
+    return new Reader(targetClass, member instanceof Method ? (Method) member : null, handle);
+  }
+
+  /**
+   * Returns a handle of type (Object)Object of the given field or method, which
+   * {@link AttributeDescriptor#getReadMember} has made accessible
+   */
+  private static MethodHandle unreflect(Member member, Class<?> targetClass)
+      throws NameNotFoundException {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      if (member instanceof Method) {
+        return lookup.unreflect((Method) member).asType(READER_TYPE);
+      }
+      return lookup.unreflectGetter((Field) member).asType(READER_TYPE);
+    } catch (IllegalAccessException e) {
+      StringId message = member instanceof Method
+          ? LocalizedStrings.AttributeDescriptor_METHOD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR
+          : LocalizedStrings.AttributeDescriptor_FIELD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR;
+      throw new NameNotFoundException(
+          message.toLocalizedString(new Object[] {member.getName(), targetClass.getName()}), e);
+    }
+  }
+
+  private static class Reader {
+
+    private final Class<?> targetClass;
+
+    private final Method method;
+
+    private final MethodHandle handle;
+
+    Reader(Class<?> targetClass, Method method, MethodHandle handle) {
+      this.targetClass = targetClass;
+      this.method = method;
+      this.handle = handle;
+    }
+  }
+}
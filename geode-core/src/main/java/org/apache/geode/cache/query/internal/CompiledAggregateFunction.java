@@ -14,6 +14,7 @@
  */
 package org.apache.geode.cache.query.internal;
 
+import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
@@ -21,14 +22,17 @@ import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.aggregate.Avg;
 import org.apache.geode.cache.query.internal.aggregate.AvgBucketNode;
+import org.apache.geode.cache.query.internal.aggregate.AvgBucketNodeCombiner;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinct;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.Count;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinct;
+import org.apache.geode.cache.query.internal.aggregate.CountDistinctApproximateBucketNode;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.CountPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.DistinctAggregator;
+import org.apache.geode.cache.query.internal.aggregate.DistinctBucketNodeCombiner;
 import org.apache.geode.cache.query.internal.aggregate.MaxMin;
 import org.apache.geode.cache.query.internal.aggregate.Sum;
 import org.apache.geode.cache.query.internal.aggregate.SumDistinct;
@@ -36,6 +40,7 @@ import org.apache.geode.cache.query.internal.aggregate.SumDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.distributed.internal.DistributionConfig;
 
 /**
  *
@@ -43,6 +48,14 @@ import org.apache.geode.cache.query.types.ObjectType;
  */
 public class CompiledAggregateFunction extends AbstractCompiledValue {
 
+  /**
+   * Whether count(distinct ...) on a partitioned region may be approximated with HyperLogLog
+   * sketches of the distinct values of the buckets, which the bucket nodes send instead of the
+   * values. Needs to be set on all the members hosting buckets and on the query node.
+   */
+  static final boolean APPROXIMATE_COUNT_DISTINCT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.APPROXIMATE_COUNT_DISTINCT");
+
   private final CompiledValue expr;
   private final int aggFuncType;
   private final boolean distinctOnly;
@@ -96,8 +109,11 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
         if (isPRQueryNode) {
           return this.distinctOnly ? new CountDistinctPRQueryNode() : new CountPRQueryNode();
         } else {
-          return this.distinctOnly ? (isBucketNode ? new DistinctAggregator() : new CountDistinct())
-              : new Count();
+          if (this.distinctOnly && isBucketNode) {
+            return APPROXIMATE_COUNT_DISTINCT ? new CountDistinctApproximateBucketNode()
+                : new DistinctAggregator();
+          }
+          return this.distinctOnly ? new CountDistinct() : new Count();
         }
 
       default:
@@ -107,6 +123,34 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
 
   }
 
+  /**
+   * Returns an aggregator that combines the partial results of this function computed on the
+   * buckets of a member into the partial result of the member, in the same form.
+   */
+  public Aggregator createBucketNodeCombiner() {
+    switch (this.aggFuncType) {
+
+      case OQLLexerTokenTypes.SUM:
+        return this.distinctOnly ? new DistinctBucketNodeCombiner() : new Sum();
+
+      case OQLLexerTokenTypes.MAX:
+        return new MaxMin(true);
+
+      case OQLLexerTokenTypes.MIN:
+        return new MaxMin(false);
+
+      case OQLLexerTokenTypes.AVG:
+        return this.distinctOnly ? new DistinctBucketNodeCombiner() : new AvgBucketNodeCombiner();
+
+      case OQLLexerTokenTypes.COUNT:
+        return this.distinctOnly ? new DistinctBucketNodeCombiner() : new CountPRQueryNode();
+
+      default:
+        throw new UnsupportedOperationException("Aggregate function not implemented");
+
+    }
+  }
+
   private String getStringRep() {
     switch (this.aggFuncType) {
 
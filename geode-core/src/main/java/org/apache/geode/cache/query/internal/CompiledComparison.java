@@ -79,8 +79,18 @@ public class CompiledComparison extends AbstractCompiledValue
 
   public Object evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Object left = _left.evaluate(context);
-    Object right = _right.evaluate(context);
+    return evaluate(context, _left, _right);
+  }
+
+  /**
+   * Evaluates this comparison using the given evaluators of its operands, which are either the
+   * operands themselves or what {@link PredicateCompiler} made of them
+   */
+  Object evaluate(ExecutionContext context, Evaluator leftEvaluator, Evaluator rightEvaluator)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    Object left = leftEvaluator.evaluate(context);
+    Object right = rightEvaluator.evaluate(context);
 
     if (context.isCqQueryContext() && left instanceof Region.Entry) {
       left = ((Region.Entry) left).getValue();
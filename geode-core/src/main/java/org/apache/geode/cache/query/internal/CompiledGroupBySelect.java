@@ -14,8 +14,10 @@
  */
 package org.apache.geode.cache.query.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -197,6 +199,82 @@ public class CompiledGroupBySelect extends CompiledSelect {
     return newResults;
   }
 
+  /**
+   * Combines the results of this select on each of the buckets of a member, which hold partial
+   * aggregates and are merged in the order of the group by columns, into one result per group with
+   * the partial aggregates of the member. The query node then gets a partial result per group from
+   * each member rather than from each bucket.
+   */
+  public List combineBucketNodeResults(Collection sortedResults, ExecutionContext context) {
+    List combined = new ArrayList();
+    ObjectType elementType = getElementTypeForOrderByQueries();
+    boolean isStruct = elementType != null && elementType.isStructType();
+    boolean isGrouped = this.orderByAttrs != null;
+    boolean isSingleOrderBy = !isGrouped || this.orderByAttrs.size() <= 1;
+    Object[] orderByTupleHolderCurrent = null;
+    Object[] orderByTupleHolderPrev = null;
+    if (!isSingleOrderBy) {
+      orderByTupleHolderPrev = new Object[this.orderByAttrs.size()];
+      orderByTupleHolderCurrent = new Object[this.orderByAttrs.size()];
+    }
+    Object orderByCurrent = null;
+    Object orderByPrev = null;
+    boolean[] objectChangedMarker = new boolean[] {false};
+    Aggregator[] combiners = new Aggregator[this.aggregateFunctions.length];
+    createBucketNodeCombiners(combiners);
+    Object prev = null;
+    boolean isFirst = true;
+    for (Object current : sortedResults) {
+      if (isGrouped) {
+        Object data = isStruct ? ((Struct) current).getFieldValues() : current;
+        if (isSingleOrderBy) {
+          orderByCurrent = getOrderByEvaluatedTuple(context, true, null, data, objectChangedMarker);
+        } else {
+          orderByTupleHolderCurrent = (Object[]) getOrderByEvaluatedTuple(context, false,
+              orderByTupleHolderCurrent, data, objectChangedMarker);
+        }
+      }
+      if (!isFirst && isGrouped && !areOrderByTupleEqual(isSingleOrderBy, orderByPrev,
+          orderByCurrent, orderByTupleHolderPrev, orderByTupleHolderCurrent)) {
+        combined.add(terminateCombiners(isStruct, combiners, prev));
+        createBucketNodeCombiners(combiners);
+      }
+      accumulate(isStruct, combiners, current, objectChangedMarker);
+      // swap the holder arrays
+      Object[] temp = orderByTupleHolderCurrent;
+      orderByTupleHolderCurrent = orderByTupleHolderPrev;
+      orderByTupleHolderPrev = temp;
+      orderByPrev = orderByCurrent;
+      prev = current;
+      isFirst = false;
+    }
+    if (!isFirst) {
+      combined.add(terminateCombiners(isStruct, combiners, prev));
+    }
+    return combined;
+  }
+
+  private void createBucketNodeCombiners(Aggregator[] combiners) {
+    int i = 0;
+    for (CompiledAggregateFunction aggFunc : this.aggregateFunctions) {
+      combiners[i++] = aggFunc.createBucketNodeCombiner();
+    }
+  }
+
+  private Object terminateCombiners(boolean isStruct, Aggregator[] combiners, Object prev) {
+    if (!isStruct) {
+      return combiners.length > 0 ? combiners[0].terminate() : prev;
+    }
+    Object[] newRowArray = copyStruct((Struct) prev);
+    int bitstart = 0;
+    for (Aggregator combiner : combiners) {
+      int pos = this.aggregateColsPos.nextSetBit(bitstart);
+      bitstart = pos + 1;
+      newRowArray[pos] = combiner.terminate();
+    }
+    return new StructImpl((StructTypeImpl) ((Struct) prev).getStructType(), newRowArray);
+  }
+
   private SelectResults createResultSet(ExecutionContext context, ObjectType elementType,
       boolean isStruct, boolean createOrderedResults) {
     elementType = createNewElementType(elementType, isStruct);
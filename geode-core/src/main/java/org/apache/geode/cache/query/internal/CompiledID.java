@@ -32,6 +32,8 @@ import org.apache.geode.internal.cache.PartitionedRegion;
 public class CompiledID extends AbstractCompiledValue {
   private String _id;
 
+  /** reads the attribute this names when it resolves to an attribute of an iterator */
+  private volatile AttributeAccessor attributeAccessor;
 
   public CompiledID(String id) {
     _id = id;
@@ -55,6 +57,15 @@ public class CompiledID extends AbstractCompiledValue {
     return _id;
   }
 
+  AttributeAccessor getAttributeAccessor() {
+    AttributeAccessor accessor = this.attributeAccessor;
+    if (accessor == null) {
+      accessor = new AttributeAccessor(_id);
+      this.attributeAccessor = accessor;
+    }
+    return accessor;
+  }
+
 
 
   public int getType() {
@@ -121,7 +121,16 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
 
   public Object evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Object r = _operands[0].evaluate(context); // UNDEFINED, null, or a Boolean
+    return evaluate(context, _operands);
+  }
+
+  /**
+   * Evaluates this junction using the given evaluators of its operands, which are either the
+   * operands themselves or what {@link PredicateCompiler} made of them
+   */
+  Object evaluate(ExecutionContext context, Evaluator[] operands) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    Object r = operands[0].evaluate(context); // UNDEFINED, null, or a Boolean
     // if it's true, and op is or then return true immediately
     // if it's false and the op is and then return false immediately
     if (r instanceof Boolean)
@@ -136,10 +145,10 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       throw new TypeMismatchException(
           LocalizedStrings.CompiledJunction_LITERAL_ANDLITERAL_OR_OPERANDS_MUST_BE_OF_TYPE_BOOLEAN_NOT_TYPE_0
               .toLocalizedString(r.getClass().getName()));
-    for (int i = 1; i < _operands.length; i++) {
+    for (int i = 1; i < operands.length; i++) {
       Object ri = null;
       try {
-        ri = _operands[i].evaluate(context); // UNDEFINED, null, or
+        ri = operands[i].evaluate(context); // UNDEFINED, null, or
       } catch (EntryDestroyedException ede) {
         continue;
       }
@@ -55,7 +55,7 @@ public class CompiledNegation extends AbstractCompiledValue {
     return context.addDependencies(this, this._value.computeDependencies(context));
   }
 
-  private Object negateObject(Object obj) throws TypeMismatchException {
+  Object negateObject(Object obj) throws TypeMismatchException {
     if (obj instanceof Boolean)
       return Boolean.valueOf(!((Boolean) obj).booleanValue());
     if (obj == null || obj == QueryService.UNDEFINED)
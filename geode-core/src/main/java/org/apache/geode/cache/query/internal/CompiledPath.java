@@ -34,6 +34,7 @@ import org.apache.geode.internal.cache.PartitionedRegion;
 public class CompiledPath extends AbstractCompiledValue {
   private CompiledValue _receiver; // the value represented by the expression before the dot
   private String _tailID; // the identifier after the dot.
+  private volatile AttributeAccessor attributeAccessor; // reads the attribute for PredicateCompiler
 
   public CompiledPath(CompiledValue rcvr, String id) {
     _receiver = rcvr;
@@ -155,6 +156,15 @@ public class CompiledPath extends AbstractCompiledValue {
     return _receiver;
   }
 
+  AttributeAccessor getAttributeAccessor() {
+    AttributeAccessor accessor = this.attributeAccessor;
+    if (accessor == null) {
+      accessor = new AttributeAccessor(_tailID);
+      this.attributeAccessor = accessor;
+    }
+    return accessor;
+  }
+
   @Override
   public void generateCanonicalizedExpression(StringBuilder clauseBuffer, ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
@@ -63,9 +63,6 @@ public class CompiledSelect extends AbstractCompiledValue {
   private boolean count;
   // limits the SelectResults by the number specified.
   private CompiledValue limit;
-  // counts the no of results satisfying where condition for
-  // count(*) non-distinct queries where no indexes are used.
-  private int countStartQueryResult = 0;
 
   protected List<CompiledValue> groupBy = null;
   // Are not serialized and are recreated when compiling the query
@@ -89,6 +86,13 @@ public class CompiledSelect extends AbstractCompiledValue {
    */
   private static final String CLAUSE_EVALUATED = "Evaluated";
 
+  /**
+   * The key of the counter, in the context, of the results satisfying the where condition of
+   * count(*) non-distinct queries where no indexes are used. It is kept in the context rather than
+   * here as the buckets of a partitioned region may be queried in parallel.
+   */
+  private static final String COUNT_START_QUERY_RESULT = "countStartQueryResult";
+
   public CompiledSelect(boolean distinct, boolean count, CompiledValue whereClause, List iterators,
       List projAttrs, List<CompiledSortCriterion> orderByAttrs, CompiledValue limit,
       List<String> hints, List<CompiledValue> groupByClause) {
@@ -593,6 +597,7 @@ public class CompiledSelect extends AbstractCompiledValue {
         if (this.count) {
           SelectResults res = result;
 
+          int countStartQueryResult = getCountStartQueryResult(context)[0];
           if ((this.distinct || evalAsFilters || countStartQueryResult == 0)) {
             // Retrun results as it is as distinct is applied
             // at coordinator node for PR queries.
@@ -638,6 +643,15 @@ public class CompiledSelect extends AbstractCompiledValue {
     }
   }
 
+  private static int[] getCountStartQueryResult(ExecutionContext context) {
+    int[] countStartQueryResult = (int[]) context.cacheGet(COUNT_START_QUERY_RESULT);
+    if (countStartQueryResult == null) {
+      countStartQueryResult = new int[1];
+      context.cachePut(COUNT_START_QUERY_RESULT, countStartQueryResult);
+    }
+    return countStartQueryResult;
+  }
+
   /**
    * Returns the size of region iterator for count(*) on a region without whereclause.
    *
@@ -696,9 +710,12 @@ public class CompiledSelect extends AbstractCompiledValue {
         return results;
       }
     }
+    // the where clause is evaluated for every combination of the iterators' values, so compile it
+    Evaluator whereClauseEvaluator =
+        evaluateWhereClause ? PredicateCompiler.compile(this.whereClause, context) : null;
     int numElementsInResult = 0;
     try {
-      doNestedIterations(0, results, context, evaluateWhereClause, numElementsInResult);
+      doNestedIterations(0, results, context, whereClauseEvaluator, numElementsInResult);
     } catch (CompiledSelect.NullIteratorException ignore) {
       return null;
     }
@@ -762,49 +779,16 @@ public class CompiledSelect extends AbstractCompiledValue {
   }
 
   // returns the number of elements added in the return ResultSet
+  // whereClauseEvaluator is null if the where clause is not to be evaluated
   private int doNestedIterations(int level, SelectResults results, ExecutionContext context,
-      boolean evaluateWhereClause, int numElementsInResult)
+      Evaluator whereClauseEvaluator, int numElementsInResult)
       throws TypeMismatchException, FunctionDomainException, NameResolutionException,
       QueryInvocationTargetException, CompiledSelect.NullIteratorException {
     List iterList = context.getCurrentIterators();
     if (level == iterList.size()) {
-      boolean addToResults = true;
-      if (evaluateWhereClause) {
-        Object result = this.whereClause.evaluate(context);
-        QueryObserver observer = QueryObserverHolder.getInstance();
-        observer.afterIterationEvaluation(result);
-        if (result == null) {
-          addToResults = false;
-        } else if (result instanceof Boolean) {
-          addToResults = (Boolean) result;
-        } else if (result == QueryService.UNDEFINED) {
-          // add UNDEFINED to results only for NOT EQUALS queries
-          if (this.whereClause.getType() == COMPARISON) {
-            int operator = ((Filter) this.whereClause).getOperator();
-            if ((operator != TOK_NE && operator != TOK_NE_ALT)) {
-              addToResults = false;
-            }
-          } else {
-            addToResults = false;
-          }
-        } else {
-          throw new TypeMismatchException(
-              LocalizedStrings.CompiledSelect_THE_WHERE_CLAUSE_WAS_TYPE_0_INSTEAD_OF_BOOLEAN
-                  .toLocalizedString(result.getClass().getName()));
-        }
-      }
-      if (addToResults) {
-        int occurrence =
-            applyProjectionAndAddToResultSet(context, results, this.orderByAttrs == null);
-        // If the occurrence is greater than 1, then only in case of
-        // non distinct query should it be treated as contributing to size
-        // else duplication will be eliminated when making it distinct using
-        // ResultsCollectionWrapper and we will fall short of limit
-        if (occurrence == 1 || (occurrence > 1 && !this.distinct)) {
-          // (Unique i.e first time occurrence) or subsequent occurrence
-          // for non distinct query
-          ++numElementsInResult;
-        }
+      if (whereClauseEvaluator == null
+          || isWhereClauseSatisfied(whereClauseEvaluator.evaluate(context))) {
+        numElementsInResult = addToResults(results, context, numElementsInResult);
       }
     } else {
       RuntimeIterator rIter = (RuntimeIterator) iterList.get(level);
@@ -818,7 +802,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       if (this.whereClause == null && iterators.size() == 1 && isCount() && !isDistinct()
           && sr instanceof QRegion) {
         QRegion qr = (QRegion) sr;
-        countStartQueryResult = qr.getRegion().size();
+        getCountStartQueryResult(context)[0] = qr.getRegion().size();
         return 1;
       }
 
@@ -830,6 +814,14 @@ public class CompiledSelect extends AbstractCompiledValue {
         ((QRegion) sr).setKeepSerialized(true);
       }
 
+      if (whereClauseEvaluator != null && iterList.size() == 1) {
+        PdxBatchFilter batchFilter = PdxBatchFilter.create(this.whereClause, rIter, context);
+        if (batchFilter != null) {
+          return doBatchedIterations(sr, rIter, batchFilter, results, context,
+              whereClauseEvaluator);
+        }
+      }
+
       // Iterate through the data set.
       for (Object aSr : sr) {
         // Check if query execution on this thread is canceled.
@@ -839,8 +831,8 @@ public class CompiledSelect extends AbstractCompiledValue {
         rIter.setCurrent(currObj);
         QueryObserver observer = QueryObserverHolder.getInstance();
         observer.beforeIterationEvaluation(rIter, currObj);
-        numElementsInResult = doNestedIterations(level + 1, results, context, evaluateWhereClause,
-            numElementsInResult);
+        numElementsInResult = doNestedIterations(level + 1, results, context,
+            whereClauseEvaluator, numElementsInResult);
         Integer limitValue = evaluateLimitValue(context, this.limit);
         if (this.orderByAttrs == null && limitValue > -1 && numElementsInResult == limitValue) {
           break;
@@ -850,6 +842,95 @@ public class CompiledSelect extends AbstractCompiledValue {
     return numElementsInResult;
   }
 
+  /**
+   * Iterates over the collection of the only iterator of this query a batch at a time, using the
+   * given filter to evaluate the where clause for each batch where it can.
+   *
+   * @return the number of elements added in the return ResultSet
+   */
+  private int doBatchedIterations(SelectResults sr, RuntimeIterator rIter,
+      PdxBatchFilter batchFilter, SelectResults results, ExecutionContext context,
+      Evaluator whereClauseEvaluator) throws TypeMismatchException, FunctionDomainException,
+      NameResolutionException, QueryInvocationTargetException {
+    int numElementsInResult = 0;
+    Object[] batch = new Object[PdxBatchFilter.BATCH_SIZE];
+    byte[] batchResults = new byte[batch.length];
+    Iterator iterator = sr.iterator();
+    while (iterator.hasNext()) {
+      int count = 0;
+      while (count < batch.length && iterator.hasNext()) {
+        batch[count++] = iterator.next();
+      }
+      batchFilter.filter(batch, count, batchResults);
+      for (int i = 0; i < count; i++) {
+        // Check if query execution on this thread is canceled.
+        QueryMonitor.isQueryExecutionCanceled();
+
+        Object currObj = batch[i];
+        rIter.setCurrent(currObj);
+        QueryObserver observer = QueryObserverHolder.getInstance();
+        observer.beforeIterationEvaluation(rIter, currObj);
+        Object result = batchResults[i] == PdxBatchFilter.UNKNOWN
+            ? whereClauseEvaluator.evaluate(context)
+            : Boolean.valueOf(batchResults[i] == PdxBatchFilter.TRUE);
+        if (isWhereClauseSatisfied(result)) {
+          numElementsInResult = addToResults(results, context, numElementsInResult);
+        }
+        Integer limitValue = evaluateLimitValue(context, this.limit);
+        if (this.orderByAttrs == null && limitValue > -1 && numElementsInResult == limitValue) {
+          return numElementsInResult;
+        }
+      }
+    }
+    return numElementsInResult;
+  }
+
+  /**
+   * Returns whether the current values of the iterators are to be added to the results given the
+   * result of evaluating the where clause for them
+   */
+  private boolean isWhereClauseSatisfied(Object result) throws TypeMismatchException {
+    QueryObserver observer = QueryObserverHolder.getInstance();
+    observer.afterIterationEvaluation(result);
+    if (result == null) {
+      return false;
+    } else if (result instanceof Boolean) {
+      return (Boolean) result;
+    } else if (result == QueryService.UNDEFINED) {
+      // add UNDEFINED to results only for NOT EQUALS queries
+      if (this.whereClause.getType() == COMPARISON) {
+        int operator = ((Filter) this.whereClause).getOperator();
+        return operator == TOK_NE || operator == TOK_NE_ALT;
+      }
+      return false;
+    } else {
+      throw new TypeMismatchException(
+          LocalizedStrings.CompiledSelect_THE_WHERE_CLAUSE_WAS_TYPE_0_INSTEAD_OF_BOOLEAN
+              .toLocalizedString(result.getClass().getName()));
+    }
+  }
+
+  /**
+   * Adds the projection of the current values of the iterators to the results
+   *
+   * @return the number of elements added in the return ResultSet so far
+   */
+  private int addToResults(SelectResults results, ExecutionContext context,
+      int numElementsInResult) throws TypeMismatchException, FunctionDomainException,
+      NameResolutionException, QueryInvocationTargetException {
+    int occurrence = applyProjectionAndAddToResultSet(context, results, this.orderByAttrs == null);
+    // If the occurrence is greater than 1, then only in case of
+    // non distinct query should it be treated as contributing to size
+    // else duplication will be eliminated when making it distinct using
+    // ResultsCollectionWrapper and we will fall short of limit
+    if (occurrence == 1 || (occurrence > 1 && !this.distinct)) {
+      // (Unique i.e first time occurrence) or subsequent occurrence
+      // for non distinct query
+      ++numElementsInResult;
+    }
+    return numElementsInResult;
+  }
+
   private SelectResults applyProjectionOnCollection(SelectResults resultSet,
       ExecutionContext context, boolean ignoreOrderBy) throws TypeMismatchException,
       FunctionDomainException, NameResolutionException, QueryInvocationTargetException {
@@ -972,7 +1053,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       // Shobhit: If it's a 'COUNT' query and no End processing required Like for 'DISTINCT'
       // we can directly keep count in ResultSet and ResultBag is good enough for that.
       results = new ResultsBag(new ObjectTypeImpl(Integer.class), 1, context.getCachePerfStats());
-      countStartQueryResult = 0;
+      context.cachePut(COUNT_START_QUERY_RESULT, new int[1]);
       return results;
     }
 
@@ -1000,12 +1081,18 @@ public class CompiledSelect extends AbstractCompiledValue {
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        return new SortedStructSet(comparator, (StructTypeImpl) elementType);
+        SortedStructSet sortedStructSet =
+            new SortedStructSet(comparator, (StructTypeImpl) elementType);
+        sortedStructSet.setTopLimit(getTopLimit(context));
+        return sortedStructSet;
       case ORDERED_INDISTINCT_STRUCT_UNIGNORED:
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        return new SortedStructBag(comparator, (StructType) elementType, nullValuesAtStart);
+        SortedStructBag sortedStructBag =
+            new SortedStructBag(comparator, (StructType) elementType, nullValuesAtStart);
+        sortedStructBag.setTopLimit(getTopLimit(context));
+        return sortedStructBag;
       case ORDERED_DISTINCT_RESULTS_IGNORED:
         results = new LinkedResultSet();
         results.setElementType(elementType);
@@ -1018,20 +1105,36 @@ public class CompiledSelect extends AbstractCompiledValue {
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        results = new SortedResultSet(comparator);
-        results.setElementType(elementType);
-        return results;
+        SortedResultSet sortedResultSet = new SortedResultSet(comparator);
+        sortedResultSet.setElementType(elementType);
+        sortedResultSet.setTopLimit(getTopLimit(context));
+        return sortedResultSet;
       case ORDERED_INDISTINCT_RESULTS_UNIGNORED:
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        results = new SortedResultsBag(comparator, nullValuesAtStart);
-        results.setElementType(elementType);
-        return results;
+        SortedResultsBag sortedResultsBag = new SortedResultsBag(comparator, nullValuesAtStart);
+        sortedResultsBag.setElementType(elementType);
+        sortedResultsBag.setTopLimit(getTopLimit(context));
+        return sortedResultsBag;
     }
     throw new TypeMismatchException("Logical inconsistency in CompiledSelect");
   }
 
+  /**
+   * Returns the number of results sorted results need to keep for the limit of this select, or -1
+   * if they need to keep all of them
+   */
+  private int getTopLimit(ExecutionContext context) throws TypeMismatchException {
+    try {
+      return evaluateLimitValue(context, this.limit);
+    } catch (FunctionDomainException | NameResolutionException
+        | QueryInvocationTargetException e) {
+      // the limit is evaluated again when it is applied
+      return -1;
+    }
+  }
+
   protected ObjectType prepareResultType(ExecutionContext context)
       throws TypeMismatchException, AmbiguousNameException {
     // if no projection attributes or '*'as projection attribute
@@ -1193,7 +1296,7 @@ public class CompiledSelect extends AbstractCompiledValue {
         // Counter is local to CompileSelect and not available in ResultSet
         // until
         // the end of evaluate call to this CompiledSelect object.
-        this.countStartQueryResult++;
+        getCountStartQueryResult(context)[0]++;
         occurence = 1;
       } else {
         // if order by is present
@@ -27,7 +27,7 @@ import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.distributed.internal.DistributionConfig;
 
-public interface CompiledValue {
+public interface CompiledValue extends Evaluator {
 
   // extra node types: use negative numbers so they don't collide with token types
   int COMPARISON = -1;
@@ -98,6 +98,7 @@ public interface CompiledValue {
 
   ObjectType getTypecast();
 
+  @Override
   Object evaluate(ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException;
 
@@ -54,6 +54,7 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalDataSet;
 import org.apache.geode.internal.cache.PRQueryProcessor;
 import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionQueryEvaluator.StreamingResultsReceiver;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -209,6 +210,19 @@ public class DefaultQuery implements Query {
   @Override
   public Object execute(Object[] params) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException {
+    return execute(params, null);
+  }
+
+  /**
+   * Executes the query, passing the results of a query on a partitioned region to the given
+   * receiver as they come from the members hosting its buckets if they need not be gathered first.
+   * The results are returned as usual if the receiver was not started.
+   *
+   * @param receiver the receiver of the results, or null to return all of them
+   */
+  public Object execute(Object[] params, StreamingResultsReceiver receiver)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
 
     // Local Query.
     if (params == null) {
@@ -232,18 +246,23 @@ public class DefaultQuery implements Query {
     QueryExecutor qe = checkQueryOnPR(params);
 
     Object result = null;
+    QueryExecutionContext context = null;
     Boolean initialPdxReadSerialized = this.cache.getPdxReadSerializedOverride();
     try {
       // Setting the readSerialized flag for local queries
       this.cache.setPdxReadSerializedOverride(true);
-      ExecutionContext context = new QueryExecutionContext(params, this.cache, this);
+      context = new QueryExecutionContext(params, this.cache, this);
       indexObserver = this.startTrace();
       if (qe != null) {
         if (DefaultQuery.testHook != null) {
           DefaultQuery.testHook.doTestHook(1);
         }
 
-        result = qe.executeQuery(this, params, null);
+        if (receiver != null && qe instanceof PartitionedRegion) {
+          result = ((PartitionedRegion) qe).executeQuery(this, params, null, receiver);
+        } else {
+          result = qe.executeQuery(this, params, null);
+        }
         // For local queries returning pdx objects wrap the resultset with
         // ResultsCollectionPdxDeserializerWrapper
         // which deserializes these pdx objects.
@@ -267,7 +286,7 @@ public class DefaultQuery implements Query {
       }
 
       context.setCqQueryContext(this.isCqQuery);
-      result = executeUsingContext(context);
+      result = QueryResultCache.execute(this, params, context);
       // Only wrap/copy results when copy on read is set and an index is used
       // This is because when an index is used, the results are actual references to values in the
       // cache
@@ -285,7 +304,7 @@ public class DefaultQuery implements Query {
       // have the OR condition
       boolean needsCopyOnReadWrapper =
           this.cache.getCopyOnRead() && !DefaultQueryService.COPY_ON_READ_AT_ENTRY_LEVEL
-              || (((QueryExecutionContext) context).isIndexUsed()
+              || (context.isIndexUsed()
                   && DefaultQueryService.COPY_ON_READ_AT_ENTRY_LEVEL);
       // For local queries returning pdx objects wrap the resultset with
       // ResultsCollectionPdxDeserializerWrapper
@@ -316,7 +335,8 @@ public class DefaultQuery implements Query {
       if (queryMonitor != null) {
         queryMonitor.stopMonitoringQueryThread(Thread.currentThread(), this);
       }
-      this.endTrace(indexObserver, startTime, result);
+      this.endTrace(indexObserver, startTime, result,
+          context == null ? Collections.emptyList() : context.getPlanSteps());
     }
   }
 
@@ -377,7 +397,7 @@ public class DefaultQuery implements Query {
       }
     }
 
-    ExecutionContext context = new QueryExecutionContext(parameters, this.cache, this);
+    QueryExecutionContext context = new QueryExecutionContext(parameters, this.cache, this);
     context.setBucketRegion(pr, bukRgn);
     context.setCqQueryContext(this.isCqQuery);
 
@@ -408,7 +428,7 @@ public class DefaultQuery implements Query {
       }
 
       String queryVerboseMsg = DefaultQuery.getLogMessage(indexObserver, startTime, otherObserver,
-          resultSize, this.queryString, bukRgn);
+          resultSize, this.queryString, bukRgn, context.getPlanSteps());
 
       if (this.traceOn) {
         if (this.cache.getLogger().fineEnabled()) {
@@ -774,7 +794,7 @@ public class DefaultQuery implements Query {
   }
 
   private static String getLogMessage(QueryObserver observer, long startTime, int resultSize,
-      String query) {
+      String query, List<String> planSteps) {
     float time = (NanoTimer.getTime() - startTime) / 1.0e6f;
 
     String usedIndexesString = null;
@@ -807,11 +827,13 @@ public class DefaultQuery implements Query {
       rowCountString = " rowCount = " + resultSize + ';';
     }
     return "Query Executed in " + time + " ms;" + (rowCountString != null ? rowCountString : "")
-        + (usedIndexesString != null ? usedIndexesString : "") + " \"" + query + '"';
+        + (usedIndexesString != null ? usedIndexesString : "") + getPlanString(planSteps) + " \""
+        + query + '"';
   }
 
   private static String getLogMessage(IndexTrackingQueryObserver indexObserver, long startTime,
-      String otherObserver, int resultSize, String query, BucketRegion bucket) {
+      String otherObserver, int resultSize, String query, BucketRegion bucket,
+      List<String> planSteps) {
     float time = 0.0f;
 
     if (startTime > 0L) {
@@ -844,7 +866,27 @@ public class DefaultQuery implements Query {
 
     String rowCountString = " rowCount = " + resultSize + ';';
     return "Query Executed" + (startTime > 0L ? " in " + time + " ms;" : ";") + rowCountString
-        + (usedIndexesString != null ? usedIndexesString : "") + " \"" + query + '"';
+        + (usedIndexesString != null ? usedIndexesString : "") + getPlanString(planSteps) + " \""
+        + query + '"';
+  }
+
+  /**
+   * Returns the steps of the plan of an execution for its log message, like an EXPLAIN would show
+   * them
+   */
+  private static String getPlanString(List<String> planSteps) {
+    if (planSteps.isEmpty()) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(" plan(");
+    sb.append(planSteps.size()).append("):");
+    for (Iterator<String> itr = planSteps.iterator(); itr.hasNext();) {
+      sb.append(itr.next());
+      if (itr.hasNext()) {
+        sb.append(',');
+      }
+    }
+    return sb.toString();
   }
 
   @Override
@@ -925,6 +967,11 @@ public class DefaultQuery implements Query {
   }
 
   public void endTrace(QueryObserver indexObserver, long startTime, Object result) {
+    endTrace(indexObserver, startTime, result, Collections.emptyList());
+  }
+
+  private void endTrace(QueryObserver indexObserver, long startTime, Object result,
+      List<String> planSteps) {
     if (this.traceOn && this.cache != null) {
       int resultSize = -1;
 
@@ -932,8 +979,8 @@ public class DefaultQuery implements Query {
         resultSize = ((Collection) result).size();
       }
 
-      String queryVerboseMsg =
-          DefaultQuery.getLogMessage(indexObserver, startTime, resultSize, this.queryString);
+      String queryVerboseMsg = DefaultQuery.getLogMessage(indexObserver, startTime, resultSize,
+          this.queryString, planSteps);
       this.cache.getLogger().info(queryVerboseMsg);
     }
   }
@@ -946,8 +993,8 @@ public class DefaultQuery implements Query {
         resultSize += aResult.size();
       }
 
-      String queryVerboseMsg =
-          DefaultQuery.getLogMessage(indexObserver, startTime, resultSize, this.queryString);
+      String queryVerboseMsg = DefaultQuery.getLogMessage(indexObserver, startTime, resultSize,
+          this.queryString, Collections.emptyList());
       if (this.cache.getLogger().infoEnabled()) {
         this.cache.getLogger().info(queryVerboseMsg);
       }
@@ -980,7 +1027,7 @@ public class DefaultQuery implements Query {
     return this.keepSerialized;
   }
 
-  private void setKeepSerialized() {
+  void setKeepSerialized() {
     this.keepSerialized = true;
   }
 
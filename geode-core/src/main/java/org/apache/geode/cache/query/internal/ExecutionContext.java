@@ -614,6 +614,22 @@ public class ExecutionContext {
     throw new UnsupportedOperationException("Method should not have been called");
   }
 
+  /**
+   * Returns the split of the entries of the buckets in the bucket list that the query iterates, out
+   * of {@link #getNumBucketSplits()}
+   */
+  public int getBucketSplit() {
+    return 0;
+  }
+
+  public int getNumBucketSplits() {
+    return 1;
+  }
+
+  public void setBucketSplit(int split, int numSplits) {
+    throw new UnsupportedOperationException("Method should not have been called");
+  }
+
   public PdxString getSavedPdxString(int index) {
     throw new UnsupportedOperationException("Method should not have been called");
   }
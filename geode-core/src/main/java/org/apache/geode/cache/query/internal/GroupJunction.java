@@ -98,13 +98,15 @@ public class GroupJunction extends AbstractGroupOrRangeJunction {
          * tackle comlex cases like detection of those conditions which can actually form a closed
          * range or those which belong to different independent runtime iterators ( in case of multi
          * region queries). So going for the quick fix of sorting here. The filter operands present
-         * here could be Comaprisn, IN or Range. The priority of sorting will be
-         * equality/IN/Range/Inequality
+         * here could be Comaprisn, IN or Range. IndexFilterSelector chooses the one with the
+         * lowest estimated cost.
          */
 
-        Filter currentBestFilter = null;
-        int currentBestFilterSize = -1;
         indexCount = 1;
+        // the positions of the operands that can use an index, and their plans
+        List<Integer> candidates = new ArrayList<>(_operands.length);
+        List<PlanInfo> candidatePlanInfos = new ArrayList<>(_operands.length);
+        int preferred = -1;
 
         for (int i = 0; i < _operands.length; i++) {
           // Asif : If we are inside this function this iteslf indicates
@@ -130,39 +132,31 @@ public class GroupJunction extends AbstractGroupOrRangeJunction {
           // this will throw an npe
           if (pi.evalAsFilter && pi.indexes.size() == 1) {
             if (pi.isPreferred) {
-              if (currentBestFilter != null) {
-                evalOperands.add(currentBestFilter);
-              }
-              // new best
-              currentBestFilter = (Filter) _operands[i];
-              currentBestFilterSize = ((Filter) _operands[i]).getSizeEstimate(context);
+              // the last preferred condition is the best
+              preferred = i;
               foundPreferredCondition = true;
-              continue;
-            }
-            if (currentBestFilter == null) {
-              currentBestFilter = (Filter) _operands[i];
-              currentBestFilterSize = ((Filter) _operands[i]).getSizeEstimate(context);
-            } else if (foundPreferredCondition || currentBestFilter
-                .isBetterFilter((Filter) _operands[i], context, currentBestFilterSize)) {
-              evalOperands.add(_operands[i]);
-            } else {
-              evalOperands.add(currentBestFilter);
-              currentBestFilter = (Filter) _operands[i];
-              // TODO:Asif: Avoid this call. Let the function which is doing the
-              // comparison return some how the size of comparedTo operand.
-              currentBestFilterSize = ((Filter) _operands[i]).getSizeEstimate(context);
-
             }
+            candidates.add(i);
+            candidatePlanInfos.add(pi);
           } else if (!_operands[i].isDependentOnCurrentScope(context)) {
             // TODO: Asif :Remove this Assert & else if condition after successful
             // testing of the build
             Support.assertionFailed(
                 "An independentoperand should not ever be present as operand inside a GroupJunction as it should always be present only in CompiledJunction");
-          } else {
+          }
+        }
+
+        int best = preferred;
+        if (!foundPreferredCondition && !candidates.isEmpty()) {
+          best = IndexFilterSelector.choose(this, _operands, candidates, candidatePlanInfos,
+              context);
+        }
+        evalOperands.add(best < 0 ? null : _operands[best]);
+        for (int i = 0; i < _operands.length; i++) {
+          if (i != best) {
             evalOperands.add(_operands[i]);
           }
         }
-        evalOperands.add(0, currentBestFilter);
       }
     } else {
       indexCount = _operands.length;
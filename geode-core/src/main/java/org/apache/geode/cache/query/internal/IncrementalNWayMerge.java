@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.geode.cache.query.types.ObjectType;
+
+/**
+ * Merges sorted runs of results as their results come in, such as the results of an order by query
+ * on a partitioned region coming from the members hosting its buckets. Where
+ * {@link NWayMergeResults} merges runs that are complete, a result is merged here as soon as every
+ * run that is not over has results pending, so no result that sorts before it can still come, and
+ * only the results that are not merged yet are held.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <E> the type of the results
+ */
+public class IncrementalNWayMerge<E> {
+
+  /**
+   * A sorted run of results being merged
+   */
+  public static class Run<E> {
+    private final ArrayDeque<E> pending = new ArrayDeque<>();
+    private boolean ended;
+  }
+
+  private final OrderByComparator comparator;
+
+  private final boolean isStruct;
+
+  private final int limit;
+
+  /** The runs with pending results, by their first pending result */
+  private final PriorityQueue<Run<E>> heads;
+
+  /** The number of runs that are not over and have no pending results */
+  private int numWaitingRuns;
+
+  private int numMerged;
+
+  /**
+   * @param limit the number of results to merge at most, or -1
+   */
+  public IncrementalNWayMerge(List<CompiledSortCriterion> orderByAttribs,
+      ExecutionContext context, ObjectType elementType, int limit) {
+    this.comparator = new OrderByComparator(orderByAttribs, elementType, context);
+    this.isStruct = elementType.isStructType();
+    this.limit = limit;
+    this.heads = new PriorityQueue<>((run1, run2) -> compare(run1.pending.peek(),
+        run2.pending.peek()));
+  }
+
+  /**
+   * Adds a run, which holds back the results of the others until it has results or is over
+   */
+  public Run<E> addRun() {
+    this.numWaitingRuns++;
+    return new Run<>();
+  }
+
+  /**
+   * Adds the next results of the given run, which sort after the results added to it before
+   *
+   * @return the results that are merged now, in order
+   */
+  public List<E> add(Run<E> run, Collection<E> results) {
+    if (run.ended) {
+      throw new IllegalStateException("The run is over");
+    }
+    if (results.isEmpty()) {
+      return Collections.emptyList();
+    }
+    boolean waiting = run.pending.isEmpty();
+    run.pending.addAll(results);
+    if (waiting) {
+      this.numWaitingRuns--;
+      this.heads.add(run);
+    }
+    return merge();
+  }
+
+  /**
+   * Ends the given run, which gets no more results
+   *
+   * @return the results that are merged now, in order
+   */
+  public List<E> end(Run<E> run) {
+    if (run.ended) {
+      return Collections.emptyList();
+    }
+    run.ended = true;
+    if (run.pending.isEmpty()) {
+      this.numWaitingRuns--;
+    }
+    return merge();
+  }
+
+  /**
+   * Returns whether as many results as the limit allows were merged
+   */
+  public boolean isLimitReached() {
+    return this.limit > -1 && this.numMerged >= this.limit;
+  }
+
+  private List<E> merge() {
+    List<E> merged = null;
+    while (this.numWaitingRuns == 0 && !this.heads.isEmpty() && !isLimitReached()) {
+      Run<E> run = this.heads.poll();
+      if (merged == null) {
+        merged = new ArrayList<>();
+      }
+      merged.add(run.pending.poll());
+      this.numMerged++;
+      if (!run.pending.isEmpty()) {
+        this.heads.add(run);
+      } else if (!run.ended) {
+        this.numWaitingRuns++;
+      }
+    }
+    if (isLimitReached()) {
+      // nothing more is merged
+      this.heads.clear();
+    }
+    return merged == null ? Collections.emptyList() : merged;
+  }
+
+  private int compare(E obj1, E obj2) {
+    return this.isStruct
+        ? this.comparator.compare(((StructImpl) obj1).getFieldValues(),
+            ((StructImpl) obj2).getFieldValues())
+        : this.comparator.compare(obj1, obj2);
+  }
+}
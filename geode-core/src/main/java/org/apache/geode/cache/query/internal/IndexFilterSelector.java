@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.List;
+
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.IndexStatistics;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexProtocol;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Chooses the filter that an AND junction gets its results from when more than one of its operands
+ * can use an index, the others being evaluated against those results. Filters are chosen by their
+ * cost, the number of values they are estimated to get from their index, rather than by the kind
+ * of condition they are, so a range that matches a few values is chosen over an equality that
+ * matches most of the region.
+ * <p>
+ * The size estimates of range conditions count index keys, which the number of values per key from
+ * the {@link IndexStatistics} of the index turns into a number of values, and ranges the index
+ * cannot estimate are taken to match a third of its values. Filters whose cost cannot be estimated
+ * this way, such as range junctions, are compared by {@link Filter#isBetterFilter} as before.
+ * <p>
+ * The choice is kept in the {@link QueryPlanCache} so that later executions of the query use it
+ * without estimating again. Setting the system property
+ * gemfire.Query.DISABLE_COST_BASED_INDEX_SELECTION to true compares all filters by
+ * {@link Filter#isBetterFilter}.
+ */
+class IndexFilterSelector implements OQLLexerTokenTypes {
+
+  static final boolean DISABLED = Boolean
+      .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.DISABLE_COST_BASED_INDEX_SELECTION");
+
+  /** The cost of a filter that cannot be estimated */
+  static final int UNKNOWN_COST = Integer.MAX_VALUE;
+
+  /** The fraction of the values of an index a range it cannot estimate is taken to match */
+  private static final int UNKNOWN_RANGE_DIVISOR = 3;
+
+  private IndexFilterSelector() {
+    // static only
+  }
+
+  /**
+   * Returns the position in the operands of the given junction of the filter to get its results
+   * from
+   *
+   * @param candidates the positions of the operands that can use an index, in order
+   * @param planInfos the plan info of each candidate
+   */
+  static int choose(GroupJunction junction, CompiledValue[] operands, List<Integer> candidates,
+      List<PlanInfo> planInfos, ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    QueryExecutionContext qcontext =
+        context instanceof QueryExecutionContext ? (QueryExecutionContext) context : null;
+    boolean hinted = qcontext != null && qcontext.hasHints();
+    QueryPlanCache.QueryPlan plan = qcontext == null || hinted ? null : qcontext.getQueryPlan();
+    int junctionNumber = plan == null ? -1 : qcontext.getJunctionNumber(junction);
+    boolean traced = qcontext != null && qcontext.isPlanTraced();
+
+    if (plan != null) {
+      QueryPlanCache.Choice choice = plan.getChoice(junctionNumber);
+      if (choice != null && choice.operands == operands.length) {
+        int candidate = candidates.indexOf(choice.operand);
+        if (candidate >= 0 && getIndex(planInfos.get(candidate)).getName()
+            .equals(choice.indexName)) {
+          if (traced) {
+            qcontext.addPlanStep("AND junction filter: " + choice.indexName + " (plan cache)");
+          }
+          return choice.operand;
+        }
+      }
+    }
+
+    if (candidates.size() == 1 && !traced) {
+      return candidates.get(0);
+    }
+
+    int best = 0;
+    Filter bestFilter = (Filter) operands[candidates.get(0)];
+    int bestSize = bestFilter.getSizeEstimate(context);
+    int bestCost = getCost(bestFilter, getIndex(planInfos.get(0)), bestSize);
+    int[] costs = new int[candidates.size()];
+    costs[0] = bestCost;
+    for (int i = 1; i < costs.length; i++) {
+      Filter filter = (Filter) operands[candidates.get(i)];
+      int size = filter.getSizeEstimate(context);
+      costs[i] = getCost(filter, getIndex(planInfos.get(i)), size);
+      boolean isBestBetter;
+      // evaluating a subquery for an estimate may have set hints
+      hinted = qcontext != null && qcontext.hasHints();
+      if (!DISABLED && !hinted && bestCost != UNKNOWN_COST && costs[i] != UNKNOWN_COST) {
+        isBestBetter = bestCost <= costs[i];
+      } else {
+        isBestBetter = bestFilter.isBetterFilter(filter, context, bestSize);
+      }
+      if (!isBestBetter) {
+        best = i;
+        bestFilter = filter;
+        bestSize = size;
+        bestCost = costs[i];
+      }
+    }
+
+    String indexName = getIndex(planInfos.get(best)).getName();
+    if (plan != null && !hinted && candidates.size() > 1) {
+      plan.putChoice(junctionNumber,
+          new QueryPlanCache.Choice(operands.length, candidates.get(best), indexName));
+    }
+    if (traced) {
+      StringBuilder sb = new StringBuilder("AND junction filter: ");
+      appendCost(sb, indexName, bestCost);
+      if (costs.length > 1) {
+        sb.append(" over ");
+        for (int i = 0, appended = 0; i < costs.length; i++) {
+          if (i != best) {
+            if (appended++ > 0) {
+              sb.append(", ");
+            }
+            appendCost(sb, getIndex(planInfos.get(i)).getName(), costs[i]);
+          }
+        }
+      }
+      qcontext.addPlanStep(sb.toString());
+    }
+    return candidates.get(best);
+  }
+
+  /**
+   * Returns the estimated number of values the given filter gets from the given index, or
+   * {@link #UNKNOWN_COST}
+   *
+   * @param sizeEstimate the size estimate of the filter
+   */
+  static int getCost(Filter filter, IndexProtocol index, int sizeEstimate) {
+    // subclasses such as CompiledLike estimate differently, so match the exact class
+    Class<?> filterClass = filter.getClass();
+    if (filterClass == CompiledIn.class) {
+      // the sum of the size estimates of equality lookups
+      return sizeEstimate;
+    }
+    if (filterClass != CompiledComparison.class) {
+      return UNKNOWN_COST;
+    }
+    if (sizeEstimate <= 0) {
+      // an independent condition or an undefined key
+      return 0;
+    }
+    switch (filter.getOperator()) {
+      case TOK_EQ:
+      case TOK_NE:
+      case TOK_NE_ALT:
+        return sizeEstimate;
+      default:
+        // the estimate counts keys
+        IndexStatistics stats = index.getStatistics();
+        long keys = stats == null ? 0 : stats.getNumberOfKeys();
+        long values = stats == null ? 0 : stats.getNumberOfValues();
+        if (keys <= 0 || values <= 0) {
+          return sizeEstimate;
+        }
+        if (sizeEstimate == Integer.MAX_VALUE) {
+          return (int) Math.min(values / UNKNOWN_RANGE_DIVISOR, UNKNOWN_COST - 1);
+        }
+        return (int) Math.min((double) sizeEstimate * values / keys, UNKNOWN_COST - 1);
+    }
+  }
+
+  private static IndexProtocol getIndex(PlanInfo planInfo) {
+    return (IndexProtocol) planInfo.indexes.get(0);
+  }
+
+  private static void appendCost(StringBuilder sb, String indexName, int cost) {
+    sb.append(indexName).append(" (estimated ");
+    if (cost == UNKNOWN_COST) {
+      sb.append("unknown");
+    } else {
+      sb.append(cost);
+    }
+    sb.append(')');
+  }
+}
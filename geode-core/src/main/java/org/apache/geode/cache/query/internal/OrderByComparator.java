@@ -138,6 +138,13 @@ public class OrderByComparator implements Comparator {
     // No op
   }
 
+  /**
+   * Called when a row whose sort criteria were added is no longer in the results being sorted
+   */
+  void removeEvaluatedSortCriteria(Object row) {
+    // No op
+  }
+
   private int compareHelperMethod(Object obj1, Object obj2) {
     if (obj1 == null || obj2 == null) {
       return compareIfOneOrMoreNull(obj1, obj2);
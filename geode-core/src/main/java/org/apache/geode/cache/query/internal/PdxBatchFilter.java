@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.List;
+
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
+
+/**
+ * Evaluates a where clause that compares numeric fields of the values of the only iterator of a
+ * query with constants for a batch of candidates at a time. The fields are read from the PDX bytes
+ * of each candidate into primitive columns, without looking up the field by name or boxing its
+ * value, and the comparisons are done on the columns. The where clause must be a comparison of
+ * that kind, or an AND or OR of them.
+ * <p>
+ * A candidate that is not a PdxInstance, or whose type does not have a numeric field of that name,
+ * is left for the where clause itself to evaluate.
+ */
+class PdxBatchFilter implements OQLLexerTokenTypes {
+
+  /** The number of candidates read into columns at a time */
+  static final int BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.PDX_BATCH_SIZE", 256);
+
+  /** A result of {@link #filter} for a candidate the where clause is false for */
+  static final byte FALSE = 0;
+
+  /** A result of {@link #filter} for a candidate the where clause is true for */
+  static final byte TRUE = 1;
+
+  /** A result of {@link #filter} for a candidate the where clause must evaluate itself */
+  static final byte UNKNOWN = 2;
+
+  private static final byte NOT_NUMERIC = 0;
+  private static final byte INTEGRAL = 1;
+  private static final byte FLOAT = 2;
+  private static final byte DOUBLE = 3;
+
+  private final Column[] columns;
+
+  private final boolean isAnd;
+
+  private PdxBatchFilter(Column[] columns, boolean isAnd) {
+    this.columns = columns;
+    this.isAnd = isAnd;
+  }
+
+  /**
+   * Returns a filter that evaluates the given where clause for the values of the given iterator, or
+   * null if the where clause does not only compare numeric attributes of them with constants.
+   */
+  static PdxBatchFilter create(CompiledValue whereClause, RuntimeIterator iterator,
+      ExecutionContext context) {
+    if (BATCH_SIZE <= 1 || context.isCqQueryContext()) {
+      return null;
+    }
+    if (whereClause.getClass() == CompiledJunction.class) {
+      CompiledJunction junction = (CompiledJunction) whereClause;
+      List operands = junction.getOperands();
+      Column[] columns = new Column[operands.size()];
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = createColumn((CompiledValue) operands.get(i), iterator, context);
+        if (columns[i] == null) {
+          return null;
+        }
+      }
+      return new PdxBatchFilter(columns, junction.getOperator() == LITERAL_and);
+    }
+    Column column = createColumn(whereClause, iterator, context);
+    return column == null ? null : new PdxBatchFilter(new Column[] {column}, true);
+  }
+
+  private static Column createColumn(CompiledValue value, RuntimeIterator iterator,
+      ExecutionContext context) {
+    if (value.getClass() != CompiledComparison.class) {
+      return null;
+    }
+    CompiledComparison comparison = (CompiledComparison) value;
+    int operator = comparison.getOperator();
+    String fieldName = getFieldName(comparison._left, iterator, context);
+    Number constant = getConstant(comparison._right, context);
+    if (fieldName == null || constant == null) {
+      // the constant may be on the left
+      fieldName = getFieldName(comparison._right, iterator, context);
+      constant = getConstant(comparison._left, context);
+      operator = reverse(operator);
+    }
+    if (fieldName == null || constant == null) {
+      return null;
+    }
+    return new Column(fieldName, operator, constant);
+  }
+
+  /**
+   * Returns the name of the attribute of the values of the given iterator that the given value
+   * reads, or null if it is not such an attribute
+   */
+  private static String getFieldName(CompiledValue value, RuntimeIterator iterator,
+      ExecutionContext context) {
+    try {
+      if (value.getClass() == CompiledID.class) {
+        value = context.resolve(((CompiledID) value).getId());
+      }
+      if (value.getClass() != CompiledPath.class) {
+        return null;
+      }
+      CompiledValue receiver = value.getReceiver();
+      if (receiver.getClass() == CompiledID.class) {
+        receiver = context.resolve(((CompiledID) receiver).getId());
+      }
+      return receiver == iterator ? ((CompiledPath) value).getTailID() : null;
+    } catch (TypeMismatchException | AmbiguousNameException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the number the given value always evaluates to in this execution, or null if it is not
+   * a literal or a query parameter of a primitive wrapper type
+   */
+  private static Number getConstant(CompiledValue value, ExecutionContext context) {
+    Object constant;
+    if (value instanceof CompiledLiteral) {
+      constant = ((CompiledLiteral) value)._obj;
+    } else if (value instanceof CompiledBindArgument) {
+      constant = ((CompiledBindArgument) value).evaluate(context);
+    } else {
+      return null;
+    }
+    if (constant instanceof Integer || constant instanceof Long || constant instanceof Double
+        || constant instanceof Float || constant instanceof Short || constant instanceof Byte) {
+      return (Number) constant;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the operator that gives the same result with the operands swapped
+   */
+  private static int reverse(int operator) {
+    switch (operator) {
+      case TOK_LT:
+        return TOK_GT;
+      case TOK_LE:
+        return TOK_GE;
+      case TOK_GT:
+        return TOK_LT;
+      case TOK_GE:
+        return TOK_LE;
+      default:
+        return operator;
+    }
+  }
+
+  /**
+   * Sets each of the first count results to {@link #TRUE}, {@link #FALSE} or {@link #UNKNOWN} for
+   * the candidate at the same index
+   */
+  void filter(Object[] candidates, int count, byte[] results) {
+    for (int i = 0; i < this.columns.length; i++) {
+      Column column = this.columns[i];
+      column.read(candidates, count);
+      for (int j = 0; j < count; j++) {
+        byte result = column.compare(j);
+        if (i == 0 || result == UNKNOWN) {
+          results[j] = result;
+        } else if (results[j] != UNKNOWN) {
+          results[j] = this.isAnd ? (byte) (results[j] & result) : (byte) (results[j] | result);
+        }
+      }
+    }
+  }
+
+  /**
+   * The values of a numeric field of a batch of candidates and their comparison with a constant
+   */
+  private static class Column {
+
+    private final String fieldName;
+
+    private final int operator;
+
+    private final Number constant;
+
+    private final byte constantType;
+
+    private final long[] longValues = new long[BATCH_SIZE];
+
+    private final double[] doubleValues = new double[BATCH_SIZE];
+
+    private final byte[] types = new byte[BATCH_SIZE];
+
+    /** the type of the last candidate read, and its field */
+    private PdxType lastPdxType;
+    private PdxField lastField;
+    private byte lastType;
+
+    Column(String fieldName, int operator, Number constant) {
+      this.fieldName = fieldName;
+      this.operator = operator;
+      this.constant = constant;
+      this.constantType = constant instanceof Double ? DOUBLE
+          : constant instanceof Float ? FLOAT : INTEGRAL;
+    }
+
+    void read(Object[] candidates, int count) {
+      for (int i = 0; i < count; i++) {
+        Object candidate = candidates[i];
+        // subclasses such as WritablePdxInstanceImpl may not read their own bytes
+        if (candidate == null || candidate.getClass() != PdxInstanceImpl.class) {
+          this.types[i] = NOT_NUMERIC;
+          continue;
+        }
+        PdxInstanceImpl pdx = (PdxInstanceImpl) candidate;
+        PdxType pdxType = pdx.getPdxType();
+        if (pdxType != this.lastPdxType) {
+          this.lastPdxType = pdxType;
+          this.lastField = pdxType.getPdxField(this.fieldName);
+          this.lastType = getType(this.lastField);
+        }
+        byte type = this.lastType;
+        this.types[i] = type;
+        if (type == NOT_NUMERIC) {
+          continue;
+        }
+        PdxField field = this.lastField;
+        switch (field.getFieldType()) {
+          case BYTE:
+            this.longValues[i] = pdx.readByte(field);
+            break;
+          case SHORT:
+            this.longValues[i] = pdx.readShort(field);
+            break;
+          case INT:
+            this.longValues[i] = pdx.readInt(field);
+            break;
+          case LONG:
+            this.longValues[i] = pdx.readLong(field);
+            break;
+          case FLOAT:
+            this.doubleValues[i] = pdx.readFloat(field);
+            break;
+          default:
+            this.doubleValues[i] = pdx.readDouble(field);
+        }
+      }
+    }
+
+    private static byte getType(PdxField field) {
+      if (field == null) {
+        return NOT_NUMERIC;
+      }
+      switch (field.getFieldType()) {
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+          return INTEGRAL;
+        case FLOAT:
+          return FLOAT;
+        case DOUBLE:
+          return DOUBLE;
+        default:
+          return NOT_NUMERIC;
+      }
+    }
+
+    /**
+     * Compares the value of the candidate at the given index with the constant the way
+     * {@link org.apache.geode.cache.query.internal.types.NumericComparator} compares their boxed
+     * forms
+     */
+    byte compare(int index) {
+      byte type = this.types[index];
+      if (type == NOT_NUMERIC) {
+        return UNKNOWN;
+      }
+      int result;
+      if (type == DOUBLE || this.constantType == DOUBLE) {
+        double value =
+            type == INTEGRAL ? (double) this.longValues[index] : this.doubleValues[index];
+        result = Double.compare(value, this.constant.doubleValue());
+      } else if (type == FLOAT || this.constantType == FLOAT) {
+        float value = type == INTEGRAL ? (float) (double) this.longValues[index]
+            : (float) this.doubleValues[index];
+        result = Float.compare(value, (float) this.constant.doubleValue());
+      } else {
+        result = Long.compare(this.longValues[index], this.constant.longValue());
+      }
+      boolean matches;
+      switch (this.operator) {
+        case TOK_EQ:
+          matches = result == 0;
+          break;
+        case TOK_NE:
+          matches = result != 0;
+          break;
+        case TOK_LT:
+          matches = result < 0;
+          break;
+        case TOK_LE:
+          matches = result <= 0;
+          break;
+        case TOK_GT:
+          matches = result > 0;
+          break;
+        default:
+          matches = result >= 0;
+      }
+      return matches ? TRUE : FALSE;
+    }
+  }
+}
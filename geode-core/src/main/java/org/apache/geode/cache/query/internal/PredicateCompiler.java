@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.List;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+/**
+ * Makes an {@link Evaluator} of the where clause of a query for evaluating it against every
+ * candidate of a full scan, which the tree of compiled values would otherwise interpret for each
+ * of them. Identifiers are resolved once per execution instead of for each candidate, attributes
+ * are read through the {@link AttributeAccessor} of their path, which the query keeps between
+ * executions, and comparisons, junctions and negations evaluate the evaluators made of their
+ * operands. Any other compiled value is evaluated as it is, so the result is always the same as
+ * evaluating the where clause itself.
+ * <p>
+ * Setting the system property gemfire.Query.DISABLE_PREDICATE_COMPILATION to true makes queries
+ * interpret their where clauses again.
+ */
+class PredicateCompiler {
+
+  static final boolean DISABLED = Boolean
+      .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.DISABLE_PREDICATE_COMPILATION");
+
+  private final ExecutionContext context;
+
+  private final MethodInvocationAuthorizer authorizer;
+
+  private PredicateCompiler(ExecutionContext context) {
+    this.context = context;
+    this.authorizer = context.getCache().getQueryService().getMethodInvocationAuthorizer();
+  }
+
+  /**
+   * Returns an evaluator of the given value for the iterators of the current scope of the given
+   * context, which must not change while the evaluator is used. Values of CQs, whose entries need
+   * unwrapping, are returned as they are.
+   */
+  static Evaluator compile(CompiledValue value, ExecutionContext context) {
+    if (DISABLED || context.isCqQueryContext()) {
+      return value;
+    }
+    return new PredicateCompiler(context).compile(value);
+  }
+
+  private Evaluator compile(CompiledValue value) {
+    // subclasses such as CompiledLike evaluate differently, so match the exact class
+    Class<?> valueClass = value.getClass();
+    if (valueClass == CompiledID.class) {
+      return compileID((CompiledID) value);
+    }
+    if (valueClass == CompiledPath.class) {
+      CompiledPath path = (CompiledPath) value;
+      return compileAttribute(compile(path.getReceiver()), path.getAttributeAccessor());
+    }
+    if (valueClass == CompiledComparison.class) {
+      CompiledComparison comparison = (CompiledComparison) value;
+      Evaluator left = compile(comparison._left);
+      Evaluator right = compile(comparison._right);
+      if (left == comparison._left && right == comparison._right) {
+        return value;
+      }
+      return context -> comparison.evaluate(context, left, right);
+    }
+    if (valueClass == CompiledJunction.class) {
+      CompiledJunction junction = (CompiledJunction) value;
+      List operands = junction.getOperands();
+      Evaluator[] evaluators = new Evaluator[operands.size()];
+      boolean compiled = false;
+      for (int i = 0; i < evaluators.length; i++) {
+        evaluators[i] = compile((CompiledValue) operands.get(i));
+        compiled |= evaluators[i] != operands.get(i);
+      }
+      if (!compiled) {
+        return value;
+      }
+      return context -> junction.evaluate(context, evaluators);
+    }
+    if (valueClass == CompiledNegation.class) {
+      CompiledNegation negation = (CompiledNegation) value;
+      CompiledValue operand = (CompiledValue) negation.getChildren().get(0);
+      Evaluator evaluator = compile(operand);
+      if (evaluator == operand) {
+        return value;
+      }
+      return context -> negation.negateObject(evaluator.evaluate(context));
+    }
+    return value;
+  }
+
+  private Evaluator compileID(CompiledID id) {
+    CompiledValue resolved;
+    try {
+      resolved = this.context.resolve(id.getId());
+    } catch (TypeMismatchException | AmbiguousNameException e) {
+      // let the identifier throw it when it is evaluated
+      return id;
+    }
+    final Evaluator evaluator;
+    if (resolved instanceof RuntimeIterator) {
+      evaluator = resolved;
+    } else if (resolved.getClass() == CompiledPath.class
+        && ((CompiledPath) resolved).getReceiver() instanceof RuntimeIterator) {
+      // an attribute of an iterator named without the iterator
+      evaluator =
+          compileAttribute(((CompiledPath) resolved).getReceiver(), id.getAttributeAccessor());
+    } else {
+      return id;
+    }
+    return context -> substituteBucketRegion(context, evaluator.evaluate(context));
+  }
+
+  private Evaluator compileAttribute(Evaluator receiver, AttributeAccessor accessor) {
+    final MethodInvocationAuthorizer authorizer = this.authorizer;
+    return context -> substituteBucketRegion(context,
+        accessor.read(context, authorizer, receiver.evaluate(context)));
+  }
+
+  /**
+   * Returns the bucket region being queried if the given value is its partitioned region, like
+   * {@link CompiledID} and {@link CompiledPath} do
+   */
+  private static Object substituteBucketRegion(ExecutionContext context, Object value) {
+    if (value instanceof Region) {
+      PartitionedRegion pr = context.getPartitionedRegion();
+      if (pr != null && pr.getFullPath().equals(((Region) value).getFullPath())) {
+        return context.getBucketRegion();
+      }
+    }
+    return value;
+  }
+}
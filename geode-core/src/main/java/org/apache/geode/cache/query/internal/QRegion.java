@@ -72,8 +72,9 @@ public class QRegion implements SelectResults {
 
     ResultsCollectionWrapper res = null;
     if (context.getBucketList() != null && region instanceof PartitionedRegion) {
-      LocalDataSet localData =
-          new LocalDataSet(((PartitionedRegion) region), new HashSet(context.getBucketList()));
+      LocalDataSet localData = new LocalDataSet(((PartitionedRegion) region),
+          new HashSet(context.getBucketList()), context.getBucketSplit(),
+          context.getNumBucketSplits());
       this.region = localData;
       if (includeKeys) {
         res = new ResultsCollectionWrapper(TypeUtils.getObjectType(constraint),
@@ -15,7 +15,9 @@
 package org.apache.geode.cache.query.internal;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -41,6 +43,10 @@ public class QueryExecutionContext extends ExecutionContext {
 
   private List bucketList;
 
+  private int bucketSplit = 0;
+
+  private int numBucketSplits = 1;
+
   private boolean indexUsed = false;
 
   /**
@@ -64,6 +70,24 @@ public class QueryExecutionContext extends ExecutionContext {
    */
   private ArrayList hints = null;
 
+  /**
+   * The cached plan of the query for these bind arguments, looked up when a junction first chooses
+   * a filter
+   */
+  private QueryPlanCache.QueryPlan queryPlan;
+
+  private boolean queryPlanLookedUp = false;
+
+  /**
+   * The number of each junction that chose a filter, by the order they first did
+   */
+  private Map<GroupJunction, Integer> junctionNumbers;
+
+  /**
+   * The steps of the plan of this execution, kept when the query is traced
+   */
+  private List<String> planSteps;
+
   public QueryExecutionContext(Object[] bindArguments, InternalCache cache) {
     super(bindArguments, cache);
     this.query = null;
@@ -134,6 +158,10 @@ public class QueryExecutionContext extends ExecutionContext {
   public void reset() {
     super.reset();
     this.execCacheStack.clear();
+    this.queryPlanLookedUp = false;
+    this.queryPlan = null;
+    this.junctionNumbers = null;
+    this.planSteps = null;
   }
 
   @Override
@@ -166,6 +194,22 @@ public class QueryExecutionContext extends ExecutionContext {
     return this.bucketList;
   }
 
+  @Override
+  public void setBucketSplit(int split, int numSplits) {
+    this.bucketSplit = split;
+    this.numBucketSplits = numSplits;
+  }
+
+  @Override
+  public int getBucketSplit() {
+    return this.bucketSplit;
+  }
+
+  @Override
+  public int getNumBucketSplits() {
+    return this.numBucketSplits;
+  }
+
   /**
    * creates new PdxString from String and caches it
    */
@@ -218,4 +262,54 @@ public class QueryExecutionContext extends ExecutionContext {
   boolean hasMultiHints() {
     return hints != null && hints.size() > 1;
   }
+
+  /**
+   * Returns the cached plan of the query for the types of the bind arguments of this execution, or
+   * null if there is no query or plans are not cached
+   */
+  QueryPlanCache.QueryPlan getQueryPlan() {
+    if (!this.queryPlanLookedUp) {
+      this.queryPlanLookedUp = true;
+      if (this.query != null) {
+        this.queryPlan = QueryPlanCache.getPlan(this.query.getQueryString(), this.bindArguments);
+      }
+    }
+    return this.queryPlan;
+  }
+
+  /**
+   * Returns the number of the given junction in the plan of the query
+   */
+  int getJunctionNumber(GroupJunction junction) {
+    if (this.junctionNumbers == null) {
+      this.junctionNumbers = new IdentityHashMap<>();
+    }
+    Integer number = this.junctionNumbers.get(junction);
+    if (number == null) {
+      number = this.junctionNumbers.size();
+      this.junctionNumbers.put(junction, number);
+    }
+    return number;
+  }
+
+  /**
+   * Returns true if the steps of the plan of this execution are kept for the trace of the query
+   */
+  boolean isPlanTraced() {
+    return this.query instanceof DefaultQuery && ((DefaultQuery) this.query).isTraced();
+  }
+
+  void addPlanStep(String step) {
+    if (this.planSteps == null) {
+      this.planSteps = new ArrayList<>();
+    }
+    this.planSteps.add(step);
+  }
+
+  /**
+   * Returns the steps of the plan of this execution if the query is traced
+   */
+  public List<String> getPlanSteps() {
+    return this.planSteps == null ? Collections.emptyList() : this.planSteps;
+  }
 }
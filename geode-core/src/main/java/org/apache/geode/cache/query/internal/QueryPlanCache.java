@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Remembers which index filter each AND junction of a query chose, so that later executions of the
+ * same query with bind arguments of the same types use it without estimating the cost of every
+ * filter again. Plans are keyed by the query string with its whitespace normalized, so different
+ * {@link DefaultQuery} instances of a query share them.
+ * <p>
+ * A plan is dropped when any index is created or removed, and once it is older than
+ * gemfire.Query.PLAN_CACHE_EXPIRY_TIME milliseconds so that it follows changes in the data. Setting
+ * gemfire.Query.PLAN_CACHE_SIZE to 0 disables the cache.
+ */
+public class QueryPlanCache {
+
+  static final int MAX_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.PLAN_CACHE_SIZE", 1000);
+
+  static final long EXPIRY_TIME =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "Query.PLAN_CACHE_EXPIRY_TIME", 60 * 1000);
+
+  /** Incremented whenever an index is created or removed */
+  private static final AtomicLong indexVersion = new AtomicLong();
+
+  private static final ConcurrentMap<Key, QueryPlan> plans = new ConcurrentHashMap<>();
+
+  private QueryPlanCache() {
+    // static only
+  }
+
+  /**
+   * Invalidates all plans, since they may not use an index that was created or may use one that
+   * was removed
+   */
+  public static void indexesChanged() {
+    indexVersion.incrementAndGet();
+  }
+
+  /**
+   * Returns the plan of the given query for bind arguments of the types of the given ones, adding
+   * an empty one if there is no plan that is still valid. Returns null if plans are not cached.
+   */
+  static QueryPlan getPlan(String queryString, Object[] bindArguments) {
+    if (MAX_SIZE <= 0 || queryString == null) {
+      return null;
+    }
+    Key key = new Key(normalize(queryString), bindArgumentTypes(bindArguments));
+    long version = indexVersion.get();
+    long now = System.currentTimeMillis();
+    QueryPlan plan = plans.get(key);
+    if (plan != null && plan.version == version && now - plan.creationTime < EXPIRY_TIME) {
+      plan.hits.incrementAndGet();
+      return plan;
+    }
+    if (plan == null && plans.size() >= MAX_SIZE) {
+      // make room by dropping any plan; a query that runs often gets planned again soon
+      Iterator<Key> keys = plans.keySet().iterator();
+      if (keys.hasNext()) {
+        plans.remove(keys.next());
+      }
+    }
+    QueryPlan newPlan = new QueryPlan(version, now);
+    if (plan == null) {
+      QueryPlan existing = plans.putIfAbsent(key, newPlan);
+      return existing == null ? newPlan : existing;
+    }
+    plans.replace(key, plan, newPlan);
+    return newPlan;
+  }
+
+  static void clear() {
+    plans.clear();
+  }
+
+  static int size() {
+    return plans.size();
+  }
+
+  /**
+   * Returns the given query string with runs of whitespace outside of string literals collapsed
+   * into single spaces
+   */
+  static String normalize(String queryString) {
+    StringBuilder sb = new StringBuilder(queryString.length());
+    boolean inLiteral = false;
+    boolean pendingSpace = false;
+    for (int i = 0; i < queryString.length(); i++) {
+      char c = queryString.charAt(i);
+      if (!inLiteral && Character.isWhitespace(c)) {
+        pendingSpace = sb.length() > 0;
+        continue;
+      }
+      if (pendingSpace) {
+        sb.append(' ');
+        pendingSpace = false;
+      }
+      if (c == '\'') {
+        // a quote inside a literal is escaped by doubling it, which toggles twice
+        inLiteral = !inLiteral;
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  private static Class[] bindArgumentTypes(Object[] bindArguments) {
+    if (bindArguments == null || bindArguments.length == 0) {
+      return null;
+    }
+    Class[] types = new Class[bindArguments.length];
+    for (int i = 0; i < bindArguments.length; i++) {
+      types[i] = bindArguments[i] == null ? null : bindArguments[i].getClass();
+    }
+    return types;
+  }
+
+  /**
+   * The filters chosen by the AND junctions of a query, by the order in which an execution of the
+   * query first organizes them
+   */
+  static class QueryPlan {
+
+    private final long version;
+
+    private final long creationTime;
+
+    private final ConcurrentMap<Integer, Choice> choices = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    QueryPlan(long version, long creationTime) {
+      this.version = version;
+      this.creationTime = creationTime;
+    }
+
+    Choice getChoice(int junction) {
+      return this.choices.get(junction);
+    }
+
+    void putChoice(int junction, Choice choice) {
+      this.choices.putIfAbsent(junction, choice);
+    }
+
+    /**
+     * Returns the number of times this plan was found in the cache
+     */
+    long getHits() {
+      return this.hits.get();
+    }
+  }
+
+  /**
+   * The operand of a junction that was chosen as its filter, and the index it used
+   */
+  static class Choice {
+
+    final int operands;
+
+    final int operand;
+
+    final String indexName;
+
+    Choice(int operands, int operand, String indexName) {
+      this.operands = operands;
+      this.operand = operand;
+      this.indexName = indexName;
+    }
+  }
+
+  private static class Key {
+
+    private final String queryString;
+
+    private final Class[] bindArgumentTypes;
+
+    private final int hashCode;
+
+    Key(String queryString, Class[] bindArgumentTypes) {
+      this.queryString = queryString;
+      this.bindArgumentTypes = bindArgumentTypes;
+      this.hashCode = 31 * queryString.hashCode() + Arrays.hashCode(bindArgumentTypes);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) other;
+      return this.queryString.equals(that.queryString)
+          && Arrays.equals(this.bindArgumentTypes, that.bindArgumentTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+}
@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+/**
+ * Keeps the results of queries on local and replicated regions, so that executing a query again
+ * with the same bind arguments returns its results without evaluating it while the regions it
+ * reads have not changed. Results are keyed by the query string with its whitespace normalized
+ * and by the bind arguments, so different {@link DefaultQuery} instances of a query share them.
+ * <p>
+ * Each region counts the changes to its entries (see {@link LocalRegion#getEntriesVersion()}), and
+ * cached results are used only while the counts of the regions of the query are the ones read
+ * before the query was evaluated. Queries on partitioned regions, whose entries change on other
+ * members, queries in a transaction and queries with bind arguments that are not immutable values
+ * are not cached, and neither are results with more than gemfire.Query.RESULT_CACHE_MAX_RESULTS
+ * elements. The least recently used results are dropped once there are
+ * gemfire.Query.RESULT_CACHE_SIZE of them. The cache is disabled unless that size is set.
+ * <p>
+ * Cached results are shared, so they are returned as unmodifiable results, and they are not cached
+ * when the cache copies on read.
+ */
+public class QueryResultCache {
+
+  static final int MAX_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.RESULT_CACHE_SIZE", 0);
+
+  static final int MAX_RESULTS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.RESULT_CACHE_MAX_RESULTS", 10000);
+
+  /* For Test purpose */
+  static int TEST_MAX_SIZE = 0;
+
+  private static final Map<Key, CachedResults> results = new LinkedHashMap<Key, CachedResults>(
+      16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, CachedResults> eldest) {
+      return size() > getMaxSize();
+    }
+  };
+
+  private static final AtomicLong hits = new AtomicLong();
+
+  private QueryResultCache() {
+    // static only
+  }
+
+  private static int getMaxSize() {
+    return TEST_MAX_SIZE > 0 ? TEST_MAX_SIZE : MAX_SIZE;
+  }
+
+  /**
+   * Returns whether query results are cached, which the regions need to count the changes to their
+   * entries for
+   */
+  public static boolean isEnabled() {
+    return getMaxSize() > 0;
+  }
+
+  /**
+   * Executes the given query using the given context, or returns its cached results if the
+   * regions of the query have not changed since they were cached
+   */
+  static Object execute(DefaultQuery query, Object[] parameters, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    Key key = isEnabled() ? createKey(query, parameters, context.getCache()) : null;
+    if (key == null) {
+      return query.executeUsingContext(context);
+    }
+
+    CachedResults cached;
+    synchronized (results) {
+      cached = results.get(key);
+    }
+    if (cached != null) {
+      if (cached.isValid()) {
+        hits.incrementAndGet();
+        if (cached.keepSerialized) {
+          query.setKeepSerialized();
+        }
+        return unmodifiable(cached.results);
+      }
+      synchronized (results) {
+        results.remove(key, cached);
+      }
+    }
+
+    // the versions are read before the query is evaluated, so changes made while it is evaluated
+    // invalidate its results
+    LocalRegion[] regions = getRegions(query, parameters, context.getCache());
+    if (regions == null) {
+      return query.executeUsingContext(context);
+    }
+    long[] versions = new long[regions.length];
+    for (int i = 0; i < regions.length; i++) {
+      versions[i] = regions[i].getEntriesVersion();
+    }
+
+    Object result = query.executeUsingContext(context);
+    if (!(result instanceof SelectResults) || ((SelectResults) result).size() > MAX_RESULTS) {
+      return result;
+    }
+    SelectResults selectResults = (SelectResults) result;
+    synchronized (results) {
+      results.put(key,
+          new CachedResults(selectResults, regions, versions, query.isKeepSerialized()));
+    }
+    return unmodifiable(selectResults);
+  }
+
+  static void clear() {
+    synchronized (results) {
+      results.clear();
+    }
+  }
+
+  static int size() {
+    synchronized (results) {
+      return results.size();
+    }
+  }
+
+  /**
+   * Returns the number of times cached results were returned
+   */
+  static long getHits() {
+    return hits.get();
+  }
+
+  private static Key createKey(DefaultQuery query, Object[] parameters, InternalCache cache) {
+    if (query.getQueryString() == null || query.isCqQuery() || query.isQueryWithFunctionContext()
+        || cache.getCopyOnRead() || cache.getTXMgr().getTXState() != null) {
+      return null;
+    }
+    for (Object parameter : parameters) {
+      if (!isImmutable(parameter)) {
+        return null;
+      }
+    }
+    return new Key(QueryPlanCache.normalize(query.getQueryString()), parameters,
+        query.isRemoteQuery());
+  }
+
+  private static boolean isImmutable(Object parameter) {
+    return parameter == null || parameter instanceof String || parameter instanceof Boolean
+        || parameter instanceof Character || parameter instanceof Enum
+        || parameter instanceof Integer || parameter instanceof Long
+        || parameter instanceof Short || parameter instanceof Byte
+        || parameter instanceof Double || parameter instanceof Float
+        || parameter.getClass() == BigInteger.class || parameter.getClass() == BigDecimal.class;
+  }
+
+  /**
+   * Returns the regions the query reads, or null if its results cannot be cached
+   */
+  private static LocalRegion[] getRegions(DefaultQuery query, Object[] parameters,
+      InternalCache cache) {
+    Set<String> regionPaths = query.getRegionsInQuery(parameters);
+    if (regionPaths.isEmpty()) {
+      return null;
+    }
+    LocalRegion[] regions = new LocalRegion[regionPaths.size()];
+    int i = 0;
+    for (String regionPath : regionPaths) {
+      Region region = cache.getRegion(regionPath);
+      if (!(region instanceof LocalRegion) || region instanceof PartitionedRegion
+          || !((LocalRegion) region).isInitialized()) {
+        return null;
+      }
+      regions[i++] = (LocalRegion) region;
+    }
+    return regions;
+  }
+
+  private static SelectResults unmodifiable(SelectResults results) {
+    return new UnmodifiableResults(results);
+  }
+
+  /**
+   * A view of cached results that does not let them be modified
+   */
+  private static class UnmodifiableResults extends ResultsCollectionWrapper {
+
+    private static final long serialVersionUID = 3236413208513212461L;
+
+    UnmodifiableResults(SelectResults results) {
+      super(results.getCollectionType().getElementType(), results);
+      setModifiable(false);
+    }
+
+    @Override
+    public boolean add(Object o) {
+      throw new UnsupportedOperationException("Cached query results cannot be modified");
+    }
+
+    @Override
+    public boolean addAll(Collection c) {
+      throw new UnsupportedOperationException("Cached query results cannot be modified");
+    }
+
+    @Override
+    public void clear() {
+      throw new UnsupportedOperationException("Cached query results cannot be modified");
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+      throw new UnsupportedOperationException("Cached query results cannot be modified");
+    }
+
+    @Override
+    public boolean removeAll(Collection collection) {
+      throw new UnsupportedOperationException("Cached query results cannot be modified");
+    }
+
+    @Override
+    public boolean retainAll(Collection collection) {
+      throw new UnsupportedOperationException("Cached query results cannot be modified");
+    }
+
+    @Override
+    public Iterator iterator() {
+      Iterator iterator = super.iterator();
+      return new Iterator() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          return iterator.next();
+        }
+      };
+    }
+  }
+
+  private static class CachedResults {
+
+    private final SelectResults results;
+
+    private final LocalRegion[] regions;
+
+    private final long[] versions;
+
+    private final boolean keepSerialized;
+
+    CachedResults(SelectResults results, LocalRegion[] regions, long[] versions,
+        boolean keepSerialized) {
+      this.results = results;
+      this.regions = regions;
+      this.versions = versions;
+      this.keepSerialized = keepSerialized;
+    }
+
+    boolean isValid() {
+      for (int i = 0; i < this.regions.length; i++) {
+        if (this.regions[i].isDestroyed()
+            || this.regions[i].getEntriesVersion() != this.versions[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static class Key {
+
+    private final String queryString;
+
+    private final List<Object> parameters;
+
+    private final boolean remoteQuery;
+
+    private final int hashCode;
+
+    Key(String queryString, Object[] parameters, boolean remoteQuery) {
+      this.queryString = queryString;
+      this.parameters = Arrays.asList(parameters.clone());
+      this.remoteQuery = remoteQuery;
+      this.hashCode = 31 * (31 * queryString.hashCode() + this.parameters.hashCode())
+          + Boolean.hashCode(remoteQuery);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) other;
+      return this.queryString.equals(that.queryString) && this.parameters.equals(that.parameters)
+          && this.remoteQuery == that.remoteQuery;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+}
@@ -37,6 +37,8 @@ public class SortedResultSet extends TreeSet
   private static final long serialVersionUID = 5184711453750319224L;
 
   private ObjectType elementType;
+  /** The number of results to keep while sorting, or -1 to keep all of them */
+  private transient int topLimit = -1;
 
   public SortedResultSet() {}
 
@@ -58,6 +60,28 @@ public class SortedResultSet extends TreeSet
     super(c);
   }
 
+  /**
+   * Keeps no more than the given number of results, dropping the last one in sort order whenever a
+   * result is added past that number
+   *
+   * @param topLimit the number of results to keep, or -1 to keep all of them
+   */
+  void setTopLimit(int topLimit) {
+    this.topLimit = topLimit;
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    if (this.topLimit > -1 && size() > this.topLimit) {
+      Object last = pollLast();
+      if (comparator() instanceof OrderByComparator) {
+        ((OrderByComparator) comparator()).removeEvaluatedSortCriteria(last);
+      }
+    }
+    return added;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (!(other instanceof SortedResultSet)) {
@@ -40,6 +40,8 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
   private final Map<E, Integer> sortedMap;
   private final boolean orderedDataAddition;
   private final boolean emitNullAtStart;
+  /** The number of results to keep while sorting, or -1 to keep all of them */
+  private int topLimit = -1;
 
   /**
    * Constructor for unordered input
@@ -145,6 +147,53 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
     this.emitNullAtStart = nullAtStart;
   }
 
+  /**
+   * Keeps no more than the given number of results, dropping the last one in sort order whenever a
+   * result is added past that number, so that an ordered query with a limit holds no more results
+   * than it returns while they are sorted. Has no effect on ordered input.
+   *
+   * @param topLimit the number of results to keep, or -1 to keep all of them
+   */
+  void setTopLimit(int topLimit) {
+    this.topLimit = this.orderedDataAddition ? -1 : topLimit;
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    dropPastTopLimit();
+    return added;
+  }
+
+  @Override
+  public int addAndGetOccurence(Object element) {
+    int occurence = super.addAndGetOccurence(element);
+    dropPastTopLimit();
+    return occurence;
+  }
+
+  private void dropPastTopLimit() {
+    if (this.topLimit < 0 || this.size <= this.topLimit) {
+      return;
+    }
+    if (this.numNulls > 0 && (!this.emitNullAtStart || this.sortedMap.isEmpty())) {
+      this.numNulls--;
+    } else {
+      E last = ((TreeMap<E, Integer>) this.sortedMap).lastKey();
+      int count = this.sortedMap.get(last);
+      if (count == 1) {
+        this.sortedMap.remove(last);
+        Comparator comparator = comparator();
+        if (comparator instanceof OrderByComparator) {
+          ((OrderByComparator) comparator).removeEvaluatedSortCriteria(last);
+        }
+      } else {
+        this.sortedMap.put(last, count - 1);
+      }
+    }
+    this.size--;
+  }
+
   @Override
   public boolean isModifiable() {
     return false;
@@ -43,6 +43,9 @@ public class SortedStructSet extends TreeSet
    */
   private boolean modifiable = true;
 
+  /** The number of results to keep while sorting, or -1 to keep all of them */
+  private transient int topLimit = -1;
+
   /** Creates a new instance of StructSet */
   public SortedStructSet() {};
 
@@ -102,7 +105,24 @@ public class SortedStructSet extends TreeSet
    * For internal use. Just add the Object[] values for a struct with same type
    */
   public boolean addFieldValues(Object[] fieldValues) {
-    return super.add(fieldValues);
+    boolean added = super.add(fieldValues);
+    if (this.topLimit > -1 && size() > this.topLimit) {
+      Object last = pollLast();
+      if (comparator() instanceof OrderByComparator) {
+        ((OrderByComparator) comparator()).removeEvaluatedSortCriteria(last);
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Keeps no more than the given number of structs, dropping the last one in sort order whenever a
+   * struct is added past that number
+   *
+   * @param topLimit the number of structs to keep, or -1 to keep all of them
+   */
+  void setTopLimit(int topLimit) {
+    this.topLimit = topLimit;
   }
 
   /**
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+/**
+ * Combines the counts and sums of a group computed by {@link AvgBucketNode} on each of the buckets
+ * of a member into the count and sum of the group on the member, in the same form.
+ */
+public class AvgBucketNodeCombiner extends Sum {
+
+  private int count = 0;
+
+  /**
+   * Takes a two element array of the number of values and the sum of the values.
+   */
+  @Override
+  public void accumulate(Object value) {
+    Object[] array = (Object[]) value;
+    this.count += ((Integer) array[0]).intValue();
+    super.accumulate(array[1]);
+  }
+
+  @Override
+  public Object terminate() {
+    return new Object[] {Integer.valueOf(count), super.terminate()};
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import org.apache.geode.cache.query.Aggregator;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.internal.hll.HyperLogLog;
+import org.apache.geode.internal.hll.MurmurHash;
+
+/**
+ * The aggregator for counting distinct values which is used on the bucket node for partitioned
+ * region based queries when approximate counts are allowed. It adds the values to a
+ * {@link HyperLogLog} sketch, which takes the same memory however many distinct values there are,
+ * rather than keeping a set of the values.
+ */
+public class CountDistinctApproximateBucketNode implements Aggregator {
+
+  /** The log base 2 of the number of registers of the sketches, for a standard error of 1.6% */
+  static final int LOG2M = 12;
+
+  private final HyperLogLog sketch = new HyperLogLog(LOG2M);
+
+  @Override
+  public void accumulate(Object value) {
+    if (value != null && value != QueryService.UNDEFINED) {
+      this.sketch.offerHashed(hash(value));
+    }
+  }
+
+  @Override
+  public void init() {
+
+  }
+
+  /**
+   * Returns the sketch of the distinct values.
+   */
+  @Override
+  public Object terminate() {
+    return this.sketch;
+  }
+
+  /**
+   * Hashes a value for a sketch. Values other than strings and numbers are hashed by their hash
+   * code, so that equal values are counted once.
+   */
+  static int hash(Object value) {
+    if (value instanceof String || value instanceof Number) {
+      return MurmurHash.hash(value);
+    }
+    return MurmurHash.hashLong(value.hashCode());
+  }
+}
@@ -14,26 +14,19 @@
  */
 package org.apache.geode.cache.query.internal.aggregate;
 
-import java.util.Set;
-
 /**
- * Computes the count of the distinct rows on the PR query node.
+ * Computes the count of the distinct rows on the PR query node. The distinct values from the bucket
+ * nodes come as sets of the values or as sketches of them, in which case the count is approximate.
  *
  *
  */
-public class CountDistinctPRQueryNode extends DistinctAggregator {
-
-  /**
-   * The input data is the Set containing distinct values from each of the bucket nodes.
-   */
-  @Override
-  public void accumulate(Object value) {
-    this.distinct.addAll((Set) value);
-
-  }
+public class CountDistinctPRQueryNode extends DistinctBucketNodeCombiner {
 
   @Override
   public Object terminate() {
+    if (this.sketch != null) {
+      return Integer.valueOf((int) this.sketch.cardinality());
+    }
     return Integer.valueOf(this.distinct.size());
   }
 
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import java.util.Set;
+
+import org.apache.geode.internal.hll.CardinalityMergeException;
+import org.apache.geode.internal.hll.HyperLogLog;
+
+/**
+ * Combines the distinct values of a group found on each of the buckets of a member into the
+ * distinct values of the group on the member. The distinct values come as sets of the values or,
+ * from {@link CountDistinctApproximateBucketNode}, as sketches of them, and go into a sketch once a
+ * sketch comes.
+ */
+public class DistinctBucketNodeCombiner extends DistinctAggregator {
+
+  protected HyperLogLog sketch;
+
+  @Override
+  public void accumulate(Object value) {
+    if (value instanceof HyperLogLog) {
+      if (this.sketch == null) {
+        this.sketch = new HyperLogLog(CountDistinctApproximateBucketNode.LOG2M);
+        for (Object distinctValue : this.distinct) {
+          this.sketch.offerHashed(CountDistinctApproximateBucketNode.hash(distinctValue));
+        }
+        this.distinct.clear();
+      }
+      try {
+        this.sketch.addAll((HyperLogLog) value);
+      } catch (CardinalityMergeException e) {
+        throw new IllegalStateException("Unable to combine the count of distinct values", e);
+      }
+    } else if (this.sketch != null) {
+      for (Object distinctValue : (Set) value) {
+        this.sketch.offerHashed(CountDistinctApproximateBucketNode.hash(distinctValue));
+      }
+    } else {
+      this.distinct.addAll((Set) value);
+    }
+  }
+
+  /**
+   * Returns the set of the distinct values, or their sketch if one was combined.
+   */
+  @Override
+  public Object terminate() {
+    return this.sketch != null ? this.sketch : this.distinct;
+  }
+
+}
@@ -58,6 +58,7 @@ import org.apache.geode.cache.query.internal.NullToken;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.QueryObserver;
 import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -513,6 +514,7 @@ public class IndexManager {
   public void addIndex(String indexName, Index index) {
     IndexTask indexTask = new IndexTask(cache, indexName);
     this.indexes.put(indexTask, index);
+    QueryPlanCache.indexesChanged();
   }
 
   /**
@@ -841,6 +843,7 @@ public class IndexManager {
     if (this.indexes.remove(indexTask) != null) {
       AbstractIndex indexHandle = (AbstractIndex) index;
       indexHandle.destroy();
+      QueryPlanCache.indexesChanged();
     }
   }
 
@@ -864,6 +867,9 @@ public class IndexManager {
       IndexTask indexTask = (IndexTask) entry.getKey();
       this.indexes.remove(indexTask);
     }
+    if (numIndexes > 0) {
+      QueryPlanCache.indexesChanged();
+    }
     return numIndexes;
   }
 
@@ -1679,6 +1685,7 @@ public class IndexManager {
             }
           }
           indexes.put(this, index);
+          QueryPlanCache.indexesChanged();
           if (region instanceof BucketRegion && prIndex != null) {
             prIndex.addToBucketIndexes(region, index);
             prIndex.incNumBucketIndexes();
@@ -1696,6 +1703,7 @@ public class IndexManager {
         // For PrimaryKey index
         ((AbstractIndex) index).setPopulated(true);
         indexes.put(this, index);
+        QueryPlanCache.indexesChanged();
         if (region instanceof BucketRegion && prIndex != null) {
           prIndex.addToBucketIndexes(region, index);
         }
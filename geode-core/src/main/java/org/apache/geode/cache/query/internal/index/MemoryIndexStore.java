@@ -22,8 +22,6 @@ import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.geode.cache.EntryDestroyedException;
@@ -37,6 +35,7 @@ import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.cache.CachedDeserializable;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalCache;
@@ -51,12 +50,20 @@ import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
  * @since GemFire 8.0
  */
 public class MemoryIndexStore implements IndexStore {
+  /**
+   * Setting this to true keeps numeric, date and timestamp keys as primitive longs in a
+   * {@link NumericIndexMap} rather than in a ConcurrentSkipListMap. Its writers are serialized, so
+   * it suits indexes that are read far more often than they are updated.
+   */
+  static final boolean ENABLE_NUMERIC_INDEX_MAP = Boolean
+      .getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.ENABLE_NUMERIC_INDEX_MAP");
+
   /**
    * Map for valueOf(indexedExpression)=>RegionEntries. SortedMap<Object, (RegionEntry |
    * List<RegionEntry>)>. Package access for unit tests.
    */
-  final ConcurrentNavigableMap valueToEntriesMap =
-      new ConcurrentSkipListMap(TypeUtils.getExtendedNumericComparator());
+  final SortedIndexMap valueToEntriesMap =
+      ENABLE_NUMERIC_INDEX_MAP ? new NumericIndexMap() : new SkipListIndexMap();
 
   // number of keys
   private final AtomicInteger numIndexKeys = new AtomicInteger(0);
@@ -393,25 +400,23 @@ public class MemoryIndexStore implements IndexStore {
   @Override
   public CloseableIterator<IndexStoreEntry> get(Object indexKey) {
     return new MemoryIndexStoreIterator(
-        this.valueToEntriesMap.subMap(indexKey, true, indexKey, true), indexKey, null);
+        this.valueToEntriesMap.entryIterator(indexKey, true, indexKey, true, false), indexKey,
+        null);
   }
 
   @Override
   public CloseableIterator<IndexStoreEntry> iterator(Object start, boolean startInclusive,
       Object end, boolean endInclusive, Collection keysToRemove) {
-    if (start == null) {
-      return new MemoryIndexStoreIterator(this.valueToEntriesMap.headMap(end, endInclusive), null,
-          keysToRemove);
-    }
     return new MemoryIndexStoreIterator(
-        this.valueToEntriesMap.subMap(start, startInclusive, end, endInclusive), null,
+        this.valueToEntriesMap.entryIterator(start, startInclusive, end, endInclusive, false), null,
         keysToRemove);
   }
 
   @Override
   public CloseableIterator<IndexStoreEntry> iterator(Object start, boolean startInclusive,
       Collection keysToRemove) {
-    return new MemoryIndexStoreIterator(this.valueToEntriesMap.tailMap(start, startInclusive), null,
+    return new MemoryIndexStoreIterator(
+        this.valueToEntriesMap.entryIterator(start, startInclusive, null, false, false), null,
         keysToRemove);
   }
 
@@ -421,31 +426,30 @@ public class MemoryIndexStore implements IndexStore {
 
   @Override
   public CloseableIterator<IndexStoreEntry> iterator(Collection keysToRemove) {
-    return new MemoryIndexStoreIterator(this.valueToEntriesMap, null, keysToRemove);
+    return new MemoryIndexStoreIterator(
+        this.valueToEntriesMap.entryIterator(null, false, null, false, false), null, keysToRemove);
   }
 
   @Override
   public CloseableIterator<IndexStoreEntry> descendingIterator(Object start, boolean startInclusive,
       Object end, boolean endInclusive, Collection keysToRemove) {
-    if (start == null) {
-      return new MemoryIndexStoreIterator(
-          this.valueToEntriesMap.headMap(end, endInclusive).descendingMap(), null, keysToRemove);
-    }
     return new MemoryIndexStoreIterator(
-        this.valueToEntriesMap.subMap(start, startInclusive, end, endInclusive).descendingMap(),
-        null, keysToRemove);
+        this.valueToEntriesMap.entryIterator(start, startInclusive, end, endInclusive, true), null,
+        keysToRemove);
   }
 
   @Override
   public CloseableIterator<IndexStoreEntry> descendingIterator(Object start, boolean startInclusive,
       Collection keysToRemove) {
     return new MemoryIndexStoreIterator(
-        this.valueToEntriesMap.tailMap(start, startInclusive).descendingMap(), null, keysToRemove);
+        this.valueToEntriesMap.entryIterator(start, startInclusive, null, false, true), null,
+        keysToRemove);
   }
 
   @Override
   public CloseableIterator<IndexStoreEntry> descendingIterator(Collection keysToRemove) {
-    return new MemoryIndexStoreIterator(this.valueToEntriesMap.descendingMap(), null, keysToRemove);
+    return new MemoryIndexStoreIterator(
+        this.valueToEntriesMap.entryIterator(null, false, null, false, true), null, keysToRemove);
   }
 
   @Override
@@ -596,23 +600,23 @@ public class MemoryIndexStore implements IndexStore {
    * mapping (value -> Collection) as well as over the Collection.
    */
   private class MemoryIndexStoreIterator implements CloseableIterator<IndexStoreEntry> {
-    final Map map;
     Object indexKey;
     Collection keysToRemove;
-    Iterator<Map.Entry> mapIterator;
+    final Iterator<Map.Entry<Object, Object>> mapIterator;
     Iterator valuesIterator;
     Object currKey;
     Object currValue; // RegionEntry
     final long iteratorStartTime;
     MemoryIndexStoreEntry currentEntry;
 
-    MemoryIndexStoreIterator(Map submap, Object indexKey, Collection keysToRemove) {
-      this(submap, indexKey, keysToRemove, cache.cacheTimeMillis());
+    MemoryIndexStoreIterator(Iterator<Map.Entry<Object, Object>> mapIterator, Object indexKey,
+        Collection keysToRemove) {
+      this(mapIterator, indexKey, keysToRemove, cache.cacheTimeMillis());
     }
 
-    private MemoryIndexStoreIterator(Map submap, Object indexKey, Collection keysToRemove,
-        long iteratorStartTime) {
-      this.map = submap;
+    private MemoryIndexStoreIterator(Iterator<Map.Entry<Object, Object>> mapIterator,
+        Object indexKey, Collection keysToRemove, long iteratorStartTime) {
+      this.mapIterator = mapIterator;
       this.indexKey = indexKey;
       this.keysToRemove = keysToRemove == null ? null : new HashSet(keysToRemove);
       this.iteratorStartTime = iteratorStartTime;
@@ -633,9 +637,6 @@ public class MemoryIndexStore implements IndexStore {
         return true;
       }
       // sets the next values iterator
-      if (mapIterator == null) {
-        mapIterator = map.entrySet().iterator();
-      }
       if (mapIterator.hasNext()) {
         // set the next entry in the map as current
         Map.Entry currentMapEntry = mapIterator.next();
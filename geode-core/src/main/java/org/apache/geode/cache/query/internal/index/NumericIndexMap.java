@@ -0,0 +1,907 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.sql.Timestamp;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+
+/**
+ * A {@link SortedIndexMap} for keys that are all ints, longs, floats, doubles, dates or timestamps
+ * of one type. The keys are kept as primitive longs that sort as the keys do, in sorted pages of at
+ * most {@link #MAX_PAGE_SIZE} keys, which take far less memory than the nodes of a skip list and
+ * are scanned without chasing a pointer per key.
+ * <p>
+ * Pages are never modified. Writers, which are serialized, replace a page in the directory of
+ * pages, or the directory itself when a page is split or emptied, so readers take no locks and see
+ * every page in a consistent state. As with a {@link ConcurrentSkipListMap}, iterators are weakly
+ * consistent.
+ * <p>
+ * The NULL and UNDEFINED keys are kept apart from the pages. Once a key of another type is put, for
+ * instance a Long in a map of Integers or a timestamp with nanoseconds, the mappings are moved to a
+ * {@link ConcurrentSkipListMap} which is used from then on.
+ */
+class NumericIndexMap extends AbstractMap<Object, Object> implements SortedIndexMap {
+
+  /** The number of keys above which a page is split in two */
+  static final int MAX_PAGE_SIZE = 256;
+
+  private static final Comparator<Object> COMPARATOR = TypeUtils.getExtendedNumericComparator();
+
+  private volatile Directory directory = Directory.EMPTY;
+
+  /** The map used instead of the pages once a key that cannot be encoded is put */
+  private volatile ConcurrentSkipListMap<Object, Object> fallback;
+
+  /** The mapping of the NULL key, if any */
+  private volatile Map.Entry<Object, Object> nullEntry;
+
+  /** The mapping of the UNDEFINED key, if any */
+  private volatile Map.Entry<Object, Object> undefinedEntry;
+
+  private volatile int size;
+
+  private Set<Map.Entry<Object, Object>> entrySet;
+
+  /**
+   * Returns whether a key that cannot be encoded was put, so that the mappings are kept in a
+   * {@link ConcurrentSkipListMap}
+   */
+  boolean usesFallback() {
+    return this.fallback != null;
+  }
+
+  @Override
+  public Object get(Object key) {
+    // read the directory before the fallback, which is set before the directory is emptied
+    Directory directory = this.directory;
+    ConcurrentSkipListMap<Object, Object> fallback = this.fallback;
+    if (fallback != null) {
+      return fallback.get(key);
+    }
+    if (isToken(key)) {
+      Map.Entry<Object, Object> entry = getTokenEntry(key);
+      return entry == null ? null : entry.getValue();
+    }
+    int page = directory.findPage(key);
+    if (page < 0) {
+      return null;
+    }
+    Page p = directory.pages.get(page);
+    int index = p.indexOf(directory.keyType, key);
+    return index < 0 ? null : p.values[index];
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    ConcurrentSkipListMap<Object, Object> fallback = this.fallback;
+    return fallback != null ? fallback.size() : this.size;
+  }
+
+  @Override
+  public Object put(Object key, Object value) {
+    return put(key, value, false);
+  }
+
+  @Override
+  public Object putIfAbsent(Object key, Object value) {
+    return put(key, value, true);
+  }
+
+  private Object put(Object key, Object value, boolean onlyIfAbsent) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    ConcurrentSkipListMap<Object, Object> fallback = this.fallback;
+    if (fallback == null) {
+      synchronized (this) {
+        fallback = this.fallback;
+        if (fallback == null) {
+          if (isToken(key)) {
+            Map.Entry<Object, Object> old = getTokenEntry(key);
+            if (old == null) {
+              setTokenEntry(key, new AbstractMap.SimpleImmutableEntry<>(key, value));
+              this.size++;
+              return null;
+            }
+            if (!onlyIfAbsent) {
+              setTokenEntry(key, new AbstractMap.SimpleImmutableEntry<>(old.getKey(), value));
+            }
+            return old.getValue();
+          }
+          Directory directory = this.directory;
+          KeyType keyType = directory.keyType != null ? directory.keyType : KeyType.of(key);
+          if (keyType != null && keyType.canEncode(key)) {
+            return putEncoded(directory, keyType, keyType.encode(key), value, onlyIfAbsent);
+          }
+          fallback = moveToFallback();
+        }
+      }
+    }
+    return onlyIfAbsent ? fallback.putIfAbsent(key, value) : fallback.put(key, value);
+  }
+
+  private Object putEncoded(Directory directory, KeyType keyType, long key, Object value,
+      boolean onlyIfAbsent) {
+    int length = directory.pages.length();
+    if (length == 0) {
+      this.directory = new Directory(keyType, new Page(new long[] {key}, new Object[] {value}));
+      this.size++;
+      return null;
+    }
+    int page = Math.max(directory.findPage(key), 0);
+    Page p = directory.pages.get(page);
+    int index = p.indexOf(key);
+    if (index >= 0) {
+      Object old = p.values[index];
+      if (!onlyIfAbsent) {
+        directory.pages.set(page, p.withValue(index, value));
+      }
+      return old;
+    }
+    p = p.insert(-index - 1, key, value);
+    if (p.keys.length > MAX_PAGE_SIZE) {
+      this.directory = directory.split(page, p);
+    } else {
+      directory.pages.set(page, p);
+    }
+    this.size++;
+    return null;
+  }
+
+  @Override
+  public boolean replace(Object key, Object oldValue, Object newValue) {
+    if (oldValue == null || newValue == null) {
+      throw new NullPointerException();
+    }
+    ConcurrentSkipListMap<Object, Object> fallback = this.fallback;
+    if (fallback == null) {
+      synchronized (this) {
+        fallback = this.fallback;
+        if (fallback == null) {
+          if (isToken(key)) {
+            Map.Entry<Object, Object> old = getTokenEntry(key);
+            if (old == null || !oldValue.equals(old.getValue())) {
+              return false;
+            }
+            setTokenEntry(key, new AbstractMap.SimpleImmutableEntry<>(old.getKey(), newValue));
+            return true;
+          }
+          Directory directory = this.directory;
+          int page = directory.findPage(key);
+          if (page < 0) {
+            return false;
+          }
+          Page p = directory.pages.get(page);
+          int index = p.indexOf(directory.keyType, key);
+          if (index < 0 || !oldValue.equals(p.values[index])) {
+            return false;
+          }
+          directory.pages.set(page, p.withValue(index, newValue));
+          return true;
+        }
+      }
+    }
+    return fallback.replace(key, oldValue, newValue);
+  }
+
+  @Override
+  public Object replace(Object key, Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    ConcurrentSkipListMap<Object, Object> fallback = this.fallback;
+    if (fallback == null) {
+      synchronized (this) {
+        fallback = this.fallback;
+        if (fallback == null) {
+          Object old = get(key);
+          if (old != null) {
+            replace(key, old, value);
+          }
+          return old;
+        }
+      }
+    }
+    return fallback.replace(key, value);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    return remove(key, null, false);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    return value != null && remove(key, value, true) != null;
+  }
+
+  /**
+   * Removes the mapping of the given key, if it maps to the given value when one is given, and
+   * returns the value it mapped to
+   */
+  private Object remove(Object key, Object value, boolean matchValue) {
+    ConcurrentSkipListMap<Object, Object> fallback = this.fallback;
+    if (fallback == null) {
+      synchronized (this) {
+        fallback = this.fallback;
+        if (fallback == null) {
+          if (isToken(key)) {
+            Map.Entry<Object, Object> old = getTokenEntry(key);
+            if (old == null || matchValue && !value.equals(old.getValue())) {
+              return null;
+            }
+            setTokenEntry(key, null);
+            this.size--;
+            return old.getValue();
+          }
+          Directory directory = this.directory;
+          int page = directory.findPage(key);
+          if (page < 0) {
+            return null;
+          }
+          Page p = directory.pages.get(page);
+          int index = p.indexOf(directory.keyType, key);
+          if (index < 0) {
+            return null;
+          }
+          Object old = p.values[index];
+          if (matchValue && !value.equals(old)) {
+            return null;
+          }
+          if (p.keys.length == 1) {
+            this.directory = directory.remove(page);
+          } else {
+            directory.pages.set(page, p.remove(index));
+          }
+          this.size--;
+          return old;
+        }
+      }
+    }
+    if (matchValue) {
+      return fallback.remove(key, value) ? value : null;
+    }
+    return fallback.remove(key);
+  }
+
+  @Override
+  public synchronized void clear() {
+    this.fallback = null;
+    this.directory = Directory.EMPTY;
+    this.nullEntry = null;
+    this.undefinedEntry = null;
+    this.size = 0;
+  }
+
+  /**
+   * Moves all mappings to a {@link ConcurrentSkipListMap} which is used from then on. Called with
+   * the lock held.
+   */
+  private ConcurrentSkipListMap<Object, Object> moveToFallback() {
+    ConcurrentSkipListMap<Object, Object> map = new ConcurrentSkipListMap<>(COMPARATOR);
+    Iterator<Map.Entry<Object, Object>> entries = entryIterator(null, false, null, false, false);
+    while (entries.hasNext()) {
+      Map.Entry<Object, Object> entry = entries.next();
+      map.put(entry.getKey(), entry.getValue());
+    }
+    this.fallback = map;
+    // readers that read the empty directory will also read the fallback
+    this.directory = Directory.EMPTY;
+    return map;
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    Set<Map.Entry<Object, Object>> entrySet = this.entrySet;
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Map.Entry<Object, Object>>() {
+        @Override
+        public Iterator<Map.Entry<Object, Object>> iterator() {
+          return entryIterator(null, false, null, false, false);
+        }
+
+        @Override
+        public int size() {
+          return NumericIndexMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+          NumericIndexMap.this.clear();
+        }
+      };
+      this.entrySet = entrySet;
+    }
+    return entrySet;
+  }
+
+  @Override
+  public Iterator<Map.Entry<Object, Object>> entryIterator(Object start, boolean startInclusive,
+      Object end, boolean endInclusive, boolean descending) {
+    Directory directory = this.directory;
+    ConcurrentSkipListMap<Object, Object> fallback = this.fallback;
+    if (fallback != null) {
+      return SortedIndexMap.entryIterator(fallback, start, startInclusive, end, endInclusive,
+          descending);
+    }
+    boolean tokenStart = isToken(start);
+    boolean tokenEnd = isToken(end);
+    if (tokenStart || tokenEnd) {
+      if (start == end && startInclusive && endInclusive) {
+        // a lookup of the NULL or UNDEFINED key
+        List<Map.Entry<Object, Object>> entries = new ArrayList<>(1);
+        addToken(entries, getTokenEntry(start));
+        return entries.iterator();
+      }
+      // ranges bounded by the tokens are not used by the indexes, so copy the mappings
+      return SortedIndexMap.entryIterator(copy(), start, startInclusive, end, endInclusive,
+          descending);
+    }
+    List<Map.Entry<Object, Object>> tokens = null;
+    if (start == null) {
+      tokens = new ArrayList<>(2);
+      addToken(tokens, this.nullEntry);
+      addToken(tokens, this.undefinedEntry);
+    }
+    return new PageIterator(directory, tokens, start, startInclusive, end, endInclusive,
+        descending);
+  }
+
+  private ConcurrentSkipListMap<Object, Object> copy() {
+    ConcurrentSkipListMap<Object, Object> map = new ConcurrentSkipListMap<>(COMPARATOR);
+    Iterator<Map.Entry<Object, Object>> entries = entryIterator(null, false, null, false, false);
+    while (entries.hasNext()) {
+      Map.Entry<Object, Object> entry = entries.next();
+      map.put(entry.getKey(), entry.getValue());
+    }
+    return map;
+  }
+
+  private static boolean isToken(Object key) {
+    return key instanceof NullToken || key instanceof Undefined;
+  }
+
+  private Map.Entry<Object, Object> getTokenEntry(Object token) {
+    return token instanceof NullToken ? this.nullEntry : this.undefinedEntry;
+  }
+
+  private void setTokenEntry(Object token, Map.Entry<Object, Object> entry) {
+    if (token instanceof NullToken) {
+      this.nullEntry = entry;
+    } else {
+      this.undefinedEntry = entry;
+    }
+  }
+
+  private static void addToken(List<Map.Entry<Object, Object>> entries,
+      Map.Entry<Object, Object> entry) {
+    if (entry != null) {
+      entries.add(entry);
+    }
+  }
+
+  /**
+   * The types of keys that are kept as primitive longs, which compare as the keys do
+   */
+  enum KeyType {
+    INTEGER(Integer.class) {
+      @Override
+      long encode(Object key) {
+        return (Integer) key;
+      }
+
+      @Override
+      Object decode(long key) {
+        return (int) key;
+      }
+    },
+    LONG(Long.class) {
+      @Override
+      long encode(Object key) {
+        return (Long) key;
+      }
+
+      @Override
+      Object decode(long key) {
+        return key;
+      }
+    },
+    FLOAT(Float.class) {
+      @Override
+      long encode(Object key) {
+        int bits = Float.floatToIntBits((Float) key);
+        // negative floats sort in the reverse order of their bits
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+      }
+
+      @Override
+      Object decode(long key) {
+        int bits = (int) key;
+        return Float.intBitsToFloat(bits ^ ((bits >> 31) & 0x7fffffff));
+      }
+    },
+    DOUBLE(Double.class) {
+      @Override
+      long encode(Object key) {
+        long bits = Double.doubleToLongBits((Double) key);
+        return bits ^ ((bits >> 63) & 0x7fffffffffffffffL);
+      }
+
+      @Override
+      Object decode(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & 0x7fffffffffffffffL));
+      }
+    },
+    DATE(java.util.Date.class) {
+      @Override
+      long encode(Object key) {
+        return ((java.util.Date) key).getTime();
+      }
+
+      @Override
+      Object decode(long key) {
+        return new java.util.Date(key);
+      }
+    },
+    SQL_DATE(java.sql.Date.class) {
+      @Override
+      long encode(Object key) {
+        return ((java.sql.Date) key).getTime();
+      }
+
+      @Override
+      Object decode(long key) {
+        return new java.sql.Date(key);
+      }
+    },
+    TIMESTAMP(Timestamp.class) {
+      @Override
+      boolean canEncode(Object key) {
+        // only timestamps without fractions of milliseconds are kept in their time
+        return key.getClass() == Timestamp.class && ((Timestamp) key).getNanos() % 1000000 == 0;
+      }
+
+      @Override
+      long encode(Object key) {
+        return ((Timestamp) key).getTime();
+      }
+
+      @Override
+      Object decode(long key) {
+        return new Timestamp(key);
+      }
+    };
+
+    private final Class<?> keyClass;
+
+    KeyType(Class<?> keyClass) {
+      this.keyClass = keyClass;
+    }
+
+    /**
+     * Returns the type of the given key, or null if it cannot be kept as a long
+     */
+    static KeyType of(Object key) {
+      for (KeyType keyType : values()) {
+        if (keyType.keyClass == key.getClass()) {
+          return keyType;
+        }
+      }
+      return null;
+    }
+
+    boolean canEncode(Object key) {
+      return key.getClass() == this.keyClass;
+    }
+
+    abstract long encode(Object key);
+
+    abstract Object decode(long key);
+
+    /**
+     * Compares the given key, which may be of any type, with the given encoded key
+     */
+    int compare(Object key, long encodedKey) {
+      if (canEncode(key)) {
+        return Long.compare(encode(key), encodedKey);
+      }
+      return COMPARATOR.compare(key, decode(encodedKey));
+    }
+  }
+
+  /**
+   * A sorted page of keys and their values, which is never modified
+   */
+  private static class Page {
+
+    final long[] keys;
+
+    final Object[] values;
+
+    Page(long[] keys, Object[] values) {
+      this.keys = keys;
+      this.values = values;
+    }
+
+    /**
+     * Returns the index of the given key, or -(insertion point) - 1
+     */
+    int indexOf(long key) {
+      return Arrays.binarySearch(this.keys, key);
+    }
+
+    int indexOf(KeyType keyType, Object key) {
+      if (keyType.canEncode(key)) {
+        return indexOf(keyType.encode(key));
+      }
+      int low = 0;
+      int high = this.keys.length - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int cmp = keyType.compare(key, this.keys[mid]);
+        if (cmp > 0) {
+          low = mid + 1;
+        } else if (cmp < 0) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    /**
+     * Returns the index of the first key above the given one, or at it if inclusive
+     */
+    int lowerBound(KeyType keyType, Object key, boolean inclusive) {
+      int index = indexOf(keyType, key);
+      if (index < 0) {
+        return -index - 1;
+      }
+      return inclusive ? index : index + 1;
+    }
+
+    /**
+     * Returns the index of the last key below the given one, or at it if inclusive
+     */
+    int upperBound(KeyType keyType, Object key, boolean inclusive) {
+      int index = indexOf(keyType, key);
+      if (index < 0) {
+        return -index - 2;
+      }
+      return inclusive ? index : index - 1;
+    }
+
+    Page withValue(int index, Object value) {
+      Object[] values = this.values.clone();
+      values[index] = value;
+      return new Page(this.keys, values);
+    }
+
+    Page insert(int index, long key, Object value) {
+      int length = this.keys.length;
+      long[] keys = new long[length + 1];
+      Object[] values = new Object[length + 1];
+      System.arraycopy(this.keys, 0, keys, 0, index);
+      System.arraycopy(this.values, 0, values, 0, index);
+      keys[index] = key;
+      values[index] = value;
+      System.arraycopy(this.keys, index, keys, index + 1, length - index);
+      System.arraycopy(this.values, index, values, index + 1, length - index);
+      return new Page(keys, values);
+    }
+
+    Page remove(int index) {
+      int length = this.keys.length;
+      long[] keys = new long[length - 1];
+      Object[] values = new Object[length - 1];
+      System.arraycopy(this.keys, 0, keys, 0, index);
+      System.arraycopy(this.values, 0, values, 0, index);
+      System.arraycopy(this.keys, index + 1, keys, index, length - index - 1);
+      System.arraycopy(this.values, index + 1, values, index, length - index - 1);
+      return new Page(keys, values);
+    }
+
+    Page range(int from, int to) {
+      return new Page(Arrays.copyOfRange(this.keys, from, to),
+          Arrays.copyOfRange(this.values, from, to));
+    }
+  }
+
+  /**
+   * The pages of the map in the order of their keys. Writers replace a page in place when it keeps
+   * its first key's position, and replace the directory when pages are added or removed.
+   */
+  private static class Directory {
+
+    static final Directory EMPTY = new Directory(null);
+
+    final KeyType keyType;
+
+    final AtomicReferenceArray<Page> pages;
+
+    Directory(KeyType keyType, Page... pages) {
+      this.keyType = keyType;
+      this.pages = new AtomicReferenceArray<>(pages);
+    }
+
+    /**
+     * Returns the index of the last page whose first key is not above the given one, or -1 if it is
+     * below every page
+     */
+    int findPage(Object key) {
+      int low = 0;
+      int high = this.pages.length() - 1;
+      if (high < 0) {
+        return -1;
+      }
+      if (this.keyType.canEncode(key)) {
+        return findPage(this.keyType.encode(key));
+      }
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (this.keyType.compare(key, this.pages.get(mid).keys[0]) >= 0) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return high;
+    }
+
+    int findPage(long key) {
+      int low = 0;
+      int high = this.pages.length() - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (this.pages.get(mid).keys[0] <= key) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return high;
+    }
+
+    /**
+     * Returns a directory with the given page, which is too large, split in two at the given index
+     */
+    Directory split(int index, Page page) {
+      int length = this.pages.length();
+      Page[] pages = new Page[length + 1];
+      for (int i = 0; i < index; i++) {
+        pages[i] = this.pages.get(i);
+      }
+      int half = page.keys.length / 2;
+      pages[index] = page.range(0, half);
+      pages[index + 1] = page.range(half, page.keys.length);
+      for (int i = index + 1; i < length; i++) {
+        pages[i + 1] = this.pages.get(i);
+      }
+      return new Directory(this.keyType, pages);
+    }
+
+    /**
+     * Returns a directory without the page at the given index
+     */
+    Directory remove(int index) {
+      int length = this.pages.length();
+      if (length == 1) {
+        return EMPTY;
+      }
+      Page[] pages = new Page[length - 1];
+      for (int i = 0, j = 0; i < length; i++) {
+        if (i != index) {
+          pages[j++] = this.pages.get(i);
+        }
+      }
+      return new Directory(this.keyType, pages);
+    }
+  }
+
+  /**
+   * Iterates over the keys of the pages of a directory between two bounds, after or before the
+   * mappings of the NULL and UNDEFINED keys when there is no lower bound. Each page is read once,
+   * so the keys of a page are seen as they were when it was reached.
+   */
+  private class PageIterator implements Iterator<Map.Entry<Object, Object>> {
+
+    private final Directory directory;
+
+    private final KeyType keyType;
+
+    private final List<Map.Entry<Object, Object>> tokens;
+
+    private final Object start;
+
+    private final boolean startInclusive;
+
+    private final Object end;
+
+    private final boolean endInclusive;
+
+    private final boolean descending;
+
+    private int tokenIndex;
+
+    private int pageIndex;
+
+    private Page page;
+
+    private int index;
+
+    private Map.Entry<Object, Object> next;
+
+    private Map.Entry<Object, Object> last;
+
+    PageIterator(Directory directory, List<Map.Entry<Object, Object>> tokens, Object start,
+        boolean startInclusive, Object end, boolean endInclusive, boolean descending) {
+      this.directory = directory;
+      this.keyType = directory.keyType;
+      this.tokens = tokens;
+      this.start = start;
+      this.startInclusive = startInclusive;
+      this.end = end;
+      this.endInclusive = endInclusive;
+      this.descending = descending;
+      if (this.keyType != null) {
+        if (descending) {
+          positionAtEnd();
+        } else {
+          positionAtStart();
+        }
+      } else {
+        this.pageIndex = -1;
+      }
+    }
+
+    private void positionAtStart() {
+      if (this.start == null) {
+        this.pageIndex = 0;
+        this.page = this.directory.pages.get(0);
+        this.index = 0;
+        return;
+      }
+      this.pageIndex = Math.max(this.directory.findPage(this.start), 0);
+      this.page = this.directory.pages.get(this.pageIndex);
+      this.index = this.page.lowerBound(this.keyType, this.start, this.startInclusive);
+    }
+
+    private void positionAtEnd() {
+      int length = this.directory.pages.length();
+      if (this.end == null) {
+        this.pageIndex = length - 1;
+        this.page = this.directory.pages.get(this.pageIndex);
+        this.index = this.page.keys.length - 1;
+        return;
+      }
+      this.pageIndex = this.directory.findPage(this.end);
+      if (this.pageIndex < 0) {
+        return;
+      }
+      this.page = this.directory.pages.get(this.pageIndex);
+      this.index = this.page.upperBound(this.keyType, this.end, this.endInclusive);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (this.next == null) {
+        this.next = advance();
+      }
+      return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<Object, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      this.last = this.next;
+      this.next = null;
+      return this.last;
+    }
+
+    @Override
+    public void remove() {
+      if (this.last == null) {
+        throw new IllegalStateException();
+      }
+      NumericIndexMap.this.remove(this.last.getKey(), this.last.getValue());
+      this.last = null;
+    }
+
+    private Map.Entry<Object, Object> advance() {
+      if (!this.descending && this.tokens != null && this.tokenIndex < this.tokens.size()) {
+        return this.tokens.get(this.tokenIndex++);
+      }
+      Map.Entry<Object, Object> entry = this.descending ? advanceDescending() : advanceAscending();
+      if (entry == null && this.descending && this.tokens != null) {
+        // the tokens are below every other key
+        if (this.tokenIndex < this.tokens.size()) {
+          return this.tokens.get(this.tokens.size() - ++this.tokenIndex);
+        }
+      }
+      return entry;
+    }
+
+    private Map.Entry<Object, Object> advanceAscending() {
+      if (this.pageIndex < 0) {
+        return null;
+      }
+      int length = this.directory.pages.length();
+      while (this.index >= this.page.keys.length) {
+        if (++this.pageIndex >= length) {
+          this.pageIndex = -1;
+          return null;
+        }
+        this.page = this.directory.pages.get(this.pageIndex);
+        this.index = 0;
+      }
+      long key = this.page.keys[this.index];
+      if (this.end != null) {
+        int cmp = this.keyType.compare(this.end, key);
+        if (cmp < 0 || cmp == 0 && !this.endInclusive) {
+          this.pageIndex = -1;
+          return null;
+        }
+      }
+      Object value = this.page.values[this.index++];
+      return new AbstractMap.SimpleImmutableEntry<>(this.keyType.decode(key), value);
+    }
+
+    private Map.Entry<Object, Object> advanceDescending() {
+      if (this.pageIndex < 0) {
+        return null;
+      }
+      while (this.index < 0) {
+        if (--this.pageIndex < 0) {
+          return null;
+        }
+        this.page = this.directory.pages.get(this.pageIndex);
+        this.index = this.page.keys.length - 1;
+      }
+      long key = this.page.keys[this.index];
+      if (this.start != null) {
+        int cmp = this.keyType.compare(this.start, key);
+        if (cmp > 0 || cmp == 0 && !this.startInclusive) {
+          this.pageIndex = -1;
+          return null;
+        }
+      }
+      Object value = this.page.values[this.index--];
+      return new AbstractMap.SimpleImmutableEntry<>(this.keyType.decode(key), value);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+
+/**
+ * A {@link SortedIndexMap} that keeps its keys in a {@link ConcurrentSkipListMap}, which takes keys
+ * of any comparable type
+ */
+class SkipListIndexMap extends ConcurrentSkipListMap<Object, Object> implements SortedIndexMap {
+
+  private static final long serialVersionUID = -6063383006342961046L;
+
+  SkipListIndexMap() {
+    super(TypeUtils.getExtendedNumericComparator());
+  }
+
+  @Override
+  public Iterator<Map.Entry<Object, Object>> entryIterator(Object start, boolean startInclusive,
+      Object end, boolean endInclusive, boolean descending) {
+    return SortedIndexMap.entryIterator(this, start, startInclusive, end, endInclusive, descending);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+
+/**
+ * The map of index keys to region entries of a {@link MemoryIndexStore}, sorted by the
+ * {@link org.apache.geode.cache.query.internal.types.ExtendedNumericComparator}. Its entry set
+ * iterates in ascending order.
+ */
+interface SortedIndexMap extends ConcurrentMap<Object, Object> {
+
+  /**
+   * Returns an iterator over the mappings whose keys are between the given bounds, in ascending or
+   * descending order. A null bound leaves that end of the range open.
+   */
+  Iterator<Map.Entry<Object, Object>> entryIterator(Object start, boolean startInclusive,
+      Object end, boolean endInclusive, boolean descending);
+
+  /**
+   * Returns an iterator over the mappings of the given map whose keys are between the given bounds
+   * as {@link #entryIterator} does
+   */
+  static Iterator<Map.Entry<Object, Object>> entryIterator(
+      ConcurrentNavigableMap<Object, Object> map, Object start, boolean startInclusive, Object end,
+      boolean endInclusive, boolean descending) {
+    ConcurrentNavigableMap<Object, Object> subMap;
+    if (start == null && end == null) {
+      subMap = map;
+    } else if (start == null) {
+      subMap = map.headMap(end, endInclusive);
+    } else if (end == null) {
+      subMap = map.tailMap(start, startInclusive);
+    } else {
+      subMap = map.subMap(start, startInclusive, end, endInclusive);
+    }
+    if (descending) {
+      subMap = subMap.descendingMap();
+    }
+    return subMap.entrySet().iterator();
+  }
+}
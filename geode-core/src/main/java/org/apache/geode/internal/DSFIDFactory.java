@@ -350,6 +350,7 @@ import org.apache.geode.internal.cache.partitioned.RemoveIndexesMessage.RemoveIn
 import org.apache.geode.internal.cache.partitioned.SizeMessage;
 import org.apache.geode.internal.cache.partitioned.SizeMessage.SizeReplyMessage;
 import org.apache.geode.internal.cache.partitioned.SizedBasedLoadProbe;
+import org.apache.geode.internal.cache.partitioned.StreamingFlowControl;
 import org.apache.geode.internal.cache.persistence.DiskStoreID;
 import org.apache.geode.internal.cache.persistence.MembershipFlushRequest;
 import org.apache.geode.internal.cache.persistence.MembershipViewRequest;
@@ -937,6 +938,8 @@ public class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY,
         GatewaySenderQueueEntrySynchronizationOperation.GatewaySenderQueueEntrySynchronizationEntry.class);
     registerDSFID(ABORT_BACKUP_REQUEST, AbortBackupRequest.class);
+    registerDSFID(STREAMING_FLOW_CONTROL_PERMIT_MESSAGE, StreamingFlowControl.PermitMessage.class);
+    registerDSFID(STREAMING_FLOW_CONTROL_ID, StreamingFlowControl.FlowControlId.class);
   }
 
   /**
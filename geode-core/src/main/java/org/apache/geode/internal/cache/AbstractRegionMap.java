@@ -89,6 +89,7 @@ import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
 import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.OpenAddressingEntryMap;
 
 /**
  * Abstract implementation of {@link RegionMap}that has all the common behavior.
@@ -99,6 +100,18 @@ public abstract class AbstractRegionMap
     implements RegionMap, FocusedRegionMap, CacheModificationLock {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * If true then region entries are stored in an {@link OpenAddressingEntryMap}, whose tables hold
+   * the entries directly, instead of a {@link CustomEntryConcurrentHashMap}.
+   */
+  public static final String OPEN_ADDRESSING_ENTRY_MAP_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "RegionMap.openAddressing";
+
+  /**
+   * The maximum number of entries looked at by {@link #estimateInlineKeyBytesSaved()}.
+   */
+  private static final int INLINE_KEY_SAMPLE_SIZE = 1000;
+
   /** The underlying map for this region. */
   protected ConcurrentMapWithReusableEntries<Object, Object> map;
 
@@ -152,7 +165,11 @@ public abstract class AbstractRegionMap
   private ConcurrentMapWithReusableEntries<Object, Object> createConcurrentMapWithReusableEntries(
       int initialCapacity, float loadFactor, int concurrencyLevel, boolean isIdentityMap,
       CustomEntryConcurrentHashMap.HashEntryCreator<Object, Object> entryCreator) {
-    if (entryCreator != null) {
+    if (entryCreator != null && !isIdentityMap
+        && Boolean.getBoolean(OPEN_ADDRESSING_ENTRY_MAP_PROPERTY)) {
+      return new OpenAddressingEntryMap<>(initialCapacity, loadFactor, concurrencyLevel,
+          entryCreator);
+    } else if (entryCreator != null) {
       return new CustomEntryConcurrentHashMap<>(initialCapacity, loadFactor, concurrencyLevel,
           isIdentityMap, entryCreator);
     } else {
@@ -3423,6 +3440,28 @@ public abstract class AbstractRegionMap
     return (int) ReflectionSingleObjectSizer.sizeof(getEntryFactory().getEntryClass());
   }
 
+  /**
+   * Only looks at up to INLINE_KEY_SAMPLE_SIZE entries and scales the result up to the size of the
+   * map. It is only computed on demand since it has to iterate over the entries.
+   */
+  @Override
+  public long estimateInlineKeyBytesSaved() {
+    final int size = getEntryMap().size();
+    if (size == 0) {
+      return 0;
+    }
+    final Class<?> objectKeyEntryClass = getEntryFactory().getEntryClass();
+    long saved = 0;
+    int sampled = 0;
+    for (Object re : getEntryMap().values()) {
+      saved += InlineKeyHelper.getInlineKeyBytesSaved((RegionEntry) re, objectKeyEntryClass);
+      if (++sampled >= INLINE_KEY_SAMPLE_SIZE) {
+        break;
+      }
+    }
+    return sampled == 0 ? 0 : saved * size / sampled;
+  }
+
   @Override
   public boolean beginChangeValueForm(EvictableEntry le,
       CachedDeserializable vmCachedDeserializable, Object v) {
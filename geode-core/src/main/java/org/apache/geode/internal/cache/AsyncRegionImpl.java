@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.AsyncRegion;
+import org.apache.geode.cache.client.internal.PoolImpl;
+import org.apache.geode.cache.client.internal.ServerRegionProxy;
+import org.apache.geode.cache.execute.Execution;
+import org.apache.geode.cache.execute.FunctionService;
+
+/**
+ * Performs the operations of a client region without making the calling thread wait for the
+ * server.
+ * <p>
+ * A get or put of a region whose only work is done by the server is sent with
+ * {@link ServerRegionProxy#getAsync} or {@link ServerRegionProxy#putAsync}, which complete on the
+ * thread that reads the server's reply. Any other operation is executed by the regular region
+ * operation on a thread of the region's pool, or on the calling thread if it is in a transaction
+ * or the region has no pool.
+ */
+public class AsyncRegionImpl<K, V> implements AsyncRegion<K, V> {
+
+  /**
+   * The sources of event ids not used by any operation in progress, so there are only as many
+   * thread ids as there have been puts in progress at the same time
+   */
+  private static final Queue<EventID.ThreadAndSequenceIDWrapper> unusedEventIds =
+      new ConcurrentLinkedQueue<>();
+
+  private final LocalRegion region;
+
+  public AsyncRegionImpl(LocalRegion region) {
+    this.region = region;
+  }
+
+  @Override
+  public Region<K, V> getRegion() {
+    return this.region;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<V> getAsync(K key) {
+    if (!sendsToServerOnly(false)) {
+      return execute(() -> (V) this.region.get(key));
+    }
+    try {
+      this.region.validateKey(key);
+      this.region.checkReadiness();
+      this.region.checkForNoAccess();
+      final CachePerfStats stats = this.region.getCachePerfStats();
+      final long start = stats.startGet();
+      return this.region.getServerProxy().getAsync(key, null, null).handle((value, failure) -> {
+        if (failure != null) {
+          stats.endGet(start, true);
+          throw asUnchecked(failure);
+        }
+        boolean isMiss = value == null || Token.isInvalid(value) || value == Token.TOMBSTONE;
+        stats.endGet(start, isMiss);
+        return isMiss ? null : (V) value;
+      });
+    } catch (RuntimeException e) {
+      return failed(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> putAsync(K key, V value) {
+    if (!sendsToServerOnly(true)) {
+      return execute(() -> {
+        this.region.put(key, value);
+        return null;
+      });
+    }
+    final EntryEventImpl event;
+    try {
+      event = this.region.newUpdateEntryEvent(key, value, null);
+    } catch (RuntimeException e) {
+      return failed(e);
+    }
+    final EventID.ThreadAndSequenceIDWrapper eventIds = borrowEventIds();
+    try {
+      event.setEventId(new EventID(this.region.getCache().getDistributedSystem(), eventIds));
+      final long start = CachePerfStats.getStatTime();
+      return this.region.getServerProxy()
+          .putAsync(key, event.getRawNewValue(), event.getDeltaBytes(), event, Operation.UPDATE,
+              event.getRawCallbackArgument())
+          .handle((result, failure) -> {
+            event.release();
+            releaseEventIds(eventIds);
+            if (failure != null) {
+              throw asUnchecked(failure);
+            }
+            this.region.getCachePerfStats().endPut(start, false);
+            return null;
+          });
+    } catch (RuntimeException e) {
+      event.release();
+      releaseEventIds(eventIds);
+      return failed(e);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> getAllAsync(Collection<? extends K> keys) {
+    return execute(() -> (Map<K, V>) this.region.getAll(keys));
+  }
+
+  @Override
+  public CompletableFuture<Object> executeAsync(String functionId, Set<? extends K> filter,
+      Object arguments) {
+    return execute(() -> {
+      Execution execution = FunctionService.onRegion(this.region);
+      if (filter != null) {
+        execution = execution.withFilter(filter);
+      }
+      if (arguments != null) {
+        execution = execution.setArguments(arguments);
+      }
+      return execution.execute(functionId).getResult();
+    });
+  }
+
+  /**
+   * Returns true if the server does all the work of an operation of the region, so the thread
+   * reading the server's reply can finish the operation. The region must not store data or have
+   * callbacks, and the operation must not be part of a transaction.
+   *
+   * @param isWrite whether the operation changes the region, so it would invoke a cache writer
+   */
+  private boolean sendsToServerOnly(boolean isWrite) {
+    if (this.region.getServerProxy() == null || this.region.getDataPolicy().withStorage()
+        || this.region.hasListener()
+        || (isWrite ? this.region.basicGetWriter() : this.region.basicGetLoader()) != null) {
+      return false;
+    }
+    this.region.discoverJTA();
+    return !this.region.isTX();
+  }
+
+  /**
+   * Executes the given region operation on a thread of the region's pool, or on the calling thread
+   * if it is in a transaction, which other threads cannot join, or if the region has no pool.
+   */
+  private <T> CompletableFuture<T> execute(Supplier<T> operation) {
+    ServerRegionProxy proxy = this.region.getServerProxy();
+    this.region.discoverJTA();
+    if (proxy == null || this.region.isTX()) {
+      try {
+        return CompletableFuture.completedFuture(operation.get());
+      } catch (RuntimeException e) {
+        return failed(e);
+      }
+    }
+    try {
+      return CompletableFuture.supplyAsync(operation,
+          ((PoolImpl) proxy.getPool()).getAsyncExecutor());
+    } catch (RejectedExecutionException e) {
+      // the pool is closing
+      RuntimeException cancelled = this.region.getCancelCriterion().generateCancelledException(e);
+      return failed(cancelled != null ? cancelled : e);
+    }
+  }
+
+  /**
+   * Returns a source of event ids that no other operation in progress uses. The servers drop an
+   * event whose sequence id is not greater than that of the last event they saw with the same
+   * thread id, so operations in progress at the same time, which servers may see in any order,
+   * must not share the thread id of the thread that started them.
+   */
+  private static EventID.ThreadAndSequenceIDWrapper borrowEventIds() {
+    EventID.ThreadAndSequenceIDWrapper eventIds = unusedEventIds.poll();
+    return eventIds != null ? eventIds : new EventID.ThreadAndSequenceIDWrapper();
+  }
+
+  private static void releaseEventIds(EventID.ThreadAndSequenceIDWrapper eventIds) {
+    unusedEventIds.offer(eventIds);
+  }
+
+  private static <T> CompletableFuture<T> failed(Throwable failure) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(failure);
+    return future;
+  }
+
+  /**
+   * Returns the given failure of an operation so that a dependent stage can throw it
+   */
+  private static RuntimeException asUnchecked(Throwable failure) {
+    if (failure instanceof RuntimeException) {
+      return (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    return new CompletionException(failure);
+  }
+}
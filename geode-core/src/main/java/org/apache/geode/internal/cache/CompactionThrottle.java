@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits the rate at which an oplog compactor copies live entries forward.
+ * <p>
+ * The compactor copies entries in chunks of at most chunkSize entries. Once a chunk is full the
+ * compactor returns from {@link CompactableOplog#compact} without releasing the oplog, which gives
+ * up the oplog's compactor lock and the disk store's compactor read lock, and calls
+ * {@link #pause(BooleanSupplier)}. The pause lasts long enough to bring the bytes copied since the
+ * previous pause down to the configured number of bytes per second. The compactor then calls
+ * compact again and it carries on with the entries that are still live.
+ * <p>
+ * Only used by the compactor thread so it is not thread safe.
+ */
+class CompactionThrottle {
+
+  /** The longest the compactor parks before checking whether it has been stopped. */
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final long bytesPerSecond;
+
+  private final int chunkSize;
+
+  private final DiskStoreStats stats;
+
+  private int chunkEntries;
+
+  private long chunkBytes;
+
+  private long chunkStart;
+
+  CompactionThrottle(long bytesPerSecond, int chunkSize, DiskStoreStats stats) {
+    this.bytesPerSecond = bytesPerSecond;
+    this.chunkSize = chunkSize;
+    this.stats = stats;
+    reset();
+  }
+
+  /**
+   * Starts a new chunk. Called when a compaction starts.
+   */
+  void reset() {
+    this.chunkEntries = 0;
+    this.chunkBytes = 0;
+    this.chunkStart = System.nanoTime();
+  }
+
+  /**
+   * Called each time the compactor copies an entry forward.
+   */
+  void entryCompacted(int bytes) {
+    this.chunkEntries++;
+    this.chunkBytes += bytes;
+  }
+
+  /**
+   * @return true if the compactor must stop copying entries and call {@link #pause}
+   */
+  boolean isChunkFull() {
+    return this.chunkEntries >= this.chunkSize;
+  }
+
+  /**
+   * Waits until copying the current chunk has taken as long as the configured rate allows and then
+   * starts a new chunk. Must be called without holding any compaction locks.
+   *
+   * @return false if the compactor was stopped or interrupted while paused
+   */
+  boolean pause(BooleanSupplier keepRunning) {
+    final long start = System.nanoTime();
+    long remaining = getPauseNanos(this.chunkBytes, start - this.chunkStart, this.bytesPerSecond);
+    boolean result = true;
+    while (remaining > 0) {
+      if (!keepRunning.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+        result = false;
+        break;
+      }
+      LockSupport.parkNanos(Math.min(remaining, MAX_PARK_NANOS));
+      remaining = getPauseNanos(this.chunkBytes, System.nanoTime() - this.chunkStart,
+          this.bytesPerSecond);
+    }
+    long end = System.nanoTime();
+    this.stats.incCompactThrottleTime(end - start);
+    this.chunkEntries = 0;
+    this.chunkBytes = 0;
+    this.chunkStart = end;
+    return result && keepRunning.getAsBoolean();
+  }
+
+  /**
+   * @return how much longer, in nanoseconds, copying bytes should take at bytesPerSecond given
+   *         that it already took elapsedNanos
+   */
+  static long getPauseNanos(long bytes, long elapsedNanos, long bytesPerSecond) {
+    long budgetNanos = (long) ((double) bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+    return Math.max(0, budgetNanos - elapsedNanos);
+  }
+}
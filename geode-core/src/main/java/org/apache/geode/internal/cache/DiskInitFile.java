@@ -62,6 +62,7 @@ import org.apache.geode.cache.EvictionAlgorithm;
 import org.apache.geode.cache.RegionAttributes;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.compression.Compressor;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.InternalInstantiator;
@@ -1413,13 +1414,21 @@ public class DiskInitFile implements DiskInitFileInterpreter {
   }
 
   /**
-   * If the file is smaller than this constant then it does not need to be compacted.
+   * If the file is smaller than this many bytes then it does not need to be compacted.
    */
-  private static final long MIN_SIZE_BEFORE_COMPACT = 1024 * 1024;
+  public static final String COMPACT_MIN_SIZE_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.initFileCompactMinSize";
   /**
-   * If the ratio of live vs. dead is not less than this constant then no need to compact.
+   * If the percentage of live records is greater than this then no need to compact.
    */
-  private static final double COMPACT_RATIO = 0.5;
+  public static final String COMPACT_THRESHOLD_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.initFileCompactThreshold";
+
+  private final long minSizeBeforeCompact =
+      Long.getLong(COMPACT_MIN_SIZE_PROPERTY_NAME, 1024 * 1024);
+
+  private final double compactRatio =
+      Integer.getInteger(COMPACT_THRESHOLD_PROPERTY_NAME, 50) / 100.0;
 
   private void compactIfNeeded() {
     lock(true);
@@ -1430,9 +1439,9 @@ public class DiskInitFile implements DiskInitFileInterpreter {
         return;
       if (this.ifTotalRecordCount == this.ifLiveRecordCount)
         return;
-      if (this.ifRAF.length() <= MIN_SIZE_BEFORE_COMPACT)
+      if (this.ifRAF.length() <= this.minSizeBeforeCompact)
         return;
-      if ((double) this.ifLiveRecordCount / (double) this.ifTotalRecordCount > COMPACT_RATIO)
+      if ((double) this.ifLiveRecordCount / (double) this.ifTotalRecordCount > this.compactRatio)
         return;
       compact();
     } catch (IOException ignore) {
@@ -1450,6 +1459,18 @@ public class DiskInitFile implements DiskInitFileInterpreter {
     return this.ifFile;
   }
 
+  /**
+   * Returns the number of records, live or dead, in the init file. Used by tests.
+   */
+  int getTotalRecordCount() {
+    lock(false);
+    try {
+      return this.ifTotalRecordCount;
+    } finally {
+      unlock(false);
+    }
+  }
+
   private void compact() {
     lock(true);
     this.compactInProgress = true;
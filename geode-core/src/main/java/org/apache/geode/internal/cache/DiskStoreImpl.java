@@ -192,6 +192,58 @@ public class DiskStoreImpl implements DiskStore {
   final boolean RECOVER_LRU_VALUES =
       getBoolean(DiskStoreImpl.RECOVER_LRU_VALUES_PROPERTY_NAME, false);
 
+  /**
+   * The maximum number of threads used to read oplog files in parallel during recovery. The
+   * default of 1 recovers the oplogs one after another on the recovering thread.
+   */
+  public static final String RECOVERY_THREADS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads";
+
+  int RECOVERY_THREADS = Integer.getInteger(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, 1);
+
+  /**
+   * Allows values to be faulted in from a read only memory mapped view of each crf that is no
+   * longer being appended to, instead of from its RandomAccessFile under the oplog lock.
+   */
+  public static final String MAP_INACTIVE_CRFS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.mapInactiveCrfs";
+
+  boolean MAP_INACTIVE_CRFS = getBoolean(DiskStoreImpl.MAP_INACTIVE_CRFS_PROPERTY_NAME, false);
+
+  /**
+   * Enables group commit of synchronous oplog writes. Concurrent synchronous writers then share a
+   * single flush, and force when gemfire.syncWrites is set, instead of each doing their own. The
+   * value is how many microseconds the first writer of a group waits for others to join it; 0
+   * groups only the writers that arrive while a flush is already in progress. A negative value,
+   * the default, disables group commit.
+   */
+  public static final String GROUP_COMMIT_WINDOW_MICROS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommitWindowMicros";
+
+  int GROUP_COMMIT_WINDOW_MICROS =
+      Integer.getInteger(DiskStoreImpl.GROUP_COMMIT_WINDOW_MICROS_PROPERTY_NAME, -1);
+
+  /**
+   * Limits how fast the compactor copies live entries forward, in megabytes per second. The
+   * compactor then works through an oplog in chunks of entries and pauses between chunks without
+   * holding any compaction locks. The default of 0 does not limit the compactor.
+   */
+  public static final String COMPACTION_MAX_MB_PER_SEC_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.compactionMaxMBPerSec";
+
+  /**
+   * The number of entries the compactor copies forward between pauses when
+   * gemfire.disk.compactionMaxMBPerSec is set.
+   */
+  public static final String COMPACTION_CHUNK_SIZE_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.compactionChunkSize";
+
+  int COMPACTION_MAX_MB_PER_SEC =
+      Integer.getInteger(DiskStoreImpl.COMPACTION_MAX_MB_PER_SEC_PROPERTY_NAME, 0);
+
+  int COMPACTION_CHUNK_SIZE =
+      Integer.getInteger(DiskStoreImpl.COMPACTION_CHUNK_SIZE_PROPERTY_NAME, 1000);
+
   public static boolean getBoolean(String sysProp, boolean def) {
     return Boolean.valueOf(System.getProperty(sysProp, Boolean.valueOf(def).toString()));
   }
@@ -2807,9 +2859,18 @@ public class DiskStoreImpl implements DiskStore {
 
     private final boolean compactionCompletionRequired;
 
+    /** Null if the compaction rate is not limited */
+    private final CompactionThrottle throttle;
+
     OplogCompactor() {
       this.compactionCompletionRequired =
           Boolean.getBoolean(COMPLETE_COMPACTION_BEFORE_TERMINATION_PROPERTY_NAME);
+      if (COMPACTION_MAX_MB_PER_SEC > 0) {
+        this.throttle = new CompactionThrottle(COMPACTION_MAX_MB_PER_SEC * 1024L * 1024L,
+            Math.max(1, COMPACTION_CHUNK_SIZE), getStats());
+      } else {
+        this.throttle = null;
+      }
     }
 
     /** Creates a new thread and starts the thread* */
@@ -2877,11 +2938,19 @@ public class DiskStoreImpl implements DiskStore {
       int totalCount = 0;
       long compactionStart = getStats().startCompaction();
       long start = System.nanoTime();
+      if (this.throttle != null) {
+        this.throttle.reset();
+      }
       try {
         for (int i = 0; i < oplogs.length && keepCompactorRunning() /*
                                                                      * @todo && !owner. isDestroyed
                                                                      */; i++) {
           totalCount += oplogs[i].compact(this);
+          // a throttled compact returns early each time it fills a chunk; pause with the
+          // compaction locks released and then carry on with the same oplog
+          while (isChunkFull() && this.throttle.pause(this::keepCompactorRunning)) {
+            totalCount += oplogs[i].compact(this);
+          }
         }
 
         // TODO:Asif : DiskRegion: How do we tackle
@@ -3006,6 +3075,23 @@ public class DiskStoreImpl implements DiskStore {
     boolean keepCompactorRunning() {
       return this.compactorEnabled || this.compactionCompletionRequired;
     }
+
+    /**
+     * Called by an oplog each time it copies an entry forward.
+     */
+    void entryCompacted(int bytes) {
+      if (this.throttle != null) {
+        this.throttle.entryCompacted(bytes);
+      }
+    }
+
+    /**
+     * @return true if the oplog being compacted must stop copying entries forward so that the
+     *         compactor can pause
+     */
+    boolean isChunkFull() {
+      return this.throttle != null && this.throttle.isChunkFull();
+    }
   }
 
   /**
@@ -3522,6 +3608,11 @@ public class DiskStoreImpl implements DiskStore {
     public int size() {
       return this.ints.size() + this.longs.size();
     }
+
+    public void addAll(OplogEntryIdSet other) {
+      this.ints.addAll(other.ints);
+      this.longs.addAll(other.longs);
+    }
   }
 
   /**
@@ -54,6 +54,9 @@ public class DiskStoreStats {
   private static final int oplogRecoveriesId;
   private static final int oplogRecoveryTimeId;
   private static final int oplogRecoveredBytesId;
+  private static final int oplogRecoveriesInProgressId;
+  private static final int drfRecoveryTimeId;
+  private static final int drfRecoveredBytesId;
   private static final int bytesReadId;
   private static final int removesId;
   private static final int removeTimeId;
@@ -65,6 +68,7 @@ public class DiskStoreStats {
   private static final int compactUpdateTimeId;
   private static final int compactDeletesId;
   private static final int compactDeleteTimeId;
+  private static final int compactThrottleTimeId;
 
   private static final int openOplogsId;
   private static final int inactiveOplogsId;
@@ -72,6 +76,11 @@ public class DiskStoreStats {
 
   private static final int oplogReadsId;
   private static final int oplogSeeksId;
+  private static final int oplogMappedReadsId;
+
+  private static final int groupCommitsId;
+  private static final int groupCommitWritesId;
+  private static final int groupCommitWaitTimeId;
 
   private static final int uncreatedRecoveredRegionsId;
   private static final int backupsInProgress;
@@ -100,6 +109,12 @@ public class DiskStoreStats {
     final String oplogRecoveryTimeDesc = "The total amount of time spent doing an oplog recovery";
     final String oplogRecoveredBytesDesc =
         "The total number of bytes that have been read from oplogs during a recovery";
+    final String oplogRecoveriesInProgressDesc =
+        "The current number of oplog files being read concurrently during a recovery";
+    final String drfRecoveryTimeDesc =
+        "The total amount of time spent reading oplog delete records during a recovery, summed over all recovery threads";
+    final String drfRecoveredBytesDesc =
+        "The total number of bytes that have been read from oplog delete records during a recovery";
     final String removesDesc =
         "The total number of region entries that have been removed from disk";
     final String removeTimeDesc = "The total amount of time spent removing from disk";
@@ -145,6 +160,9 @@ public class DiskStoreStats {
             f.createIntCounter("oplogRecoveries", oplogRecoveriesDesc, "ops"),
             f.createLongCounter("oplogRecoveryTime", oplogRecoveryTimeDesc, "nanoseconds"),
             f.createLongCounter("oplogRecoveredBytes", oplogRecoveredBytesDesc, "bytes"),
+            f.createIntGauge("oplogRecoveriesInProgress", oplogRecoveriesInProgressDesc, "oplogs"),
+            f.createLongCounter("drfRecoveryTime", drfRecoveryTimeDesc, "nanoseconds"),
+            f.createLongCounter("drfRecoveredBytes", drfRecoveredBytesDesc, "bytes"),
             f.createLongCounter("removes", removesDesc, "ops"),
             f.createLongCounter("removeTime", removeTimeDesc, "nanoseconds"),
             f.createIntGauge("queueSize", queueSizeDesc, "entries"),
@@ -163,6 +181,9 @@ public class DiskStoreStats {
             f.createLongCounter("compactDeleteTime",
                 "Total amount of time, in nanoseconds, spent doing deletes during a compact",
                 "nanoseconds"),
+            f.createLongCounter("compactThrottleTime",
+                "Total amount of time, in nanoseconds, compactions spent paused to stay within the configured compaction rate",
+                "nanoseconds"),
             f.createIntGauge("compactsInProgress",
                 "current number of oplog compacts that are in progress", "compacts"),
             f.createIntGauge("writesInProgress",
@@ -181,6 +202,18 @@ public class DiskStoreStats {
                 "oplogs"),
             f.createLongCounter("oplogReads", "Total number of oplog reads", "reads"),
             f.createLongCounter("oplogSeeks", "Total number of oplog seeks", "seeks"),
+            f.createLongCounter("oplogMappedReads",
+                "Total number of oplog reads served from a memory mapped crf without a seek",
+                "reads"),
+            f.createLongCounter("groupCommits",
+                "Total number of flushes done on behalf of a group of synchronous writers",
+                "flushes"),
+            f.createLongCounter("groupCommitWrites",
+                "Total number of synchronous writes made durable by group commit flushes. Divide by groupCommits for the average batch size.",
+                "writes"),
+            f.createLongCounter("groupCommitWaitTime",
+                "Total amount of time synchronous writers spent waiting for a group commit flush",
+                "nanoseconds"),
             f.createIntGauge("uncreatedRecoveredRegions",
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
@@ -214,18 +247,26 @@ public class DiskStoreStats {
     oplogRecoveriesId = type.nameToId("oplogRecoveries");
     oplogRecoveryTimeId = type.nameToId("oplogRecoveryTime");
     oplogRecoveredBytesId = type.nameToId("oplogRecoveredBytes");
+    oplogRecoveriesInProgressId = type.nameToId("oplogRecoveriesInProgress");
+    drfRecoveryTimeId = type.nameToId("drfRecoveryTime");
+    drfRecoveredBytesId = type.nameToId("drfRecoveredBytes");
     removesId = type.nameToId("removes");
     removeTimeId = type.nameToId("removeTime");
     queueSizeId = type.nameToId("queueSize");
 
     compactDeletesId = type.nameToId("compactDeletes");
     compactDeleteTimeId = type.nameToId("compactDeleteTime");
+    compactThrottleTimeId = type.nameToId("compactThrottleTime");
     compactInsertsId = type.nameToId("compactInserts");
     compactInsertTimeId = type.nameToId("compactInsertTime");
     compactUpdatesId = type.nameToId("compactUpdates");
     compactUpdateTimeId = type.nameToId("compactUpdateTime");
     oplogReadsId = type.nameToId("oplogReads");
     oplogSeeksId = type.nameToId("oplogSeeks");
+    oplogMappedReadsId = type.nameToId("oplogMappedReads");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitWritesId = type.nameToId("groupCommitWrites");
+    groupCommitWaitTimeId = type.nameToId("groupCommitWaitTime");
 
     openOplogsId = type.nameToId("openOplogs");
     inactiveOplogsId = type.nameToId("inactiveOplogs");
@@ -447,6 +488,38 @@ public class DiskStoreStats {
     this.stats.incLong(oplogRecoveredBytesId, bytesRead);
   }
 
+  /**
+   * Invoked before the delete records of a single oplog are read during recovery. Several oplogs
+   * may be in progress at once when recovery threads are configured.
+   *
+   * @return The timestamp that marks the start of the operation
+   */
+  public long startDrfRead() {
+    this.stats.incInt(oplogRecoveriesInProgressId, 1);
+    return DistributionStats.getStatTime();
+  }
+
+  /**
+   * Invoked after the delete records of a single oplog have been read during recovery
+   *
+   * @param start The time at which the read operation started
+   * @param bytesRead The number of bytes that were read
+   */
+  public void endDrfRead(long start, long bytesRead) {
+    this.stats.incInt(oplogRecoveriesInProgressId, -1);
+    long end = DistributionStats.getStatTime();
+    this.stats.incLong(drfRecoveryTimeId, end - start);
+    this.stats.incLong(drfRecoveredBytesId, bytesRead);
+  }
+
+  public long getDrfRecoveryTime() {
+    return this.stats.getLong(drfRecoveryTimeId);
+  }
+
+  public long getRecoveryTime() {
+    return this.stats.getLong(recoveryTimeId);
+  }
+
   public void incRecoveredEntryCreates() {
     this.stats.incLong(recoveredEntryCreatesId, 1);
   }
@@ -498,6 +571,40 @@ public class DiskStoreStats {
     this.stats.incLong(oplogSeeksId, 1);
   }
 
+  public void incOplogMappedReads() {
+    this.stats.incLong(oplogMappedReadsId, 1);
+  }
+
+  public long getOplogMappedReads() {
+    return this.stats.getLong(oplogMappedReadsId);
+  }
+
+  public long startGroupCommitWait() {
+    return DistributionStats.getStatTime();
+  }
+
+  public void endGroupCommitWait(long start) {
+    this.stats.incLong(groupCommitWaitTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  /**
+   * Invoked after a group commit flush
+   *
+   * @param writes The number of synchronous writes the flush made durable
+   */
+  public void endGroupCommit(long writes) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitWritesId, writes);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommitWrites() {
+    return this.stats.getLong(groupCommitWritesId);
+  }
+
   public void incInactiveOplogs(int delta) {
     this.stats.incInt(inactiveOplogsId, delta);
   }
@@ -521,6 +628,18 @@ public class DiskStoreStats {
     this.stats.incLong(compactUpdateTimeId, getStatTime() - start);
   }
 
+  public long getCompactUpdates() {
+    return this.stats.getLong(compactUpdatesId);
+  }
+
+  public void incCompactThrottleTime(long nanos) {
+    this.stats.incLong(compactThrottleTimeId, nanos);
+  }
+
+  public long getCompactThrottleTime() {
+    return this.stats.getLong(compactThrottleTimeId);
+  }
+
   public long getStatTime() {
     return DistributionStats.getStatTime();
   }
@@ -149,6 +149,21 @@ public class EventID implements DataSerializableFixedID, Serializable, Externali
     this(initializeAndGetDSEventIdentity(sys));
   }
 
+  /**
+   * Constructor for creating an event ID originating in the local cache with the thread and
+   * sequence ids of the given source instead of those of the calling thread
+   *
+   * @param sys the local distributed system
+   * @param ids a source of thread and sequence ids that, like a thread, is used by one operation at
+   *        a time
+   */
+  EventID(DistributedSystem sys, ThreadAndSequenceIDWrapper ids) {
+    this.membershipID = initializeAndGetDSEventIdentity(sys);
+    this.threadID = ids.threadID;
+    this.sequenceID = ids.getAndIncrementSequenceID();
+    this.bucketID = -1;
+  }
+
   public static byte[] getMembershipId(DistributedSystem sys) {
     return EventID.initializeAndGetDSEventIdentity(sys);
   }
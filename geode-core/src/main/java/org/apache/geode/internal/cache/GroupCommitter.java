@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lets concurrent synchronous writers to an {@link Oplog} share one flush of the oplog's write
+ * buffers, and one force of its files when gemfire.syncWrites is set.
+ * <p>
+ * A writer appends its record to the write buffer while holding the oplog lock and takes a ticket
+ * with {@link #nextTicket()}. After releasing the oplog lock it calls {@link #commit(long)}, which
+ * returns once a flush has covered its ticket. The first writer to commit becomes the leader: it
+ * waits for the configured window so that other writers can append their records, then flushes
+ * everything appended so far and releases every writer that flush covered. Writers that commit
+ * while a flush is in progress are covered by the next one.
+ */
+class GroupCommitter {
+
+  /**
+   * Flushes everything appended to the oplog so far.
+   */
+  interface Flusher {
+    /**
+     * @return the last ticket handed out before the flush started; all writers holding this
+     *         ticket or a lower one are now durable
+     */
+    long flush();
+  }
+
+  private final Flusher flusher;
+
+  private final long windowNanos;
+
+  private final DiskStoreStats stats;
+
+  /** The last ticket handed out. Guarded by the oplog lock. */
+  private long lastTicket;
+
+  private final Object commitLock = new Object();
+
+  /** The highest ticket known to be durable. Guarded by commitLock. */
+  private long committedTicket;
+
+  /** True while a leader is flushing. Guarded by commitLock. */
+  private boolean flushInProgress;
+
+  GroupCommitter(Flusher flusher, long windowNanos, DiskStoreStats stats) {
+    this.flusher = flusher;
+    this.windowNanos = windowNanos;
+    this.stats = stats;
+  }
+
+  /**
+   * Must be called while holding the oplog lock, right after appending a record.
+   */
+  long nextTicket() {
+    return ++this.lastTicket;
+  }
+
+  /**
+   * Must be called while holding the oplog lock.
+   */
+  long getLastTicket() {
+    return this.lastTicket;
+  }
+
+  /**
+   * Waits until the record that was given the ticket has been flushed, flushing it and any other
+   * pending records if no other thread is already doing so. Must not be called while holding the
+   * oplog lock. If the flush fails the exception is thrown to the leader and a waiting writer
+   * takes over and tries again.
+   */
+  void commit(long ticket) {
+    final long start = this.stats.startGroupCommitWait();
+    boolean interrupted = false;
+    try {
+      for (;;) {
+        synchronized (this.commitLock) {
+          while (this.committedTicket < ticket && this.flushInProgress) {
+            try {
+              this.commitLock.wait();
+            } catch (InterruptedException ignore) {
+              // the record is already in the write buffer so we still need to wait for it
+              interrupted = true;
+            }
+          }
+          if (this.committedTicket >= ticket) {
+            return;
+          }
+          this.flushInProgress = true;
+        }
+        long flushedTicket = -1;
+        try {
+          if (this.windowNanos > 0) {
+            LockSupport.parkNanos(this.windowNanos);
+          }
+          flushedTicket = this.flusher.flush();
+        } finally {
+          synchronized (this.commitLock) {
+            this.flushInProgress = false;
+            if (flushedTicket > this.committedTicket) {
+              this.stats.endGroupCommit(flushedTicket - this.committedTicket);
+              this.committedTicket = flushedTicket;
+            }
+            this.commitLock.notifyAll();
+          }
+        }
+      }
+    } finally {
+      this.stats.endGroupCommitWait(start);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -3853,11 +3853,12 @@ public class InitialImageOperation {
             regionsWithInterest.add(regionName);
             if (allKey) {
               ccn.registerClientInterest(regionName, e.getValue(), proxy.getProxyID(), interestType,
-                  isDurable, updatesAsInvalidates, manageEmptyRegions, 0, false);
+                  isDurable, updatesAsInvalidates, false, manageEmptyRegions, 0, false);
             } else if (InterestType.REGULAR_EXPRESSION == interestType) {
               for (Iterator i = ((Set) e.getValue()).iterator(); i.hasNext();) {
                 ccn.registerClientInterest(regionName, (String) i.next(), proxy.getProxyID(),
-                    interestType, isDurable, updatesAsInvalidates, manageEmptyRegions, 0, false);
+                    interestType, isDurable, updatesAsInvalidates, false, manageEmptyRegions, 0,
+                    false);
               }
             } else {
               ccn.registerClientInterest(regionName, new ArrayList((Set) e.getValue()),
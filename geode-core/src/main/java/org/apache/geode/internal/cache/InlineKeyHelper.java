@@ -14,7 +14,13 @@
  */
 package org.apache.geode.internal.cache;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.UUID;
+
 import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.entries.AbstractRegionEntry;
+import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
 
 /**
  * No instances of this class. Just some static method having to do with inline keys.
@@ -29,6 +35,36 @@ public class InlineKeyHelper {
    */
   public static final int MAX_LONGS_USED_FOR_STRING_KEY = 2;
 
+  /**
+   * Whether ascii string keys that are too long to be encoded into longs are stored inline, as a
+   * byte array, instead of as a separate String. Such entries save the String header and half of
+   * its chars, but create a new String every time their key is read, so they are only used when
+   * gemfire.INLINE_ASCII_STRING_KEYS is set.
+   */
+  public static boolean INLINE_ASCII_STRING_KEYS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "INLINE_ASCII_STRING_KEYS");
+
+  /**
+   * The maximum number of characters of an ascii string key that is too long to be encoded into
+   * longs but is still stored inline, as a byte array, instead of as a separate String.
+   */
+  public static final int MAX_INLINE_ASCII_STRING_KEY =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_INLINE_ASCII_STRING_KEY", 255);
+
+  private static final long BYTE_ARRAY_BASE_SIZE =
+      new ReflectionSingleObjectSizer().sizeof(new byte[0], false);
+
+  private static final long CHAR_ARRAY_BASE_SIZE =
+      new ReflectionSingleObjectSizer().sizeof(new char[0], false);
+
+  private static final ClassValue<EntryClassInfo> ENTRY_CLASS_INFO =
+      new ClassValue<EntryClassInfo>() {
+        @Override
+        protected EntryClassInfo computeValue(Class<?> entryClass) {
+          return new EntryClassInfo(entryClass);
+        }
+      };
+
   /**
    * Given the number of longs used to encode the inline string return the maximum number of
    * characters that can be encoded into that many longs.
@@ -56,6 +92,15 @@ public class InlineKeyHelper {
     }
   }
 
+  /**
+   * Return true if the given string, which can not be encoded inline into longs, can be stored
+   * inline as ascii bytes.
+   */
+  public static boolean canStringBeInlineAsciiEncoded(String skey) {
+    return INLINE_ASCII_STRING_KEYS && skey.length() <= MAX_INLINE_ASCII_STRING_KEY
+        && isByteEncodingOk(skey);
+  }
+
   private static boolean isByteEncodingOk(String skey) {
     for (int i = 0; i < skey.length(); i++) {
       if (skey.charAt(i) > 0x7f) {
@@ -65,4 +110,75 @@ public class InlineKeyHelper {
     return true;
   }
 
+  /**
+   * Returns an estimate of the number of bytes of heap the given entry saves by storing its key
+   * inline instead of referencing a separate key object, as an entry of objectKeyEntryClass does.
+   * Returns 0 if the entry references a separate key object. The saving is a constant of the entry
+   * class, plus the size of the String for string keys.
+   */
+  public static long getInlineKeyBytesSaved(RegionEntry entry, Class<?> objectKeyEntryClass) {
+    final EntryClassInfo info = ENTRY_CLASS_INFO.get(entry.getClass());
+    if (!info.inlineKey) {
+      return 0;
+    }
+    long saved = info.keySize + ENTRY_CLASS_INFO.get(objectKeyEntryClass).size - info.size;
+    if (info.stringKey) {
+      final int length = ((String) entry.getKey()).length();
+      saved += ReflectionSingleObjectSizer.roundUpSize(CHAR_ARRAY_BASE_SIZE + 2L * length);
+      if (info.keyBytes) {
+        saved -= ReflectionSingleObjectSizer.roundUpSize(BYTE_ARRAY_BASE_SIZE + length);
+      }
+    }
+    return saved;
+  }
+
+  /**
+   * How an entry class, generated from LeafRegionEntry.cpp, stores its key.
+   */
+  private static class EntryClassInfo {
+    /** true if the class is a region entry without a "key" field that references the key */
+    final boolean inlineKey;
+    /** true if the key is a String, whose char array has to be sized separately */
+    final boolean stringKey;
+    /** true if the class stores the key's chars in a "keyBytes" array */
+    final boolean keyBytes;
+    /** the shallow size of the key object the class does not have to reference */
+    final long keySize;
+    /** the shallow size of an instance of the class */
+    final long size;
+
+    EntryClassInfo(Class<?> entryClass) {
+      boolean objectKey = false;
+      boolean bytes = false;
+      Class<?> keyClass = null;
+      for (Field field : entryClass.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())) {
+          continue;
+        }
+        String name = field.getName();
+        if (name.equals("key")) {
+          if (field.getType() == Object.class) {
+            objectKey = true;
+          } else if (field.getType() == int.class) {
+            keyClass = Integer.class;
+          } else if (field.getType() == long.class) {
+            keyClass = Long.class;
+          }
+        } else if (name.equals("keyMostSigBits")) {
+          keyClass = UUID.class;
+        } else if (name.equals("bits1")) {
+          keyClass = String.class;
+        } else if (name.equals("keyBytes") && field.getType() == byte[].class) {
+          bytes = true;
+          keyClass = String.class;
+        }
+      }
+      this.inlineKey = AbstractRegionEntry.class.isAssignableFrom(entryClass) && !objectKey
+          && keyClass != null;
+      this.stringKey = keyClass == String.class;
+      this.keyBytes = bytes;
+      this.keySize = keyClass == null ? 0 : ReflectionSingleObjectSizer.sizeof(keyClass);
+      this.size = ReflectionSingleObjectSizer.sizeof(entryClass);
+    }
+  }
 }
@@ -78,9 +78,34 @@ public class LocalDataSet implements Region, QueryExecutor {
   private final Set<Integer> buckets;
   private InternalRegionFunctionContext rfContext;
 
+  /** The split of the entries of the buckets that the local sets hold, out of numSplits */
+  private final int split;
+  private final int numSplits;
+
   public LocalDataSet(PartitionedRegion pr, Set<Integer> buckets) {
+    this(pr, buckets, 0, 1);
+  }
+
+  /**
+   * Creates a data set whose local entry, key and value sets hold only one of the given number of
+   * splits of the entries of the buckets, so that the splits of a large bucket can be iterated by
+   * different threads. The entries are split by the hash codes of their keys.
+   */
+  public LocalDataSet(PartitionedRegion pr, Set<Integer> buckets, int split, int numSplits) {
     this.proxy = pr;
     this.buckets = buckets;
+    this.split = split;
+    this.numSplits = numSplits;
+  }
+
+  /**
+   * Returns the split of the entries of a bucket that the given key is in
+   */
+  public static int getSplit(Object key, int numSplits) {
+    // keys of the same bucket often have hash codes that are equal modulo the number of buckets,
+    // so the hash code is spread over the splits by its product with the golden ratio
+    long hash = (key.hashCode() * 0x9E3779B9L) & 0xFFFFFFFFL;
+    return (int) ((hash * numSplits) >>> 32);
   }
 
   @Override
@@ -526,6 +551,9 @@ public class LocalDataSet implements Region, QueryExecutor {
   }
 
   public int size() {
+    if (this.numSplits > 1) {
+      return localEntrySet().size();
+    }
     return this.proxy.entryCount(getBucketSet());
   }
 
@@ -690,6 +718,9 @@ public class LocalDataSet implements Region, QueryExecutor {
             if (hasNext) {
               Map.Entry e = (Map.Entry) curBucketIter.next();
               try {
+                if (numSplits > 1 && getSplit(e.getKey(), numSplits) != split) {
+                  continue;
+                }
                 if (iterType == IteratorType.VALUES) {
                   if (isKeepSerialized()) {
                     next = ((NonTXEntry) e).getRawValue();
@@ -734,6 +765,12 @@ public class LocalDataSet implements Region, QueryExecutor {
     @Override
     public int size() {
       int size = 0;
+      if (numSplits > 1) {
+        for (Iterator iterator = iterator(); iterator.hasNext(); iterator.next()) {
+          size++;
+        }
+        return size;
+      }
       for (Integer bId : buckets) {
         BucketRegion br = proxy.getDataStore().getLocalBucketById(bId);
         size += br.size();
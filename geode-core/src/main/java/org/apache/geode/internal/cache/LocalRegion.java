@@ -44,6 +44,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
@@ -138,6 +139,7 @@ import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.index.IndexCreationData;
 import org.apache.geode.cache.query.internal.index.IndexManager;
@@ -806,6 +808,42 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return this.serverRegionProxy != null;
   }
 
+  /**
+   * set when this client region is a near cache of its server region
+   */
+  private volatile NearCache nearCache;
+
+  /**
+   * Makes this client region a near cache of its server region. The caller then registers interest
+   * in all keys without values so that the server invalidates the entries read from it.
+   */
+  public void enableNearCache() {
+    this.nearCache = new NearCache(this.cache.getDistributedSystem(), getFullPath());
+  }
+
+  public NearCache getNearCache() {
+    return this.nearCache;
+  }
+
+  /**
+   * Returns true if a server invalidate or destroy of the given key can be ignored because this is
+   * a near cache that has neither an entry for the key nor a read of it from the server in
+   * progress.
+   */
+  private boolean isIgnoredByNearCache(Object key) {
+    final NearCache nearCache = this.nearCache;
+    if (nearCache == null) {
+      return false;
+    }
+    // check for reads first since a read that has ended has already stored its entry
+    if (nearCache.isFetching(key) || this.entries.getEntry(key) != null) {
+      nearCache.getStats().incInvalidations();
+      return false;
+    }
+    nearCache.getStats().incInvalidationsIgnored();
+    return true;
+  }
+
   /** Returns true if the ExpiryTask is currently allowed to expire. */
   protected boolean isExpirationAllowed(ExpiryTask expiry) {
     return true;
@@ -1338,7 +1376,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       EntryEventImpl clientEvent, boolean returnTombstones, boolean opScopeIsLocal)
       throws TimeoutException, CacheLoaderException {
     return get(key, aCallbackArgument, generateCallbacks, disableCopyOnRead, true, requestingClient,
-        clientEvent, returnTombstones, opScopeIsLocal, false /* see GEODE-1291 */);
+        clientEvent, returnTombstones, opScopeIsLocal, true);
   }
 
   /**
@@ -1369,15 +1407,32 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       // returns null so we don't need the following in the above expression:
       // || (isRegInterestInProgress() && Token.isDestroyed(value))
       // because (value == null) will be true in this case.
+      final NearCache nearCache = this.nearCache;
+      if (nearCache != null) {
+        if (isMiss) {
+          nearCache.getStats().incMisses(1);
+        } else {
+          nearCache.getStats().incHits(1);
+        }
+      }
       if (isMiss) {
         // to fix bug 51509 raise the precedence of opScopeIsLocal
         // if scope is local and there is no loader, then
         // don't go further to try and get value
         if (!opScopeIsLocal
             && ((getScope().isDistributed()) || hasServerProxy() || basicGetLoader() != null)) {
-          // serialize search/load threads if not in txn
-          value = getDataView().findObject(keyInfo, this, isCreate, generateCallbacks, value,
-              disableCopyOnRead, preferCD, requestingClient, clientEvent, returnTombstones);
+          if (nearCache != null) {
+            nearCache.startFetch(key);
+          }
+          try {
+            // serialize search/load threads if not in txn
+            value = getDataView().findObject(keyInfo, this, isCreate, generateCallbacks, value,
+                disableCopyOnRead, preferCD, requestingClient, clientEvent, returnTombstones);
+          } finally {
+            if (nearCache != null) {
+              nearCache.endFetch(key);
+            }
+          }
           if (!returnTombstones && value == Token.TOMBSTONE) {
             value = null;
           }
@@ -1762,6 +1817,17 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  /**
+   * Returns an estimate of the number of bytes of heap saved by storing the keys of the local
+   * entries inline in the entries. This iterates over entries so it is only computed on demand.
+   */
+  public long estimateInlineKeyBytesSaved() {
+    if (this.isDestroyed) {
+      return 0;
+    }
+    return getRegionMap().estimateInlineKeyBytesSaved();
+  }
+
   /** a fast estimate of total number of entries locally in the region */
   public long getEstimatedLocalSize() {
     if (!this.isDestroyed) {
@@ -2706,6 +2772,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       if (this.hasOwnStats) {
         this.cachePerfStats.close();
       }
+      if (this.nearCache != null) {
+        this.nearCache.close();
+      }
     }
   }
 
@@ -3158,6 +3227,28 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   /** a boolean for issuing a client/server configuration mismatch message */
   private boolean concurrencyMessageIssued;
 
+  /**
+   * Incremented after the entries of this region change while query results are cached, so that
+   * the cached results of the queries on this region are not used any more
+   */
+  private final AtomicLong entriesVersion = new AtomicLong();
+
+  /**
+   * Returns the version of the entries of this region, which changes whenever they do while query
+   * results are cached
+   *
+   * @see QueryResultCache
+   */
+  public long getEntriesVersion() {
+    return this.entriesVersion.get();
+  }
+
+  private void entriesChanged() {
+    if (QueryResultCache.isEnabled()) {
+      this.entriesVersion.incrementAndGet();
+    }
+  }
+
   /**
    * Starting in 3.5, we don't check to see if the value is {@code Serializable}. We instead rely on
    * the actual serialization (which happens in-thread with the put) to tell us if there are any
@@ -4962,6 +5053,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   void basicInvalidatePart2(RegionEntry regionEntry, EntryEventImpl event,
       boolean conflictWithClear, boolean invokeCallbacks) {
     updateStatsForInvalidate();
+    entriesChanged();
 
     if (invokeCallbacks) {
       try {
@@ -5027,6 +5119,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   void txApplyInvalidatePart2(RegionEntry regionEntry, Object key, boolean didDestroy,
       boolean didInvalidate) {
+    entriesChanged();
     if (this.testCallable != null) {
       this.testCallable.call(this, Operation.INVALIDATE, regionEntry);
     }
@@ -5099,6 +5192,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   void txApplyPutPart2(RegionEntry regionEntry, Object key, long lastModified, boolean isCreate,
       boolean didDestroy, boolean clearConflict) {
+    entriesChanged();
     if (this.testCallable != null) {
       Operation op = isCreate ? Operation.CREATE : Operation.UPDATE;
       this.testCallable.call(this, op, regionEntry);
@@ -5352,7 +5446,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       Object callbackArgument, boolean processedMarker, EventID eventID, VersionTag versionTag)
       throws EntryNotFoundException {
 
-    if (!isCacheContentProxy()) {
+    if (!isCacheContentProxy() && !isIgnoredByNearCache(key)) {
       concurrencyConfigurationCheck(versionTag);
 
       // Create an event and put the entry
@@ -5401,7 +5495,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       Object callbackArgument, boolean processedMarker, EventID eventID, VersionTag versionTag)
       throws EntryNotFoundException {
 
-    if (!isCacheContentProxy()) {
+    if (!isCacheContentProxy() && !isIgnoredByNearCache(key)) {
       concurrencyConfigurationCheck(versionTag);
 
       // Create an event and destroy the entry
@@ -5736,6 +5830,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   protected long basicPutPart2(EntryEventImpl event, RegionEntry entry, boolean isInitialized,
       long lastModified, boolean clearConflict) {
+    entriesChanged();
 
     final boolean isNewKey = event.getOperation().isCreate();
 
@@ -6668,6 +6763,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   @Override
   public void basicDestroyPart2(RegionEntry re, EntryEventImpl event, boolean inTokenMode,
       boolean conflictWithClear, boolean duringRI, boolean invokeCallbacks) {
+    entriesChanged();
     if (!(this instanceof HARegion)) {
       if (logger.isTraceEnabled()) {
         logger.trace("basicDestroyPart2(inTokenMode={},conflictWithClear={},duringRI={}) event={}",
@@ -6850,6 +6946,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    * completed its part of the basic destroy
    */
   void txApplyDestroyPart2(RegionEntry re, Object key, boolean inTokenMode, boolean clearConflict) {
+    entriesChanged();
     if (this.testCallable != null) {
       this.testCallable.call(this, Operation.DESTROY, re);
     }
@@ -9120,6 +9217,8 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       }
     }
 
+    entriesChanged();
+
     if (!isProxy()) {
       // Now we need to recreate all the indexes.
       // If the indexManager is null we don't have to worry
@@ -9177,7 +9276,6 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   @Override
   Map basicGetAll(Collection keys, Object callback) {
     final boolean isDebugEnabled = logger.isDebugEnabled();
-    final boolean isTraceEnabled = logger.isTraceEnabled();
 
     if (isDebugEnabled) {
       logger.debug("Processing getAll request for: {}", keys);
@@ -9215,86 +9313,22 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         }
       }
 
-      // Send the rest of the keys to the server (if necessary)
-      if (!keysList.isEmpty()) {
-        VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
-        if (isDebugEnabled) {
-          logger.debug("remote getAll results are {}", remoteResults);
+      final NearCache nearCache = this.nearCache;
+      if (nearCache != null) {
+        nearCache.getStats().incHits(allResults.size());
+        nearCache.getStats().incMisses(keysList.size());
+        nearCache.startFetch(keysList);
+      }
+      try {
+        // Send the rest of the keys to the server (if necessary)
+        if (!keysList.isEmpty()) {
+          getAllFromServer(keysList, callback, allResults);
         }
-
-        // Add remote results to local cache and all results if successful
-        for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
-          VersionedObjectList.Entry entry = it.next();
-          Object key = entry.getKey();
-          boolean notOnServer = entry.isKeyNotOnServer();
-          // in 8.0 we added transfer of tombstones with RI/getAll results for bug #40791
-          boolean createTombstone = false;
-          if (notOnServer) {
-            createTombstone = entry.getVersionTag() != null && this.getConcurrencyChecksEnabled();
-            allResults.put(key, null);
-            if (isDebugEnabled) {
-              logger.debug("Added remote result for missing key: {}", key);
-            }
-            if (!createTombstone) {
-              continue;
-            }
-          }
-
-          Object value;
-          if (createTombstone) {
-            // the value is null in this case, so use TOKEN_TOMBSTONE
-            value = Token.TOMBSTONE;
-          } else {
-            value = entry.getObject();
-          }
-
-          if (value instanceof Throwable) {
-            continue;
-          }
-
-          // The following basicPutEntry needs to be done
-          // even if we do not have storage so that the
-          // correct events will be delivered to any callbacks we have.
-          long startPut = CachePerfStats.getStatTime();
-          validateKey(key);
-
-          @Released
-          EntryEventImpl event = EntryEventImpl.create(this, Operation.LOCAL_LOAD_CREATE, key,
-              value, callback, false, getMyId(), true);
-
-          try {
-            event.setFromServer(true);
-            event.setVersionTag(entry.getVersionTag());
-
-            if (!alreadyInvalid(key, event)) {
-              // bug #47716 - don't update if it's already here & invalid
-              TXStateProxy txState = this.cache.getTXMgr().pauseTransaction();
-              try {
-                basicPutEntry(event, 0L);
-              } catch (ConcurrentCacheModificationException e) {
-                if (isDebugEnabled) {
-                  logger.debug(
-                      "getAll result for {} not stored in cache due to concurrent modification",
-                      key, e);
-                }
-              } finally {
-                this.cache.getTXMgr().unpauseTransaction(txState);
-              }
-              getCachePerfStats().endPut(startPut, event.isOriginRemote());
-            }
-
-            if (!createTombstone) {
-              allResults.put(key, value);
-              if (isTraceEnabled) {
-                logger.trace("Added remote result for getAll request: {}, {}", key, value);
-              }
-            }
-          } finally {
-            event.release();
-          }
+      } finally {
+        if (nearCache != null) {
+          nearCache.endFetch(keysList);
         }
       }
-
     } else {
       // This implementation for a P2P VM is a stop-gap to provide the
       // functionality. It needs to be rewritten more efficiently.
@@ -9311,6 +9345,92 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return allResults;
   }
 
+  /**
+   * Gets the given keys from the server, stores the results in this region and adds them to
+   * allResults.
+   */
+  private void getAllFromServer(List keysList, Object callback, Map allResults) {
+    final boolean isDebugEnabled = logger.isDebugEnabled();
+    final boolean isTraceEnabled = logger.isTraceEnabled();
+
+    VersionedObjectList remoteResults = getServerProxy().getAll(keysList, callback);
+    if (isDebugEnabled) {
+      logger.debug("remote getAll results are {}", remoteResults);
+    }
+
+    // Add remote results to local cache and all results if successful
+    for (VersionedObjectList.Iterator it = remoteResults.iterator(); it.hasNext();) {
+      VersionedObjectList.Entry entry = it.next();
+      Object key = entry.getKey();
+      boolean notOnServer = entry.isKeyNotOnServer();
+      // in 8.0 we added transfer of tombstones with RI/getAll results for bug #40791
+      boolean createTombstone = false;
+      if (notOnServer) {
+        createTombstone = entry.getVersionTag() != null && this.getConcurrencyChecksEnabled();
+        allResults.put(key, null);
+        if (isDebugEnabled) {
+          logger.debug("Added remote result for missing key: {}", key);
+        }
+        if (!createTombstone) {
+          continue;
+        }
+      }
+
+      Object value;
+      if (createTombstone) {
+        // the value is null in this case, so use TOKEN_TOMBSTONE
+        value = Token.TOMBSTONE;
+      } else {
+        value = entry.getObject();
+      }
+
+      if (value instanceof Throwable) {
+        continue;
+      }
+
+      // The following basicPutEntry needs to be done
+      // even if we do not have storage so that the
+      // correct events will be delivered to any callbacks we have.
+      long startPut = CachePerfStats.getStatTime();
+      validateKey(key);
+
+      @Released
+      EntryEventImpl event = EntryEventImpl.create(this, Operation.LOCAL_LOAD_CREATE, key, value,
+          callback, false, getMyId(), true);
+
+      try {
+        event.setFromServer(true);
+        event.setVersionTag(entry.getVersionTag());
+
+        if (!alreadyInvalid(key, event)) {
+          // bug #47716 - don't update if it's already here & invalid
+          TXStateProxy txState = this.cache.getTXMgr().pauseTransaction();
+          try {
+            basicPutEntry(event, 0L);
+          } catch (ConcurrentCacheModificationException e) {
+            if (isDebugEnabled) {
+              logger.debug(
+                  "getAll result for {} not stored in cache due to concurrent modification", key,
+                  e);
+            }
+          } finally {
+            this.cache.getTXMgr().unpauseTransaction(txState);
+          }
+          getCachePerfStats().endPut(startPut, event.isOriginRemote());
+        }
+
+        if (!createTombstone) {
+          allResults.put(key, value);
+          if (isTraceEnabled) {
+            logger.trace("Added remote result for getAll request: {}, {}", key, value);
+          }
+        }
+      } finally {
+        event.release();
+      }
+    }
+  }
+
   /**
    * Return false if it will never store entry ekys and values locally; otherwise return true.
    */
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.geode.StatisticsFactory;
+
+/**
+ * The state of a client region that is a near cache of its server region. The region registers
+ * interest in all keys without values, so the server sends it an invalidation for every change,
+ * most of them for keys the client has never read. An invalidation for a key the region has no
+ * entry for can be ignored unless a read of that key from the server is in progress, since the
+ * value that read returns may be older than the invalidation. This class keeps track of those
+ * reads.
+ *
+ * @see LocalRegion#enableNearCache()
+ */
+public class NearCache {
+
+  /** the number of reads in progress for each key being read from the server */
+  private final ConcurrentMap<Object, Integer> fetches = new ConcurrentHashMap<>();
+
+  private final NearCacheStats stats;
+
+  public NearCache(StatisticsFactory statisticsFactory, String regionPath) {
+    this.stats = new NearCacheStats(statisticsFactory, regionPath);
+  }
+
+  /**
+   * Records that the value of the given key is being read from the server. Must be followed by a
+   * call to {@link #endFetch} once the value read has been stored in the region.
+   */
+  public void startFetch(Object key) {
+    this.fetches.merge(key, 1, Integer::sum);
+  }
+
+  public void startFetch(Collection<?> keys) {
+    for (Object key : keys) {
+      startFetch(key);
+    }
+  }
+
+  public void endFetch(Object key) {
+    this.fetches.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+  }
+
+  public void endFetch(Collection<?> keys) {
+    for (Object key : keys) {
+      endFetch(key);
+    }
+  }
+
+  /**
+   * Returns true if the value of the given key is being read from the server.
+   */
+  public boolean isFetching(Object key) {
+    return this.fetches.containsKey(key);
+  }
+
+  public NearCacheStats getStats() {
+    return this.stats;
+  }
+
+  public void close() {
+    this.stats.close();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * GemFire statistics about a client region that is a near cache of its server region
+ */
+public class NearCacheStats {
+
+  private static final StatisticsType type;
+
+  private static final int hitsId;
+  private static final int missesId;
+  private static final int invalidationsId;
+  private static final int invalidationsIgnoredId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    type = f.createType("NearCacheStats", "Statistics about a client near cache region",
+        new StatisticDescriptor[] {
+            f.createLongCounter("hits", "Number of gets answered from the near cache.", "gets"),
+            f.createLongCounter("misses",
+                "Number of gets that had to be sent to the server because the near cache did not have a valid value.",
+                "gets"),
+            f.createLongCounter("invalidations",
+                "Number of server invalidations and destroys applied to entries in the near cache or being read from the server.",
+                "operations"),
+            f.createLongCounter("invalidationsIgnored",
+                "Number of server invalidations and destroys ignored because the near cache did not have the key.",
+                "operations")});
+
+    hitsId = type.nameToId("hits");
+    missesId = type.nameToId("misses");
+    invalidationsId = type.nameToId("invalidations");
+    invalidationsIgnoredId = type.nameToId("invalidationsIgnored");
+  }
+
+  private final Statistics stats;
+
+  public NearCacheStats(StatisticsFactory f, String name) {
+    this.stats = f.createAtomicStatistics(type, name);
+  }
+
+  public void close() {
+    this.stats.close();
+  }
+
+  public void incHits(long delta) {
+    this.stats.incLong(hitsId, delta);
+  }
+
+  public long getHits() {
+    return this.stats.getLong(hitsId);
+  }
+
+  public void incMisses(long delta) {
+    this.stats.incLong(missesId, delta);
+  }
+
+  public long getMisses() {
+    return this.stats.getLong(missesId);
+  }
+
+  public void incInvalidations() {
+    this.stats.incLong(invalidationsId, 1);
+  }
+
+  public long getInvalidations() {
+    return this.stats.getLong(invalidationsId);
+  }
+
+  public void incInvalidationsIgnored() {
+    this.stats.incLong(invalidationsIgnoredId, 1);
+  }
+
+  public long getInvalidationsIgnored() {
+    return this.stats.getLong(invalidationsIgnoredId);
+  }
+}
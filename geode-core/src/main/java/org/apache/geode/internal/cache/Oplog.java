@@ -27,12 +27,15 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -42,6 +45,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -3277,6 +3281,7 @@ public class Oplog implements CompactableOplog, Flushable {
     // No need to get the backup lock prior to synchronizing (correct lock order) since the
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
     synchronized (this.lock/* crf */) {
+      this.crf.mappedBuffer = null;
       unpreblow(this.crf, getMaxCrfSize());
       if (!this.crf.RAFClosed) {
         try {
@@ -3537,6 +3542,7 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    long groupCommitTicket = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3605,7 +3611,11 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          boolean groupCommit = useGroupCommit(async);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+          if (groupCommit) {
+            groupCommitTicket = takeGroupCommitTicket();
+          }
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3661,6 +3671,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    groupCommit(groupCommitTicket);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -3845,48 +3856,113 @@ public class Oplog implements CompactableOplog, Flushable {
   }
 
   /**
-   * Used when creating a KRF to keep track of what DiskRegionView a DiskEntry belongs to.
+   * The live entries of an oplog, sorted by their offset in the crf, for creating a KRF or
+   * recovering values. Every live entry of the oplog is added so the entries are kept in parallel
+   * arrays rather than in an object per entry.
    */
-  private static class KRFEntry {
-    private final DiskEntry de;
-    private final DiskRegionView drv;
+  static class SortedLiveEntries {
+    private DiskEntry[] entries;
     /**
      * Fix for 42733 - a stable snapshot of the offset so we can sort It doesn't matter that this is
      * stale, we'll filter out these entries later.
      */
-    private final long offsetInOplog;
-    private VersionHolder versionTag;
+    private long[] offsets;
+    /** Index into regions of the DiskRegionView each entry belongs to */
+    private int[] regionIndexes;
+    /** Allocated when the first entry with a pending version tag is added */
+    private VersionHolder[] versionTags;
+
+    private final List<DiskRegionView> regions = new ArrayList<DiskRegionView>();
+
+    private int size;
 
-    public KRFEntry(DiskRegionView drv, DiskEntry de, VersionHolder tag) {
-      this.de = de;
-      this.drv = drv;
+    SortedLiveEntries(int expectedSize) {
+      this.entries = new DiskEntry[expectedSize];
+      this.offsets = new long[expectedSize];
+      this.regionIndexes = new int[expectedSize];
+    }
+
+    /**
+     * Adds the live entries of a region. Must be called once per region.
+     */
+    void addRegion(DiskRegionView drv) {
+      this.regions.add(drv);
+    }
+
+    /**
+     * Adds a live entry of the region most recently passed to {@link #addRegion}.
+     */
+    void add(DiskEntry de, VersionHolder tag) {
+      if (this.size == this.entries.length) {
+        int newLength = Math.max(16, this.size * 2);
+        this.entries = Arrays.copyOf(this.entries, newLength);
+        this.offsets = Arrays.copyOf(this.offsets, newLength);
+        this.regionIndexes = Arrays.copyOf(this.regionIndexes, newLength);
+        if (this.versionTags != null) {
+          this.versionTags = Arrays.copyOf(this.versionTags, newLength);
+        }
+      }
+      if (tag != null && this.versionTags == null) {
+        this.versionTags = new VersionHolder[this.entries.length];
+      }
       DiskId diskId = de.getDiskId();
-      this.offsetInOplog = diskId != null ? diskId.getOffsetInOplog() : 0;
-      this.versionTag = tag;
+      this.entries[this.size] = de;
+      this.offsets[this.size] = diskId != null ? diskId.getOffsetInOplog() : 0;
+      this.regionIndexes[this.size] = this.regions.size() - 1;
+      if (this.versionTags != null) {
+        this.versionTags[this.size] = tag;
+      }
+      this.size++;
     }
 
-    public DiskEntry getDiskEntry() {
-      return this.de;
+    void sort() {
+      it.unimi.dsi.fastutil.Arrays.quickSort(0, this.size,
+          (i, j) -> Long.compare(this.offsets[i], this.offsets[j]), this::swap);
     }
 
-    public DiskRegionView getDiskRegionView() {
-      return this.drv;
+    private void swap(int i, int j) {
+      DiskEntry de = this.entries[i];
+      this.entries[i] = this.entries[j];
+      this.entries[j] = de;
+      long offset = this.offsets[i];
+      this.offsets[i] = this.offsets[j];
+      this.offsets[j] = offset;
+      int regionIndex = this.regionIndexes[i];
+      this.regionIndexes[i] = this.regionIndexes[j];
+      this.regionIndexes[j] = regionIndex;
+      if (this.versionTags != null) {
+        VersionHolder tag = this.versionTags[i];
+        this.versionTags[i] = this.versionTags[j];
+        this.versionTags[j] = tag;
+      }
+    }
+
+    int size() {
+      return this.size;
     }
 
-    public long getOffsetInOplogForSorting() {
-      return offsetInOplog;
+    DiskEntry getDiskEntry(int i) {
+      return this.entries[i];
+    }
+
+    DiskRegionView getDiskRegionView(int i) {
+      return this.regions.get(this.regionIndexes[i]);
+    }
+
+    VersionHolder getVersionTag(int i) {
+      return this.versionTags != null ? this.versionTags[i] : null;
     }
   }
 
-  private void writeOneKeyEntryForKRF(KRFEntry ke) throws IOException {
-    DiskEntry de = ke.getDiskEntry();
-    long diskRegionId = ke.getDiskRegionView().getId();
+  private void writeOneKeyEntryForKRF(SortedLiveEntries liveEntries, int i) throws IOException {
+    DiskEntry de = liveEntries.getDiskEntry(i);
+    long diskRegionId = liveEntries.getDiskRegionView(i).getId();
     long oplogKeyId;
     byte userBits;
     long valueOffset;
     int valueLength;
     Object deKey;
-    VersionHolder tag = ke.versionTag;
+    VersionHolder tag = liveEntries.getVersionTag(i);
 
     synchronized (de) {
       DiskId di = de.getDiskId();
@@ -4151,7 +4227,7 @@ public class Oplog implements CompactableOplog, Flushable {
           }
 
           Collection<DiskRegionInfo> regions = this.regionMap.values();
-          List<KRFEntry> sortedLiveEntries = getSortedLiveEntries(regions);
+          SortedLiveEntries sortedLiveEntries = getSortedLiveEntries(regions);
           if (sortedLiveEntries == null) {
             // no need to create a krf if there are no live entries.
             return;
@@ -4163,8 +4239,8 @@ public class Oplog implements CompactableOplog, Flushable {
 
             // sortedLiveEntries are now sorted
             // so we can start writing them to disk.
-            for (KRFEntry ke : sortedLiveEntries) {
-              writeOneKeyEntryForKRF(ke);
+            for (int i = 0; i < sortedLiveEntries.size(); i++) {
+              writeOneKeyEntryForKRF(sortedLiveEntries, i);
             }
 
             krfClose();
@@ -4200,7 +4276,7 @@ public class Oplog implements CompactableOplog, Flushable {
     return new File(this.diskFile.getPath() + KRF_FILE_EXT);
   }
 
-  public List<KRFEntry> getSortedLiveEntries(Collection<DiskRegionInfo> targetRegions) {
+  SortedLiveEntries getSortedLiveEntries(Collection<DiskRegionInfo> targetRegions) {
     int tlc = (int) this.totalLiveCount.get();
     if (tlc <= 0) {
       // no need to create a KRF since this oplog will be deleted.
@@ -4208,24 +4284,14 @@ public class Oplog implements CompactableOplog, Flushable {
       return null;
     }
 
-    KRFEntry[] sortedLiveEntries = new KRFEntry[tlc];
-    int idx = 0;
+    SortedLiveEntries sortedLiveEntries = new SortedLiveEntries(tlc);
     for (DiskRegionInfo dri : targetRegions) {
       if (dri.getDiskRegion() != null) {
-        idx = dri.addLiveEntriesToList(sortedLiveEntries, idx);
+        dri.addLiveEntriesToList(sortedLiveEntries);
       }
     }
-    // idx is now the length of sortedLiveEntries
-    Arrays.sort(sortedLiveEntries, 0, idx, new Comparator<KRFEntry>() {
-      @Override
-      public int compare(KRFEntry o1, KRFEntry o2) {
-        long val1 = o1.getOffsetInOplogForSorting();
-        long val2 = o2.getOffsetInOplogForSorting();
-        return Long.signum(val1 - val2);
-      }
-    });
-
-    return Arrays.asList(sortedLiveEntries).subList(0, idx);
+    sortedLiveEntries.sort();
+    return sortedLiveEntries;
   }
 
   /**
@@ -4568,6 +4634,7 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1L;
+    long groupCommitTicket = 0;
     int adjustment = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
@@ -4601,7 +4668,11 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            boolean groupCommit = useGroupCommit(async);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+            if (groupCommit) {
+              groupCommitTicket = takeGroupCommitTicket();
+            }
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
@@ -4672,6 +4743,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    groupCommit(groupCommitTicket);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5022,6 +5094,7 @@ public class Oplog implements CompactableOplog, Flushable {
 
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    long groupCommitTicket = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
@@ -5071,7 +5144,11 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            boolean groupCommit = useGroupCommit(async);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, !groupCommit);
+            if (groupCommit) {
+              groupCommitTicket = takeGroupCommitTicket();
+            }
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5103,6 +5180,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    groupCommit(groupCommitTicket);
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5246,6 +5324,75 @@ public class Oplog implements CompactableOplog, Flushable {
     flushAll(false);
   }
 
+  /**
+   * Created on the first synchronous write once group commit is enabled. Guarded by the oplog lock.
+   */
+  private GroupCommitter groupCommitter;
+
+  private boolean useGroupCommit(boolean async) {
+    return !async && getParent().GROUP_COMMIT_WINDOW_MICROS >= 0;
+  }
+
+  /**
+   * Returns the group commit ticket of the record just written. Caller must hold the oplog lock.
+   */
+  private long takeGroupCommitTicket() {
+    if (this.groupCommitter == null) {
+      this.groupCommitter = new GroupCommitter(new GroupCommitter.Flusher() {
+        @Override
+        public long flush() {
+          long lastTicket;
+          UninterruptibleFileChannel drfChannel;
+          UninterruptibleFileChannel crfChannel;
+          // No need to get the backup lock prior to synchronizing (correct lock order) since the
+          // synchronized block does not attempt to get the backup lock (incorrect lock order)
+          synchronized (Oplog.this.lock) {
+            lastTicket = Oplog.this.groupCommitter.getLastTicket();
+            flushAllNoSync(false);
+            drfChannel = Oplog.this.drf.RAFClosed ? null : Oplog.this.drf.channel;
+            crfChannel = Oplog.this.crf.RAFClosed ? null : Oplog.this.crf.channel;
+          }
+          // force outside the oplog lock so that other writers can append while the disk syncs
+          if (SYNC_WRITES) {
+            force(Oplog.this.drf, drfChannel);
+            force(Oplog.this.crf, crfChannel);
+          }
+          return lastTicket;
+        }
+      }, TimeUnit.MICROSECONDS.toNanos(getParent().GROUP_COMMIT_WINDOW_MICROS), getStats());
+    }
+    return this.groupCommitter.nextTicket();
+  }
+
+  /**
+   * Forces the content and meta data of an oplog file written by a group commit to disk.
+   */
+  private void force(OplogFile olf, UninterruptibleFileChannel channel) {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.force(true);
+    } catch (ClosedChannelException ignore) {
+      // the oplog was closed, or a thread doing io on it was interrupted, see flush
+    } catch (IOException ex) {
+      getParent().getCancelCriterion().checkCancelInProgress(ex);
+      throw new DiskAccessException(
+          LocalizedStrings.Oplog_FAILED_WRITING_KEY_TO_0.toLocalizedString(olf.f.getPath()), ex,
+          getParent());
+    }
+  }
+
+  /**
+   * Waits for the record with the given ticket to be flushed. Must be called after releasing the
+   * oplog lock.
+   */
+  private void groupCommit(long ticket) {
+    if (ticket > 0) {
+      this.groupCommitter.commit(ticket);
+    }
+  }
+
   public void flushAllNoSync(boolean skipDrf) {
     flushAll(skipDrf, false);
   }
@@ -5377,8 +5524,68 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Maps the flushed part of the crf read only so that {@link #attemptMappedGet} can serve reads
+   * without the oplog lock. Only called once the crf is done being appended to; a crf that can not
+   * be mapped keeps being read through its RandomAccessFile. Caller must hold the oplog lock.
+   */
+  private void mapCrfIfInactive() {
+    if (!this.doneAppending || this.closed || this.crf.mapAttempted
+        || !getParent().MAP_INACTIVE_CRFS) {
+      return;
+    }
+    this.crf.mapAttempted = true;
+    final long length = this.crf.bytesFlushed;
+    if (this.crf.f == null || length <= 0 || length > Integer.MAX_VALUE) {
+      return;
+    }
+    try {
+      RandomAccessFile raf = new RandomAccessFile(this.crf.f, "r");
+      try {
+        // the mapping stays valid after the channel is closed
+        this.crf.mappedBuffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+      } finally {
+        raf.close();
+      }
+    } catch (IOException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not map {}; values will be read from the file", this.crf.f, e);
+      }
+    }
+  }
+
+  /**
+   * Reads a value from the memory mapped view of the crf without synchronizing on the oplog.
+   *
+   * @return the value, or null if the crf is not mapped
+   */
+  private BytesAndBits attemptMappedGet(long offsetInOplog, int valueLength, byte userBits) {
+    final MappedByteBuffer mapped = this.crf.mappedBuffer; // volatile read
+    if (mapped == null || offsetInOplog < 0 || offsetInOplog + valueLength > mapped.capacity()) {
+      return null;
+    }
+    // duplicate so concurrent readers do not share a position
+    ByteBuffer view = mapped.duplicate();
+    view.position((int) offsetInOplog);
+    byte[] valueBytes = new byte[valueLength];
+    view.get(valueBytes);
+    this.stats.incOplogReads();
+    this.stats.incOplogMappedReads();
+    BytesAndBits bb = new BytesAndBits(valueBytes, userBits);
+    // also set the product version for an older product
+    final Version version = getProductVersionIfOld();
+    if (version != null) {
+      bb.setVersion(version);
+    }
+    return bb;
+  }
+
   private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
       int valueLength, byte userBits) throws IOException {
+    BytesAndBits mappedResult = attemptMappedGet(offsetInOplog, valueLength, userBits);
+    if (mappedResult != null) {
+      return mappedResult;
+    }
     boolean didReopen = false;
     boolean accessedInactive = false;
     try {
@@ -5390,12 +5597,17 @@ public class Oplog implements CompactableOplog, Flushable {
         // + (this.deleted.get() ? "destroyed" : "closed")
         // + " oplog #" + getOplogId(), this.owner);
         // }
-        this.beingRead = true;
         if (/*
              * !getParent().isSync() since compactor groups writes &&
              */(offsetInOplog + valueLength) > this.crf.bytesFlushed && !this.closed) {
           flushAllNoSync(true); // fix for bug 41205
         }
+        mapCrfIfInactive();
+        mappedResult = attemptMappedGet(offsetInOplog, valueLength, userBits);
+        if (mappedResult != null) {
+          return mappedResult;
+        }
+        this.beingRead = true;
         try {
           UninterruptibleRandomAccessFile myRAF = null;
           if (this.crf.RAFClosed) {
@@ -5736,6 +5948,9 @@ public class Oplog implements CompactableOplog, Flushable {
     // No need to get the backup lock prior to synchronizing (correct lock order) since the
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
     synchronized (this.lock) {
+      // readers that already hold the mapping can still finish; the memory is released once it
+      // is no longer referenced
+      olf.mappedBuffer = null;
       if (olf.currSize != 0) {
         this.dirHolder.decrementTotalOplogSize(olf.currSize);
         olf.currSize = 0;
@@ -5871,6 +6086,18 @@ public class Oplog implements CompactableOplog, Flushable {
     return false;
   }
 
+  /**
+   * @return the fraction, from 0 to 1, of the entries written to this oplog that are no longer live
+   */
+  double getGarbageRatio() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 1.0;
+    }
+    long live = Math.max(0, this.totalLiveCount.get());
+    return 1.0 - ((double) live / total);
+  }
+
   public boolean hadLiveEntries() {
     return this.totalCount.get() != 0;
   }
@@ -6065,7 +6292,7 @@ public class Oplog implements CompactableOplog, Flushable {
           while ((de = dri.getNextLiveEntry()) != null) {
             if (/*
                  * getParent().getOwner().isDestroyed ||
-                 */!compactor.keepCompactorRunning()) {
+                 */!compactor.keepCompactorRunning() || compactor.isChunkFull()) {
               compactFailed = true;
               break;
             }
@@ -6097,10 +6324,13 @@ public class Oplog implements CompactableOplog, Flushable {
                     }
                     continue;
                   }
+                  int valueLength = wrapper.getOffHeapData() != null
+                      ? wrapper.getOffHeapData().getDataSize() : wrapper.getValidLength();
                   // write it to the current oplog
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
                   didCompact = true;
+                  compactor.entryCompacted(valueLength);
                 }
               } // did
             } // de
@@ -6175,7 +6405,7 @@ public class Oplog implements CompactableOplog, Flushable {
       return;
     }
 
-    List<KRFEntry> sortedLiveEntries;
+    SortedLiveEntries sortedLiveEntries;
 
     HashMap<Long, DiskRegionInfo> targetRegions = new HashMap<Long, DiskRegionInfo>(this.regionMap);
     synchronized (diskRecoveryStores) {
@@ -6197,14 +6427,14 @@ public class Oplog implements CompactableOplog, Flushable {
     }
 
     final ByteArrayDataInput in = new ByteArrayDataInput();
-    for (KRFEntry entry : sortedLiveEntries) {
+    for (int i = 0; i < sortedLiveEntries.size(); i++) {
       // Early out if we start closing the parent.
       if (getParent().isClosing()) {
         return;
       }
 
-      DiskEntry diskEntry = entry.getDiskEntry();
-      DiskRegionView diskRegionView = entry.getDiskRegionView();
+      DiskEntry diskEntry = sortedLiveEntries.getDiskEntry(i);
+      DiskRegionView diskRegionView = sortedLiveEntries.getDiskRegionView(i);
       long diskRegionId = diskRegionView.getId();
 
       // TODO DAN ok, here's what we need to do
@@ -6368,6 +6598,12 @@ public class Oplog implements CompactableOplog, Flushable {
     public File f;
     public UninterruptibleRandomAccessFile raf;
     public volatile boolean RAFClosed = true;
+    /**
+     * Read only view of a crf that is done being appended to. Only set if the disk store allows
+     * inactive crfs to be mapped.
+     */
+    public volatile MappedByteBuffer mappedBuffer;
+    public boolean mapAttempted;
     public UninterruptibleFileChannel channel;
     public ByteBuffer writeBuf;
     public long currSize;
@@ -7040,27 +7276,23 @@ public class Oplog implements CompactableOplog, Flushable {
     }
 
     /**
-     * Adds any live entries in this list to liveEntries and returns the index of the next free
-     * slot.
+     * Adds any live entries in this list to liveEntries.
      *
-     * @param liveEntries the array to fill with the live entries
-     * @param idx the first free slot in liveEntries
+     * @param liveEntries the entries to add the live entries to
      * @param drv the disk region these entries are on
-     * @return the next free slot in liveEntries
      */
-    public synchronized int addLiveEntriesToList(KRFEntry[] liveEntries, int idx,
+    public synchronized void addLiveEntriesToList(SortedLiveEntries liveEntries,
         DiskRegionView drv, Map<DiskEntry, VersionHolder> pendingKrfTags) {
+      liveEntries.addRegion(drv);
       DiskEntry de = getPrev();
       while (de != this) {
         VersionHolder tag = null;
         if (pendingKrfTags != null) {
           tag = pendingKrfTags.get(de);
         }
-        liveEntries[idx] = new KRFEntry(drv, de, tag);
-        idx++;
+        liveEntries.add(de, tag);
         de = de.getPrev();
       }
-      return idx;
     }
 
     /*
@@ -7352,7 +7584,7 @@ public class Oplog implements CompactableOplog, Flushable {
   public interface DiskRegionInfo {
     DiskRegionView getDiskRegion();
 
-    int addLiveEntriesToList(KRFEntry[] liveEntries, int idx);
+    void addLiveEntriesToList(SortedLiveEntries liveEntries);
 
     void addLive(DiskEntry de);
 
@@ -7475,9 +7707,8 @@ public class Oplog implements CompactableOplog, Flushable {
     }
 
     @Override
-    public int addLiveEntriesToList(KRFEntry[] liveEntries, int idx) {
+    public void addLiveEntriesToList(SortedLiveEntries liveEntries) {
       // nothing needed since no linked list
-      return idx;
     }
 
     @Override
@@ -7585,10 +7816,9 @@ public class Oplog implements CompactableOplog, Flushable {
     }
 
     @Override
-    public int addLiveEntriesToList(KRFEntry[] liveEntries, int idx) {
-      synchronized (liveEntries) {
-        return this.liveEntries.addLiveEntriesToList(liveEntries, idx, getDiskRegion(),
-            pendingKrfTags);
+    public void addLiveEntriesToList(SortedLiveEntries sortedLiveEntries) {
+      synchronized (this.liveEntries) {
+        this.liveEntries.addLiveEntriesToList(sortedLiveEntries, getDiskRegion(), pendingKrfTags);
       }
     }
 
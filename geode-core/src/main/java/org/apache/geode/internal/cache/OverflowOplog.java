@@ -1255,7 +1255,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
         int totalCount = 0;
         boolean didCompact = false;
         while ((de = getNextLiveEntry()) != null) {
-          if (!compactor.keepCompactorRunning()) {
+          if (!compactor.keepCompactorRunning() || compactor.isChunkFull()) {
             compactFailed = true;
             break;
           }
@@ -1308,6 +1308,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
                 getOplogSet().copyForwardForOverflowCompact(de, valueBytes, length, userBits);
                 // the did's oplogId will now be set to the current active oplog
                 didCompact = true;
+                compactor.entryCompacted(length);
               }
             } // did
           } // de
@@ -15,7 +15,6 @@
 package org.apache.geode.internal.cache;
 
 import static java.lang.Integer.getInteger;
-import static java.lang.Integer.valueOf;
 
 import java.io.DataInput;
 import java.io.DataOutput;
@@ -23,15 +22,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
 
@@ -41,15 +40,16 @@ import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.CompiledGroupBySelect;
+import org.apache.geode.cache.query.internal.CompiledIteratorDef;
+import org.apache.geode.cache.query.internal.CompiledRegion;
 import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.ExecutionContext;
-import org.apache.geode.cache.query.internal.IndexTrackingQueryObserver;
 import org.apache.geode.cache.query.internal.NWayMergeResults;
 import org.apache.geode.cache.query.internal.QueryExecutionContext;
 import org.apache.geode.cache.query.internal.QueryMonitor;
-import org.apache.geode.cache.query.internal.QueryObserver;
-import org.apache.geode.cache.query.internal.QueryObserverHolder;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
@@ -62,11 +62,10 @@ import org.apache.geode.internal.logging.LogService;
 
 /**
  * This class takes the responsibility of executing the query on a data store for the buckets
- * specified in bucketList. It contains a {@code PRQueryExecutor} thread-pool executor that takes a
- * {@code Callable} task identified by {@code PartitionedRegion}, queryString and bucketId.
- *
- * The QueryTasks add results directly to a results queue. The BucketQueryResult is used not only to
- * indicate completion, and holds an exception if there one occurred while processing a query.
+ * specified in bucketList. When more than one thread is configured, the buckets, and the splits of
+ * the entries of large buckets, are queried in parallel by the thread executing the query and by
+ * the threads of the {@code PRQueryExecutor} fork-join pool, and each adds its results directly to
+ * the result collector.
  */
 public class PRQueryProcessor {
   private static final Logger logger = LogService.getLogger();
@@ -76,9 +75,26 @@ public class PRQueryProcessor {
   public static final int NUM_THREADS =
       getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.numThreads", 1);
 
+  /**
+   * The number of threads of the pool that a query may use at most besides the thread executing
+   * it, or 0 for half of the pool
+   */
+  public static final int MAX_THREADS_PER_QUERY =
+      getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.maxThreadsPerQuery", 0);
+
+  /**
+   * The number of entries above which the entries of a bucket are iterated in splits of about that
+   * many entries by different threads, or 0 not to split buckets
+   */
+  public static final int BUCKET_SPLIT_SIZE =
+      getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.bucketSplitSize", 100000);
+
   /* For Test purpose */
   public static int TEST_NUM_THREADS = 0;
 
+  /* For Test purpose */
+  public static int TEST_BUCKET_SPLIT_SIZE = 0;
+
   private PartitionedRegionDataStore _prds;
   private PartitionedRegion pr;
   private final DefaultQuery query;
@@ -87,7 +103,7 @@ public class PRQueryProcessor {
   private volatile int numBucketsProcessed = 0;
   private volatile ObjectType resultType = null;
 
-  private boolean isIndexUsedForLocalQuery = false;
+  private volatile boolean isIndexUsedForLocalQuery = false;
 
   public PRQueryProcessor(PartitionedRegionDataStore prDS, DefaultQuery query, Object[] parameters,
       List<Integer> buckets) {
@@ -132,80 +148,115 @@ public class PRQueryProcessor {
     // ((IndexTrackingQueryObserver)observer).setIndexInfo(resultCollector.getIndexInfoMap());
     // }
 
-    if (NUM_THREADS > 1 || TEST_NUM_THREADS > 1) {
-      executeWithThreadPool(resultCollector);
+    if ((NUM_THREADS > 1 || TEST_NUM_THREADS > 1) && canExecuteInParallel()) {
+      executeInParallel(resultCollector);
     } else {
       executeSequentially(resultCollector, this._bucketsToQuery);
     }
     return this.resultType.isStructType();
   }
 
-  private void executeWithThreadPool(Collection<Collection> resultCollector)
+  /**
+   * Returns whether the buckets can be queried by other threads than this one, which the state of
+   * a transaction or of a query trace is bound to
+   */
+  private boolean canExecuteInParallel() {
+    return !this.query.isTraced() && this.pr.getCache().getTXMgr().getTXState() == null;
+  }
+
+  private void executeInParallel(Collection<Collection> resultCollector)
       throws QueryException, InterruptedException, ForceReattemptException {
     if (Thread.interrupted())
       throw new InterruptedException();
 
-    java.util.List callableTasks = buildCallableTaskList(resultCollector);
-    ExecutorService execService = PRQueryExecutor.getExecutorService();
-
-    boolean reattemptNeeded = false;
-    ForceReattemptException fre = null;
-
-    if (callableTasks != null && !callableTasks.isEmpty()) {
-      List futures = null;
-      futures = execService.invokeAll(callableTasks, 300, TimeUnit.SECONDS);
+    ParallelQuery parallelQuery = new ParallelQuery(buildQueryUnits(), resultCollector);
+    parallelQuery.execute();
 
-      if (futures != null) {
-        Iterator itr = futures.iterator();
-        while (itr.hasNext() && !execService.isShutdown() && !execService.isTerminated()) {
-          Future fut = (Future) itr.next();
-          QueryTask.BucketQueryResult bqr = null;
-
-          try {
-            bqr = (QueryTask.BucketQueryResult) fut.get(BUCKET_QUERY_TIMEOUT, TimeUnit.SECONDS);
-            bqr.handleAndThrowException();
-            if (bqr.retry) {
-              reattemptNeeded = true;
-            }
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs != null && (cs.isOrderBy() || cs.isGroupBy())) {
+      ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
+      int limit = this.query.getLimit(parameters);
+      Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
+      resultCollector.clear();
+      resultCollector.add(mergedResults);
+    }
+  }
 
-          } catch (TimeoutException e) {
-            throw new InternalGemFireException(
-                LocalizedStrings.PRQueryProcessor_TIMED_OUT_WHILE_EXECUTING_QUERY_TIME_EXCEEDED_0
-                    .toLocalizedString(BUCKET_QUERY_TIMEOUT),
-                e);
-          } catch (ExecutionException ee) {
-            Throwable cause = ee.getCause();
-            if (cause instanceof QueryException) {
-              throw (QueryException) cause;
-            } else {
-              throw new InternalGemFireException(
-                  LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
-                      .toLocalizedString(),
-                  cause);
-            }
-          }
+  /**
+   * Returns the units the query is executed on, which are the buckets to query, except for the
+   * buckets that are large enough to be split
+   */
+  private List<QueryUnit> buildQueryUnits() {
+    int splitSize = TEST_BUCKET_SPLIT_SIZE > 0 ? TEST_BUCKET_SPLIT_SIZE : BUCKET_SPLIT_SIZE;
+    int maxSplits = PRQueryExecutor.getMaxThreadsPerQuery() + 1;
+    boolean canSplit = splitSize > 0 && canSplitBuckets();
+    List<QueryUnit> units = new ArrayList<QueryUnit>(this._bucketsToQuery.size());
+    for (Integer bucketId : this._bucketsToQuery) {
+      int numSplits = 1;
+      if (canSplit) {
+        BucketRegion bucket = this.pr.getDataStore().getLocalBucketById(bucketId);
+        if (bucket != null) {
+          numSplits = Math.min(maxSplits, (bucket.size() + splitSize - 1) / splitSize);
         }
-
-        CompiledSelect cs = this.query.getSimpleSelect();
-
-        if (cs != null && (cs.isOrderBy() || cs.isGroupBy())) {
-          ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
-          int limit = this.query.getLimit(parameters);
-          Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
-          resultCollector.clear();
-          resultCollector.add(mergedResults);
+      }
+      if (numSplits > 1) {
+        for (int split = 0; split < numSplits; split++) {
+          units.add(new QueryUnit(bucketId, split, numSplits));
         }
+      } else {
+        units.add(new QueryUnit(bucketId, 0, 1));
       }
     }
+    return units;
+  }
 
-    if (execService == null || execService.isShutdown() || execService.isTerminated()) {
-      this._prds.partitionedRegion.checkReadiness();
+  /**
+   * Returns whether the entries of a bucket can be iterated in splits, which is when the query
+   * iterates over the partitioned region only once, in its only from clause iterator, and does not
+   * use an index, whose results would not be split
+   */
+  private boolean canSplitBuckets() {
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs == null || this.query.isCqQuery() || !this.pr.getIndex().isEmpty()) {
+      return false;
+    }
+    List iterators = cs.getIterators();
+    if (iterators.size() != 1) {
+      return false;
     }
+    CompiledValue collectionExpr = ((CompiledIteratorDef) iterators.get(0)).getCollectionExpr();
+    return collectionExpr instanceof CompiledRegion
+        && ((CompiledRegion) collectionExpr).getRegionPath().equals(this.pr.getFullPath())
+        && countRegionPaths(cs) == 1;
+  }
 
-    if (reattemptNeeded) {
-      throw fre;
+  private static int countRegionPaths(CompiledValue value) {
+    if (value instanceof CompiledRegion) {
+      return 1;
+    }
+    int count = 0;
+    for (Object child : value.getChildren()) {
+      if (child instanceof CompiledValue) {
+        count += countRegionPaths((CompiledValue) child);
+      }
     }
+    return count;
+  }
 
+  private void executeQueryUnit(QueryUnit unit, Collection<Collection> resultCollector)
+      throws QueryException, ForceReattemptException {
+    ExecutionContext context =
+        new QueryExecutionContext(this.parameters, this.pr.getCache(), this.query);
+    context.setBucketList(Collections.singletonList(unit.bucketId));
+    if (unit.numSplits > 1) {
+      context.setBucketSplit(unit.split, unit.numSplits);
+    }
+    executeQueryOnBuckets(resultCollector, context);
+    if (unit.numSplits > 1 && ((QueryExecutionContext) context).isIndexUsed()) {
+      // an index was created since the units were built, and the results it gave are not split
+      throw new ForceReattemptException(
+          "An index was created on the partitioned region while the query was executed");
+    }
   }
 
   /**
@@ -347,8 +398,13 @@ public class PRQueryProcessor {
       }
     }
 
-    return new NWayMergeResults(sortedResults, cs.isDistinct(), limit, cs.getOrderByAttrs(),
-        context, cs.getElementTypeForOrderByQueries());
+    Collection mergedResults = new NWayMergeResults(sortedResults, cs.isDistinct(), limit,
+        cs.getOrderByAttrs(), context, cs.getElementTypeForOrderByQueries());
+    if (cs.isGroupBy()) {
+      // send a partial aggregate per group rather than one per group and bucket
+      return ((CompiledGroupBySelect) cs).combineBucketNodeResults(mergedResults, context);
+    }
+    return mergedResults;
 
   }
 
@@ -376,7 +432,9 @@ public class PRQueryProcessor {
         this.resultType = ((SelectResults) results).getCollectionType().getElementType();
         resultCollector.add((Collection) results);
       }
-      isIndexUsedForLocalQuery = ((QueryExecutionContext) context).isIndexUsed();
+      if (((QueryExecutionContext) context).isIndexUsed()) {
+        isIndexUsedForLocalQuery = true;
+      }
 
     } catch (BucketMovedException bme) {
       if (logger.isDebugEnabled()) {
@@ -401,15 +459,6 @@ public class PRQueryProcessor {
     }
   }
 
-  private List buildCallableTaskList(Collection<Collection> resultsColl) {
-    List callableTasks = new ArrayList();
-    for (Iterator itr = _bucketsToQuery.iterator(); itr.hasNext();) {
-      Integer bId = (Integer) itr.next();
-      callableTasks.add(new QueryTask(this.query, this.parameters, _prds, bId, resultsColl));
-    }
-    return callableTasks;
-  }
-
   public boolean isIndexUsed() {
     return isIndexUsedForLocalQuery;
   }
@@ -423,14 +472,13 @@ public class PRQueryProcessor {
   }
 
   /**
-   * A ThreadPool ( Fixed Size ) with an executor service to execute the query execution spread over
-   * buckets.
-   *
-   *
+   * A fork-join pool shared by the queries to execute them over buckets in parallel. Its threads
+   * steal the work of each other, and each query uses a limited number of them, so that a query
+   * executed on many buckets does not keep the other queries from executing.
    */
   static class PRQueryExecutor {
 
-    private static ExecutorService execService = null;
+    private static ForkJoinPool execService = null;
 
     /**
      * Closes the executor service. This is called from
@@ -447,7 +495,7 @@ public class PRQueryProcessor {
         execService.shutdownNow();
     }
 
-    static synchronized ExecutorService getExecutorService() {
+    static synchronized ForkJoinPool getExecutorService() {
       if (execService == null) {
         initializeExecutorService();
       }
@@ -461,8 +509,39 @@ public class PRQueryProcessor {
     static synchronized void initializeExecutorService() {
       if (execService == null || execService.isShutdown() || execService.isTerminated()) {
         int numThreads = (TEST_NUM_THREADS > 1 ? TEST_NUM_THREADS : NUM_THREADS);
-        execService = Executors.newFixedThreadPool(numThreads);
+        // the tasks submitted are executed in the order they are submitted
+        execService = new ForkJoinPool(Math.max(1, numThreads), pool -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setName("PRQueryProcessor-" + thread.getPoolIndex());
+          return thread;
+        }, null, true);
+      }
+    }
+
+    /**
+     * Returns the number of threads of the pool that one query may use at most
+     */
+    static int getMaxThreadsPerQuery() {
+      if (MAX_THREADS_PER_QUERY > 0) {
+        return MAX_THREADS_PER_QUERY;
       }
+      return Math.max(1, getExecutorService().getParallelism() / 2);
+    }
+  }
+
+  /**
+   * A bucket, or a split of the entries of a bucket, that the query is executed on by itself
+   */
+  private static class QueryUnit {
+    private final Integer bucketId;
+    private final int split;
+    private final int numSplits;
+
+    QueryUnit(Integer bucketId, int split, int numSplits) {
+      this.bucketId = bucketId;
+      this.split = split;
+      this.numSplits = numSplits;
     }
   }
 
@@ -509,99 +588,121 @@ public class PRQueryProcessor {
   }
 
   /**
-   * Implementation of call-able task to execute query on a bucket region. This task will be
-   * generated by the PRQueryProcessor.
-   *
+   * Executes the query on its units in the thread that executes the query and in threads of the
+   * {@link PRQueryExecutor}. The threads take the units from a queue one at a time, and the threads
+   * of the pool leave the query to the thread that executes it as soon as another query waits for
+   * a thread of the pool, so that the queries share the pool.
    */
-  @SuppressWarnings("synthetic-access")
-  private class QueryTask implements Callable {
-    private final DefaultQuery query;
-    private final Object[] parameters;
-    private final PartitionedRegionDataStore _prDs;
-    private final Integer _bucketId;
-    private final Collection<Collection> resultColl;
-
-    public QueryTask(DefaultQuery query, Object[] parameters, PartitionedRegionDataStore prDS,
-        Integer bucketId, final Collection<Collection> rColl) {
-      this.query = query;
-      this._prDs = prDS;
-      this._bucketId = bucketId;
-      this.resultColl = rColl;
-      this.parameters = parameters;
-    }
-
-    public Object call() throws Exception {
-      BucketQueryResult bukResult = new BucketQueryResult(this._bucketId);
-      boolean retry = false;
-      try {
-        // Add indexInfo of this thread to result collector
-        QueryObserver observer = QueryObserverHolder.getInstance();
-        if (observer != null && observer instanceof IndexTrackingQueryObserver) {
-          // ((IndexTrackingQueryObserver)observer).setIndexInfo(resultColl.getIndexInfoMap());
-        }
-
-        List<Integer> bucketList = Collections.singletonList(this._bucketId);
-        ExecutionContext context =
-            new QueryExecutionContext(this.parameters, pr.getCache(), this.query);
-        context.setBucketList(bucketList);
-        executeQueryOnBuckets(this.resultColl, context);
-        // executeSequentially(this.resultColl, bucketList);
-        // success
-        // doBucketQuery(bId, this._prDs, this.query, this.parameters, this.resultColl);
-      } catch (ForceReattemptException fre) {
-        bukResult.setException(fre);
-      } catch (QueryException e) {
-        bukResult.setException(e);
-      } catch (CacheRuntimeException cre) {
-        bukResult.setException(cre);
-      }
-      // Exception
-      return bukResult;
+  private class ParallelQuery {
+    private final Queue<QueryUnit> units;
+    private final int maxWorkers;
+    private final Collection<Collection> resultCollector;
+    private final CountDownLatch unitsDone;
+    private final AtomicInteger numWorkers = new AtomicInteger();
+    private final ForkJoinPool pool = PRQueryExecutor.getExecutorService();
+
+    /** Whether to read PDX serialized, which the thread executing the query may be set to */
+    private final Boolean pdxReadSerialized = pr.getCache().getPdxReadSerializedOverride();
+
+    private volatile Throwable failure;
+
+    ParallelQuery(List<QueryUnit> units, Collection<Collection> resultCollector) {
+      this.units = new ConcurrentLinkedQueue<QueryUnit>(units);
+      this.maxWorkers = Math.min(PRQueryExecutor.getMaxThreadsPerQuery(), units.size() - 1);
+      this.resultCollector = resultCollector;
+      this.unitsDone = new CountDownLatch(units.size());
     }
 
-    /**
-     * Encapsulates the result for the query on the bucket.
-     *
-     */
-    private class BucketQueryResult {
-
-      private int _buk;
-      private Exception _ex = null;
-      public boolean retry = false;
-
-      public BucketQueryResult(int bukId) {
-        this._buk = bukId;
+    void execute() throws QueryException, InterruptedException, ForceReattemptException {
+      startWorkers();
+      while (executeNextUnit()) {
+        startWorkers();
       }
-
-      public Exception getException() {
-        return _ex;
+      if (!this.unitsDone.await(BUCKET_QUERY_TIMEOUT, TimeUnit.SECONDS)) {
+        throw new InternalGemFireException(
+            LocalizedStrings.PRQueryProcessor_TIMED_OUT_WHILE_EXECUTING_QUERY_TIME_EXCEEDED_0
+                .toLocalizedString(BUCKET_QUERY_TIMEOUT));
       }
 
-      public boolean exceptionOccurred() {
-        return _ex != null;
+      Throwable cause = this.failure;
+      if (cause == null) {
+        if (this.pool.isShutdown()) {
+          pr.checkReadiness();
+        }
+      } else if (cause instanceof QueryException) {
+        throw (QueryException) cause;
+      } else if (cause instanceof ForceReattemptException) {
+        throw (ForceReattemptException) cause;
+      } else if (cause instanceof CacheRuntimeException) {
+        throw (CacheRuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new InternalGemFireException(
+            LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
+                .toLocalizedString(),
+            cause);
       }
+    }
 
-      public void setException(Exception e) {
-        this._ex = e;
+    /**
+     * Starts workers in the pool while units are left and no other query waits for a thread
+     */
+    private void startWorkers() {
+      while (!this.units.isEmpty() && !this.pool.hasQueuedSubmissions()) {
+        int workers = this.numWorkers.get();
+        if (workers >= this.maxWorkers) {
+          return;
+        }
+        if (this.numWorkers.compareAndSet(workers, workers + 1)) {
+          try {
+            this.pool.execute(this::work);
+          } catch (RejectedExecutionException e) {
+            // the pool is shut down, so this thread executes the units left
+            this.numWorkers.decrementAndGet();
+            return;
+          }
+        }
       }
+    }
 
-      public Integer getBucketId() {
-        return valueOf(this._buk);
+    private void work() {
+      Boolean initialPdxReadSerialized = pr.getCache().getPdxReadSerializedOverride();
+      pr.getCache().setPdxReadSerializedOverride(this.pdxReadSerialized);
+      try {
+        while (executeNextUnit() && !this.pool.hasQueuedSubmissions()) {
+          // go on with the next unit
+        }
+      } finally {
+        this.numWorkers.decrementAndGet();
+        pr.getCache().setPdxReadSerializedOverride(initialPdxReadSerialized);
       }
+    }
 
-      public boolean isReattemptNeeded() {
-        return this._ex instanceof ForceReattemptException;
+    /**
+     * Executes the query on the next unit, unless a unit failed already
+     *
+     * @return false if no unit was left
+     */
+    private boolean executeNextUnit() {
+      QueryUnit unit = this.units.poll();
+      if (unit == null) {
+        return false;
       }
-
-      public void handleAndThrowException() throws QueryException {
-        if (_ex != null) {
-          if (_ex instanceof QueryException) {
-            throw (QueryException) _ex;
-          } else if (_ex instanceof CacheRuntimeException) {
-            throw (CacheRuntimeException) _ex;
+      try {
+        if (this.failure == null) {
+          executeQueryUnit(unit, this.resultCollector);
+        }
+      } catch (Exception | Error e) {
+        synchronized (this) {
+          if (this.failure == null) {
+            this.failure = e;
           }
         }
+      } finally {
+        this.unitsDone.countDown();
       }
+      return true;
     }
   }
 }
@@ -245,6 +245,7 @@ import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.offheap.annotations.Released;
+import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.RegionLogger;
 import org.apache.geode.internal.size.Sizeable;
@@ -1834,9 +1835,24 @@ public class PartitionedRegion extends LocalRegion
   public Object executeQuery(DefaultQuery query, Object[] parameters, Set buckets)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
+    return executeQuery(query, parameters, buckets, null);
+  }
+
+  /**
+   * Executes a query on this PartitionedRegion as {@link #executeQuery(DefaultQuery, Object[], Set)}
+   * does, passing the results to the given receiver as they come from the members hosting the
+   * buckets if they need not be gathered first.
+   *
+   * @param receiver the receiver of the results, or null to return all of them
+   * @see PartitionedRegionQueryEvaluator#setStreamingResultsReceiver
+   */
+  public Object executeQuery(DefaultQuery query, Object[] parameters, Set buckets,
+      PartitionedRegionQueryEvaluator.StreamingResultsReceiver receiver)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
     for (;;) {
       try {
-        return doExecuteQuery(query, parameters, buckets);
+        return doExecuteQuery(query, parameters, buckets, receiver);
       } catch (ForceReattemptException ignore) {
         // fall through and loop
       }
@@ -1848,7 +1864,8 @@ public class PartitionedRegion extends LocalRegion
    *
    * @throws ForceReattemptException if one of the buckets moved out from under us
    */
-  private Object doExecuteQuery(DefaultQuery query, Object[] parameters, Set buckets)
+  private Object doExecuteQuery(DefaultQuery query, Object[] parameters, Set buckets,
+      PartitionedRegionQueryEvaluator.StreamingResultsReceiver receiver)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException, ForceReattemptException {
     if (logger.isDebugEnabled()) {
@@ -1903,6 +1920,9 @@ public class PartitionedRegion extends LocalRegion
 
     PartitionedRegionQueryEvaluator prqe = new PartitionedRegionQueryEvaluator(this.getSystem(),
         this, query, parameters, results, allBuckets);
+    if (receiver != null) {
+      prqe.setStreamingResultsReceiver(receiver);
+    }
     for (;;) {
       this.getCancelCriterion().checkCancelInProgress(null);
       boolean interrupted = Thread.interrupted();
@@ -3133,6 +3153,40 @@ public class PartitionedRegion extends LocalRegion
     }
   }
 
+  /**
+   * Reads a value from a local bucket without copying an off-heap value to the heap when it can.
+   * Otherwise gets the value like {@link #get} does.
+   */
+  @Override
+  @Retained
+  public Object getRetained(Object key, Object aCallbackArgument, boolean generateCallbacks,
+      boolean disableCopyOnRead, ClientProxyMembershipID requestingClient,
+      EntryEventImpl clientEvent, boolean returnTombstones)
+      throws TimeoutException, CacheLoaderException {
+    if (this.dataStore != null && !this.haveCacheLoader) {
+      validateKey(key);
+      checkReadiness();
+      checkForNoAccess();
+      // a JTA transaction must be joined before checking whether this read is transactional
+      discoverJTA();
+      if (getTXState() == null) {
+        CachePerfStats stats = getCachePerfStats();
+        long start = stats.startGet();
+        int bucketId =
+            PartitionedRegionHelper.getHashKey(this, null, key, null, aCallbackArgument);
+        @Retained
+        Object value = this.dataStore.getLocallyRetained(bucketId, key, aCallbackArgument,
+            clientEvent, returnTombstones);
+        if (value != null) {
+          stats.endGet(start, Token.isInvalid(value));
+          return value;
+        }
+      }
+    }
+    return get(key, aCallbackArgument, generateCallbacks, disableCopyOnRead, true, requestingClient,
+        clientEvent, returnTombstones);
+  }
+
   public InternalDistributedMember getOrCreateNodeForBucketRead(int bucketId) {
     InternalDistributedMember targetNode = getNodeForBucketRead(bucketId);
     if (targetNode != null) {
@@ -6530,6 +6584,16 @@ public class PartitionedRegion extends LocalRegion
     return size;
   }
 
+  @Override
+  public long estimateInlineKeyBytesSaved() {
+    final PartitionedRegionDataStore ds = this.dataStore;
+    if (ds != null) {
+      return ds.estimateInlineKeyBytesSaved();
+    } else {
+      return 0;
+    }
+  }
+
   @Override
   public long getEstimatedLocalSize() {
     final PartitionedRegionDataStore ds = this.dataStore;
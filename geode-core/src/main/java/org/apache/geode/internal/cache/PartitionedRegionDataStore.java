@@ -99,6 +99,8 @@ import org.apache.geode.internal.cache.wan.parallel.ConcurrentParallelGatewaySen
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.offheap.OffHeapHelper;
+import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.util.concurrent.StoppableReentrantReadWriteLock;
 import org.apache.geode.internal.util.concurrent.StoppableReentrantReadWriteLock.StoppableReadLock;
 import org.apache.geode.internal.util.concurrent.StoppableReentrantReadWriteLock.StoppableWriteLock;
@@ -1816,6 +1818,18 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
     return br.getRegionMap().getEntryOverhead();
   }
 
+  /**
+   * Returns an estimate of the number of bytes of heap saved by storing the keys of the local
+   * buckets inline in their entries.
+   */
+  long estimateInlineKeyBytesSaved() {
+    long saved = 0;
+    for (BucketRegion br : this.localBucket2RegionMap.values()) {
+      saved += br.getRegionMap().estimateInlineKeyBytesSaved();
+    }
+    return saved;
+  }
+
   /**
    * Fetch a BucketRegion, but do not return until it is initialized and the primary is known.
    *
@@ -2013,6 +2027,42 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
     return ret;
   }
 
+  /**
+   * Returns the value of the given key if the bucket of the key is hosted by this member and has
+   * an entry for it. An off-heap value is returned retained, and the caller must release it, so
+   * that it can be sent to a client without being copied to the heap.
+   *
+   * @param clientEvent a "client" event that will hold version information about the entry
+   * @return the value, which may be an invalid token or a tombstone if returnTombstones is true, or
+   *         null if the bucket is not hosted here or has no entry for the key
+   */
+  @Retained
+  public Object getLocallyRetained(int bucketId, Object key, Object aCallbackArgument,
+      EntryEventImpl clientEvent, boolean returnTombstones) {
+    final BucketRegion bucketRegion = this.localBucket2RegionMap.get(bucketId);
+    if (bucketRegion == null || !bucketRegion.isInitialized()) {
+      return null;
+    }
+    invokeBucketReadHook();
+    @Retained
+    Object value;
+    try {
+      value = bucketRegion.getDeserializedValue(null, new KeyInfo(key, aCallbackArgument, bucketId),
+          true, true, true, clientEvent, returnTombstones, true);
+    } catch (RegionDestroyedException ignore) {
+      return null;
+    }
+    if (value == Token.TOMBSTONE && !returnTombstones) {
+      return null;
+    }
+    if (value != null && bucketRegion.isBucketDestroyed()) {
+      // the bucket moved while we read it
+      OffHeapHelper.release(value);
+      return null;
+    }
+    return value;
+  }
+
   /**
    * Return a value from the bucket region, always serialized
    *
@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,6 +30,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
@@ -49,6 +51,7 @@ import org.apache.geode.cache.query.internal.CumulativeNonDistinctResults;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.IncrementalNWayMerge;
 import org.apache.geode.cache.query.internal.IndexTrackingQueryObserver.IndexInfo;
 import org.apache.geode.cache.query.internal.NWayMergeResults;
 import org.apache.geode.cache.query.internal.OrderByComparator;
@@ -56,9 +59,12 @@ import org.apache.geode.cache.query.internal.PRQueryTraceInfo;
 import org.apache.geode.cache.query.internal.QueryExecutionContext;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.ResultsSet;
+import org.apache.geode.cache.query.internal.StructImpl;
 import org.apache.geode.cache.query.internal.SortedResultsBag;
 import org.apache.geode.cache.query.internal.SortedStructBag;
 import org.apache.geode.cache.query.internal.StructSet;
+import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.utils.PDXUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
@@ -75,6 +81,7 @@ import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.partitioned.PartitionMessage;
 import org.apache.geode.internal.cache.partitioned.QueryMessage;
 import org.apache.geode.internal.cache.partitioned.RegionAdvisor;
+import org.apache.geode.internal.cache.partitioned.StreamingFlowControl;
 import org.apache.geode.internal.cache.partitioned.StreamingPartitionOperation;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
@@ -114,9 +121,46 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     void hook(final int spot) throws RuntimeException;
   }
 
+  /**
+   * Receives the results of a query a chunk at a time as they come from the members hosting its
+   * buckets, instead of from the results {@link #queryBuckets} returns. It is called by the thread
+   * calling {@link #queryBuckets}, which the threads processing the replies of the members hand
+   * their chunks to. A member sends only {@link StreamingFlowControl#CHUNK_PERMITS} chunks ahead of
+   * the ones received, so a receiver that takes its time holds back the members.
+   */
+  public interface StreamingResultsReceiver {
+    /**
+     * Called before any results are received
+     *
+     * @param results empty results of the type the results would otherwise have been returned in
+     */
+    void start(SelectResults results) throws IOException;
+
+    /**
+     * Called with each chunk of results, which holds no more results than the limit of the query
+     * allows
+     */
+    void receive(Collection results) throws IOException;
+
+    /**
+     * Called once all the results were received. Not called if the query fails.
+     */
+    void end() throws IOException;
+  }
+
   private static final int MAX_PR_QUERY_RETRIES =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PR_QUERY_RETRIES", 10).intValue();
 
+  /**
+   * Whether to gather the results of remote queries before passing them on even when they could be
+   * streamed
+   */
+  static final boolean DISABLE_RESULT_STREAMING =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.DISABLE_PR_RESULT_STREAMING");
+
+  /** How long to wait for a chunk to pass on before checking whether the members are done */
+  private static final long STREAMING_POLL_MILLIS = 100;
+
   private final PartitionedRegion pr;
   private volatile Map<InternalDistributedMember, List<Integer>> node2bucketIds;
   private final DefaultQuery query;
@@ -134,6 +178,24 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
   // set of members failed to execute query
   private Set<InternalDistributedMember> failedMembers;
 
+  private StreamingResultsReceiver streamingReceiver;
+  /** Serializes the calls to the streaming receiver and guards the streaming state */
+  private final Object streamingLock = new Object();
+  private final Set<InternalDistributedMember> streamedMembers = new HashSet<>();
+  private int streamingLimit = -1;
+  private int numStreamedResults;
+  private boolean streamingClosed;
+  private volatile boolean streamingLimitReached;
+  private IOException streamingFault;
+  /** The results to pass on, handed off by the threads processing the replies of the members */
+  private final BlockingQueue<HandedOffResults> handedOffResults = new LinkedBlockingQueue<>();
+  /** The flow control of each member streaming results to this one, by member */
+  private final Map<InternalDistributedMember, MemberFlowControl> flowControls = new HashMap<>();
+  /** Merges the sorted results of an order by query as they are streamed */
+  private IncrementalNWayMerge orderedMerge;
+  /** The runs of {@link #orderedMerge} of the members queried last, by member */
+  private Map<InternalDistributedMember, OrderedRun> orderedRuns = Collections.emptyMap();
+
   /**
    * Construct a PartitionedRegionQueryEvaluator
    *
@@ -161,6 +223,35 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     }
   }
 
+  /**
+   * Passes the results of the query to the given receiver as they come from each member, rather
+   * than gathering them, if they need not be made distinct, counted or grouped first. The results
+   * of an order by query, which each member sorts, are merged as they come and passed on as soon as
+   * no member can still send a result that sorts before them. Only the results of remote queries
+   * that are not traced are streamed.
+   *
+   * @return whether the results will be streamed
+   */
+  public boolean setStreamingResultsReceiver(StreamingResultsReceiver receiver) {
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (DISABLE_RESULT_STREAMING || cs == null || cs instanceof CompiledGroupBySelect
+        || cs.isDistinct() || cs.isCount() || !this.query.isRemoteQuery()
+        || this.query.isTraced() || this.query.isCqQuery()
+        || this.query.isQueryWithFunctionContext()) {
+      return false;
+    }
+    if (cs.isOrderBy()) {
+      // members before 9.0 do not sort their results
+      for (Object member : this.sys.getDistributionManager().getNormalDistributionManagerIds()) {
+        if (((InternalDistributedMember) member).getVersionObject().compareTo(Version.GFE_90) < 0) {
+          return false;
+        }
+      }
+    }
+    this.streamingReceiver = receiver;
+    return true;
+  }
+
   @Override
   protected DistributionMessage createRequestMessage(Set recipients, ReplyProcessor21 processor) {
     throw new UnsupportedOperationException();
@@ -168,8 +259,12 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
 
   protected PartitionMessage createRequestMessage(InternalDistributedMember recipient,
       ReplyProcessor21 processor, List bucketIds) {
-    return new QueryMessage(recipient, this.pr.getPRId(), processor, this.query, this.parameters,
-        bucketIds);
+    QueryMessage message = new QueryMessage(recipient, this.pr.getPRId(), processor, this.query,
+        this.parameters, bucketIds);
+    if (this.streamingReceiver != null) {
+      message.setStreamingFlowControl(true);
+    }
+    return message;
   }
 
 
@@ -203,6 +298,11 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       }
     }
 
+    if (this.streamingReceiver != null && objects.size() > 0
+        && objects.get(0) instanceof StreamingFlowControl.FlowControlId) {
+      startFlowControl(sender, (StreamingFlowControl.FlowControlId) objects.remove(0));
+    }
+
     // We cannot do an if check for trace objects because it is possible
     // that a remote node has system Query.VERBOSE flag on
     // and yet the executing node does not.
@@ -225,6 +325,17 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     if (logger.isDebugEnabled()) {
       logger.debug("Results per member, for {} size: {}", sender, objects.size());
     }
+    if (this.streamingReceiver != null) {
+      if (!streamResults(objects, sender, sequenceNum, lastInSequence)) {
+        return false;
+      }
+      if (lastInSequence) {
+        synchronized (results) {
+          ((MemberResultsList) results).setLastChunkReceived(true);
+        }
+      }
+      return true;
+    }
     if (sortNeeded) {
       objects = sortIncomingData(objects, orderByAttribs);
     }
@@ -321,6 +432,17 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     StreamingQueryPartitionResponse processor = null;
     boolean requiresRetry = false;
 
+    if (this.orderedMerge != null) {
+      startOrderedRuns();
+    }
+    if (this.streamingReceiver != null) {
+      synchronized (this.streamingLock) {
+        for (InternalDistributedMember member : n2b.keySet()) {
+          this.flowControls.put(member, new MemberFlowControl());
+        }
+      }
+    }
+
     if (n2b.isEmpty()) {
       if (isDebugEnabled) {
         logger.debug("No remote members with buckets to query.");
@@ -386,6 +508,9 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
 
     if (processor != null) {
       try {
+        if (this.streamingReceiver != null) {
+          passOnStreamedResults(processor);
+        }
         // should we allow this to timeout?
         failedMembers = processor.waitForCacheOrQueryException();
         for (InternalDistributedMember member : failedMembers) {
@@ -417,10 +542,18 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       }
     }
 
+    if (this.streamingReceiver != null) {
+      passOnHandedOffResults();
+    }
+
     if (query.isCanceled()) {
       throw query.getQueryCanceledException();
     }
 
+    if (localFault == null && this.streamingFault != null) {
+      throw new QueryException("Unable to stream the results of the query.", this.streamingFault);
+    }
+
     if (localFault != null) {
       if (localFault instanceof QueryException) {
         throw (QueryException) localFault;
@@ -432,6 +565,10 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
         throw (RuntimeException) localFault;
       }
     }
+    if (this.streamingLimitReached) {
+      // the remaining results are not wanted
+      return false;
+    }
     return requiresRetry | localNeedsRetry;
   }
 
@@ -474,6 +611,38 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     Assert.assertTrue(!this.node2bucketIds.isEmpty(),
         " There are no data stores hosting any of the buckets.");
 
+    if (this.streamingReceiver != null) {
+      this.streamingLimit = this.query.getLimit(this.parameters);
+      SelectResults emptyResults = this.cumulativeResults;
+      CompiledSelect cs = this.query.getSimpleSelect();
+      if (cs.isOrderBy()) {
+        ExecutionContext context = new QueryExecutionContext(this.parameters, this.pr.cache);
+        ObjectType elementType = cs.getElementTypeForOrderByQueries();
+        this.orderedMerge = new IncrementalNWayMerge(cs.getOrderByAttrs(), context, elementType,
+            this.streamingLimit);
+        // as buildSortedResult would have returned
+        emptyResults = new NWayMergeResults(Collections.emptyList(), false, -1,
+            cs.getOrderByAttrs(), context, elementType);
+      }
+      try {
+        this.streamingReceiver.start(emptyResults);
+      } catch (IOException e) {
+        throw new QueryException("Unable to stream the results of the query.", e);
+      }
+    }
+
+    try {
+      return queryBucketsWithRetries(th);
+    } finally {
+      if (this.streamingReceiver != null) {
+        releaseFlowControls();
+      }
+    }
+  }
+
+  private SelectResults queryBucketsWithRetries(final TestHook th)
+      throws QueryException, InterruptedException {
+    final boolean isDebugEnabled = logger.isDebugEnabled();
     boolean needsRetry = true;
     int retry = 0;
     while (needsRetry && retry < MAX_PR_QUERY_RETRIES) {
@@ -526,9 +695,338 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       throw new QueryException(msg);
     }
 
+    if (this.streamingReceiver != null) {
+      if (this.orderedMerge != null) {
+        synchronized (this.streamingLock) {
+          endOrderedRuns(this.orderedRuns);
+        }
+        passOnHandedOffResults();
+        if (this.streamingFault != null) {
+          throw new QueryException("Unable to stream the results of the query.",
+              this.streamingFault);
+        }
+      }
+      try {
+        this.streamingReceiver.end();
+      } catch (IOException e) {
+        throw new QueryException("Unable to stream the results of the query.", e);
+      }
+      return this.cumulativeResults;
+    }
     return addResultsToResultSet();
   }
 
+  /**
+   * Hands off a chunk of results from the given member to be passed to the streaming receiver, or,
+   * for an order by query, the results the chunk lets {@link #orderedMerge} merge
+   *
+   * @param sequenceNum the number of the chunk among the chunks of the member
+   * @param lastInSequence whether the member sends no more chunks
+   * @return false once no more results are wanted
+   */
+  private boolean streamResults(Collection results, InternalDistributedMember sender,
+      int sequenceNum, boolean lastInSequence) {
+    synchronized (this.streamingLock) {
+      if (this.streamingClosed) {
+        return false;
+      }
+      if (!results.isEmpty()) {
+        this.streamedMembers.add(sender);
+      }
+      if (this.orderedMerge != null) {
+        return handOff(mergeOrderedResults(results, sender, sequenceNum, lastInSequence), sender);
+      }
+      List streamed = new ArrayList(results.size());
+      boolean localResults = sender.equals(this.pr.getMyId());
+      ObjectType elementType = this.cumulativeResults.getCollectionType().getElementType();
+      boolean isStruct = elementType != null && elementType.isStructType();
+      boolean getDomainObjectForPdx =
+          !localResults && !this.pr.getCache().getPdxReadSerializedByAnyGemFireServices();
+      boolean getDeserializedObject = !localResults && !this.query.isKeepSerialized();
+      boolean[] objectChangedMarker = new boolean[1];
+      for (Object result : results) {
+        if (this.streamingLimit > -1
+            && this.numStreamedResults + streamed.size() == this.streamingLimit) {
+          break;
+        }
+        if (!localResults) {
+          // as CumulativeNonDistinctResults converts the results of remote queries
+          objectChangedMarker[0] = false;
+          Object converted = PDXUtils.convertPDX(result, isStruct, getDomainObjectForPdx,
+              getDeserializedObject, false, objectChangedMarker, false);
+          if (!isStruct) {
+            result = converted;
+          } else if (objectChangedMarker[0]) {
+            result = new StructImpl((StructTypeImpl) elementType, (Object[]) converted);
+          }
+        }
+        streamed.add(result);
+      }
+      return handOff(streamed, sender);
+    }
+  }
+
+  /**
+   * Hands off the given results to be passed to the streaming receiver by the thread querying the
+   * buckets. Called holding {@link #streamingLock}.
+   *
+   * @param sender the member to give a permit to send another chunk once the results are passed
+   *        on, or null
+   * @return false once no more results are wanted
+   */
+  private boolean handOff(List streamed, InternalDistributedMember sender) {
+    if (!streamed.isEmpty() || sender != null) {
+      this.numStreamedResults += streamed.size();
+      this.handedOffResults.add(new HandedOffResults(streamed, sender));
+    }
+    if (this.streamingLimit > -1 && this.numStreamedResults == this.streamingLimit) {
+      this.streamingLimitReached = true;
+      this.streamingClosed = true;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Passes the handed off results to the streaming receiver until the members queried by the given
+   * processor have sent all their results or are not waited for anymore
+   */
+  private void passOnStreamedResults(StreamingQueryPartitionResponse processor)
+      throws InterruptedException {
+    processor.startWaitingForChunks();
+    try {
+      while (processor.isWaitingForChunks()) {
+        this.pr.getCancelCriterion().checkCancelInProgress(null);
+        HandedOffResults handedOff =
+            this.handedOffResults.poll(STREAMING_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (handedOff != null) {
+          passOn(handedOff);
+          passOnHandedOffResults();
+        }
+        boolean closed;
+        synchronized (this.streamingLock) {
+          closed = this.streamingClosed;
+        }
+        if (closed) {
+          // the members may be waiting for permits that are not given anymore
+          releaseFlowControls();
+        }
+      }
+    } finally {
+      processor.stopWaitingForChunks();
+    }
+  }
+
+  /**
+   * Passes the results handed off so far to the streaming receiver
+   */
+  private void passOnHandedOffResults() {
+    for (HandedOffResults handedOff = this.handedOffResults.poll(); handedOff != null;
+        handedOff = this.handedOffResults.poll()) {
+      passOn(handedOff);
+    }
+  }
+
+  /**
+   * Passes the given handed off results to the streaming receiver and gives their sender a permit
+   * to send another chunk
+   */
+  private void passOn(HandedOffResults handedOff) {
+    if (!handedOff.results.isEmpty()) {
+      boolean closed;
+      synchronized (this.streamingLock) {
+        closed = this.streamingFault != null;
+      }
+      if (!closed) {
+        try {
+          this.streamingReceiver.receive(handedOff.results);
+        } catch (IOException e) {
+          synchronized (this.streamingLock) {
+            this.streamingFault = e;
+            this.streamingClosed = true;
+          }
+        }
+      }
+    }
+    if (handedOff.sender != null) {
+      givePermit(handedOff.sender);
+    }
+  }
+
+  /**
+   * Records the id of the flow control of the given member, which came with its first chunk, and
+   * gives it the permits it is owed for the chunks that were passed on before
+   */
+  private void startFlowControl(InternalDistributedMember sender,
+      StreamingFlowControl.FlowControlId flowControlId) {
+    int owedPermits;
+    boolean releaseAll;
+    synchronized (this.streamingLock) {
+      MemberFlowControl flowControl = this.flowControls.get(sender);
+      if (flowControl == null) {
+        return;
+      }
+      flowControl.id = flowControlId.getId();
+      owedPermits = flowControl.owedPermits;
+      flowControl.owedPermits = 0;
+      releaseAll = flowControl.released;
+    }
+    if (releaseAll) {
+      sendPermit(sender, flowControlId.getId(), true);
+      return;
+    }
+    for (int i = 0; i < owedPermits; i++) {
+      sendPermit(sender, flowControlId.getId(), false);
+    }
+  }
+
+  private void givePermit(InternalDistributedMember sender) {
+    int flowControlId;
+    synchronized (this.streamingLock) {
+      MemberFlowControl flowControl = this.flowControls.get(sender);
+      if (flowControl == null || flowControl.released || this.streamingClosed) {
+        // the member is let send the rest of its chunks once the streaming is closed
+        return;
+      }
+      if (flowControl.id < 0) {
+        // its first chunk, with the id of its flow control, has not been processed yet
+        flowControl.owedPermits++;
+        return;
+      }
+      flowControlId = flowControl.id;
+    }
+    sendPermit(sender, flowControlId, false);
+  }
+
+  /**
+   * Closes the streaming and lets the members still streaming results send the rest without
+   * waiting for permits, which are not given anymore
+   */
+  private void releaseFlowControls() {
+    Map<InternalDistributedMember, Integer> released = new HashMap<>();
+    synchronized (this.streamingLock) {
+      this.streamingClosed = true;
+      for (Map.Entry<InternalDistributedMember, MemberFlowControl> entry : this.flowControls
+          .entrySet()) {
+        MemberFlowControl flowControl = entry.getValue();
+        if (!flowControl.released) {
+          flowControl.released = true;
+          // a member whose id is not known yet is released once its first chunk comes
+          if (flowControl.id >= 0) {
+            released.put(entry.getKey(), flowControl.id);
+          }
+        }
+      }
+    }
+    for (Map.Entry<InternalDistributedMember, Integer> entry : released.entrySet()) {
+      MemberResultsList results = (MemberResultsList) this.resultsPerMember.get(entry.getKey());
+      if (results == null || !results.isLastChunkReceived()) {
+        sendPermit(entry.getKey(), entry.getValue(), true);
+      }
+    }
+    this.handedOffResults.clear();
+  }
+
+  protected void sendPermit(InternalDistributedMember member, int flowControlId,
+      boolean releaseAll) {
+    StreamingFlowControl.PermitMessage.send(this.sys.getDistributionManager(), member,
+        flowControlId, releaseAll);
+  }
+
+  /**
+   * Results handed off to be passed to the streaming receiver
+   */
+  private static class HandedOffResults {
+    private final List results;
+    private final InternalDistributedMember sender;
+
+    private HandedOffResults(List results, InternalDistributedMember sender) {
+      this.results = results;
+      this.sender = sender;
+    }
+  }
+
+  /**
+   * The flow control of a member streaming results to this one
+   */
+  private static class MemberFlowControl {
+    /** the id of the flow control in the member, or -1 until its first chunk is processed */
+    private int id = -1;
+    /** the permits to give the member once the id of its flow control is known */
+    private int owedPermits;
+    /** whether the member has been let send the rest of its chunks without permits */
+    private boolean released;
+  }
+
+  /**
+   * Adds a chunk of sorted results from the given member to its run of {@link #orderedMerge}.
+   * Chunks that come before the chunks numbered before them are held until those come, and the run
+   * ends with the last chunk. Called holding {@link #streamingLock}.
+   *
+   * @return the results that are merged now
+   */
+  private List mergeOrderedResults(Collection results, InternalDistributedMember sender,
+      int sequenceNum, boolean lastInSequence) {
+    OrderedRun run = this.orderedRuns.get(sender);
+    run.heldChunks.put(sequenceNum, results);
+    if (lastInSequence) {
+      run.lastSequenceNum = sequenceNum;
+    }
+    List merged = new ArrayList();
+    Collection chunk;
+    while ((chunk = run.heldChunks.remove(run.nextSequenceNum)) != null) {
+      merged.addAll(this.orderedMerge.add(run.run, chunk));
+      if (run.nextSequenceNum++ == run.lastSequenceNum) {
+        merged.addAll(this.orderedMerge.end(run.run));
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Adds a run to {@link #orderedMerge} for each member about to be queried, then ends the runs of
+   * the members queried before that got no more results. A member that failed is queried again
+   * only if it sent no results, so ending its run only lets the merge go on.
+   */
+  private void startOrderedRuns() {
+    synchronized (this.streamingLock) {
+      Map<InternalDistributedMember, OrderedRun> previousRuns = this.orderedRuns;
+      this.orderedRuns = new HashMap<>();
+      for (InternalDistributedMember member : this.node2bucketIds.keySet()) {
+        this.orderedRuns.put(member, new OrderedRun(this.orderedMerge.addRun()));
+      }
+      endOrderedRuns(previousRuns);
+    }
+  }
+
+  /**
+   * Ends the given runs of {@link #orderedMerge} and passes on the results that are merged then.
+   * Called holding {@link #streamingLock}.
+   */
+  private void endOrderedRuns(Map<InternalDistributedMember, OrderedRun> runs) {
+    for (OrderedRun run : runs.values()) {
+      if (this.streamingClosed) {
+        return;
+      }
+      handOff(this.orderedMerge.end(run.run), null);
+    }
+  }
+
+  /**
+   * The run of {@link #orderedMerge} of a member, with the chunks of results from the member that
+   * came before their turn
+   */
+  private static class OrderedRun {
+    private final IncrementalNWayMerge.Run run;
+    private final Map<Integer, Collection> heldChunks = new HashMap<>();
+    private int nextSequenceNum;
+    private int lastSequenceNum = -1;
+
+    private OrderedRun(IncrementalNWayMerge.Run run) {
+      this.run = run;
+    }
+  }
+
   /**
    * Wait for 10 ms between reattempts.
    */
@@ -545,7 +1043,7 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     }
   }
 
-  private Set<Integer> calculateRetryBuckets() {
+  private Set<Integer> calculateRetryBuckets() throws QueryException {
     Iterator<Map.Entry<InternalDistributedMember, List<Integer>>> memberToBucketList =
         node2bucketIds.entrySet().iterator();
     final HashSet<Integer> retryBuckets = new HashSet<Integer>();
@@ -554,6 +1052,11 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       InternalDistributedMember m = e.getKey();
       if (!this.resultsPerMember.containsKey(m)
           || (!((MemberResultsList) this.resultsPerMember.get(m)).isLastChunkReceived())) {
+        if (isStreamed(m)) {
+          // querying its buckets again would stream some of their results twice
+          throw new QueryException("Unable to retry the query on the buckets of " + m
+              + " after some of their results were streamed.");
+        }
         retryBuckets.addAll(e.getValue());
         this.resultsPerMember.remove(m);
       }
@@ -573,6 +1076,12 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     return retryBuckets;
   }
 
+  private boolean isStreamed(InternalDistributedMember member) {
+    synchronized (this.streamingLock) {
+      return this.streamedMembers.contains(member);
+    }
+  }
+
   private SelectResults addResultsToResultSet() throws QueryException {
     int numElementsInResult = 0;
 
@@ -993,6 +1502,22 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
           prQueryTraceInfoList.add(queryTraceInfo);
         }
 
+        if (this.streamingReceiver != null) {
+          if (resultCollector.isEmpty()) {
+            streamResults(Collections.emptyList(), me, 0, true);
+          }
+          int sequenceNum = 0;
+          for (Object results : resultCollector) {
+            if (!streamResults(results instanceof Collection ? (Collection) results
+                : Collections.singletonList(results), me, sequenceNum,
+                ++sequenceNum == resultCollector.size())) {
+              break;
+            }
+            passOnHandedOffResults();
+          }
+          resultCollector.clear();
+        }
+
         resultCollector.setLastChunkReceived(true);
         // Add results to the results-list. If prior successfully completed
         // results exist from previous executions on different buckets, add (to) those results as
@@ -1136,5 +1661,32 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       return PartitionedRegionQueryEvaluator.this.cumulativeResults.getCollectionType()
           .getElementType();
     }
+
+    /**
+     * Returns whether chunks of results may still be handed off by the members queried
+     */
+    boolean isWaitingForChunks() {
+      return stillWaiting();
+    }
+
+    /**
+     * Listens for the departure of the members queried while chunks are waited for, as
+     * {@link #waitForCacheOrQueryException} does
+     */
+    void startWaitingForChunks() {
+      synchronized (this.members) {
+        processActiveMembers(addListenerAndGetMembers());
+      }
+    }
+
+    void stopWaitingForChunks() {
+      removeListener();
+    }
+
+    @Override
+    protected void postFinish() {
+      // wakes up the thread waiting for chunks to pass on
+      handedOffResults.add(new HandedOffResults(Collections.emptyList(), null));
+    }
   }
 }
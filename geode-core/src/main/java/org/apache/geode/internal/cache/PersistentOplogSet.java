@@ -26,6 +26,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -44,6 +50,7 @@ import org.apache.geode.internal.cache.persistence.OplogType;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.sequencelog.EntryLogger;
@@ -444,17 +451,10 @@ public class PersistentOplogSet implements OplogSet {
     if (oplogSet.size() > 0) {
       long startOpLogRecovery = System.currentTimeMillis();
       // first figure out all entries that have been destroyed
-      boolean latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        byteCount += oplog.recoverDrf(deletedIds, this.alreadyRecoveredOnce.get(), latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
-      }
+      byteCount += recoverDrfs(oplogSet, deletedIds);
       parent.incDeadRecordCount(deletedIds.size());
       // now figure out live entries
-      latestOplog = true;
+      boolean latestOplog = true;
       for (Oplog oplog : oplogSet) {
         long startOpLogRead = parent.getStats().startOplogRead();
         long bytesRead = oplog.recoverCrf(deletedIds,
@@ -524,6 +524,100 @@ public class PersistentOplogSet implements OplogSet {
     return byteCount;
   }
 
+  /**
+   * Reads the drf of each oplog in the given set, newest first, adding the ids of destroyed entries
+   * to deletedIds. If more than one recovery thread is configured the drfs are read concurrently,
+   * each into its own id set, and the results are then merged in oplog order. This is safe because
+   * the only shared state a drf touches is the union of deleted ids and the gc versions of the
+   * recovering regions, both of which are order independent.
+   *
+   * @return the number of bytes read
+   */
+  private long recoverDrfs(TreeSet<Oplog> oplogSet, OplogEntryIdSet deletedIds) {
+    final boolean alreadyRecovered = this.alreadyRecoveredOnce.get();
+    int threads = Math.min(parent.RECOVERY_THREADS, oplogSet.size());
+    long byteCount = 0;
+    if (threads <= 1) {
+      boolean latestOplog = true;
+      for (Oplog oplog : oplogSet) {
+        byteCount += recoverDrf(oplog, deletedIds, alreadyRecovered, latestOplog);
+        latestOplog = false;
+        if (!alreadyRecovered) {
+          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+        }
+      }
+      return byteCount;
+    }
+
+    final ThreadGroup recoveryThreadGroup =
+        LoggingThreadGroup.createThreadGroup("Oplog Recovery Thread Group", logger);
+    final ThreadFactory recoveryThreadFactory =
+        GemfireCacheHelper.CreateThreadFactory(recoveryThreadGroup, "Oplog Recovery Task");
+    ExecutorService executor = Executors.newFixedThreadPool(threads, recoveryThreadFactory);
+    try {
+      List<Future<Long>> results = new ArrayList<Future<Long>>(oplogSet.size());
+      List<OplogEntryIdSet> oplogDeletedIds = new ArrayList<OplogEntryIdSet>(oplogSet.size());
+      boolean latestOplog = true;
+      for (final Oplog oplog : oplogSet) {
+        final OplogEntryIdSet ids = new OplogEntryIdSet();
+        final boolean latest = latestOplog;
+        latestOplog = false;
+        oplogDeletedIds.add(ids);
+        results.add(executor.submit(new Callable<Long>() {
+          @Override
+          public Long call() {
+            return recoverDrf(oplog, ids, alreadyRecovered, latest);
+          }
+        }));
+      }
+
+      Iterator<Oplog> oplogs = oplogSet.iterator();
+      for (int i = 0; i < results.size(); i++) {
+        Oplog oplog = oplogs.next();
+        byteCount += waitForDrfRecovery(oplog, results.get(i));
+        deletedIds.addAll(oplogDeletedIds.get(i));
+        oplogDeletedIds.set(i, null);
+        if (!alreadyRecovered) {
+          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return byteCount;
+  }
+
+  private long recoverDrf(Oplog oplog, OplogEntryIdSet deletedIds, boolean alreadyRecovered,
+      boolean latestOplog) {
+    long start = parent.getStats().startDrfRead();
+    long bytesRead = 0;
+    try {
+      bytesRead = oplog.recoverDrf(deletedIds, alreadyRecovered, latestOplog);
+    } finally {
+      parent.getStats().endDrfRead(start, bytesRead);
+    }
+    return bytesRead;
+  }
+
+  private long waitForDrfRecovery(Oplog oplog, Future<Long> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      parent.getCancelCriterion().checkCancelInProgress(e);
+      throw new DiskAccessException("Interrupted while recovering " + oplog, e, parent);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new DiskAccessException("Failed recovering " + oplog, cause, parent);
+    }
+  }
+
   protected boolean recoverValuesSync() {
     return parent.RECOVER_VALUES_SYNC;
   }
@@ -1035,27 +1129,33 @@ public class PersistentOplogSet implements OplogSet {
   }
 
   /**
-   * Add compactable oplogs to the list, up to the maximum size.
+   * Add compactable oplogs to the list, up to the maximum size. The oplogs with the highest ratio
+   * of garbage are added first since compacting them frees the most disk space for the least
+   * amount of copying. Oplogs with the same ratio are added oldest first.
    */
   public void getCompactableOplogs(List<CompactableOplog> l, int max) {
+    List<Oplog> compactable = new ArrayList<Oplog>();
     synchronized (this.oplogIdToOplog) {
-      // Sort this list so we compact the oldest first instead of the one
-      // that was
-      // compactable first.
-      // ArrayList<CompactableOplog> l = new
-      // ArrayList<CompactableOplog>(this.oplogIdToOplog.values());
-      // Collections.sort(l);
-      // Iterator<Oplog> itr = l.iterator();
-      {
-        Iterator<Oplog> itr = this.oplogIdToOplog.values().iterator();
-        while (itr.hasNext() && l.size() < max) {
-          Oplog oplog = itr.next();
-          if (oplog.needsCompaction()) {
-            l.add(oplog);
-          }
+      for (Oplog oplog : this.oplogIdToOplog.values()) {
+        if (oplog.needsCompaction()) {
+          compactable.add(oplog);
         }
       }
     }
+    // the ratios change as entries are modified, so sort on a snapshot of them
+    Map<Oplog, Double> garbageRatios = new HashMap<>();
+    for (Oplog oplog : compactable) {
+      garbageRatios.put(oplog, oplog.getGarbageRatio());
+    }
+    // the sort is stable so equal ratios stay in oplog id order
+    compactable.sort(
+        Comparator.comparingDouble((Oplog oplog) -> garbageRatios.get(oplog)).reversed());
+    for (Oplog oplog : compactable) {
+      if (l.size() >= max) {
+        break;
+      }
+      l.add(oplog);
+    }
   }
 
   public void scheduleForRecovery(DiskRecoveryStore drs) {
@@ -900,6 +900,11 @@ class ProxyRegionMap implements RegionMap {
     return 0;
   }
 
+  @Override
+  public long estimateInlineKeyBytesSaved() {
+    return 0;
+  }
+
   @Override
   public boolean beginChangeValueForm(EvictableEntry le,
       CachedDeserializable vmCachedDeserializable, Object v) {
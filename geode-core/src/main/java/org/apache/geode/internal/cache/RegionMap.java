@@ -359,6 +359,12 @@ public interface RegionMap extends EvictableMap {
    */
   int getEntryOverhead();
 
+  /**
+   * Returns an estimate of the number of bytes of heap saved by storing the keys of this map's
+   * entries inline instead of as separate objects.
+   */
+  long estimateInlineKeyBytesSaved();
+
   boolean beginChangeValueForm(EvictableEntry le, CachedDeserializable vmCachedDeserializable,
       Object v);
 
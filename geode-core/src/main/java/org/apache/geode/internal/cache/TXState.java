@@ -59,6 +59,7 @@ import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
 import org.apache.geode.internal.cache.tx.TransactionalOperation.ServerRegionOperation;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 
@@ -1522,6 +1523,10 @@ public class TXState implements TXStateInterface {
       if (!disableCopyOnRead) {
         v = localRegion.conditionalCopy(v);
       }
+      if (retainResult && v instanceof StoredObject && ((StoredObject) v).hasRefCount()) {
+        // the caller will release the result so it needs a reference of its own
+        ((StoredObject) v).retain();
+      }
       return v;
     } else {
       return localRegion.getDeserializedValue(null, keyInfo, updateStats, disableCopyOnRead,
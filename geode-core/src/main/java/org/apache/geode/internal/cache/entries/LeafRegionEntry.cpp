@@ -23,12 +23,15 @@ package org.apache.geode.internal.cache.entries;
 #define KEY_TYPE long
 #elif defined(KEY_UUID)
 #define KEY_TYPE UUID
-#elif defined(KEY_STRING1) || defined(KEY_STRING2)
+#elif defined(KEY_STRING1) || defined(KEY_STRING2) || defined(KEY_ASCII_STRING)
 #define KEY_TYPE String
 #else
 #error the KEY_TYPE macro must be defined    
 #endif
 
+#ifdef KEY_ASCII_STRING
+import java.nio.charset.StandardCharsets;
+#endif
 #ifdef KEY_UUID
 import java.util.UUID;
 #endif
@@ -90,6 +93,7 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
  * key uuid: KEY_UUID
  * key string1: KEY_STRING1
  * key string2: KEY_STRING2
+ * key ascii string: KEY_ASCII_STRING
  */
 
 /**
@@ -199,6 +203,11 @@ public class LEAF_CLASS extends PARENT_CLASS {
    * bits2 encodes character data
    */
   private final long bits2;
+#elif defined(KEY_ASCII_STRING)
+  /**
+   * the chars of the key, each of which is <= 0x7f
+   */
+  private final byte[] keyBytes;
 #endif
 
   public LEAF_CLASS (final RegionEntryContext context, final KEY_TYPE key,
@@ -280,6 +289,14 @@ public class LEAF_CLASS extends PARENT_CLASS {
     tempBits1 |= key.length();
     this.bits1 = tempBits1;
     this.bits2 = tempBits2;
+#elif defined(KEY_ASCII_STRING)
+    // caller has already confirmed that key.length <= MAX_INLINE_ASCII_STRING_KEY and that each
+    // char of key is <= 0x7f
+    byte[] tempBytes = new byte[key.length()];
+    for (int i = 0; i < tempBytes.length; i++) {
+      tempBytes[i] = (byte) key.charAt(i);
+    }
+    this.keyBytes = tempBytes;
 #endif
   }
 
@@ -548,6 +565,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
 #ifdef KEY_OBJECT
     // default implementation.
     return getKey();
+#elif defined(KEY_ASCII_STRING)
+    // the key bytes are the only part of the key that is not in the entry itself
+    return this.keyBytes;
 #else
     // inline keys always report null for sizing since the size comes from the entry size
     return null;
@@ -942,6 +962,28 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#elif defined(KEY_ASCII_STRING)
+  @Override
+  public Object getKey() {
+    return new String(this.keyBytes, StandardCharsets.ISO_8859_1);
+  }
+
+  // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
+  @Override
+  public boolean isKeyEqual(final Object key) {
+    if (key instanceof String) {
+      String stringKey = (String) key;
+      if (stringKey.length() == this.keyBytes.length) {
+        for (int i = 0; i < this.keyBytes.length; i++) {
+          if (stringKey.charAt(i) != this.keyBytes[i]) {
+            return false;
+          }
+        }
+        return true;
+      }
+    }
+    return false;
+  }
 #endif
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
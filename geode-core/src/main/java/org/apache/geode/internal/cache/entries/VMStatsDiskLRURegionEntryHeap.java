@@ -52,6 +52,8 @@ public abstract class VMStatsDiskLRURegionEntryHeap extends VMStatsDiskLRURegion
             } else {
               return new VMStatsDiskLRURegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMStatsDiskLRURegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsDiskLRURegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -55,6 +55,8 @@ public abstract class VMStatsDiskLRURegionEntryOffHeap extends VMStatsDiskLRUReg
               return new VMStatsDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMStatsDiskLRURegionEntryOffHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -52,6 +52,8 @@ public abstract class VMStatsDiskRegionEntryHeap extends VMStatsDiskRegionEntry
             } else {
               return new VMStatsDiskRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMStatsDiskRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsDiskRegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -43,7 +43,7 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
  * One of the following key macros must be defined:
  *
  * key object: KEY_OBJECT key int: KEY_INT key long: KEY_LONG key uuid: KEY_UUID key string1:
- * KEY_STRING1 key string2: KEY_STRING2
+ * KEY_STRING1 key string2: KEY_STRING2 key ascii string: KEY_ASCII_STRING
  */
 /**
  * Do not modify this class. It was generated. Instead modify LeafRegionEntry.cpp and then run
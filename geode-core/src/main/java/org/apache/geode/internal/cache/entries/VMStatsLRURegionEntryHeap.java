@@ -52,6 +52,8 @@ public abstract class VMStatsLRURegionEntryHeap extends VMStatsLRURegionEntry {
             } else {
               return new VMStatsLRURegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMStatsLRURegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsLRURegionEntryHeapUUIDKey(context, (UUID) key, value);
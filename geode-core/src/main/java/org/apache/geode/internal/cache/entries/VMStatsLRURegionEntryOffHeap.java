@@ -53,6 +53,8 @@ public abstract class VMStatsLRURegionEntryOffHeap extends VMStatsLRURegionEntry
             } else {
               return new VMStatsLRURegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMStatsLRURegionEntryOffHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
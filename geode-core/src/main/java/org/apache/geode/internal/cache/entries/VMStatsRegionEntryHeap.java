@@ -51,6 +51,8 @@ public abstract class VMStatsRegionEntryHeap extends VMStatsRegionEntry {
             } else {
               return new VMStatsRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMStatsRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMStatsRegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -52,6 +52,8 @@ public abstract class VMThinDiskLRURegionEntryHeap extends VMThinDiskLRURegionEn
             } else {
               return new VMThinDiskLRURegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMThinDiskLRURegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMThinDiskLRURegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -55,6 +55,8 @@ public abstract class VMThinDiskLRURegionEntryOffHeap extends VMThinDiskLRURegio
               return new VMThinDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMThinDiskLRURegionEntryOffHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMThinDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -52,6 +52,8 @@ public abstract class VMThinDiskRegionEntryHeap extends VMThinDiskRegionEntry {
             } else {
               return new VMThinDiskRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMThinDiskRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMThinDiskRegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -53,6 +53,8 @@ public abstract class VMThinLRURegionEntryOffHeap extends VMThinLRURegionEntry
             } else {
               return new VMThinLRURegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMThinLRURegionEntryOffHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMThinLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -51,6 +51,8 @@ public abstract class VMThinRegionEntryHeap extends VMThinRegionEntry {
             } else {
               return new VMThinRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VMThinRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VMThinRegionEntryHeapUUIDKey(context, (UUID) key, value);
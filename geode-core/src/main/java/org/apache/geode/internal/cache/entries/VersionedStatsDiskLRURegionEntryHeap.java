@@ -55,6 +55,8 @@ public abstract class VersionedStatsDiskLRURegionEntryHeap
               return new VersionedStatsDiskLRURegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedStatsDiskLRURegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsDiskLRURegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -56,6 +56,8 @@ public abstract class VersionedStatsDiskLRURegionEntryOffHeap
               return new VersionedStatsDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedStatsDiskLRURegionEntryOffHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -54,6 +54,8 @@ public abstract class VersionedStatsDiskRegionEntryHeap extends VersionedStatsDi
               return new VersionedStatsDiskRegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedStatsDiskRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsDiskRegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -54,6 +54,8 @@ public abstract class VersionedStatsLRURegionEntryHeap extends VersionedStatsLRU
               return new VersionedStatsLRURegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedStatsLRURegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsLRURegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -52,6 +52,8 @@ public abstract class VersionedStatsRegionEntryHeap extends VersionedStatsRegion
             } else {
               return new VersionedStatsRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedStatsRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsRegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -55,6 +55,8 @@ public abstract class VersionedStatsRegionEntryOffHeap extends VersionedStatsReg
               return new VersionedStatsRegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedStatsRegionEntryOffHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedStatsRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -54,6 +54,8 @@ public abstract class VersionedThinDiskLRURegionEntryHeap extends VersionedThinD
               return new VersionedThinDiskLRURegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedThinDiskLRURegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedThinDiskLRURegionEntryHeapUUIDKey(context, (UUID) key, value);
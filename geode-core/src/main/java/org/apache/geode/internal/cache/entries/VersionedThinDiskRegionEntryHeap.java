@@ -54,6 +54,8 @@ public abstract class VersionedThinDiskRegionEntryHeap extends VersionedThinDisk
               return new VersionedThinDiskRegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedThinDiskRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedThinDiskRegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -55,6 +55,8 @@ public abstract class VersionedThinDiskRegionEntryOffHeap extends VersionedThinD
               return new VersionedThinDiskRegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedThinDiskRegionEntryOffHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedThinDiskRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
@@ -54,6 +54,8 @@ public abstract class VersionedThinLRURegionEntryHeap extends VersionedThinLRURe
               return new VersionedThinLRURegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedThinLRURegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedThinLRURegionEntryHeapUUIDKey(context, (UUID) key, value);
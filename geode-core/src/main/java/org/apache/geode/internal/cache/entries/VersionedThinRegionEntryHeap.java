@@ -52,6 +52,8 @@ public abstract class VersionedThinRegionEntryHeap extends VersionedThinRegionEn
             } else {
               return new VersionedThinRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
             }
+          } else if (InlineKeyHelper.canStringBeInlineAsciiEncoded(skey)) {
+            return new VersionedThinRegionEntryHeapAsciiStringKey(context, skey, value);
           }
         } else if (keyClass == UUID.class) {
           return new VersionedThinRegionEntryHeapUUIDKey(context, (UUID) key, value);
@@ -57,12 +57,20 @@ import org.apache.geode.internal.logging.log4j.LogMarker;
 public class QueryMessage extends StreamingPartitionOperation.StreamingPartitionMessage {
   private static final Logger logger = LogService.getLogger();
 
+  /** Whether the sender gives permits to stream the chunks of results */
+  protected static final short FLOW_CONTROLLED = UNRESERVED_FLAGS_START;
+
   private volatile String queryString;
   private volatile boolean cqQuery;
   private volatile Object[] parameters;
   private volatile List buckets;
   private volatile boolean isPdxSerialized;
   private volatile boolean traceOn;
+  private volatile boolean streamingFlowControl;
+
+  /** Limits the chunks sent ahead of the permits of the sender, if it gives permits */
+  private transient StreamingFlowControl flowControl;
+  private transient boolean flowControlIdSent;
 
   private final List<Collection> resultCollector = new ArrayList<>();
   private Iterator currentResultIterator;
@@ -87,6 +95,14 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
     this.traceOn = query.isTraced() || DefaultQuery.QUERY_VERBOSE;
   }
 
+  /**
+   * Sets whether the sender gives a {@link StreamingFlowControl.PermitMessage} for each chunk of
+   * results it passes on, which the recipient then waits for before sending more chunks
+   */
+  public void setStreamingFlowControl(boolean streamingFlowControl) {
+    this.streamingFlowControl = streamingFlowControl;
+  }
+
   /**
    * Provide results to send back to requestor. terminate by returning END_OF_STREAM token object
    */
@@ -103,6 +119,11 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
     if (Thread.interrupted()) {
       throw new InterruptedException();
     }
+    // the sender needs the id of the flow control, sent ahead of the results, to give permits
+    if (this.flowControl != null && !this.flowControlIdSent) {
+      this.flowControlIdSent = true;
+      return new StreamingFlowControl.FlowControlId(this.flowControl.getId());
+    }
 
     while (this.currentResultIterator == null || !this.currentResultIterator.hasNext()) {
       if (this.currentSelectResultIterator.hasNext()) {
@@ -244,8 +265,15 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
             .toLocalizedString(QueryMonitor.getMemoryUsedDuringLowMemory());
         throw new QueryExecutionLowMemoryException(reason);
       }
+      if (this.streamingFlowControl) {
+        this.flowControl = StreamingFlowControl.register(dm, getSender());
+      }
       super.operateOnPartitionedRegion(dm, pr, startTime);
     } finally {
+      if (this.flowControl != null) {
+        this.flowControl.unregister();
+        this.flowControl = null;
+      }
       // remove trace info so that it is not included in the num results when logged
       if (isQueryTraced) {
         this.resultCollector.remove(queryTraceList);
@@ -270,6 +298,20 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
     return PR_QUERY_MESSAGE;
   }
 
+  @Override
+  protected short computeCompressedShort(short s) {
+    s = super.computeCompressedShort(s);
+    if (this.streamingFlowControl)
+      s |= FLOW_CONTROLLED;
+    return s;
+  }
+
+  @Override
+  protected void setBooleans(short s, DataInput in) throws IOException, ClassNotFoundException {
+    super.setBooleans(s, in);
+    this.streamingFlowControl = ((s & FLOW_CONTROLLED) != 0);
+  }
+
   /**
    * send a reply message. This is in a method so that subclasses can override the reply message
    * type
@@ -290,6 +332,13 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
         pr.getPrStats().endPartitionMessagesProcessing(startTime);
       }
     }
+    if (ex == null && this.flowControl != null) {
+      try {
+        this.flowControl.acquirePermit();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
     StreamingReplyMessage.send(member, procId, ex, dm, this.outStream, this.numObjectsInChunk,
         this.replyMsgNum, this.replyLastMsg, this.isPdxSerialized);
   }
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.partitioned;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.distributed.internal.MembershipListener;
+import org.apache.geode.distributed.internal.ProcessorKeeper21;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.Version;
+
+/**
+ * This class limits how many chunks of query results a member streams to the member that sent it
+ * the query before that member has passed them on, like {@link
+ * org.apache.geode.internal.cache.InitialImageFlowControl} does for initial image chunks.
+ *
+ * The member streaming the results registers a flow control and sends its id, as a
+ * {@link FlowControlId}, at the head of its first chunk. It acquires a permit before sending each
+ * chunk. The receiving member sends a {@link PermitMessage} once it has passed on the results of
+ * a chunk, and releases all the permits once it wants no more results.
+ */
+public class StreamingFlowControl implements MembershipListener {
+
+  /** The number of chunks a member sends before it waits for the first of them to be passed on */
+  public static final int CHUNK_PERMITS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.STREAMING_CHUNK_PERMITS", 16);
+
+  private static final ProcessorKeeper21 keeper = new ProcessorKeeper21(false);
+
+  private int id;
+  private final Semaphore permits = new Semaphore(CHUNK_PERMITS);
+  private final DistributionManager dm;
+  private final InternalDistributedMember target;
+  private volatile boolean aborted;
+
+  public static StreamingFlowControl register(DistributionManager dm,
+      InternalDistributedMember target) {
+    StreamingFlowControl control = new StreamingFlowControl(dm, target);
+    control.id = keeper.put(control);
+
+    Set availableIds = dm.addMembershipListenerAndGetDistributionManagerIds(control);
+    if (!availableIds.contains(target)) {
+      control.abort();
+    }
+    return control;
+  }
+
+  private StreamingFlowControl(DistributionManager dm, InternalDistributedMember target) {
+    this.dm = dm;
+    this.target = target;
+  }
+
+  public int getId() {
+    return this.id;
+  }
+
+  /**
+   * Waits for a permit to send another chunk. Returns without one once the target wants no more
+   * chunks or has departed.
+   */
+  public void acquirePermit() throws InterruptedException {
+    while (!this.aborted) {
+      this.dm.getCancelCriterion().checkCancelInProgress(null);
+      if (this.permits.tryAcquire(1, TimeUnit.SECONDS)) {
+        return;
+      }
+    }
+  }
+
+  public void unregister() {
+    this.dm.removeMembershipListener(this);
+    keeper.remove(this.id);
+    abort();
+  }
+
+  private void releasePermit() {
+    this.permits.release();
+  }
+
+  private void abort() {
+    if (!this.aborted) {
+      this.aborted = true;
+      // wake up a sender waiting for a permit
+      this.permits.release();
+    }
+  }
+
+  @Override
+  public void memberDeparted(DistributionManager distributionManager, InternalDistributedMember id,
+      boolean crashed) {
+    if (id.equals(this.target)) {
+      abort();
+    }
+  }
+
+  @Override
+  public void memberJoined(DistributionManager distributionManager, InternalDistributedMember id) {
+    // Do nothing
+  }
+
+  @Override
+  public void quorumLost(DistributionManager distributionManager,
+      Set<InternalDistributedMember> failures, List<InternalDistributedMember> remaining) {}
+
+  @Override
+  public void memberSuspect(DistributionManager distributionManager, InternalDistributedMember id,
+      InternalDistributedMember whoSuspected, String reason) {
+    // Do nothing
+  }
+
+  @Override
+  public String toString() {
+    return "<StreamingFlowControl for query results to " + this.target + " with "
+        + this.permits.availablePermits() + " available permits>";
+  }
+
+  /**
+   * The id of the flow control of a member streaming query results, sent as the first object of
+   * its first chunk
+   */
+  public static class FlowControlId implements DataSerializableFixedID {
+    private int id;
+
+    public FlowControlId() {}
+
+    public FlowControlId(int id) {
+      this.id = id;
+    }
+
+    public int getId() {
+      return this.id;
+    }
+
+    @Override
+    public int getDSFID() {
+      return STREAMING_FLOW_CONTROL_ID;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(this.id);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      this.id = in.readInt();
+    }
+
+    @Override
+    public Version[] getSerializationVersions() {
+      return null;
+    }
+  }
+
+  /**
+   * Gives the member streaming query results a permit to send another chunk, or all the permits
+   * it needs to send its remaining chunks
+   */
+  public static class PermitMessage extends DistributionMessage
+      implements DataSerializableFixedID {
+    private int keeperId;
+    private boolean releaseAll;
+
+    public PermitMessage() {}
+
+    private PermitMessage(int keeperId, boolean releaseAll) {
+      this.keeperId = keeperId;
+      this.releaseAll = releaseAll;
+    }
+
+    /**
+     * @param releaseAll true if the recipient should send its remaining chunks without waiting
+     */
+    public static void send(DistributionManager dm, InternalDistributedMember recipient,
+        int keeperId, boolean releaseAll) {
+      PermitMessage message = new PermitMessage(keeperId, releaseAll);
+      message.setRecipient(recipient);
+      dm.putOutgoing(message);
+    }
+
+    @Override
+    public int getProcessorType() {
+      return ClusterDistributionManager.STANDARD_EXECUTOR;
+    }
+
+    @Override
+    public boolean getInlineProcess() {
+      return true;
+    }
+
+    @Override
+    protected void process(ClusterDistributionManager dm) {
+      StreamingFlowControl control = (StreamingFlowControl) keeper.retrieve(this.keeperId);
+      if (control != null) {
+        if (this.releaseAll) {
+          control.abort();
+        } else {
+          control.releasePermit();
+        }
+      }
+    }
+
+    @Override
+    public int getDSFID() {
+      return STREAMING_FLOW_CONTROL_PERMIT_MESSAGE;
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      super.fromData(in);
+      this.keeperId = in.readInt();
+      this.releaseAll = in.readBoolean();
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      super.toData(out);
+      out.writeInt(this.keeperId);
+      out.writeBoolean(this.releaseAll);
+    }
+  }
+}
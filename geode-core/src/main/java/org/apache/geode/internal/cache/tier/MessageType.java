@@ -382,10 +382,17 @@ public class MessageType {
   public static final int PUT_ALL_WITH_CALLBACK = 108;
 
   public static final int REMOVE_ALL = 109;
+
+  /**
+   * Asks the server to execute the requests it reads from the connection concurrently and to
+   * answer them as they complete, so that the client can have more than one request in flight on
+   * it.
+   */
+  public static final int ENABLE_PIPELINING = 110;
   /**
    * Must be equal to last valid message id.
    */
-  private static final int LAST_VALID_MESSAGE_ID = REMOVE_ALL;
+  private static final int LAST_VALID_MESSAGE_ID = ENABLE_PIPELINING;
 
 
   public static boolean validate(int messageType) {
@@ -605,6 +612,8 @@ public class MessageType {
         return "PUT_ALL_WITH_CALLBACK";
       case REMOVE_ALL:
         return "REMOVE_ALL";
+      case ENABLE_PIPELINING:
+        return "ENABLE_PIPELINING";
       default:
         return Integer.toString(type);
     }
@@ -97,6 +97,7 @@ import org.apache.geode.internal.security.SecurableCommunicationChannel;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.tcp.ConnectionTable;
 import org.apache.geode.internal.util.ArrayUtils;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
 
 /**
  * Implements the acceptor thread on the bridge server. Accepts connections from the edge and starts
@@ -117,6 +118,12 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
   private final int maxThreads;
 
   private final ThreadPoolExecutor pool;
+
+  /**
+   * A pool used to execute the requests read from pipelined connections, or null in selector mode.
+   */
+  private final ThreadPoolExecutor pipelinedRequestPool;
+
   /**
    * A pool used to process handshakes.
    */
@@ -153,7 +160,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
   private final Object syncLock = new Object();
 
   /**
-   * THE selector for the bridge server; null if no selector.
+   * THE selector for the bridge server; null if no selector or if a {@link #reactor} is used.
    */
   private final Selector selector;
   // private final Selector tmpSel;
@@ -237,6 +244,27 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
    */
   public static final String BACKLOG_PROPERTY_NAME = "BridgeServer.backlog";
 
+  /**
+   * The system property name for the number of reactor threads that read client messages when
+   * max-threads is set. If 0, the default, a single selector thread hands each connection that has
+   * a message to the thread pool which reads the message in blocking mode.
+   */
+  public static final String REACTOR_THREADS_PROPERTY_NAME = "BridgeServer.REACTOR_THREADS";
+
+  /**
+   * The system property name for the maximum number of threads that execute the requests read from
+   * pipelined connections. Defaults to max-connections. Once they are all busy, a pipelined
+   * connection executes the request it read itself before it reads the next one.
+   */
+  public static final String MAX_PIPELINED_THREADS_PROPERTY_NAME =
+      "BridgeServer.MAX_PIPELINED_THREADS";
+
+  /**
+   * Reads client messages if max-threads and {@link #REACTOR_THREADS_PROPERTY_NAME} are set; null
+   * otherwise
+   */
+  private final ServerConnectionReactor reactor;
+
   /**
    * Current number of ServerConnection instances that are CLIENT_TO_SERVER cons.
    */
@@ -391,6 +419,8 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       }
       this.maxThreads = tmp_maxThreads;
     }
+    final int reactorThreads =
+        isSelector() ? Integer.getInteger(REACTOR_THREADS_PROPERTY_NAME, 0).intValue() : 0;
     {
       Selector tmp_s = null;
       // Selector tmp2_s = null;
@@ -399,7 +429,9 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       HashSet tmp_hs = null;
       SystemTimer tmp_timer = null;
       if (isSelector()) {
-        tmp_s = Selector.open(); // no longer catch ex to fix bug 36907
+        if (reactorThreads <= 0) {
+          tmp_s = Selector.open(); // no longer catch ex to fix bug 36907
+        }
         // tmp2_s = Selector.open(); // workaround for bug 39624
         tmp_q = new LinkedBlockingQueue();
         tmp_commQ = new LinkedBlockingQueue();
@@ -547,8 +579,16 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
         this.clientNotifier.getStats());
 
     pool = initializeServerConnectionThreadPool();
+    pipelinedRequestPool = isSelector() ? null : initializePipelinedRequestThreadPool();
     hsPool = initializeHandshakerThreadPool();
     clientQueueInitPool = initializeClientQueueInitializerThreadPool();
+    if (reactorThreads > 0) {
+      this.reactor = new ServerConnectionReactor(
+          "Cache Server Reactor " + this.serverSock.getInetAddress() + ":" + this.localPort,
+          reactorThreads, socketBufferSize, this.pool, this.stats, this.cache.getCancelCriterion());
+    } else {
+      this.reactor = null;
+    }
 
     isAuthenticationRequired = this.securityService.isClientSecurityRequired();
 
@@ -562,6 +602,10 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
   private ThreadPoolExecutor initializeHandshakerThreadPool() throws IOException {
     String gName = "Handshaker " + serverSock.getInetAddress() + ":" + this.localPort;
     final ThreadGroup socketThreadGroup = LoggingThreadGroup.createThreadGroup(gName, logger);
+    // with no selector the handshake is read with blocking socket reads, like the requests of the
+    // connection thread it hands the socket to, so those threads can be virtual
+    final ThreadFactory virtualThreadFactory =
+        isSelector() ? null : VirtualThreads.createThreadFactory(socketThreadGroup);
 
     ThreadFactory socketThreadFactory = new ThreadFactory() {
       AtomicInteger connNum = new AtomicInteger(-1);
@@ -570,6 +614,11 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       public Thread newThread(Runnable command) {
         String threadName = socketThreadGroup.getName() + " Thread " + connNum.incrementAndGet();
         getStats().incAcceptThreadsCreated();
+        if (virtualThreadFactory != null) {
+          Thread thread = virtualThreadFactory.newThread(command);
+          thread.setName(threadName);
+          return thread;
+        }
         return new Thread(socketThreadGroup, command, threadName);
       }
     };
@@ -630,6 +679,10 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
         // + serverSock.getInetAddress()
         + "on port " + this.localPort;
     final ThreadGroup socketThreadGroup = LoggingThreadGroup.createThreadGroup(gName, logger);
+    // with no selector each connection has a thread blocked reading its socket so those threads
+    // can be virtual
+    final ThreadFactory virtualThreadFactory =
+        isSelector() ? null : VirtualThreads.createThreadFactory(socketThreadGroup);
 
     ThreadFactory socketThreadFactory = new ThreadFactory() {
       AtomicInteger connNum = new AtomicInteger(-1);
@@ -649,6 +702,11 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
             }
           }
         };
+        if (virtualThreadFactory != null) {
+          Thread thread = virtualThreadFactory.newThread(r);
+          thread.setName(tName);
+          return thread;
+        }
         return new Thread(socketThreadGroup, r, tName);
       }
     };
@@ -667,6 +725,55 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     }
   }
 
+  private ThreadPoolExecutor initializePipelinedRequestThreadPool() {
+    // the thread names must start with "ServerConnection" like those of the connections whose
+    // requests they execute
+    String gName = "ServerConnection on port " + this.localPort + " Pipelined";
+    final ThreadGroup pipelinedThreadGroup = LoggingThreadGroup.createThreadGroup(gName, logger);
+    final ThreadFactory virtualThreadFactory =
+        VirtualThreads.createThreadFactory(pipelinedThreadGroup);
+
+    ThreadFactory pipelinedThreadFactory = new ThreadFactory() {
+      AtomicInteger threadNum = new AtomicInteger(-1);
+
+      @Override
+      public Thread newThread(final Runnable command) {
+        String tName = pipelinedThreadGroup.getName() + " Thread " + threadNum.incrementAndGet();
+        getStats().incConnectionThreadsCreated();
+        Runnable r = new Runnable() {
+          public void run() {
+            try {
+              command.run();
+            } catch (CancelException e) {
+              // ignore
+            } finally {
+              ConnectionTable.releaseThreadsSockets();
+            }
+          }
+        };
+        if (virtualThreadFactory != null) {
+          Thread thread = virtualThreadFactory.newThread(r);
+          thread.setName(tName);
+          return thread;
+        }
+        return new Thread(pipelinedThreadGroup, r, tName);
+      }
+    };
+    // each pipelined connection limits how many of its requests run at once
+    int maxPipelinedThreads =
+        Integer.getInteger(MAX_PIPELINED_THREADS_PROPERTY_NAME, this.maxConnections).intValue();
+    return new ThreadPoolExecutor(0, Math.max(1, maxPipelinedThreads), 60, TimeUnit.SECONDS,
+        new SynchronousQueue(), pipelinedThreadFactory);
+  }
+
+  /**
+   * Returns the pool that executes the requests read from pipelined connections, or null if this
+   * acceptor is using a selector.
+   */
+  ThreadPoolExecutor getPipelinedRequestPool() {
+    return this.pipelinedRequestPool;
+  }
+
   public long getAcceptorId() {
     return this.acceptorId;
   }
@@ -716,7 +823,9 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     // in code from exiting immediately.
     thread.start();
 
-    if (isSelector()) {
+    if (this.reactor != null) {
+      this.reactor.start();
+    } else if (isSelector()) {
       Runnable r = new Runnable() {
         public void run() {
           AcceptorImpl.this.runSelectorLoop();
@@ -759,6 +868,10 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
         return;
       }
     }
+    if (this.reactor != null) {
+      this.reactor.register(sc);
+      return;
+    }
     getSelectorQueue().offer(sc);
     wakeupSelector();
   }
@@ -787,6 +900,10 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     if (!isRunning()) {
       return;
     }
+    if (this.reactor != null) {
+      this.reactor.unregister(sc);
+      return;
+    }
     // just need to wake the selector up so it will notice our socket was closed
     wakeupSelector();
   }
@@ -1663,10 +1780,14 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
         } catch (IOException ignore) {
         }
       }
-      try {
-        wakeupSelector();
-        this.selector.close();
-      } catch (IOException ignore) {
+      if (this.reactor != null) {
+        this.reactor.close();
+      } else {
+        try {
+          wakeupSelector();
+          this.selector.close();
+        } catch (IOException ignore) {
+        }
       }
       if (this.selectorThread != null) {
         this.selectorThread.interrupt();
@@ -1687,6 +1808,9 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       Thread.currentThread().interrupt();
       this.pool.shutdownNow();
     }
+    if (this.pipelinedRequestPool != null) {
+      this.pipelinedRequestPool.shutdownNow();
+    }
     this.clientQueueInitPool.shutdownNow();
     this.hsPool.shutdownNow();
   }
@@ -1704,6 +1828,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
   public boolean isShutdownProperly() {
     return !isRunning() && !thread.isAlive()
         && (selectorThread == null || !selectorThread.isAlive())
+        && (reactor == null || !reactor.isAlive())
         && (pool == null || pool.isShutdown()) && (hsPool == null || hsPool.isShutdown())
         && (clientQueueInitPool == null || clientQueueInitPool.isShutdown())
         && (selector == null || !selector.isOpen()) && (tmpSel == null || !tmpSel.isOpen());
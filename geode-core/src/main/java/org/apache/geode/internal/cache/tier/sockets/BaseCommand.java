@@ -195,8 +195,10 @@ public abstract class BaseCommand implements Command {
    */
   protected boolean shouldMasqueradeForTx(Message clientMessage,
       ServerConnection serverConnection) {
+    // the transaction id of a pipelined request only matches it to its reply
     return serverConnection.getClientVersion().compareTo(Version.GFE_66) >= 0
-        && clientMessage.getTransactionId() > TXManagerImpl.NOTX;
+        && clientMessage.getTransactionId() > TXManagerImpl.NOTX
+        && !serverConnection.isPipelinedRequestWorker();
   }
 
   /**
@@ -844,6 +846,25 @@ public abstract class BaseCommand implements Command {
     chunkedResponseMsg.sendChunk(servConn);
   }
 
+  /**
+   * Returns the largest payload, in bytes, that a client message may have. This is
+   * BridgeServer.MAX_INCOMING_DATA if it is set, otherwise the maximum message size.
+   */
+  static int getMaxIncomingMessageLength() {
+    if (MAX_INCOMING_DATA > 0) {
+      return MAX_INCOMING_DATA;
+    }
+    return Integer.getInteger(Message.MAX_MESSAGE_SIZE_PROPERTY, Message.DEFAULT_MAX_MESSAGE_SIZE);
+  }
+
+  /**
+   * Returns true if the server limits the client messages or bytes it works on at once. A message
+   * must then be read by a thread that can wait for the limiters before it reads the payload.
+   */
+  static boolean isIncomingDataLimited() {
+    return INCOMING_DATA_LIMITER != null || INCOMING_MSG_LIMITER != null;
+  }
+
   static Message readRequest(ServerConnection servConn) {
     Message requestMsg = null;
     try {
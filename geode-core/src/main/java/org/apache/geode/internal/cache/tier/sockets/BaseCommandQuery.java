@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -37,6 +38,7 @@ import org.apache.geode.distributed.DistributedSystemDisconnectedException;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.CachedDeserializable;
+import org.apache.geode.internal.cache.PartitionedRegionQueryEvaluator.StreamingResultsReceiver;
 import org.apache.geode.internal.cache.tier.CachedRegionHelper;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -101,12 +103,31 @@ public abstract class BaseCommandQuery extends BaseCommand {
       // in the future if we support arbitrary queries
       Object result = null;
 
-      if (params != null) {
+      // the results of a partitioned region query are sent as they come from the members hosting
+      // its buckets, unless they are to be authorized or kept for a CQ first
+      StreamingQueryResponse streamingResponse = null;
+      if (cqQuery == null && sendResults && servConn.getPostAuthzRequest() == null
+          && ((DefaultQuery) query).isRemoteQuery()) {
+        streamingResponse =
+            new StreamingQueryResponse(msg, (DefaultQuery) query, servConn, securityService);
+        result = ((DefaultQuery) query).execute(params != null ? params : new Object[0],
+            streamingResponse);
+      } else if (params != null) {
         result = query.execute(params);
       } else {
         result = query.execute();
       }
 
+      if (streamingResponse != null && streamingResponse.isStarted()) {
+        msg.clearParts();
+        stats.incProcessQueryTime(DistributionStats.getStatTime() - start);
+        if (logger.isDebugEnabled()) {
+          logger.debug("{}: Streamed query response for query {}", servConn.getName(),
+              queryString);
+        }
+        return true;
+      }
+
       // Asif : Before conditioning the results check if any
       // of the regions involved in the query have been destroyed
       // or not. If yes, throw an Exception.
@@ -505,6 +526,94 @@ public abstract class BaseCommandQuery extends BaseCommand {
     }
   }
 
+  /**
+   * Sends the results of a partitioned region query to the client in chunks of
+   * {@link #MAXIMUM_CHUNK_SIZE} results as they come from the members hosting its buckets
+   */
+  private class StreamingQueryResponse implements StreamingResultsReceiver {
+
+    private final Message msg;
+
+    private final DefaultQuery query;
+
+    private final ServerConnection servConn;
+
+    private final SecurityService securityService;
+
+    private final List chunk = new ArrayList(MAXIMUM_CHUNK_SIZE);
+
+    private CollectionType collectionType;
+
+    private boolean isStructs;
+
+    private boolean started;
+
+    StreamingQueryResponse(Message msg, DefaultQuery query, ServerConnection servConn,
+        SecurityService securityService) {
+      this.msg = msg;
+      this.query = query;
+      this.servConn = servConn;
+      this.securityService = securityService;
+    }
+
+    boolean isStarted() {
+      return this.started;
+    }
+
+    @Override
+    public void start(SelectResults results) throws IOException {
+      this.collectionType = getCollectionType(results);
+      this.isStructs = this.collectionType.getElementType().isStructType();
+      ChunkedMessage queryResponseMsg = this.servConn.getQueryResponseMessage();
+      queryResponseMsg.setMessageType(MessageType.RESPONSE);
+      queryResponseMsg.setTransactionId(this.msg.getTransactionId());
+      queryResponseMsg.sendHeader();
+      this.started = true;
+    }
+
+    @Override
+    public void receive(Collection results) throws IOException {
+      for (Object result : results) {
+        this.chunk.add(result);
+        if (this.chunk.size() == MAXIMUM_CHUNK_SIZE) {
+          sendChunk(false);
+        }
+      }
+    }
+
+    @Override
+    public void end() throws IOException {
+      sendChunk(true);
+    }
+
+    private void sendChunk(boolean lastChunk) throws IOException {
+      Object queryResponseChunk;
+      // from 7.0, if the object is in the form of serialized byte array,
+      // send it as a part of ObjectPartList
+      if (this.query.isKeepSerialized()) {
+        ObjectPartList serializedObjs = new ObjectPartList(this.chunk.size(), false);
+        for (Object result : this.chunk) {
+          addToObjectPartList(serializedObjs, result, this.collectionType, false, this.servConn,
+              this.isStructs, this.securityService);
+        }
+        queryResponseChunk = serializedObjs;
+      } else {
+        Object[] results = new Object[this.chunk.size()];
+        for (int i = 0; i < results.length; i++) {
+          Object result = this.chunk.get(i);
+          if (this.isStructs && (result instanceof Struct)) {
+            results[i] = ((Struct) result).getFieldValues();
+          } else {
+            results[i] = result;
+          }
+        }
+        queryResponseChunk = results;
+      }
+      this.chunk.clear();
+      writeQueryResponseChunk(queryResponseChunk, this.collectionType, lastChunk, this.servConn);
+    }
+  }
+
   private void addToObjectPartList(ObjectPartList serializedObjs, Object res,
       CollectionType collectionType, boolean lastChunk, ServerConnection servConn,
       boolean isStructs, final SecurityService securityService) throws IOException {
@@ -748,12 +748,31 @@ public class CacheClientNotifier {
     }
   }
 
-  private ClientUpdateMessageImpl constructClientMessage(InternalCacheEvent event) {
+  /**
+   * Returns whether all the clients with the given filter profile ids registered interest without
+   * values for a near cache of the region
+   */
+  private boolean areNearCaches(Set clientIDs, FilterProfile regionProfile, String regionName) {
+    if (clientIDs == null) {
+      return false;
+    }
+    for (ClientProxyMembershipID id : getProxyIDs(regionProfile.getRealClientIDs(clientIDs),
+        true)) {
+      CacheClientProxy proxy = getClientProxy(id);
+      if (proxy == null || !proxy.getRegionsWithNearCache().contains(regionName)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private ClientUpdateMessageImpl constructClientMessage(InternalCacheEvent event,
+      boolean withValue) {
     ClientUpdateMessageImpl clientMessage = null;
     EnumListenerEvent operation = event.getEventType();
 
     try {
-      clientMessage = initializeMessage(operation, event);
+      clientMessage = initializeMessage(operation, event, withValue);
     } catch (Exception e) {
       logger.fatal(LocalizedMessage.create(
           LocalizedStrings.CacheClientNotifier_CANNOT_NOTIFY_CLIENTS_TO_PERFORM_OPERATION_0_ON_EVENT_1,
@@ -808,7 +827,12 @@ public class CacheClientNotifier {
 
     ClientUpdateMessageImpl clientMessage;
     if (cmsg == null) {
-      clientMessage = constructClientMessage(event);
+      // near caches are only sent invalidations, so if no other client or CQ is interested the
+      // queued message does not need the value
+      boolean withValue = filterInfo.getCQs() != null || filterInfo.getInterestedClients() != null
+          || !areNearCaches(filterInfo.getInterestedClientsInv(), regionProfile,
+              event.getRegion().getFullPath());
+      clientMessage = constructClientMessage(event, withValue);
     } else {
       clientMessage = (ClientUpdateMessageImpl) cmsg;
     }
@@ -1086,10 +1110,11 @@ public class CacheClientNotifier {
    *
    * @param operation The operation that occurred (e.g. AFTER_CREATE)
    * @param event The event containing the data to be updated
+   * @param withValue whether the message needs the value of an entry event
    * @return a <code>ClientUpdateMessage</code>
    */
-  private ClientUpdateMessageImpl initializeMessage(EnumListenerEvent operation, CacheEvent event)
-      throws Exception {
+  private ClientUpdateMessageImpl initializeMessage(EnumListenerEvent operation, CacheEvent event,
+      boolean withValue) throws Exception {
     if (!supportsOperation(operation)) {
       throw new Exception(
           LocalizedStrings.CacheClientNotifier_THE_CACHE_CLIENT_NOTIFIER_DOES_NOT_SUPPORT_OPERATIONS_OF_TYPE_0
@@ -1107,7 +1132,9 @@ public class CacheClientNotifier {
     if (event.getOperation().isEntry()) {
       EntryEventImpl entryEvent = (EntryEventImpl) event;
       versionTag = entryEvent.getVersionTag();
-      delta = entryEvent.getDeltaBytes();
+      if (withValue) {
+        delta = entryEvent.getDeltaBytes();
+      }
       callbackArgument = entryEvent.getRawCallbackArgument();
       if (entryEvent.isBridgeEvent()) {
         membershipID = entryEvent.getContext();
@@ -1130,7 +1157,7 @@ public class CacheClientNotifier {
         new ClientUpdateMessageImpl(operation, (LocalRegion) event.getRegion(), keyOfInterest, null,
             delta, (byte) 0x01, callbackArgument, membershipID, eventIdentifier, versionTag);
 
-    if (event.getOperation().isEntry()) {
+    if (withValue && event.getOperation().isEntry()) {
       EntryEventImpl entryEvent = (EntryEventImpl) event;
       // only need a value if notifyBySubscription is true
       entryEvent.exportNewValue(clientUpdateMsg);
@@ -1168,13 +1195,14 @@ public class CacheClientNotifier {
    * @param interestType type of registration
    * @param isDurable whether the registration persists when client goes away
    * @param sendUpdatesAsInvalidates client wants invalidation messages
+   * @param nearCache whether the client wants invalidation messages for a near cache
    * @param manageEmptyRegions whether to book keep empty region information
    * @param regionDataPolicy (0=empty)
    */
   public void registerClientInterest(String regionName, Object keyOfInterest,
       ClientProxyMembershipID membershipID, int interestType, boolean isDurable,
-      boolean sendUpdatesAsInvalidates, boolean manageEmptyRegions, int regionDataPolicy,
-      boolean flushState) throws IOException, RegionDestroyedException {
+      boolean sendUpdatesAsInvalidates, boolean nearCache, boolean manageEmptyRegions,
+      int regionDataPolicy, boolean flushState) throws IOException, RegionDestroyedException {
 
     CacheClientProxy proxy = getClientProxy(membershipID, true);
 
@@ -1200,6 +1228,9 @@ public class CacheClientNotifier {
         updateMapOfEmptyRegions(proxy.getRegionsWithEmptyDataPolicy(), regionName,
             regionDataPolicy);
       }
+      if (sendUpdatesAsInvalidates && nearCache) {
+        proxy.getRegionsWithNearCache().add(regionName);
+      }
 
       done = true;
     } finally {
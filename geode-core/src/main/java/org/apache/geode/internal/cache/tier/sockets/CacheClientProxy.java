@@ -29,6 +29,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -272,6 +273,12 @@ public class CacheClientProxy implements ClientSession {
    */
   private volatile Map regionsWithEmptyDataPolicy = new HashMap();
 
+  /**
+   * The names of the regions in which the client registered interest without values for a near
+   * cache, which does not need the values of the events queued for it
+   */
+  private final Set<String> regionsWithNearCache = ConcurrentHashMap.newKeySet();
+
   /**
    * A debug flag used for testing Backward compatibility
    */
@@ -3000,6 +3007,10 @@ public class CacheClientProxy implements ClientSession {
     return regionsWithEmptyDataPolicy;
   }
 
+  public Set<String> getRegionsWithNearCache() {
+    return regionsWithNearCache;
+  }
+
   public int incrementAndGetPingCounter() {
     int pingCount = this.pingCounter.incrementAndGet();
     return pingCount;
@@ -223,9 +223,7 @@ public class ChunkedMessage extends Message {
    */
   public void receiveChunk() throws IOException {
     if (this.socket != null) {
-      synchronized (getCommBuffer()) {
-        readChunk();
-      }
+      withCommBuffer(getCommBuffer(), this::readChunk);
     } else {
       throw new IOException(LocalizedStrings.ChunkedMessage_DEAD_CONNECTION.toLocalizedString());
     }
@@ -281,13 +279,13 @@ public class ChunkedMessage extends Message {
    */
   public void sendHeader() throws IOException {
     if (this.socket != null) {
-      synchronized (getCommBuffer()) {
+      withCommBufferForSend(getCommBuffer(), () -> {
         getHeaderBytesForWrite();
         flushBuffer();
         // Darrel says: I see no need for the following os.flush() call
         // so I've deadcoded it for performance.
         // this.os.flush();
-      }
+      });
       this.currentPart = 0;
       this.headerSent = true;
     } else {
@@ -36,6 +36,7 @@ import org.apache.geode.internal.cache.tier.sockets.command.Destroy;
 import org.apache.geode.internal.cache.tier.sockets.command.Destroy65;
 import org.apache.geode.internal.cache.tier.sockets.command.Destroy70;
 import org.apache.geode.internal.cache.tier.sockets.command.DestroyRegion;
+import org.apache.geode.internal.cache.tier.sockets.command.EnablePipelining;
 import org.apache.geode.internal.cache.tier.sockets.command.ExecuteFunction;
 import org.apache.geode.internal.cache.tier.sockets.command.ExecuteFunction65;
 import org.apache.geode.internal.cache.tier.sockets.command.ExecuteFunction66;
@@ -358,6 +359,7 @@ public class CommandInitializer {
     {
       Map<Integer, Command> commands = new HashMap<Integer, Command>();
       commands.putAll(ALL_COMMANDS.get(Version.GEODE_140));
+      commands.put(MessageType.ENABLE_PIPELINING, EnablePipelining.getCommand());
       ALL_COMMANDS.put(Version.GEODE_150, commands);
     }
 
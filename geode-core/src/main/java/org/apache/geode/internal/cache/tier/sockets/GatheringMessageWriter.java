@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+/**
+ * Writes the parts of a {@link Message} to a channel with gathering writes. Headers and small or
+ * heap parts are copied into the message's comm buffer as before, but a direct buffer that would
+ * not fit in what is left of the comm buffer, such as an off-heap value or a direct chunk of a
+ * {@link org.apache.geode.internal.HeapDataOutputStream}, is written to the channel straight from
+ * where it is instead of being copied through the comm buffer. The comm buffer and the direct
+ * buffers are then written with as few writes as possible.
+ * <p>
+ * Large heap parts are still copied through the comm buffer since NIO would otherwise copy them
+ * into a temporary direct buffer of the same size.
+ */
+class GatheringMessageWriter {
+
+  private final GatheringByteChannel channel;
+
+  private final ByteBuffer commBuffer;
+
+  /** the buffers waiting to be written, in order */
+  private ByteBuffer[] buffers = new ByteBuffer[8];
+
+  private int bufferCount;
+
+  /** the start of the bytes in the comm buffer that have not been added to buffers yet */
+  private int segmentStart;
+
+  private long bytesWritten;
+
+  /**
+   * @param commBuffer the buffer to copy bytes through. Whatever it already contains, from 0 to its
+   *        position, is written first.
+   */
+  GatheringMessageWriter(GatheringByteChannel channel, ByteBuffer commBuffer) {
+    this.channel = channel;
+    this.commBuffer = commBuffer;
+  }
+
+  /**
+   * Returns the comm buffer, to which callers may put up to {@link #ensureRemaining} bytes.
+   */
+  ByteBuffer getCommBuffer() {
+    return this.commBuffer;
+  }
+
+  /**
+   * Makes sure the comm buffer has room for the given number of bytes, which must not be more than
+   * its capacity.
+   */
+  void ensureRemaining(int count) throws IOException {
+    if (this.commBuffer.remaining() < count) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the remaining bytes of the given buffer after everything written before it. The caller
+   * must not change the buffer until {@link #flush} returns.
+   */
+  void write(ByteBuffer bb) throws IOException {
+    if (bb.isDirect() && bb.remaining() > this.commBuffer.remaining()) {
+      addCommBufferSegment();
+      add(bb);
+      return;
+    }
+    while (bb.remaining() > this.commBuffer.remaining()) {
+      final int limit = bb.limit();
+      bb.limit(bb.position() + this.commBuffer.remaining());
+      this.commBuffer.put(bb);
+      bb.limit(limit);
+      flush();
+    }
+    this.commBuffer.put(bb);
+  }
+
+  /**
+   * Writes the given byte after everything written before it.
+   */
+  void write(byte b) throws IOException {
+    ensureRemaining(1);
+    this.commBuffer.put(b);
+  }
+
+  /**
+   * Writes everything written so far to the channel and clears the comm buffer.
+   */
+  void flush() throws IOException {
+    addCommBufferSegment();
+    int offset = 0;
+    while (offset < this.bufferCount) {
+      this.bytesWritten += this.channel.write(this.buffers, offset, this.bufferCount - offset);
+      while (offset < this.bufferCount && !this.buffers[offset].hasRemaining()) {
+        this.buffers[offset] = null;
+        offset++;
+      }
+    }
+    this.bufferCount = 0;
+    this.segmentStart = 0;
+    this.commBuffer.clear();
+  }
+
+  /**
+   * Returns the number of bytes written to the channel.
+   */
+  long getBytesWritten() {
+    return this.bytesWritten;
+  }
+
+  private void addCommBufferSegment() {
+    final int position = this.commBuffer.position();
+    if (position > this.segmentStart) {
+      ByteBuffer segment = this.commBuffer.duplicate();
+      segment.limit(position);
+      segment.position(this.segmentStart);
+      add(segment);
+      this.segmentStart = position;
+    }
+  }
+
+  private void add(ByteBuffer bb) {
+    if (this.bufferCount == this.buffers.length) {
+      this.buffers = Arrays.copyOf(this.buffers, this.bufferCount * 2);
+    }
+    this.buffers[this.bufferCount++] = bb;
+  }
+}
@@ -14,17 +14,21 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.logging.log4j.Logger;
 
@@ -92,7 +96,7 @@ public class Message {
 
   private static final int PART_HEADER_SIZE = 5; // 4 bytes for length, 1 byte for isObject
 
-  private static final int FIXED_LENGTH = 17;
+  static final int FIXED_LENGTH = 17;
 
   private static final ThreadLocal<ByteBuffer> tlCommBuffer = new ThreadLocal<>();
 
@@ -143,6 +147,11 @@ public class Message {
   private ByteBuffer cachedCommBuffer;
   protected Socket socket = null;
   private SocketChannel socketChannel = null;
+  /**
+   * A message that a {@link ServerConnectionReactor} already read off the socket; if set the next
+   * receive reads it instead of the socket.
+   */
+  private ReadableByteChannel frameChannel = null;
   private OutputStream outputStream = null;
   protected InputStream inputStream = null;
   private boolean messageModified = true;
@@ -475,6 +484,58 @@ public class Message {
     }
   }
 
+  /**
+   * Something done with a message's comm buffer.
+   */
+  @FunctionalInterface
+  interface CommBufferTask {
+    void run() throws IOException;
+  }
+
+  /**
+   * Runs the given task while holding the given comm buffer, which other messages may share. The
+   * messages of a {@link ServerConnection} hold its comm buffer lock rather than the buffer's
+   * monitor so that a virtual thread blocked on the socket does not pin its carrier thread.
+   */
+  void withCommBuffer(ByteBuffer commBuffer, CommBufferTask task) throws IOException {
+    final Lock lock =
+        this.serverConnection == null ? null : this.serverConnection.getCommBufferLock();
+    if (lock == null) {
+      synchronized (commBuffer) {
+        task.run();
+      }
+    } else {
+      lock.lock();
+      try {
+        task.run();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Like {@link #withCommBuffer}, for a task that sends this message. If the message belongs to a
+   * pipelined connection the task also holds the lock that the connection's request workers hold
+   * while they send their replies, so that the messages do not interleave on the socket.
+   */
+  void withCommBufferForSend(ByteBuffer commBuffer, CommBufferTask task) throws IOException {
+    final Lock sendLock =
+        this.serverConnection == null ? null : this.serverConnection.getPipelinedSendLock();
+    if (sendLock == null) {
+      withCommBuffer(commBuffer, task);
+    } else {
+      withCommBuffer(commBuffer, () -> {
+        sendLock.lock();
+        try {
+          task.run();
+        } finally {
+          sendLock.unlock();
+        }
+      });
+    }
+  }
+
   public void clear() {
     this.isRetry = false;
     int len = this.payloadLength;
@@ -559,76 +620,104 @@ public class Message {
       if (commBuffer == null) {
         throw new IOException("No buffer");
       }
-      synchronized (commBuffer) {
-        long totalPartLen = 0;
-        long headerLen = 0;
-        int partsToTransmit = this.numberOfParts;
-
-        for (int i = 0; i < this.numberOfParts; i++) {
-          Part part = this.partsList[i];
-          headerLen += PART_HEADER_SIZE;
-          totalPartLen += part.getLength();
-        }
+      withCommBufferForSend(commBuffer, () -> writeMessage(commBuffer));
+    } finally {
+      if (clearMessage) {
+        clearParts();
+      }
+    }
+  }
 
-        Part securityPart = this.getSecurityPart();
-        if (securityPart == null) {
-          securityPart = this.securePart;
-        }
-        if (securityPart != null) {
-          headerLen += PART_HEADER_SIZE;
-          totalPartLen += securityPart.getLength();
-          partsToTransmit++;
-        }
+  /**
+   * Writes this message to its socket through the given comm buffer.
+   */
+  private void writeMessage(ByteBuffer commBuffer) throws IOException {
+    long totalPartLen = 0;
+    long headerLen = 0;
+    int partsToTransmit = this.numberOfParts;
 
-        if (headerLen + totalPartLen > Integer.MAX_VALUE) {
-          throw new MessageTooLargeException(
-              "Message size (" + (headerLen + totalPartLen) + ") exceeds maximum integer value");
-        }
+    for (int i = 0; i < this.numberOfParts; i++) {
+      Part part = this.partsList[i];
+      headerLen += PART_HEADER_SIZE;
+      totalPartLen += part.getLength();
+    }
 
-        int msgLen = (int) (headerLen + totalPartLen);
+    Part securityPart = this.getSecurityPart();
+    if (securityPart == null) {
+      securityPart = this.securePart;
+    }
+    if (securityPart != null) {
+      headerLen += PART_HEADER_SIZE;
+      totalPartLen += securityPart.getLength();
+      partsToTransmit++;
+    }
 
-        if (msgLen > this.maxMessageSize) {
-          throw new MessageTooLargeException("Message size (" + msgLen
-              + ") exceeds gemfire.client.max-message-size setting (" + this.maxMessageSize + ")");
-        }
+    if (headerLen + totalPartLen > Integer.MAX_VALUE) {
+      throw new MessageTooLargeException(
+          "Message size (" + (headerLen + totalPartLen) + ") exceeds maximum integer value");
+    }
 
-        commBuffer.clear();
-        packHeaderInfoForSending(msgLen, securityPart != null);
-        for (int i = 0; i < partsToTransmit; i++) {
-          Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+    int msgLen = (int) (headerLen + totalPartLen);
 
-          if (commBuffer.remaining() < PART_HEADER_SIZE) {
-            flushBuffer();
-          }
+    if (msgLen > this.maxMessageSize) {
+      throw new MessageTooLargeException("Message size (" + msgLen
+          + ") exceeds gemfire.client.max-message-size setting (" + this.maxMessageSize + ")");
+    }
 
-          int partLen = part.getLength();
-          commBuffer.putInt(partLen);
-          commBuffer.put(part.getTypeCode());
-          if (partLen <= commBuffer.remaining()) {
-            part.writeTo(commBuffer);
-          } else {
-            flushBuffer();
-            if (this.socketChannel != null) {
-              part.writeTo(this.socketChannel, commBuffer);
-            } else {
-              part.writeTo(this.outputStream, commBuffer);
-            }
-            if (this.messageStats != null) {
-              this.messageStats.incSentBytes(partLen);
-            }
-          }
-        }
-        if (commBuffer.position() != 0) {
+    commBuffer.clear();
+    packHeaderInfoForSending(msgLen, securityPart != null);
+    if (this.socketChannel != null) {
+      gatherParts(commBuffer, partsToTransmit, securityPart);
+    } else {
+      for (int i = 0; i < partsToTransmit; i++) {
+        Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+
+        if (commBuffer.remaining() < PART_HEADER_SIZE) {
           flushBuffer();
         }
-        this.messageModified = false;
-        if (this.socketChannel == null) {
-          this.outputStream.flush();
+
+        int partLen = part.getLength();
+        commBuffer.putInt(partLen);
+        commBuffer.put(part.getTypeCode());
+        if (partLen <= commBuffer.remaining()) {
+          part.writeTo(commBuffer);
+        } else {
+          flushBuffer();
+          part.writeTo(this.outputStream, commBuffer);
+          if (this.messageStats != null) {
+            this.messageStats.incSentBytes(partLen);
+          }
         }
       }
+      if (commBuffer.position() != 0) {
+        flushBuffer();
+      }
+    }
+    this.messageModified = false;
+    if (this.socketChannel == null) {
+      this.outputStream.flush();
+    }
+  }
+
+  /**
+   * Writes the parts of this message, after the header already in the comm buffer, to its socket
+   * channel with gathering writes so that off-heap parts are not copied through the comm buffer.
+   */
+  private void gatherParts(ByteBuffer commBuffer, int partsToTransmit, Part securityPart)
+      throws IOException {
+    GatheringMessageWriter writer = new GatheringMessageWriter(this.socketChannel, commBuffer);
+    try {
+      for (int i = 0; i < partsToTransmit; i++) {
+        Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+        writer.ensureRemaining(PART_HEADER_SIZE);
+        commBuffer.putInt(part.getLength());
+        commBuffer.put(part.getTypeCode());
+        part.writeTo(writer);
+      }
+      writer.flush();
     } finally {
-      if (clearMessage) {
-        clearParts();
+      if (this.messageStats != null) {
+        this.messageStats.incSentBytes(writer.getBytesWritten());
       }
     }
   }
@@ -776,6 +865,13 @@ public class Message {
     }
   }
 
+  private ReadableByteChannel getReadChannel() {
+    if (this.frameChannel != null) {
+      return this.frameChannel;
+    }
+    return this.socketChannel;
+  }
+
   /**
    * Read the actual bytes of the header off the socket
    */
@@ -788,10 +884,11 @@ public class Message {
     this.messageType = MessageType.INVALID;
 
     final int headerLength = getHeaderLength();
-    if (this.socketChannel != null) {
+    final ReadableByteChannel channel = getReadChannel();
+    if (channel != null) {
       cb.limit(headerLength);
       do {
-        int bytesRead = this.socketChannel.read(cb);
+        int bytesRead = channel.read(cb);
         if (bytesRead == -1) {
           throw new EOFException(
               LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_HEADER
@@ -858,6 +955,7 @@ public class Message {
     final ByteBuffer cb = getCommBuffer();
     cb.clear();
     cb.flip();
+    final ReadableByteChannel channel = getReadChannel();
 
     int readSecurePart = checkAndSetSecurityPart();
 
@@ -893,14 +991,14 @@ public class Message {
         int off = alreadyReadBytes;
         int remaining = partLen - off;
         while (remaining > 0) {
-          if (this.socketChannel != null) {
+          if (channel != null) {
             int bytesThisTime = remaining;
             cb.clear();
             if (bytesThisTime > cb.capacity()) {
               bytesThisTime = cb.capacity();
             }
             cb.limit(bytesThisTime);
-            int res = this.socketChannel.read(cb);
+            int res = channel.read(cb);
             if (res != -1) {
               cb.flip();
               bytesRemaining -= res;
@@ -970,14 +1068,15 @@ public class Message {
     }
     int bytesRead = 0;
 
-    if (this.socketChannel != null) {
+    final ReadableByteChannel channel = getReadChannel();
+    if (channel != null) {
       int remaining = commBuffer.remaining();
       if (remaining > bytesRemaining) {
         remaining = bytesRemaining;
         commBuffer.limit(commBuffer.position() + bytesRemaining);
       }
       while (remaining > 0) {
-        int res = this.socketChannel.read(commBuffer);
+        int res = channel.read(commBuffer);
         if (res != -1) {
           remaining -= res;
           bytesRead += res;
@@ -1086,6 +1185,7 @@ public class Message {
   public void unsetComms() {
     this.socket = null;
     this.socketChannel = null;
+    this.frameChannel = null;
     this.inputStream = null;
     this.outputStream = null;
     this.cachedCommBuffer = null;
@@ -1121,14 +1221,26 @@ public class Message {
    */
   public void receiveWithHeaderReadTimeout(int timeoutMillis) throws IOException {
     if (this.socket != null) {
-      synchronized (getCommBuffer()) {
-        readHeaderAndBody(timeoutMillis);
-      }
+      withCommBuffer(getCommBuffer(), () -> {
+        try {
+          readHeaderAndBody(timeoutMillis);
+        } finally {
+          this.frameChannel = null;
+        }
+      });
     } else {
       throw new IOException(LocalizedStrings.Message_DEAD_CONNECTION.toLocalizedString());
     }
   }
 
+  /**
+   * Makes the next receive read the given bytes, a whole message including its header, instead of
+   * reading them off the socket.
+   */
+  void setFrame(byte[] frame) {
+    this.frameChannel = Channels.newChannel(new ByteArrayInputStream(frame));
+  }
+
   /**
    * Populates the state of this {@code Message} with information received via its socket
    */
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+
+/**
+ * Reassembles the {@link Message}s a client sends from whatever bytes a non-blocking channel has
+ * available, so that a {@link ServerConnectionReactor} can read a message without a thread waiting
+ * on the client. A complete message, header included, is passed to {@link Message#setFrame} which
+ * then decodes it just as it would decode the socket.
+ * <p>
+ * Never reads past the end of the current message so the bytes of the next message stay in the
+ * socket. Not thread safe; a connection is only read by one reactor thread.
+ * <p>
+ * The payload length in the header has not been checked against anything yet, so a message longer
+ * than the maximum is rejected before any of its payload is read, and the frame only grows as the
+ * payload bytes actually arrive.
+ */
+class MessageFrameDecoder {
+
+  /** The size of the frame allocated for a message before its payload starts to arrive */
+  static final int INITIAL_FRAME_SIZE = 8192;
+
+  private final ByteBuffer header = ByteBuffer.allocate(Message.FIXED_LENGTH);
+
+  private final int maxMessageLength;
+
+  private byte[] frame;
+
+  private int frameLength;
+
+  private int framePosition;
+
+  /**
+   * @param maxMessageLength the largest payload, in bytes, a message may have
+   */
+  MessageFrameDecoder(int maxMessageLength) {
+    this.maxMessageLength = maxMessageLength;
+  }
+
+  /**
+   * Reads as much of the current message as the channel has available.
+   *
+   * @param readBuffer the buffer to read the payload through. Reading straight into a large heap
+   *        array would make NIO allocate a temporary direct buffer of the same size.
+   * @return true if the whole message has been read and can be taken with {@link #takeFrame}
+   * @throws EOFException if the client closed the connection
+   * @throws IOException if the header is not a valid message header
+   */
+  boolean readFrom(ReadableByteChannel channel, ByteBuffer readBuffer) throws IOException {
+    if (this.frame == null) {
+      if (channel.read(this.header) < 0) {
+        throw new EOFException(
+            LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_HEADER
+                .toLocalizedString());
+      }
+      if (this.header.hasRemaining()) {
+        return false;
+      }
+      startFrame();
+    }
+    while (this.framePosition < this.frameLength) {
+      readBuffer.clear();
+      int remaining = this.frameLength - this.framePosition;
+      if (remaining < readBuffer.capacity()) {
+        readBuffer.limit(remaining);
+      }
+      int bytesRead = channel.read(readBuffer);
+      if (bytesRead < 0) {
+        throw new EOFException(
+            LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_PAYLOAD
+                .toLocalizedString());
+      }
+      if (bytesRead == 0) {
+        return false;
+      }
+      readBuffer.flip();
+      ensureFrameCapacity(this.framePosition + bytesRead);
+      readBuffer.get(this.frame, this.framePosition, bytesRead);
+      this.framePosition += bytesRead;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the message read by {@link #readFrom} and gets ready to read the next one.
+   */
+  byte[] takeFrame() {
+    byte[] result = this.frame;
+    this.frame = null;
+    this.frameLength = 0;
+    this.framePosition = 0;
+    return result;
+  }
+
+  private void ensureFrameCapacity(int capacity) {
+    if (capacity > this.frame.length) {
+      int newLength = (int) Math.min(this.frameLength, Math.max(capacity, 2L * this.frame.length));
+      this.frame = Arrays.copyOf(this.frame, newLength);
+    }
+  }
+
+  private void startFrame() throws IOException {
+    final int type = this.header.getInt(0);
+    final int len = this.header.getInt(4);
+    if (!MessageType.validate(type)) {
+      throw new IOException(LocalizedStrings.Message_INVALID_MESSAGE_TYPE_0_WHILE_READING_HEADER
+          .toLocalizedString(type));
+    }
+    if (len < 0 || len > Integer.MAX_VALUE - Message.FIXED_LENGTH) {
+      throw new IOException(LocalizedStrings.Message_DEAD_CONNECTION.toLocalizedString());
+    }
+    if (len > this.maxMessageLength) {
+      throw new IOException(LocalizedStrings.Message_MESSAGE_SIZE_0_EXCEEDED_MAX_LIMIT_OF_1
+          .toLocalizedString(new Object[] {len, this.maxMessageLength}));
+    }
+    this.frameLength = Message.FIXED_LENGTH + len;
+    this.frame = new byte[Math.min(this.frameLength, Message.FIXED_LENGTH + INITIAL_FRAME_SIZE)];
+    System.arraycopy(this.header.array(), 0, this.frame, 0, Message.FIXED_LENGTH);
+    this.framePosition = Message.FIXED_LENGTH;
+    this.header.clear();
+  }
+}
@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.tier.Acceptor;
@@ -36,6 +37,11 @@ public class OriginalServerConnection extends ServerConnection {
    */
   private boolean doHandshake = true;
 
+  /**
+   * Created the first time a {@link ServerConnectionReactor} reads a message from this connection
+   */
+  private MessageFrameDecoder frameDecoder;
+
   /**
    * Creates a new <code>ServerConnection</code> that processes messages received from an edge
    * client over a given <code>Socket</code>.
@@ -59,6 +65,14 @@ public class OriginalServerConnection extends ServerConnection {
         communicationMode, acceptor, securityService);
   }
 
+  /**
+   * Creates a worker that executes requests read by the given pipelined connection.
+   */
+  OriginalServerConnection(ServerConnection connection, Lock sendLock) {
+    super(connection, sendLock);
+    this.doHandshake = false;
+  }
+
   @Override
   protected boolean doHandShake(byte endpointType, int queueSize) {
     try {
@@ -76,6 +90,22 @@ public class OriginalServerConnection extends ServerConnection {
     return true;
   }
 
+  @Override
+  MessageFrameDecoder getMessageFrameDecoder() {
+    if (this.doHandshake) {
+      // the handshake is not a message so it is read in blocking mode
+      return null;
+    }
+    if (BaseCommand.isIncomingDataLimited()) {
+      // the limiters are acquired before the payload is read, which may block
+      return null;
+    }
+    if (this.frameDecoder == null) {
+      this.frameDecoder = new MessageFrameDecoder(BaseCommand.getMaxIncomingMessageLength());
+    }
+    return this.frameDecoder;
+  }
+
   protected void doOneMessage() {
     if (this.doHandshake) {
       doHandshake();
@@ -17,7 +17,8 @@ package org.apache.geode.internal.cache.tier.sockets;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -51,6 +52,12 @@ public class Part {
   private static final byte EMPTY_BYTEARRAY_CODE = 2;
   private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 
+  /**
+   * The most bytes of an off-heap value without a direct buffer view that are copied to the heap at
+   * a time while it is written
+   */
+  private static final int OFF_HEAP_COPY_CHUNK_SIZE = 8192;
+
   /**
    * The payload of this part. Could be null, a byte[] or a HeapDataOutputStream on the send side.
    * Could be null, or a byte[] on the receiver side.
@@ -351,66 +358,38 @@ public class Part {
   }
 
   /**
-   * Write the contents of this part to the specified socket channel using the specified byte
-   * buffer. This is only called for parts that will not fit into the commBuffer so they need to be
-   * written directly to the socket. Precondition: buf contains nothing that needs to be sent
+   * Write the contents of this part to the specified writer. Off-heap values and direct chunks of a
+   * HeapDataOutputStream are handed to the writer without being copied.
    */
-  public void writeTo(SocketChannel sc, ByteBuffer buf) throws IOException {
+  void writeTo(GatheringMessageWriter out) throws IOException {
     if (getLength() > 0) {
-      final int BUF_MAX = buf.capacity();
       if (this.part instanceof byte[]) {
-        final byte[] bytes = (byte[]) this.part;
-        int off = 0;
-        int len = bytes.length;
-        buf.clear();
-        while (len > 0) {
-          int bytesThisTime = len;
-          if (bytesThisTime > BUF_MAX) {
-            bytesThisTime = BUF_MAX;
-          }
-          buf.put(bytes, off, bytesThisTime);
-          len -= bytesThisTime;
-          off += bytesThisTime;
-          buf.flip();
-          while (buf.remaining() > 0) {
-            sc.write(buf);
-          }
-          buf.clear();
-        }
+        out.write(ByteBuffer.wrap((byte[]) this.part));
       } else if (this.part instanceof StoredObject) {
-        // instead of copying the StoredObject to buf try to create a direct ByteBuffer and
-        // just write it directly to the socket channel.
         StoredObject c = (StoredObject) this.part;
         ByteBuffer bb = c.createDirectByteBuffer();
         if (bb != null) {
-          while (bb.remaining() > 0) {
-            sc.write(bb);
-          }
+          out.write(bb);
         } else {
-          int len = c.getDataSize();
-          long addr = c.getAddressForReadingData(0, len);
-          buf.clear();
-          while (len > 0) {
-            int bytesThisTime = len;
-            if (bytesThisTime > BUF_MAX) {
-              bytesThisTime = BUF_MAX;
-            }
-            len -= bytesThisTime;
-            while (bytesThisTime > 0) {
-              buf.put(AddressableMemoryManager.readByte(addr));
-              addr++;
-              bytesThisTime--;
-            }
-            buf.flip();
-            while (buf.remaining() > 0) {
-              sc.write(buf);
-            }
-            buf.clear();
+          int bytesToSend = c.getDataSize();
+          long addr = c.getAddressForReadingData(0, bytesToSend);
+          // the writer copies heap bytes into its comm buffer so the chunk can be reused
+          byte[] chunk = new byte[Math.min(bytesToSend, OFF_HEAP_COPY_CHUNK_SIZE)];
+          while (bytesToSend > 0) {
+            int size = Math.min(bytesToSend, chunk.length);
+            AddressableMemoryManager.readBytes(addr, chunk, 0, size);
+            out.write(ByteBuffer.wrap(chunk, 0, size));
+            addr += size;
+            bytesToSend -= size;
           }
         }
       } else {
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
-        hdos.sendTo(sc, buf);
+        List<ByteBuffer> chunks = new ArrayList<>();
+        hdos.sendTo(chunks::add);
+        for (ByteBuffer chunk : chunks) {
+          out.write(chunk);
+        }
         hdos.rewind();
       }
     }
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Executes the requests read from a pipelined {@link ServerConnection} on the acceptor's pipelined
+ * request pool so that the connection can read its next request while they run. Each request runs
+ * on a worker connection of its own that shares the pipelined connection's socket, and the workers
+ * take turns sending their replies.
+ */
+class PipelinedRequestDispatcher {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The maximum number of requests from a single pipelined connection that may run at once. The
+   * connection stops reading requests while this many are running.
+   */
+  static final int MAX_PIPELINED_REQUESTS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "BridgeServer.MAX_PIPELINED_REQUESTS", 16);
+
+  private final ServerConnection connection;
+
+  /** held by the workers, and by the connection, while they send a reply */
+  private final Lock sendLock = new ReentrantLock();
+
+  private final Semaphore runningRequests = new Semaphore(MAX_PIPELINED_REQUESTS);
+
+  private final Queue<ServerConnection> idleWorkers = new ConcurrentLinkedQueue<>();
+
+  private volatile boolean closed;
+
+  PipelinedRequestDispatcher(ServerConnection connection) {
+    this.connection = connection;
+  }
+
+  /**
+   * Executes the request the connection just read with the given command on a worker.
+   */
+  void dispatch(final Command command) {
+    this.runningRequests.acquireUninterruptibly();
+    ServerConnection worker = this.idleWorkers.poll();
+    if (worker == null) {
+      worker = new OriginalServerConnection(this.connection, this.sendLock);
+    }
+    final ServerConnection requestWorker = worker;
+    try {
+      this.connection.handOffRequest(requestWorker);
+    } catch (IOException e) {
+      // the socket is closed
+      if (logger.isDebugEnabled()) {
+        logger.debug("{}: unable to dispatch pipelined request", this.connection.getName(), e);
+      }
+      this.connection.setFlagProcessMessagesAsFalse();
+      done(requestWorker);
+      return;
+    }
+    ThreadPoolExecutor pool = this.connection.getAcceptor().getPipelinedRequestPool();
+    try {
+      pool.execute(() -> execute(requestWorker, command));
+    } catch (RejectedExecutionException e) {
+      if (pool.isShutdown()) {
+        // the cache server is stopping
+        requestWorker.clearRequestMsg();
+        this.connection.setFlagProcessMessagesAsFalse();
+        done(requestWorker);
+      } else {
+        // all the pipelined request threads are busy so this connection waits for its request
+        execute(requestWorker, command);
+      }
+    }
+  }
+
+  /**
+   * Returns the lock held while a reply is sent on the connection's socket.
+   */
+  Lock getSendLock() {
+    return this.sendLock;
+  }
+
+  private void execute(ServerConnection worker, Command command) {
+    try {
+      worker.executePipelinedRequest(command);
+    } finally {
+      done(worker);
+    }
+  }
+
+  private void done(ServerConnection worker) {
+    this.idleWorkers.offer(worker);
+    if (this.closed) {
+      releaseIdleWorkers();
+    }
+    this.runningRequests.release();
+  }
+
+  /**
+   * Releases the resources of the workers once they finish their requests.
+   */
+  void close() {
+    this.closed = true;
+    releaseIdleWorkers();
+  }
+
+  private void releaseIdleWorkers() {
+    ServerConnection worker;
+    while ((worker = this.idleWorkers.poll()) != null) {
+      worker.closePipelinedRequestWorker();
+    }
+  }
+}
@@ -36,6 +36,8 @@ import java.util.Properties;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang.mutable.MutableInt;
 import org.apache.logging.log4j.Logger;
@@ -159,6 +161,7 @@ public abstract class ServerConnection implements Runnable {
   // private InputStream in = null;
   // private OutputStream out = null;
   private ByteBuffer commBuffer;
+  private final Lock commBufferLock;
   protected final CachedRegionHelper crHelper;
   protected String name = null;
 
@@ -254,6 +257,17 @@ public abstract class ServerConnection implements Runnable {
 
   public static short testVersionAfterHandshake = 4;
 
+  /**
+   * The connection whose requests this one executes if it is a pipelined request worker, otherwise
+   * null.
+   */
+  private final ServerConnection pipelinedConnection;
+
+  /**
+   * Executes the requests read from this connection once its client has enabled pipelining
+   */
+  private volatile PipelinedRequestDispatcher pipelinedRequestDispatcher;
+
   /**
    * Creates a new <code>ServerConnection</code> that processes messages received from an edge
    * client over a given <code>Socket</code>.
@@ -284,6 +298,8 @@ public abstract class ServerConnection implements Runnable {
     this.authzRequest = null;
     this.postAuthzRequest = null;
     this.randomConnectionIdGen = new Random(this.hashCode());
+    this.commBufferLock = new ReentrantLock();
+    this.pipelinedConnection = null;
 
     this.securityService = securityService;
 
@@ -306,6 +322,45 @@ public abstract class ServerConnection implements Runnable {
     }
   }
 
+  /**
+   * Creates a worker that executes requests read by the given pipelined connection. The worker
+   * shares the connection's socket and client state but has its own messages and comm buffer, and
+   * holds the given lock while it sends its replies.
+   */
+  protected ServerConnection(ServerConnection connection, Lock sendLock) {
+    this.name = connection.name;
+    this.stats = connection.stats;
+    this.acceptor = connection.acceptor;
+    this.crHelper = connection.crHelper;
+    this.logWriter = connection.logWriter;
+    this.securityLogWriter = connection.securityLogWriter;
+    this.communicationModeStr = connection.communicationModeStr;
+    this.communicationMode = connection.communicationMode;
+    this.securityService = connection.securityService;
+    this.randomConnectionIdGen = new Random(this.hashCode());
+    this.commBufferLock = sendLock;
+    this.pipelinedConnection = connection;
+
+    this.commands = connection.commands;
+    this.serverConnectionCollection = connection.serverConnectionCollection;
+    this.clientUserAuths = connection.clientUserAuths;
+    this.principal = connection.principal;
+    this.proxyId = connection.proxyId;
+    this.memberIdByteArray = connection.memberIdByteArray;
+    this.handshakeTimeout = connection.handshakeTimeout;
+    this.userAuthId = connection.userAuthId;
+    setHandshake(connection.handshake);
+
+    this.theSocket = connection.theSocket;
+    this.commBuffer = allocateCommBuffer(connection.commBuffer.capacity(), this.theSocket);
+    try {
+      initMessages(this.stats);
+    } catch (IOException e) {
+      releaseCommBuffer();
+      throw new IllegalStateException(e);
+    }
+  }
+
   public AcceptorImpl getAcceptor() {
     return this.acceptor;
   }
@@ -865,7 +920,12 @@ public abstract class ServerConnection implements Runnable {
           }
         }
 
-        command.execute(msg, this, this.securityService);
+        PipelinedRequestDispatcher dispatcher = this.pipelinedRequestDispatcher;
+        if (dispatcher != null) {
+          dispatcher.dispatch(command);
+        } else {
+          command.execute(msg, this, this.securityService);
+        }
       }
     } finally {
       // Keep track of the fact that a message is no longer being
@@ -879,6 +939,83 @@ public abstract class ServerConnection implements Runnable {
     }
   }
 
+  /**
+   * Makes this connection execute the requests it reads concurrently, each on a worker of its own,
+   * and answer them as they complete. The client matches the replies to its requests by their
+   * transaction id so it must only pipeline requests that are not part of a transaction and that
+   * are answered with a single message.
+   *
+   * @return false if this connection cannot be pipelined
+   */
+  public boolean enablePipelining() {
+    if (this.pipelinedConnection != null) {
+      return true;
+    }
+    // a selector has no thread per connection to read the next request while workers reply, and
+    // secure replies change the connection id that the next request must carry
+    if (getAcceptor().isSelector() || AcceptorImpl.isAuthenticationRequired()
+        || this.securityService.isIntegratedSecurity()
+        || this.communicationMode != CommunicationMode.ClientToServer) {
+      return false;
+    }
+    if (this.pipelinedRequestDispatcher == null) {
+      this.pipelinedRequestDispatcher = new PipelinedRequestDispatcher(this);
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if this connection executes requests read by a pipelined connection.
+   */
+  boolean isPipelinedRequestWorker() {
+    return this.pipelinedConnection != null;
+  }
+
+  /**
+   * Hands the request this connection just read to the given worker, which will execute it.
+   */
+  void handOffRequest(ServerConnection worker) throws IOException {
+    Message request = this.requestMsg;
+    this.requestMsg = worker.requestMsg;
+    worker.requestMsg = request;
+    this.requestMsg.setComms(this, this.theSocket, this.commBuffer, this.stats);
+    worker.requestMsg.setComms(worker, worker.theSocket, worker.commBuffer, worker.stats);
+  }
+
+  /**
+   * Executes the request handed to this worker with {@link #handOffRequest}.
+   */
+  void executePipelinedRequest(Command command) {
+    setOwner();
+    try {
+      synchronized (this.serverConnectionCollection) {
+        if (this.serverConnectionCollection.isTerminating) {
+          return;
+        }
+        this.serverConnectionCollection.connectionsProcessing.incrementAndGet();
+      }
+      try {
+        resetTransientData();
+        setProcessingMessage();
+        command.execute(this.requestMsg, this, this.securityService);
+      } finally {
+        this.serverConnectionCollection.connectionsProcessing.decrementAndGet();
+        setNotProcessingMessage();
+        unsetRequestSpecificTimeout();
+      }
+    } finally {
+      clearRequestMsg();
+      unsetOwner();
+    }
+  }
+
+  /**
+   * Releases the comm buffer of this pipelined request worker.
+   */
+  void closePipelinedRequestWorker() {
+    releaseCommBuffer();
+  }
+
   private final Object terminationLock = new Object();
   private boolean terminated = false;
 
@@ -1288,6 +1425,31 @@ public abstract class ServerConnection implements Runnable {
     getSelectableChannel().register(s, SelectionKey.OP_READ, this);
   }
 
+  /**
+   * Returns the decoder a {@link ServerConnectionReactor} uses to read the next message from this
+   * connection, or null if the next bytes from the client are not a {@link Message}.
+   */
+  MessageFrameDecoder getMessageFrameDecoder() {
+    return null;
+  }
+
+  /**
+   * Returns the lock the messages of this connection hold while they use their comm buffer.
+   */
+  Lock getCommBufferLock() {
+    return this.commBufferLock;
+  }
+
+  /**
+   * Returns the lock the workers of this pipelined connection hold while they send their replies,
+   * or null if this connection is not pipelined. The connection holds it too while it sends a
+   * message of its own, such as the error reply to a request it failed to read.
+   */
+  Lock getPipelinedSendLock() {
+    PipelinedRequestDispatcher dispatcher = this.pipelinedRequestDispatcher;
+    return dispatcher == null ? null : dispatcher.getSendLock();
+  }
+
   /**
    * Switch this guy to blocking mode so we can use oldIO to read and write msgs.
    */
@@ -1496,16 +1658,7 @@ public abstract class ServerConnection implements Runnable {
       } else {
         commBuffer = allocateCommBuffer(socketBufferSize, s);
       }
-      requestMsg.setComms(this, theSocket, commBuffer, msgStats);
-      replyMsg.setComms(this, theSocket, commBuffer, msgStats);
-      responseMsg.setComms(this, theSocket, commBuffer, msgStats);
-      errorMsg.setComms(this, theSocket, commBuffer, msgStats);
-
-      chunkedResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
-      queryResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
-      executeFunctionResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
-      registerInterestResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
-      keySetResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
+      initMessages(msgStats);
     } catch (RuntimeException re) {
       throw re;
     } catch (Exception e) {
@@ -1513,6 +1666,19 @@ public abstract class ServerConnection implements Runnable {
     }
   }
 
+  private void initMessages(MessageStats msgStats) throws IOException {
+    requestMsg.setComms(this, theSocket, commBuffer, msgStats);
+    replyMsg.setComms(this, theSocket, commBuffer, msgStats);
+    responseMsg.setComms(this, theSocket, commBuffer, msgStats);
+    errorMsg.setComms(this, theSocket, commBuffer, msgStats);
+
+    chunkedResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
+    queryResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
+    executeFunctionResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
+    registerInterestResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
+    keySetResponseMsg.setComms(this, theSocket, commBuffer, msgStats);
+  }
+
   public boolean isOpen() {
     return !isClosed();
   }
@@ -1567,6 +1733,10 @@ public abstract class ServerConnection implements Runnable {
     if (logger.isDebugEnabled()) {
       logger.debug("{}: Closed connection", this.name);
     }
+    PipelinedRequestDispatcher dispatcher = this.pipelinedRequestDispatcher;
+    if (dispatcher != null) {
+      dispatcher.close();
+    }
     releaseCommBuffer();
     processMessages = false;
     return true;
@@ -1775,6 +1945,10 @@ public abstract class ServerConnection implements Runnable {
   }
 
   public void setFlagProcessMessagesAsFalse() {
+    if (this.pipelinedConnection != null) {
+      this.pipelinedConnection.setFlagProcessMessagesAsFalse();
+      return;
+    }
     this.processMessages = false;
   }
 
@@ -1899,10 +2073,18 @@ public abstract class ServerConnection implements Runnable {
   }
 
   public void setClientDisconnectCleanly() {
+    if (this.pipelinedConnection != null) {
+      this.pipelinedConnection.setClientDisconnectCleanly();
+      return;
+    }
     this.clientDisconnectedCleanly = true;
   }
 
   public void setClientDisconnectedException(Throwable e) {
+    if (this.pipelinedConnection != null) {
+      this.pipelinedConnection.setClientDisconnectedException(e);
+      return;
+    }
     this.clientDisconnectedException = e;
   }
 
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.CancelException;
+import org.apache.geode.SystemFailure;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+
+/**
+ * Reads client requests for a selector mode {@link AcceptorImpl} on a fixed number of event loop
+ * threads, so that the number of threads a cache server needs does not grow with the number of
+ * client connections.
+ * <p>
+ * Each connection is registered with one event loop while it waits for its next message. The event
+ * loop reads the message as its bytes arrive using the connection's {@link MessageFrameDecoder}
+ * and, once the whole message is in memory, hands the connection to the server connection pool
+ * whose thread decodes the message from memory, runs the command and writes the reply. A client
+ * that sends a message slowly therefore ties up no thread. Connections that can not be decoded
+ * this way, such as ones that have not done their handshake yet, are handed to the pool as soon as
+ * they are readable just like the single selector thread does.
+ * <p>
+ * The connection's channel is put back in blocking mode while a pool thread processes it since
+ * commands write their replies straight to the socket.
+ */
+class ServerConnectionReactor {
+  private static final Logger logger = LogService.getLogger();
+
+  private final String name;
+
+  private final EventLoop[] eventLoops;
+
+  private final Executor pool;
+
+  private final CacheServerStats stats;
+
+  private final CancelCriterion cancelCriterion;
+
+  private volatile boolean closed = false;
+
+  /**
+   * @param name used to name the event loop threads
+   * @param threadCount the number of event loop threads
+   * @param readBufferSize the size of the direct buffer each event loop reads through
+   * @param pool the pool that processes messages once they have been read
+   */
+  ServerConnectionReactor(String name, int threadCount, int readBufferSize, Executor pool,
+      CacheServerStats stats, CancelCriterion cancelCriterion) throws IOException {
+    this.name = name;
+    this.pool = pool;
+    this.stats = stats;
+    this.cancelCriterion = cancelCriterion;
+    this.eventLoops = new EventLoop[threadCount];
+    try {
+      for (int i = 0; i < threadCount; i++) {
+        this.eventLoops[i] = new EventLoop(readBufferSize);
+      }
+    } catch (IOException e) {
+      for (EventLoop eventLoop : this.eventLoops) {
+        if (eventLoop != null) {
+          eventLoop.selector.close();
+        }
+      }
+      throw e;
+    }
+  }
+
+  void start() {
+    ThreadGroup threadGroup = LoggingThreadGroup.createThreadGroup(this.name, logger);
+    for (int i = 0; i < this.eventLoops.length; i++) {
+      EventLoop eventLoop = this.eventLoops[i];
+      eventLoop.thread = new Thread(threadGroup, eventLoop, this.name + " Thread " + i);
+      eventLoop.thread.start();
+    }
+  }
+
+  /**
+   * Waits, on an event loop, for the next message from the given connection. The connection's
+   * channel must already be in non-blocking mode.
+   */
+  void register(ServerConnection sc) {
+    if (this.closed) {
+      finishCon(sc);
+      return;
+    }
+    EventLoop eventLoop = getEventLoop(sc);
+    eventLoop.registrations.offer(sc);
+    eventLoop.selector.wakeup();
+  }
+
+  /**
+   * Forgets the given connection, which has been closed, if it is waiting for a message.
+   */
+  void unregister(ServerConnection sc) {
+    if (this.closed) {
+      return;
+    }
+    EventLoop eventLoop = getEventLoop(sc);
+    eventLoop.unregistrations.offer(sc);
+    eventLoop.selector.wakeup();
+  }
+
+  void close() {
+    this.closed = true;
+    for (EventLoop eventLoop : this.eventLoops) {
+      eventLoop.selector.wakeup();
+    }
+  }
+
+  boolean isAlive() {
+    for (EventLoop eventLoop : this.eventLoops) {
+      if (eventLoop.thread != null && eventLoop.thread.isAlive()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private EventLoop getEventLoop(ServerConnection sc) {
+    int hash = System.identityHashCode(sc) & Integer.MAX_VALUE;
+    return this.eventLoops[hash % this.eventLoops.length];
+  }
+
+  private static void finishCon(ServerConnection sc) {
+    if (sc != null) {
+      sc.handleTermination();
+    }
+  }
+
+  private class EventLoop implements Runnable {
+    private final Selector selector;
+
+    private final ByteBuffer readBuffer;
+
+    private final Queue<ServerConnection> registrations = new ConcurrentLinkedQueue<>();
+
+    private final Queue<ServerConnection> unregistrations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The connections registered with this event loop's selector. Only used by the event loop
+     * thread.
+     */
+    private final Set<ServerConnection> registered = new HashSet<>();
+
+    private Thread thread;
+
+    EventLoop(int readBufferSize) throws IOException {
+      this.selector = Selector.open();
+      this.readBuffer = ByteBuffer.allocateDirect(readBufferSize);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!closed && this.selector.isOpen()) {
+          SystemFailure.checkFailure();
+          if (cancelCriterion.isCancelInProgress()) {
+            break;
+          }
+          processRegistrations();
+          processUnregistrations();
+          this.selector.select();
+          if (closed || cancelCriterion.isCancelInProgress()) {
+            break;
+          }
+          if (processSelectedKeys()) {
+            // the cancelled keys have to be removed before their channels can be registered again
+            this.selector.selectNow();
+          }
+        }
+      } catch (ClosedSelectorException ignore) {
+        // allow this thread to exit
+      } catch (IOException ex) {
+        logger.warn(LocalizedMessage.create(LocalizedStrings.AcceptorImpl_UNEXPECTED, ex));
+      } finally {
+        shutdown();
+      }
+    }
+
+    private void processRegistrations() {
+      ServerConnection sc = this.registrations.poll();
+      while (sc != null) {
+        try {
+          sc.getSelectableChannel().register(this.selector, SelectionKey.OP_READ, sc);
+          this.registered.add(sc);
+        } catch (ClosedChannelException ignore) {
+          finishCon(sc);
+        } catch (RuntimeException ex) {
+          // for instance a channel that was made blocking or a selector that was closed
+          finishCon(sc);
+          logger.warn(LocalizedMessage.create(LocalizedStrings.AcceptorImpl_IGNORING, ex));
+        }
+        sc = this.registrations.poll();
+      }
+    }
+
+    private void processUnregistrations() {
+      ServerConnection sc = this.unregistrations.poll();
+      while (sc != null) {
+        if (this.registered.remove(sc)) {
+          SelectionKey key = sc.getSelectableChannel().keyFor(this.selector);
+          if (key != null) {
+            key.cancel();
+          }
+          finishCon(sc);
+        }
+        sc = this.unregistrations.poll();
+      }
+    }
+
+    /**
+     * @return true if any keys were cancelled
+     */
+    private boolean processSelectedKeys() {
+      boolean cancelled = false;
+      Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        ServerConnection sc = (ServerConnection) key.attachment();
+        try {
+          if (!key.isValid() || !key.isReadable()) {
+            continue;
+          }
+          MessageFrameDecoder decoder = sc.getMessageFrameDecoder();
+          if (decoder == null) {
+            // let a pool thread read it in blocking mode
+            cancelled = true;
+            dispatch(key, sc);
+          } else if (decoder.readFrom((ReadableByteChannel) key.channel(), this.readBuffer)) {
+            sc.getRequestMessage().setFrame(decoder.takeFrame());
+            cancelled = true;
+            dispatch(key, sc);
+          }
+        } catch (CancelledKeyException ignore) {
+          this.registered.remove(sc);
+          finishCon(sc);
+        } catch (EOFException | ClosedChannelException ignore) {
+          // the client closed the connection
+          cancelled = true;
+          key.cancel();
+          this.registered.remove(sc);
+          finishCon(sc);
+        } catch (IOException ex) {
+          cancelled = true;
+          key.cancel();
+          this.registered.remove(sc);
+          finishCon(sc);
+          if (!closed) {
+            logger.warn(LocalizedMessage.create(LocalizedStrings.AcceptorImpl_UNEXPECTED, ex));
+          }
+        }
+      }
+      return cancelled;
+    }
+
+    private void dispatch(SelectionKey key, ServerConnection sc) throws IOException {
+      key.cancel();
+      this.registered.remove(sc);
+      sc.makeBlocking();
+      // we need to say we are processing a message so that that client health monitor will not
+      // kill us while we wait for a thread in the thread pool.
+      sc.setProcessingMessage();
+      stats.incThreadQueueSize();
+      try {
+        pool.execute(sc);
+      } catch (RejectedExecutionException rejected) {
+        stats.decThreadQueueSize();
+        finishCon(sc);
+        if (!closed) {
+          logger.warn(LocalizedMessage.create(LocalizedStrings.AcceptorImpl_UNEXPECTED, rejected));
+        }
+      }
+    }
+
+    private void shutdown() {
+      List<ServerConnection> connections = new ArrayList<>(this.registered);
+      this.registered.clear();
+      ServerConnection sc = this.registrations.poll();
+      while (sc != null) {
+        connections.add(sc);
+        sc = this.registrations.poll();
+      }
+      this.unregistrations.clear();
+      try {
+        this.selector.close();
+      } catch (IOException ignore) {
+      }
+      for (ServerConnection connection : connections) {
+        try {
+          finishCon(connection);
+        } catch (CancelException ignore) {
+          // the cache is closing
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommand;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.security.SecurityService;
+
+/**
+ * Switches a client connection to pipelined mode, in which the requests read from it are executed
+ * concurrently and answered as they complete. The client matches the replies to its requests by
+ * their transaction id. Replies with false if the connection cannot be pipelined, in which case
+ * it stays as it is.
+ */
+public class EnablePipelining extends BaseCommand {
+
+  private static final EnablePipelining singleton = new EnablePipelining();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private EnablePipelining() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start) throws IOException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    boolean enabled = serverConnection.enablePipelining();
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Received enable pipelining from {}, enabled={}",
+          serverConnection.getName(), serverConnection.getSocketString(), enabled);
+    }
+
+    Message responseMsg = serverConnection.getResponseMessage();
+    responseMsg.setMessageType(MessageType.RESPONSE);
+    responseMsg.setNumberOfParts(1);
+    responseMsg.setTransactionId(clientMessage.getTransactionId());
+    responseMsg.addObjPart(enabled);
+    responseMsg.send(serverConnection);
+    serverConnection.setAsTrue(RESPONDED);
+  }
+}
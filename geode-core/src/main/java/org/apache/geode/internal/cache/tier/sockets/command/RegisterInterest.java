@@ -165,7 +165,7 @@ public class RegisterInterest extends BaseCommand {
       }
       serverConnection.getAcceptor().getCacheClientNotifier().registerClientInterest(regionName,
           key, serverConnection.getProxyID(), interestType, isDurable, sendUpdatesAsInvalidates,
-          false, 0, true);
+          false, false, 0, true);
     } catch (Exception e) {
       // If an interrupted exception is thrown , rethrow it
       checkForInterrupt(serverConnection, e);
@@ -125,6 +125,7 @@ public class RegisterInterest61 extends BaseCommand {
     }
 
     boolean sendUpdatesAsInvalidates = false;
+    boolean nearCache = false;
 
     // VJR: Check for a sixth part for client version 6.0.3 onwards for the
     // time being until refactoring into a new command version.
@@ -133,6 +134,8 @@ public class RegisterInterest61 extends BaseCommand {
         Part notifyPart = clientMessage.getPart(5);
         byte[] notifyPartBytes = (byte[]) notifyPart.getObject();
         sendUpdatesAsInvalidates = notifyPartBytes[0] == 0x01;
+        // a second byte is sent by clients registering the interest of a near cache
+        nearCache = notifyPartBytes.length > 1 && notifyPartBytes[1] == 0x01;
       } catch (Exception e) {
         writeChunkedException(clientMessage, e, serverConnection);
         serverConnection.setAsTrue(RESPONDED);
@@ -201,7 +204,7 @@ public class RegisterInterest61 extends BaseCommand {
       }
       serverConnection.getAcceptor().getCacheClientNotifier().registerClientInterest(regionName,
           key, serverConnection.getProxyID(), interestType, isDurable, sendUpdatesAsInvalidates,
-          true, regionDataPolicyPartBytes[0], true);
+          nearCache, true, regionDataPolicyPartBytes[0], true);
     } catch (Exception e) {
       // If an interrupted exception is thrown , rethrow it
       checkForInterrupt(serverConnection, e);
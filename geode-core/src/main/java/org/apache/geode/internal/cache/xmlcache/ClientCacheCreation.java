@@ -37,6 +37,7 @@ import org.apache.geode.cache.RegionService;
 import org.apache.geode.cache.Scope;
 import org.apache.geode.cache.SubscriptionAttributes;
 import org.apache.geode.cache.TimeoutException;
+import org.apache.geode.cache.client.AsyncRegion;
 import org.apache.geode.cache.client.ClientCache;
 import org.apache.geode.cache.client.ClientRegionFactory;
 import org.apache.geode.cache.client.ClientRegionShortcut;
@@ -288,6 +289,11 @@ public class ClientCacheCreation extends CacheCreation implements ClientCache {
     return false;
   }
 
+  @Override
+  public <K, V> AsyncRegion<K, V> getAsyncRegion(String path) {
+    throw new UnsupportedOperationException(LocalizedStrings.SHOULDNT_INVOKE.toLocalizedString());
+  }
+
   @Override
   public Set<InetSocketAddress> getCurrentServers() {
     return Collections.emptySet();
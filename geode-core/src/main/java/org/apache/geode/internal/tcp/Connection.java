@@ -44,6 +44,7 @@ import java.util.Map;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.Logger;
 
@@ -214,8 +215,11 @@ public class Connection implements Runnable {
   /** the non-NIO output stream */
   OutputStream output;
 
-  /** output stream/channel lock */
-  private final Object outLock = new Object();
+  /**
+   * output stream/channel lock. A {@link ReentrantLock} rather than a monitor since it is held
+   * while blocked writing to the socket, which would pin the carrier of a virtual thread.
+   */
+  private final ReentrantLock outLock = new ReentrantLock();
 
   /** the ID string of the conduit (for logging) */
   String conduitIdStr;
@@ -715,10 +719,13 @@ public class Connection implements Runnable {
         nioWriteFully(getSocket().getChannel(), my_okHandshakeBuf, false, null);
       }
     } else {
-      synchronized (outLock) {
+      this.outLock.lock();
+      try {
         assert my_okHandshakeBytes != null;
         this.output.write(my_okHandshakeBytes, 0, my_okHandshakeBytes.length);
         this.output.flush();
+      } finally {
+        this.outLock.unlock();
       }
     }
   }
@@ -948,10 +955,13 @@ public class Connection implements Runnable {
     lenbytes[MSG_HEADER_TYPE_OFFSET] = (byte) NORMAL_MSG_TYPE;
     lenbytes[MSG_HEADER_ID_OFFSET] = (byte) ((MsgIdGenerator.NO_MSG_ID >> 8) & 0xff);
     lenbytes[MSG_HEADER_ID_OFFSET + 1] = (byte) (MsgIdGenerator.NO_MSG_ID & 0xff);
-    synchronized (outLock) {
+    this.outLock.lock();
+    try {
       this.output.write(lenbytes, 0, lenbytes.length);
       this.output.write(msg, 0, msg.length);
       this.output.flush();
+    } finally {
+      this.outLock.unlock();
     }
   }
 
@@ -2553,9 +2563,12 @@ public class Connection implements Runnable {
               buffer.limit() - buffer.position());
         } else {
           byte[] bytesToWrite = getBytesToWrite(buffer);
-          synchronized (outLock) {
+          this.outLock.lock();
+          try {
             this.output.write(bytesToWrite);
             this.output.flush();
+          } finally {
+            this.outLock.unlock();
           }
         }
       }
@@ -3138,7 +3151,8 @@ public class Connection implements Runnable {
     int retries = 0;
     int totalAmtWritten = 0;
     try {
-      synchronized (this.outLock) {
+      this.outLock.lock();
+      try {
         if (!forceAsync) {
           // check one more time while holding outLock in case a pusher was created
           if (this.asyncQueuingInProgress) {
@@ -3273,6 +3287,8 @@ public class Connection implements Runnable {
         } finally {
           channel.configureBlocking(true);
         }
+      } finally {
+        this.outLock.unlock();
       }
     } finally {
       if (socketWriteStarted) {
@@ -3304,7 +3320,8 @@ public class Connection implements Runnable {
         // fall through
       }
       long startLock = stats.startSocketLock();
-      synchronized (this.outLock) {
+      this.outLock.lock();
+      try {
         stats.endSocketLock(startLock);
         if (this.asyncQueuingInProgress) {
           if (addToQueue(buffer, msg, false)) {
@@ -3323,7 +3340,9 @@ public class Connection implements Runnable {
             // this.writerThread = null;
           }
         } while (buffer.remaining() > 0);
-      } // synchronized
+      } finally {
+        this.outLock.unlock();
+      }
     } else {
       writeAsync(channel, buffer, forceAsync, msg, stats);
     }
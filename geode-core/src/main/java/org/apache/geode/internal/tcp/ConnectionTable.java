@@ -55,6 +55,7 @@ import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.AlertAppender;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.net.SocketCloser;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
 
 /**
  * <p>
@@ -217,7 +218,17 @@ public class ConnectionTable {
     Executor executor = null;
     final ThreadGroup connectionRWGroup =
         LoggingThreadGroup.createThreadGroup("P2P Reader Threads", logger);
-    if (conserveSockets) {
+    final ThreadFactory virtualThreadFactory =
+        VirtualThreads.createThreadFactory(connectionRWGroup);
+    if (virtualThreadFactory != null) {
+      // a reader spends most of its life blocked on its socket so give each one a virtual thread
+      executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+          virtualThreadFactory.newThread(command).start();
+        }
+      };
+    } else if (conserveSockets) {
       executor = new Executor() {
         @Override
         public void execute(Runnable command) {
@@ -0,0 +1,803 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntryCreator;
+
+/**
+ * A concurrent map that stores the {@link HashEntry} objects produced by its
+ * {@link HashEntryCreator} directly in open addressed tables instead of chaining them. When used
+ * with region entries the table slots are the region entries themselves, so a lookup probes an
+ * array of entries rather than following a linked list, and no per-entry node is allocated.
+ *
+ * <p>
+ * The keys are spread over a number of stripes by the high bits of their hash. Each stripe has its
+ * own table which is probed linearly from the low bits of the hash. Retrievals never lock; they
+ * read the stripe's current table and its slots with volatile semantics. Updates lock the stripe
+ * they hash to, so updates to different stripes proceed in parallel. A removed entry leaves a
+ * marker in its slot so that probes for other keys carry on past it; markers are reused by later
+ * inserts and dropped when the table is rebuilt. Tables are rebuilt into a new array, which is
+ * published once it is complete, so a concurrent retrieval sees either the old or the new table.
+ *
+ * <p>
+ * Like {@link CustomEntryConcurrentHashMap} this map does not allow null keys or values, and its
+ * iterators are weakly consistent.
+ */
+public class OpenAddressingEntryMap<K, V> extends AbstractMap<K, V>
+    implements ConcurrentMapWithReusableEntries<K, V> {
+
+  /**
+   * The maximum capacity of a stripe's table. Must be a power of two.
+   */
+  static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /**
+   * The smallest table a stripe will use. Must be a power of two.
+   */
+  static final int MINIMUM_CAPACITY = 4;
+
+  /**
+   * The maximum number of stripes.
+   */
+  static final int MAX_STRIPES = 1 << 16;
+
+  /**
+   * The highest load factor a table is allowed to reach. Linear probing degrades quickly beyond
+   * this so larger requested load factors are reduced to it.
+   */
+  static final float MAX_LOAD_FACTOR = 0.75f;
+
+  /**
+   * Marks a slot whose entry has been removed.
+   */
+  private static final Object REMOVED = new Object();
+
+  private final Stripe<K, V>[] stripes;
+
+  private final int stripeShift;
+
+  private final int stripeMask;
+
+  private final HashEntryCreator<K, V> entryCreator;
+
+  private Set<K> keySet;
+
+  private Collection<V> values;
+
+  private Set<Map.Entry<K, V>> entrySet;
+
+  private Set<Map.Entry<K, V>> reusableEntrySet;
+
+  /**
+   * Creates a new, empty map.
+   *
+   * @param initialCapacity the initial capacity. The implementation allocates at least this many
+   *        slots divided by the load factor.
+   * @param loadFactor the fraction of a table's slots that may be used before it is rebuilt
+   * @param concurrencyLevel the estimated number of concurrently updating threads, used to size
+   *        the number of stripes
+   * @param entryCreator creates the entries that are stored in the tables
+   * @throws IllegalArgumentException if the initial capacity is negative or the load factor or
+   *         concurrencyLevel are nonpositive
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public OpenAddressingEntryMap(int initialCapacity, float loadFactor, int concurrencyLevel,
+      HashEntryCreator<K, V> entryCreator) {
+    if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    if (entryCreator == null) {
+      throw new NullPointerException("entryCreator");
+    }
+    if (concurrencyLevel > MAX_STRIPES) {
+      concurrencyLevel = MAX_STRIPES;
+    }
+    int sshift = 0;
+    int ssize = 1;
+    while (ssize < concurrencyLevel) {
+      ++sshift;
+      ssize <<= 1;
+    }
+    this.stripeShift = 32 - sshift;
+    this.stripeMask = ssize - 1;
+    this.entryCreator = entryCreator;
+    final float lf = Math.min(loadFactor, MAX_LOAD_FACTOR);
+    int perStripe = (int) Math.min(MAXIMUM_CAPACITY, (long) (initialCapacity / ssize / lf) + 1);
+    int cap = MINIMUM_CAPACITY;
+    while (cap < perStripe) {
+      cap <<= 1;
+    }
+    this.stripes = new Stripe[ssize];
+    for (int i = 0; i < ssize; i++) {
+      this.stripes[i] = new Stripe<>(cap, lf, entryCreator);
+    }
+  }
+
+  private int hash(Object key) {
+    return this.entryCreator.keyHashCode(key, true);
+  }
+
+  private Stripe<K, V> stripeFor(int hash) {
+    return this.stripes[(hash >>> this.stripeShift) & this.stripeMask];
+  }
+
+  /**
+   * A stripe of the map with its own table. Extends ReentrantLock to save an object per stripe.
+   */
+  private static final class Stripe<K, V> extends ReentrantLock {
+
+    private static final long serialVersionUID = -2431917587549419284L;
+
+    private final HashEntryCreator<K, V> entryCreator;
+
+    private final float loadFactor;
+
+    private final int initialCapacity;
+
+    /**
+     * The slots of this stripe. Each slot is null, {@link #REMOVED} or a HashEntry.
+     */
+    volatile AtomicReferenceArray<Object> table;
+
+    /**
+     * The number of entries in this stripe. Written under the lock, read without it.
+     */
+    volatile int count;
+
+    /**
+     * The number of slots that are not null, including removed markers. Guarded by the lock.
+     */
+    private int used;
+
+    /**
+     * Rebuild the table once used reaches this. Guarded by the lock.
+     */
+    private int threshold;
+
+    Stripe(int initialCapacity, float loadFactor, HashEntryCreator<K, V> entryCreator) {
+      this.entryCreator = entryCreator;
+      this.loadFactor = loadFactor;
+      this.initialCapacity = initialCapacity;
+      setTable(new AtomicReferenceArray<>(initialCapacity));
+    }
+
+    private void setTable(AtomicReferenceArray<Object> newTable) {
+      // threshold is always less than the length so a probe always ends at a null slot
+      this.threshold = Math.max(1, (int) (newTable.length() * this.loadFactor));
+      this.table = newTable;
+    }
+
+    @SuppressWarnings("unchecked")
+    HashEntry<K, V> getEntry(Object key, int hash) {
+      if (this.count == 0) {
+        return null;
+      }
+      final AtomicReferenceArray<Object> tab = this.table;
+      final int mask = tab.length() - 1;
+      int i = hash & mask;
+      for (int probes = 0; probes <= mask; probes++) {
+        final Object o = tab.get(i);
+        if (o == null) {
+          return null;
+        }
+        if (o != REMOVED) {
+          final HashEntry<K, V> e = (HashEntry<K, V>) o;
+          if (e.getEntryHash() == hash && e.isKeyEqual(key)) {
+            return e;
+          }
+        }
+        i = (i + 1) & mask;
+      }
+      return null;
+    }
+
+    /**
+     * Must be called while holding the lock.
+     *
+     * @return the index of the key's entry, or the complement of the index of the first slot a new
+     *         entry for the key could be stored in
+     */
+    @SuppressWarnings("unchecked")
+    private int indexOf(AtomicReferenceArray<Object> tab, Object key, int hash) {
+      final int mask = tab.length() - 1;
+      int i = hash & mask;
+      int free = -1;
+      for (;;) {
+        final Object o = tab.get(i);
+        if (o == null) {
+          return ~(free >= 0 ? free : i);
+        }
+        if (o == REMOVED) {
+          if (free < 0) {
+            free = i;
+          }
+        } else {
+          final HashEntry<K, V> e = (HashEntry<K, V>) o;
+          if (e.getEntryHash() == hash && e.isKeyEqual(key)) {
+            return i;
+          }
+        }
+        i = (i + 1) & mask;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(K key, int hash, V value, boolean onlyIfAbsent) {
+      lock();
+      try {
+        if (this.used >= this.threshold) {
+          rebuild();
+        }
+        final AtomicReferenceArray<Object> tab = this.table;
+        final int index = indexOf(tab, key, hash);
+        if (index >= 0) {
+          final HashEntry<K, V> e = (HashEntry<K, V>) tab.get(index);
+          final V oldValue = e.getMapValue();
+          if (!onlyIfAbsent) {
+            e.setMapValue(value);
+          }
+          return oldValue;
+        }
+        final int slot = ~index;
+        final HashEntry<K, V> e = this.entryCreator.newEntry(key, hash, null, value);
+        if (tab.get(slot) == null) {
+          this.used++;
+        }
+        // the volatile write publishes the fully constructed entry to lock free readers
+        tab.set(slot, e);
+        this.count = this.count + 1;
+        return null;
+      } finally {
+        unlock();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    V replace(K key, int hash, V oldValue, V newValue) {
+      lock();
+      try {
+        final AtomicReferenceArray<Object> tab = this.table;
+        final int index = indexOf(tab, key, hash);
+        if (index < 0) {
+          return null;
+        }
+        final HashEntry<K, V> e = (HashEntry<K, V>) tab.get(index);
+        final V v = e.getMapValue();
+        if (oldValue == null || oldValue.equals(v)) {
+          e.setMapValue(newValue);
+        }
+        return v;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Removes the key's entry if value is null or equal to the entry's value.
+     *
+     * @return the removed value or null if nothing was removed
+     */
+    @SuppressWarnings("unchecked")
+    V remove(Object key, int hash, Object value) {
+      lock();
+      try {
+        final AtomicReferenceArray<Object> tab = this.table;
+        final int index = indexOf(tab, key, hash);
+        if (index < 0) {
+          return null;
+        }
+        final HashEntry<K, V> e = (HashEntry<K, V>) tab.get(index);
+        final V v = e.getMapValue();
+        if (value != null && value != v && !value.equals(v)) {
+          return null;
+        }
+        final int mask = tab.length() - 1;
+        if (tab.get((index + 1) & mask) == null) {
+          // nothing probes past this slot so it and any removed run before it can be emptied
+          tab.set(index, null);
+          this.used--;
+          for (int i = (index - 1) & mask; tab.get(i) == REMOVED; i = (i - 1) & mask) {
+            tab.set(i, null);
+            this.used--;
+          }
+        } else {
+          tab.set(index, REMOVED);
+        }
+        this.count = this.count - 1;
+        return v;
+      } finally {
+        unlock();
+      }
+    }
+
+    /**
+     * Copies the entries into a new table, doubling its size unless most of the used slots were
+     * removed markers. Must be called while holding the lock.
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuild() {
+      final AtomicReferenceArray<Object> oldTable = this.table;
+      final int oldCapacity = oldTable.length();
+      int newCapacity = oldCapacity;
+      if (this.count >= this.threshold / 2) {
+        if (oldCapacity >= MAXIMUM_CAPACITY) {
+          if (this.count + 1 >= this.threshold) {
+            throw new IllegalStateException("OpenAddressingEntryMap stripe is full");
+          }
+        } else {
+          newCapacity = oldCapacity << 1;
+        }
+      }
+      final AtomicReferenceArray<Object> newTable = new AtomicReferenceArray<>(newCapacity);
+      final int mask = newCapacity - 1;
+      for (int j = 0; j < oldCapacity; j++) {
+        final Object o = oldTable.get(j);
+        if (o != null && o != REMOVED) {
+          int i = ((HashEntry<K, V>) o).getEntryHash() & mask;
+          while (newTable.get(i) != null) {
+            i = (i + 1) & mask;
+          }
+          newTable.lazySet(i, o);
+        }
+      }
+      this.used = this.count;
+      setTable(newTable);
+    }
+
+    /**
+     * Empties this stripe. Off-heap entries are added to clearedEntries, which is created if
+     * needed, so that the caller can release them.
+     */
+    ArrayList<HashEntry<?, ?>> clear(ArrayList<HashEntry<?, ?>> clearedEntries) {
+      if (this.count == 0) {
+        return clearedEntries;
+      }
+      lock();
+      try {
+        final AtomicReferenceArray<Object> tab = this.table;
+        final boolean checkForGatewaySenderEvent =
+            OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap();
+        for (int i = 0; i < tab.length(); i++) {
+          final Object o = tab.get(i);
+          if (o == null || o == REMOVED) {
+            continue;
+          }
+          if (o instanceof OffHeapRegionEntry) {
+            if (clearedEntries == null) {
+              clearedEntries = new ArrayList<>();
+            }
+            clearedEntries.add((HashEntry<?, ?>) o);
+          } else if (checkForGatewaySenderEvent && o instanceof RegionEntry) {
+            // It is ok to call GatewaySenderEventImpl release without being synced
+            // on the region entry. It will not create an orphan.
+            GatewaySenderEventImpl.release(((RegionEntry) o).getValue()); // OFFHEAP _getValue ok
+          }
+        }
+        this.used = 0;
+        setTable(new AtomicReferenceArray<>(this.initialCapacity));
+        this.count = 0;
+      } finally {
+        unlock();
+      }
+      return clearedEntries;
+    }
+  }
+
+  @Override
+  public V get(Object key) {
+    final int hash = hash(key);
+    final HashEntry<K, V> e = stripeFor(hash).getEntry(key, hash);
+    return e != null ? e.getMapValue() : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    final int hash = hash(key);
+    return stripeFor(hash).getEntry(key, hash) != null;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    final int hash = hash(key);
+    return stripeFor(hash).put(key, hash, value, false);
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    final int hash = hash(key);
+    return stripeFor(hash).put(key, hash, value, true);
+  }
+
+  @Override
+  public V remove(Object key) {
+    final int hash = hash(key);
+    return stripeFor(hash).remove(key, hash, null);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    if (value == null) {
+      return false;
+    }
+    final int hash = hash(key);
+    return stripeFor(hash).remove(key, hash, value) != null;
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    if (oldValue == null || newValue == null) {
+      throw new NullPointerException();
+    }
+    final int hash = hash(key);
+    final V v = stripeFor(hash).replace(key, hash, oldValue, newValue);
+    return v != null && oldValue.equals(v);
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    final int hash = hash(key);
+    return stripeFor(hash).replace(key, hash, null, value);
+  }
+
+  @Override
+  public int size() {
+    long sum = 0;
+    for (Stripe<K, V> stripe : this.stripes) {
+      sum += stripe.count;
+    }
+    return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (Stripe<K, V> stripe : this.stripes) {
+      if (stripe.count != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    clearWithExecutor(null);
+  }
+
+  @Override
+  public void clearWithExecutor(Executor executor) {
+    ArrayList<HashEntry<?, ?>> entries = null;
+    try {
+      for (Stripe<K, V> stripe : this.stripes) {
+        entries = stripe.clear(entries);
+      }
+    } finally {
+      if (entries != null) {
+        final ArrayList<HashEntry<?, ?>> clearedEntries = entries;
+        final Runnable runnable = () -> {
+          for (HashEntry<?, ?> he : clearedEntries) {
+            synchronized (he) {
+              ((OffHeapRegionEntry) he).release();
+            }
+          }
+        };
+        boolean submitted = false;
+        if (executor != null) {
+          try {
+            executor.execute(runnable);
+            submitted = true;
+          } catch (RejectedExecutionException | CancelException | NullPointerException e) {
+            // fall through with submitted false
+          }
+        }
+        if (!submitted) {
+          String name = getClass().getSimpleName() + "@" + hashCode() + " Clear Thread";
+          Thread thread = new Thread(runnable, name);
+          thread.setDaemon(true);
+          thread.start();
+        }
+      }
+    }
+  }
+
+  @Override
+  public Set<K> keySet() {
+    final Set<K> ks = this.keySet;
+    return ks != null ? ks : (this.keySet = new KeySet());
+  }
+
+  @Override
+  public Collection<V> values() {
+    final Collection<V> vs = this.values;
+    return vs != null ? vs : (this.values = new Values());
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    final Set<Map.Entry<K, V>> es = this.entrySet;
+    return es != null ? es : (this.entrySet = new EntrySet(false));
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySetWithReusableEntries() {
+    final Set<Map.Entry<K, V>> es = this.reusableEntrySet;
+    return es != null ? es : (this.reusableEntrySet = new EntrySet(true));
+  }
+
+  /**
+   * Walks the stripes in order, reading each stripe's table when it gets to it.
+   */
+  abstract class HashIterator {
+
+    private int nextStripeIndex;
+
+    private AtomicReferenceArray<Object> currentTable;
+
+    private int nextSlotIndex;
+
+    private HashEntry<K, V> nextEntry;
+
+    HashEntry<K, V> lastReturned;
+
+    HashIterator() {
+      advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      this.nextEntry = null;
+      for (;;) {
+        if (this.currentTable != null) {
+          while (this.nextSlotIndex < this.currentTable.length()) {
+            final Object o = this.currentTable.get(this.nextSlotIndex++);
+            if (o != null && o != REMOVED) {
+              this.nextEntry = (HashEntry<K, V>) o;
+              return;
+            }
+          }
+        }
+        if (this.nextStripeIndex >= OpenAddressingEntryMap.this.stripes.length) {
+          return;
+        }
+        this.currentTable = OpenAddressingEntryMap.this.stripes[this.nextStripeIndex++].table;
+        this.nextSlotIndex = 0;
+      }
+    }
+
+    public boolean hasNext() {
+      return this.nextEntry != null;
+    }
+
+    HashEntry<K, V> nextEntry() {
+      if (this.nextEntry == null) {
+        throw new NoSuchElementException();
+      }
+      this.lastReturned = this.nextEntry;
+      advance();
+      return this.lastReturned;
+    }
+
+    public void remove() {
+      if (this.lastReturned == null) {
+        throw new IllegalStateException();
+      }
+      OpenAddressingEntryMap.this.remove(this.lastReturned.getKey());
+      this.lastReturned = null;
+    }
+  }
+
+  final class KeyIterator extends HashIterator implements Iterator<K> {
+    @Override
+    public K next() {
+      return nextEntry().getKey();
+    }
+  }
+
+  final class ValueIterator extends HashIterator implements Iterator<V> {
+    @Override
+    public V next() {
+      return nextEntry().getMapValue();
+    }
+  }
+
+  final class EntryIterator extends HashIterator implements Iterator<Map.Entry<K, V>> {
+
+    private final ReusableEntry reusableEntry;
+
+    EntryIterator(boolean reuseEntries) {
+      this.reusableEntry = reuseEntries ? new ReusableEntry() : null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      final HashEntry<K, V> e = nextEntry();
+      final ReusableEntry entry = this.reusableEntry != null ? this.reusableEntry
+          : new ReusableEntry();
+      entry.key = e.getKey();
+      entry.value = e.getMapValue();
+      return entry;
+    }
+  }
+
+  /**
+   * An entry returned by the entry set iterators. Setting its value writes through to the map.
+   */
+  final class ReusableEntry implements Map.Entry<K, V> {
+
+    K key;
+
+    V value;
+
+    @Override
+    public K getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      if (value == null) {
+        throw new NullPointerException();
+      }
+      final V v = this.value;
+      this.value = value;
+      OpenAddressingEntryMap.this.put(this.key, value);
+      return v;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return this.key.equals(e.getKey()) && this.value.equals(e.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return this.key.hashCode() ^ this.value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return this.key + "=" + this.value;
+    }
+  }
+
+  final class KeySet extends AbstractSet<K> {
+    @Override
+    public Iterator<K> iterator() {
+      return new KeyIterator();
+    }
+
+    @Override
+    public int size() {
+      return OpenAddressingEntryMap.this.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return OpenAddressingEntryMap.this.containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      return OpenAddressingEntryMap.this.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+      OpenAddressingEntryMap.this.clear();
+    }
+  }
+
+  final class Values extends AbstractCollection<V> {
+    @Override
+    public Iterator<V> iterator() {
+      return new ValueIterator();
+    }
+
+    @Override
+    public int size() {
+      return OpenAddressingEntryMap.this.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return OpenAddressingEntryMap.this.containsValue(o);
+    }
+
+    @Override
+    public void clear() {
+      OpenAddressingEntryMap.this.clear();
+    }
+  }
+
+  final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    private final boolean reuseEntries;
+
+    EntrySet(boolean reuseEntries) {
+      this.reuseEntries = reuseEntries;
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+      return new EntryIterator(this.reuseEntries);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      final V v = OpenAddressingEntryMap.this.get(e.getKey());
+      return v != null && v.equals(e.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return OpenAddressingEntryMap.this.remove(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return OpenAddressingEntryMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      OpenAddressingEntryMap.this.clear();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Creates virtual threads for the threads that spend their lives blocked on a socket, such as cache
+ * server connection threads and p2p reader threads, when the {@link #USE_VIRTUAL_THREADS_PROPERTY}
+ * system property is set and the JVM has virtual threads. Virtual threads are created through
+ * reflection since the product is still compiled for Java 8.
+ * <p>
+ * Code run by these threads should hold a {@link java.util.concurrent.locks.Lock} rather than a
+ * monitor while it blocks on I/O. A virtual thread that blocks inside a synchronized block pins
+ * the platform thread carrying it.
+ */
+public class VirtualThreads {
+  private static final Logger logger = LogService.getLogger();
+
+  public static final String USE_VIRTUAL_THREADS_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "useVirtualThreads";
+
+  /** set once the JVM has been found not to support virtual threads, so we only warn once */
+  private static final AtomicBoolean warned = new AtomicBoolean();
+
+  private VirtualThreads() {
+    // no instances
+  }
+
+  /**
+   * Returns true if {@link #USE_VIRTUAL_THREADS_PROPERTY} is set.
+   */
+  public static boolean isEnabled() {
+    return Boolean.getBoolean(USE_VIRTUAL_THREADS_PROPERTY);
+  }
+
+  /**
+   * Returns a factory of unstarted virtual threads, or null if virtual threads are not enabled or
+   * this JVM does not have them.
+   *
+   * @param handler handles the exceptions the threads do not catch, since virtual threads do not
+   *        belong to the thread group that would have handled them
+   */
+  public static ThreadFactory createThreadFactory(Thread.UncaughtExceptionHandler handler) {
+    if (!isEnabled()) {
+      return null;
+    }
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("uncaughtExceptionHandler",
+          Thread.UncaughtExceptionHandler.class).invoke(builder, handler);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+      if (warned.compareAndSet(false, true)) {
+        logger.warn(
+            "{} is set but this JVM does not support virtual threads. Using platform threads.",
+            USE_VIRTUAL_THREADS_PROPERTY);
+      }
+    } catch (InvocationTargetException e) {
+      // virtual threads are a preview feature of this JVM that has not been enabled
+      if (warned.compareAndSet(false, true)) {
+        logger.warn("{} is set but virtual threads are not available: {}. Using platform threads.",
+            USE_VIRTUAL_THREADS_PROPERTY, e.getCause());
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.MessageStats;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PipelinedConnectionTest {
+
+  private ServerSocket serverSocket;
+  private Socket clientSocket;
+  private Socket serverSide;
+  private Connection connection;
+
+  @Before
+  public void setUp() throws Exception {
+    serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    clientSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    serverSide = serverSocket.accept();
+
+    connection = mock(Connection.class);
+    when(connection.getSocket()).thenReturn(clientSocket);
+    when(connection.getInputStream()).thenReturn(clientSocket.getInputStream());
+    when(connection.getOutputStream()).thenReturn(clientSocket.getOutputStream());
+    when(connection.getCommBuffer()).thenReturn(ByteBuffer.allocate(1024));
+    when(connection.getStats()).thenReturn(mock(ConnectionStats.class));
+    when(connection.getEndpoint()).thenReturn(mock(Endpoint.class));
+    when(connection.getServer())
+        .thenReturn(new ServerLocation("localhost", serverSocket.getLocalPort()));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    clientSocket.close();
+    serverSide.close();
+    serverSocket.close();
+  }
+
+  @Test
+  public void matchesRepliesToRequestsByTransactionId() throws Exception {
+    PipelinedConnection pipelined = new PipelinedConnection(connection, 0);
+    CompletableFuture<Object> first = executeAsync(pipelined, 1);
+    Message firstRequest = readRequest();
+    CompletableFuture<Object> second = executeAsync(pipelined, 2);
+    Message secondRequest = readRequest();
+
+    reply(secondRequest);
+    reply(firstRequest);
+
+    assertThat(first.get()).isEqualTo(10);
+    assertThat(second.get()).isEqualTo(20);
+    assertThat(firstRequest.getTransactionId()).isNotEqualTo(secondRequest.getTransactionId());
+    pipelined.destroy();
+  }
+
+  @Test
+  public void dropsTheReplyToARequestThatTimedOut() throws Exception {
+    PipelinedConnection pipelined = new PipelinedConnection(connection, 200);
+    CompletableFuture<Object> timedOut = executeAsync(pipelined, 1);
+    Message timedOutRequest = readRequest();
+
+    Throwable thrown = catchThrowable(timedOut::get);
+    assertThat(thrown).isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(SocketTimeoutException.class);
+
+    reply(timedOutRequest);
+    CompletableFuture<Object> next = executeAsync(pipelined, 2);
+    reply(readRequest());
+    assertThat(next.get()).isEqualTo(20);
+    pipelined.destroy();
+  }
+
+  @Test
+  public void destroyFailsTheRequestsWaitingForReplies() throws Exception {
+    PipelinedConnection pipelined = new PipelinedConnection(connection, 0);
+    CompletableFuture<Object> waiting = executeAsync(pipelined, 1);
+    readRequest();
+
+    pipelined.destroy();
+
+    Throwable thrown = catchThrowable(waiting::get);
+    assertThat(thrown).isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(ConnectionDestroyedException.class);
+    assertThat(pipelined.isDestroyed()).isTrue();
+  }
+
+  private CompletableFuture<Object> executeAsync(PipelinedConnection pipelined, int value) {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    new Thread(() -> {
+      try {
+        result.complete(pipelined.execute(new TestOp(value)));
+      } catch (Throwable t) {
+        result.completeExceptionally(t);
+      }
+    }).start();
+    return result;
+  }
+
+  private Message readRequest() throws Exception {
+    Message request = new Message(1, Version.CURRENT);
+    request.setComms(serverSide, serverSide.getInputStream(), serverSide.getOutputStream(),
+        ByteBuffer.allocate(1024), mock(MessageStats.class));
+    request.receive();
+    return request;
+  }
+
+  /**
+   * Answers the given request with ten times the int it carries
+   */
+  private void reply(Message request) throws Exception {
+    Message reply = new Message(1, Version.CURRENT);
+    reply.setMessageType(MessageType.RESPONSE);
+    reply.setTransactionId(request.getTransactionId());
+    reply.addIntPart(request.getPart(0).getInt() * 10);
+    reply.setComms(serverSide, serverSide.getInputStream(), serverSide.getOutputStream(),
+        ByteBuffer.allocate(1024), mock(MessageStats.class));
+    reply.send();
+  }
+
+  private static class TestOp extends AbstractOp {
+    TestOp(int value) {
+      super(MessageType.REQUEST, 1);
+      getMessage().addIntPart(value);
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      return msg.getPart(0).getInt();
+    }
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return false;
+    }
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return 0;
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {}
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {}
+
+    @Override
+    protected boolean canPipeline() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.VersionedObjectList;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class SingleHopClientExecutorBulkOpRetriesTest {
+
+  private final ServerLocation server1 = new ServerLocation("host", 1);
+  private final ServerLocation server2 = new ServerLocation("host", 2);
+
+  @After
+  public void clearUserAttributes() {
+    UserAttributes.userAttributes.set(null);
+  }
+
+  @Test
+  public void retriesRunAtTheSameTime() {
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    VersionedObjectList versions = new VersionedObjectList();
+    Map<ServerLocation, Callable<VersionedObjectList>> retryTasks = new LinkedHashMap<>();
+    retryTasks.put(server1, () -> {
+      bothStarted.countDown();
+      assertThat(bothStarted.await(60, TimeUnit.SECONDS)).isTrue();
+      return versions;
+    });
+    retryTasks.put(server2, () -> {
+      bothStarted.countDown();
+      assertThat(bothStarted.await(60, TimeUnit.SECONDS)).isTrue();
+      return null;
+    });
+
+    Map<ServerLocation, Object> results = SingleHopClientExecutor.submitBulkOpRetries(retryTasks);
+
+    assertThat(results).containsEntry(server1, versions).containsEntry(server2, null);
+  }
+
+  @Test
+  public void failedRetryResultIsItsException() {
+    ServerConnectivityException exception = new ServerConnectivityException("failed");
+    Map<ServerLocation, Callable<VersionedObjectList>> retryTasks = new LinkedHashMap<>();
+    retryTasks.put(server1, () -> {
+      throw exception;
+    });
+    retryTasks.put(server2, VersionedObjectList::new);
+
+    Map<ServerLocation, Object> results = SingleHopClientExecutor.submitBulkOpRetries(retryTasks);
+
+    assertThat(results.get(server1)).isSameAs(exception);
+    assertThat(results.get(server2)).isInstanceOf(VersionedObjectList.class);
+  }
+
+  @Test
+  public void retriesRunWithCallersUserAttributes() {
+    UserAttributes userAttributes = mock(UserAttributes.class);
+    UserAttributes.userAttributes.set(userAttributes);
+    Map<ServerLocation, Callable<VersionedObjectList>> retryTasks = new LinkedHashMap<>();
+    Map<ServerLocation, UserAttributes> seen = new ConcurrentHashMap<>();
+    retryTasks.put(server1, () -> {
+      seen.put(server1, UserAttributes.userAttributes.get());
+      return null;
+    });
+    retryTasks.put(server2, () -> {
+      seen.put(server2, UserAttributes.userAttributes.get());
+      return null;
+    });
+
+    SingleHopClientExecutor.submitBulkOpRetries(retryTasks);
+
+    assertThat(seen).containsEntry(server1, userAttributes).containsEntry(server2, userAttributes);
+    assertThat(UserAttributes.userAttributes.get()).isSameAs(userAttributes);
+  }
+}
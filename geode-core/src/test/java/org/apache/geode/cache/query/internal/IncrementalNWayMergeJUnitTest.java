@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class IncrementalNWayMergeJUnitTest {
+
+  @Test
+  public void testResultsAreHeldUntilEveryRunHasResults() throws Exception {
+    IncrementalNWayMerge<Integer> merge = createMerge(-1);
+    IncrementalNWayMerge.Run<Integer> run1 = merge.addRun();
+    IncrementalNWayMerge.Run<Integer> run2 = merge.addRun();
+    IncrementalNWayMerge.Run<Integer> run3 = merge.addRun();
+
+    assertEquals(Collections.emptyList(), merge.add(run1, Arrays.asList(1, 4, 7)));
+    assertEquals(Collections.emptyList(), merge.add(run2, Arrays.asList(2, 5)));
+    // run2 has no results left after 5
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5), merge.add(run3, Arrays.asList(3, 9)));
+    assertEquals(Arrays.asList(7), merge.end(run2));
+    assertEquals(Collections.emptyList(), merge.add(run1, Collections.emptyList()));
+    assertEquals(Arrays.asList(9), merge.end(run1));
+    assertEquals(Collections.emptyList(), merge.end(run3));
+  }
+
+  @Test
+  public void testRunsEndedWithoutResultsDoNotHoldBackOthers() throws Exception {
+    IncrementalNWayMerge<Integer> merge = createMerge(-1);
+    IncrementalNWayMerge.Run<Integer> run1 = merge.addRun();
+    IncrementalNWayMerge.Run<Integer> run2 = merge.addRun();
+
+    assertEquals(Collections.emptyList(), merge.add(run1, Arrays.asList(1, 2)));
+    assertEquals(Arrays.asList(1, 2), merge.end(run2));
+    // a run added later holds back the results that come after it
+    IncrementalNWayMerge.Run<Integer> run3 = merge.addRun();
+    assertEquals(Collections.emptyList(), merge.add(run1, Arrays.asList(3)));
+    assertEquals(Arrays.asList(3), merge.add(run3, Arrays.asList(4)));
+    assertEquals(Arrays.asList(4), merge.end(run1));
+    assertEquals(Collections.emptyList(), merge.end(run3));
+  }
+
+  @Test
+  public void testMergeStopsAtLimit() throws Exception {
+    IncrementalNWayMerge<Integer> merge = createMerge(3);
+    IncrementalNWayMerge.Run<Integer> run1 = merge.addRun();
+    IncrementalNWayMerge.Run<Integer> run2 = merge.addRun();
+
+    assertEquals(Collections.emptyList(), merge.add(run1, Arrays.asList(1, 3, 5)));
+    assertFalse(merge.isLimitReached());
+    assertEquals(Arrays.asList(1, 2, 3), merge.add(run2, Arrays.asList(2, 4)));
+    assertTrue(merge.isLimitReached());
+    assertEquals(Collections.emptyList(), merge.end(run1));
+    assertEquals(Collections.emptyList(), merge.end(run2));
+  }
+
+  @Test
+  public void testRandomChunksMergeAsNWayMergeResults() throws Exception {
+    Random random = new Random(13);
+    List<List<Integer>> sortedLists = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      List<Integer> list = new ArrayList<>();
+      for (int j = 0; j < 100; j++) {
+        list.add(random.nextInt(500));
+      }
+      Collections.sort(list);
+      sortedLists.add(list);
+    }
+    List<Integer> expected = new ArrayList<>();
+    sortedLists.forEach(expected::addAll);
+    Collections.sort(expected);
+
+    IncrementalNWayMerge<Integer> merge = createMerge(-1);
+    List<IncrementalNWayMerge.Run<Integer>> runs = new ArrayList<>();
+    List<Integer> positions = new ArrayList<>();
+    for (int i = 0; i < sortedLists.size(); i++) {
+      runs.add(merge.addRun());
+      positions.add(0);
+    }
+    List<Integer> merged = new ArrayList<>();
+    int numEnded = 0;
+    while (numEnded < runs.size()) {
+      int i = random.nextInt(runs.size());
+      int position = positions.get(i);
+      List<Integer> list = sortedLists.get(i);
+      if (position == list.size()) {
+        continue;
+      }
+      int end = Math.min(list.size(), position + random.nextInt(20));
+      merged.addAll(merge.add(runs.get(i), list.subList(position, end)));
+      positions.set(i, end);
+      if (end == list.size()) {
+        merged.addAll(merge.end(runs.get(i)));
+        numEnded++;
+      }
+    }
+
+    assertEquals(expected, merged);
+  }
+
+  private <E> IncrementalNWayMerge<E> createMerge(int limit) throws Exception {
+    CompiledSortCriterion csc = new CompiledSortCriterion(false,
+        CompiledSortCriterion.ProjectionField.getProjectionField());
+    Method method = CompiledSortCriterion.class
+        .getDeclaredMethod("substituteExpressionWithProjectionField", Integer.TYPE);
+    method.setAccessible(true);
+    method.invoke(csc, 0);
+    List<CompiledSortCriterion> orderByAttribs = new ArrayList<CompiledSortCriterion>();
+    orderByAttribs.add(csc);
+    ExecutionContext context = new ExecutionContext(null, null);
+
+    return new IncrementalNWayMerge<E>(orderByAttribs, context, new ObjectTypeImpl(Object.class),
+        limit);
+  }
+}
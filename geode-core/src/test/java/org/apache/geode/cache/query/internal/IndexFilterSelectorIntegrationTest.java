@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category({IntegrationTest.class, OQLQueryTest.class})
+public class IndexFilterSelectorIntegrationTest {
+
+  private static final int NUMBER_OF_TRADES = 1000;
+
+  private InternalCache cache;
+  private QueryService queryService;
+
+  @Before
+  public void setUp() throws Exception {
+    QueryPlanCache.clear();
+    cache = (InternalCache) new CacheFactory().set(MCAST_PORT, "0").create();
+    Region<Integer, Trade> region =
+        cache.<Integer, Trade>createRegionFactory(RegionShortcut.REPLICATE).create("trades");
+    for (int i = 0; i < NUMBER_OF_TRADES; i++) {
+      // every hundredth trade is closed
+      region.put(i, new Trade(i, i % 100 == 0 ? "closed" : "active"));
+    }
+    queryService = cache.getQueryService();
+    queryService.createIndex("statusIndex", "t.status", "/trades t");
+    queryService.createIndex("priceIndex", "t.price", "/trades t");
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+    QueryPlanCache.clear();
+  }
+
+  @Test
+  public void rangeMatchingFewValuesIsChosenOverEqualityMatchingMost() throws Exception {
+    QueryExecutionContext context =
+        execute("<trace> select * from /trades t where t.status = 'active' and t.price > 990", 9);
+
+    assertThat(context.getPlanSteps())
+        .containsExactly("AND junction filter: priceIndex (estimated 9) over statusIndex"
+            + " (estimated 990)");
+  }
+
+  @Test
+  public void equalityMatchingFewValuesIsChosenOverRangeMatchingMost() throws Exception {
+    QueryExecutionContext context =
+        execute("<trace> select * from /trades t where t.status = 'closed' and t.price > 10", 9);
+
+    assertThat(context.getPlanSteps()).hasSize(1);
+    assertThat(context.getPlanSteps().get(0)).startsWith("AND junction filter: statusIndex");
+  }
+
+  @Test
+  public void laterExecutionsUseCachedPlan() throws Exception {
+    String query = "<trace> select * from /trades t where t.status = 'active' and t.price > 990";
+    execute(query, 9);
+
+    QueryExecutionContext context = execute(
+        "<trace>  select * from /trades t   where t.status = 'active' and t.price > 990", 9);
+
+    assertThat(context.getPlanSteps())
+        .containsExactly("AND junction filter: priceIndex (plan cache)");
+  }
+
+  @Test
+  public void plansAreKeyedByTypesOfBindArguments() throws Exception {
+    String query = "<trace> select * from /trades t where t.status = $1 and t.price > $2";
+    execute(query, 9, "active", 990);
+
+    assertThat(execute(query, 8, "active", 991).getPlanSteps().get(0)).endsWith("(plan cache)");
+    assertThat(execute(query, 9, "active", 990L).getPlanSteps().get(0))
+        .doesNotEndWith("(plan cache)");
+  }
+
+  @Test
+  public void creatingIndexInvalidatesPlans() throws Exception {
+    String query = "<trace> select * from /trades t where t.status = 'active' and t.price > 990";
+    execute(query, 9);
+
+    queryService.createIndex("idIndex", "t.id", "/trades t");
+
+    assertThat(execute(query, 9).getPlanSteps().get(0)).doesNotEndWith("(plan cache)");
+  }
+
+  @Test
+  public void normalizeCollapsesWhitespaceOutsideOfLiterals() {
+    assertThat(QueryPlanCache.normalize(" select *\n from /trades t  where t.status = 'a  b' "))
+        .isEqualTo("select * from /trades t where t.status = 'a  b'");
+  }
+
+  private QueryExecutionContext execute(String queryString, int expectedSize,
+      Object... parameters) throws Exception {
+    DefaultQuery query = (DefaultQuery) queryService.newQuery(queryString);
+    QueryExecutionContext context = new QueryExecutionContext(parameters, cache, query);
+
+    SelectResults results = (SelectResults) query.executeUsingContext(context);
+
+    assertThat(results).hasSize(expectedSize);
+    return context;
+  }
+
+  public static class Trade implements Serializable {
+    public final int id;
+    public final int price;
+    public final String status;
+
+    Trade(int id, String status) {
+      this.id = id;
+      this.price = id;
+      this.status = status;
+    }
+  }
+}
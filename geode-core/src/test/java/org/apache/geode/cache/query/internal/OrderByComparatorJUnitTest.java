@@ -22,6 +22,7 @@ import static org.junit.Assert.fail;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
@@ -34,6 +35,7 @@ import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.CacheUtils;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.data.Portfolio;
 import org.apache.geode.cache.query.data.Position;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
@@ -184,6 +186,29 @@ public class OrderByComparatorJUnitTest {
     }
   }
 
+  @Test
+  public void testLimitedResultsAreTheFirstOrderedResults() throws Exception {
+    String queries[] = {"SELECT ID, status FROM /portfolio1 pf1 order by status, ID desc",
+        "SELECT ID FROM /portfolio1 pf1 where ID > 3 order by pkid",
+        "SELECT ID, pkid FROM /portfolio1 pf1 order by status desc, pkid",
+        "SELECT distinct ID, status FROM /portfolio1 pf1 order by status, ID desc",
+        "SELECT distinct ID FROM /portfolio1 pf1 order by ID desc",};
+    Region r1 = CacheUtils.createRegion("portfolio1", Portfolio.class);
+    for (int i = 0; i < 50; i++) {
+      r1.put(i + "", new Portfolio(i));
+    }
+
+    // the sorted results of a limited query keep only as many results as the limit
+    for (String query : queries) {
+      List all = ((SelectResults) CacheUtils.getQueryService().newQuery(query).execute()).asList();
+      for (int limit : new int[] {1, 7, 25}) {
+        SelectResults limited = (SelectResults) CacheUtils.getQueryService()
+            .newQuery(query + " limit " + limit).execute();
+        assertThat(limited.asList()).as(query).isEqualTo(all.subList(0, limit));
+      }
+    }
+  }
+
   // The following tests cover edge cases in OrderByComparator.
   @Test
   public void testCompareTwoNulls() throws Exception {
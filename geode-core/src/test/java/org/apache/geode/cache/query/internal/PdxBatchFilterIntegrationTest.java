@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category({IntegrationTest.class, OQLQueryTest.class})
+public class PdxBatchFilterIntegrationTest {
+
+  private static final int NUMBER_OF_TRADES = 1000;
+
+  private InternalCache cache;
+  private Region<Integer, Object> region;
+
+  @Before
+  public void setUp() {
+    cache = (InternalCache) new CacheFactory().set(MCAST_PORT, "0").setPdxReadSerialized(true)
+        .create();
+    region = cache.<Integer, Object>createRegionFactory(RegionShortcut.REPLICATE).create("trades");
+    for (int i = 0; i < NUMBER_OF_TRADES; i++) {
+      region.put(i, createTrade(i));
+    }
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void queriesComparingNumericFieldsHaveSameResultsAsObjects() throws Exception {
+    // every tenth trade has a long quantity, and every hundredth has no quantity, which reads as
+    // the default of the quantity of other trades
+    assertThat(count("select * from /trades t where t.quantity > 500")).isEqualTo(495);
+    assertThat(count("select * from /trades where quantity <= 10")).isEqualTo(20);
+    assertThat(count("select * from /trades t where 100 > t.quantity and t.price <= 5.5"))
+        .isEqualTo(53);
+    assertThat(count("select * from /trades t where t.quantity = 7 or t.quantity = 7L"))
+        .isEqualTo(1);
+    assertThat(count("select * from /trades t where t.price < 10.25f")).isEqualTo(100);
+    assertThat(count("select * from /trades t where t.quantity <> 5")).isEqualTo(999);
+  }
+
+  @Test
+  public void queryWithBindArgumentAndLimitHasSameResultsAsObjects() throws Exception {
+    SelectResults results = (SelectResults) cache.getQueryService()
+        .newQuery("select * from /trades t where t.quantity >= $1 limit 20")
+        .execute(new Object[] {900L});
+
+    assertThat(results).hasSize(20);
+  }
+
+  @Test
+  public void filterComparesFieldsOfPdxInstances() {
+    ExecutionContext context = mock(ExecutionContext.class);
+    RuntimeIterator iterator = mock(RuntimeIterator.class);
+    CompiledValue whereClause = new CompiledComparison(new CompiledPath(iterator, "quantity"),
+        new CompiledLiteral(2), OQLLexerTokenTypes.TOK_GT);
+    Object[] candidates = {createTrade(1), createTrade(3), createTrade(100), "not pdx"};
+    byte[] results = new byte[candidates.length];
+
+    PdxBatchFilter filter = PdxBatchFilter.create(whereClause, iterator, context);
+    filter.filter(candidates, candidates.length, results);
+
+    assertThat(results).containsExactly(PdxBatchFilter.FALSE, PdxBatchFilter.TRUE,
+        PdxBatchFilter.UNKNOWN, PdxBatchFilter.UNKNOWN);
+  }
+
+  @Test
+  public void whereClauseComparingStringsIsNotFiltered() {
+    ExecutionContext context = mock(ExecutionContext.class);
+    RuntimeIterator iterator = mock(RuntimeIterator.class);
+    CompiledValue whereClause = new CompiledComparison(new CompiledPath(iterator, "symbol"),
+        new CompiledLiteral("GEODE"), OQLLexerTokenTypes.TOK_EQ);
+
+    assertThat(PdxBatchFilter.create(whereClause, iterator, context)).isNull();
+  }
+
+  private int count(String query) throws Exception {
+    return ((SelectResults) cache.getQueryService().newQuery(query).execute()).size();
+  }
+
+  /**
+   * Returns a trade whose quantity is its id, and whose price is a tenth of its id plus a quarter
+   */
+  private PdxInstance createTrade(int id) {
+    if (id % 100 == 0) {
+      return cache.createPdxInstanceFactory("Trade").writeString("symbol", "GEODE")
+          .writeDouble("price", id / 10.0 + 0.25).create();
+    }
+    if (id % 10 == 0) {
+      return cache.createPdxInstanceFactory("Trade").writeString("symbol", "GEODE")
+          .writeLong("quantity", id).writeDouble("price", id / 10.0 + 0.25).create();
+    }
+    return cache.createPdxInstanceFactory("Trade").writeString("symbol", "GEODE")
+        .writeInt("quantity", id).writeDouble("price", id / 10.0 + 0.25).create();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PredicateCompilerTest {
+
+  private final ExecutionContext context = mock(ExecutionContext.class);
+  private final MethodInvocationAuthorizer authorizer = mock(MethodInvocationAuthorizer.class);
+  private final RuntimeIterator iterator = mock(RuntimeIterator.class);
+  private final AtomicReference<Object> current = new AtomicReference<>();
+
+  @Before
+  public void setUp() throws Exception {
+    InternalCache cache = mock(InternalCache.class);
+    InternalQueryService queryService = mock(InternalQueryService.class);
+    when(context.getCache()).thenReturn(cache);
+    when(cache.getQueryService()).thenReturn(queryService);
+    when(queryService.getMethodInvocationAuthorizer()).thenReturn(authorizer);
+    when(context.resolve("p")).thenReturn(iterator);
+    when(iterator.evaluate(context)).thenAnswer(invocation -> current.get());
+  }
+
+  @Test
+  public void compiledComparisonOfAttributesHasResultsOfWhereClause() throws Exception {
+    CompiledValue whereClause = new CompiledJunction(new CompiledValue[] {
+        new CompiledComparison(new CompiledPath(new CompiledID("p"), "type"),
+            new CompiledLiteral("stock"), OQLLexerTokenTypes.TOK_EQ),
+        new CompiledComparison(new CompiledPath(new CompiledID("p"), "quantity"),
+            new CompiledLiteral(10), OQLLexerTokenTypes.TOK_GT)},
+        OQLLexerTokenTypes.LITERAL_and);
+
+    Evaluator evaluator = PredicateCompiler.compile(whereClause, context);
+
+    assertThat(evaluator).isNotSameAs(whereClause);
+    for (Position position : new Position[] {new Position("stock", 20), new Position("stock", 5),
+        new Position("bond", 20), new Position(null, 20)}) {
+      current.set(position);
+      assertThat(evaluator.evaluate(context)).isEqualTo(whereClause.evaluate(context));
+    }
+  }
+
+  @Test
+  public void identifierIsResolvedOnceForAllCandidates() throws Exception {
+    Evaluator evaluator =
+        PredicateCompiler.compile(new CompiledPath(new CompiledID("p"), "quantity"), context);
+
+    for (int quantity = 0; quantity < 3; quantity++) {
+      current.set(new Position("stock", quantity));
+      assertThat(evaluator.evaluate(context)).isEqualTo(quantity);
+    }
+    verify(context, times(1)).resolve("p");
+  }
+
+  @Test
+  public void attributeNamedWithoutIteratorIsReadFromIterator() throws Exception {
+    when(context.resolve("quantity")).thenReturn(new CompiledPath(iterator, "quantity"));
+    current.set(new Position("stock", 7));
+
+    Evaluator evaluator = PredicateCompiler.compile(new CompiledID("quantity"), context);
+
+    assertThat(evaluator.evaluate(context)).isEqualTo(7);
+  }
+
+  @Test
+  public void invokedMethodsAreAuthorized() throws Exception {
+    Position position = new Position("stock", 1);
+    current.set(position);
+
+    PredicateCompiler.compile(new CompiledPath(new CompiledID("p"), "quantity"), context)
+        .evaluate(context);
+
+    verify(authorizer).authorizeMethodInvocation(Position.class.getMethod("getQuantity"),
+        position);
+  }
+
+  @Test
+  public void exceptionOfMethodIsWrappedLikeReflectiveInvocation() throws Exception {
+    current.set(new Position("stock", -1));
+
+    Throwable thrown = catchThrowable(() -> PredicateCompiler
+        .compile(new CompiledPath(new CompiledID("p"), "quantity"), context).evaluate(context));
+
+    assertThat(thrown).isInstanceOf(QueryInvocationTargetException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void missingAttributeOfObjectIsUndefined() throws Exception {
+    current.set(new Position("stock", 1));
+
+    Evaluator evaluator =
+        PredicateCompiler.compile(new CompiledPath(new CompiledID("p"), "price"), context);
+
+    assertThat(evaluator.evaluate(context)).isSameAs(QueryService.UNDEFINED);
+  }
+
+  @Test
+  public void whereClauseOfCqIsNotCompiled() {
+    when(context.isCqQueryContext()).thenReturn(true);
+    CompiledValue whereClause = new CompiledPath(new CompiledID("p"), "quantity");
+
+    assertThat(PredicateCompiler.compile(whereClause, context)).isSameAs(whereClause);
+  }
+
+  public static class Position {
+    public final String type;
+    private final int quantity;
+
+    Position(String type, int quantity) {
+      this.type = type;
+      this.quantity = quantity;
+    }
+
+    public int getQuantity() {
+      if (quantity < 0) {
+        throw new IllegalStateException("negative quantity");
+      }
+      return quantity;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.CacheTransactionManager;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category({IntegrationTest.class, OQLQueryTest.class})
+public class QueryResultCacheIntegrationTest {
+
+  private InternalCache cache;
+  private QueryService queryService;
+  private Region<Integer, Integer> region;
+
+  @Before
+  public void setUp() throws Exception {
+    QueryResultCache.TEST_MAX_SIZE = 2;
+    QueryResultCache.clear();
+    cache = (InternalCache) new CacheFactory().set(MCAST_PORT, "0").create();
+    region = cache.<Integer, Integer>createRegionFactory(RegionShortcut.REPLICATE).create("rates");
+    for (int i = 0; i < 100; i++) {
+      region.put(i, i);
+    }
+    queryService = cache.getQueryService();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+    QueryResultCache.clear();
+    QueryResultCache.TEST_MAX_SIZE = 0;
+  }
+
+  @Test
+  public void repeatedQueryIsAnsweredFromCache() throws Exception {
+    long hits = QueryResultCache.getHits();
+    SelectResults first = execute("select * from /rates r where r > $1", 89);
+
+    SelectResults second = execute("select *  from /rates r   where r > $1", 89);
+
+    assertThat(QueryResultCache.getHits()).isEqualTo(hits + 1);
+    assertThat(second.asList()).containsExactlyInAnyOrderElementsOf(first.asList()).hasSize(10);
+    assertThat(second.isModifiable()).isFalse();
+    assertThatThrownBy(() -> second.remove(95)).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void differentBindArgumentsAreCachedApart() throws Exception {
+    execute("select * from /rates r where r > $1", 89);
+
+    assertThat(execute("select * from /rates r where r > $1", 79)).hasSize(20);
+    assertThat(execute("select * from /rates r where r > $1", 89L)).hasSize(10);
+    assertThat(QueryResultCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void changesToRegionInvalidateCachedResults() throws Exception {
+    assertThat(execute("select * from /rates r where r > $1", 89)).hasSize(10);
+
+    region.put(100, 100);
+    assertThat(execute("select * from /rates r where r > $1", 89)).hasSize(11);
+
+    region.destroy(100);
+    assertThat(execute("select * from /rates r where r > $1", 89)).hasSize(10);
+
+    region.invalidate(99);
+    assertThat(execute("select * from /rates r where r > $1", 89)).hasSize(9);
+
+    region.clear();
+    assertThat(execute("select * from /rates r where r > $1", 89)).isEmpty();
+  }
+
+  @Test
+  public void changesToOtherRegionsDoNotInvalidateCachedResults() throws Exception {
+    Region<Integer, Integer> other =
+        cache.<Integer, Integer>createRegionFactory(RegionShortcut.REPLICATE).create("other");
+    execute("select * from /rates r where r > $1", 89);
+    long hits = QueryResultCache.getHits();
+
+    other.put(1, 1);
+    execute("select * from /rates r where r > $1", 89);
+
+    assertThat(QueryResultCache.getHits()).isEqualTo(hits + 1);
+  }
+
+  @Test
+  public void leastRecentlyUsedResultsAreDropped() throws Exception {
+    execute("select * from /rates r where r > $1", 1);
+    execute("select * from /rates r where r > $1", 2);
+    execute("select * from /rates r where r > $1", 1);
+    execute("select * from /rates r where r > $1", 3);
+    long hits = QueryResultCache.getHits();
+
+    execute("select * from /rates r where r > $1", 1);
+    execute("select * from /rates r where r > $1", 2);
+
+    assertThat(QueryResultCache.getHits()).isEqualTo(hits + 1);
+    assertThat(QueryResultCache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void queriesOnPartitionedRegionsAndInTransactionsAreNotCached() throws Exception {
+    Region<Integer, Integer> partitioned =
+        cache.<Integer, Integer>createRegionFactory(RegionShortcut.PARTITION).create("partitioned");
+    partitioned.put(1, 1);
+    execute("select * from /partitioned p", 0);
+    assertThat(QueryResultCache.size()).isZero();
+
+    CacheTransactionManager txManager = cache.getCacheTransactionManager();
+    txManager.begin();
+    try {
+      region.put(100, 100);
+      execute("select * from /rates r where r > $1", 89);
+    } finally {
+      txManager.rollback();
+    }
+    assertThat(QueryResultCache.size()).isZero();
+  }
+
+  @Test
+  public void queriesWithMutableBindArgumentsAreNotCached() throws Exception {
+    execute("select * from /rates r where r in $1", Collections.singleton(5));
+
+    assertThat(QueryResultCache.size()).isZero();
+  }
+
+  private SelectResults execute(String query, Object parameter) throws Exception {
+    return (SelectResults) queryService.newQuery(query).execute(parameter);
+  }
+}
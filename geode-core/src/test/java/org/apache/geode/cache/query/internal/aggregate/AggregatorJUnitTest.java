@@ -69,6 +69,51 @@ public class AggregatorJUnitTest {
     assertEquals(5, ((Number) cdpr.terminate()).intValue());
   }
 
+  @Test
+  public void testCountDistinctApproximate() throws Exception {
+    CountDistinctApproximateBucketNode bucket1 = new CountDistinctApproximateBucketNode();
+    CountDistinctApproximateBucketNode bucket2 = new CountDistinctApproximateBucketNode();
+    for (int i = 0; i < 1000; i++) {
+      bucket1.accumulate(i);
+      bucket2.accumulate(i + 500);
+    }
+    bucket1.accumulate(null);
+
+    DistinctBucketNodeCombiner combiner = new DistinctBucketNodeCombiner();
+    Set<Integer> set = new HashSet<Integer>();
+    set.add(1);
+    set.add(2000);
+    combiner.accumulate(set);
+    combiner.accumulate(bucket1.terminate());
+    combiner.accumulate(bucket2.terminate());
+
+    CountDistinctPRQueryNode cdpr = new CountDistinctPRQueryNode();
+    Set<Integer> set2 = new HashSet<Integer>();
+    set2.add(2001);
+    cdpr.accumulate(set2);
+    cdpr.accumulate(combiner.terminate());
+    assertEquals(1502, ((Number) cdpr.terminate()).intValue(), 1502 * 0.05);
+  }
+
+  @Test
+  public void testDistinctBucketNodeCombiner() throws Exception {
+    DistinctBucketNodeCombiner combiner = new DistinctBucketNodeCombiner();
+    Set<Integer> set1 = new HashSet<Integer>();
+    set1.add(1);
+    set1.add(2);
+    Set<Integer> set2 = new HashSet<Integer>();
+    set2.add(2);
+    set2.add(3);
+    combiner.accumulate(set1);
+    combiner.accumulate(set2);
+
+    Set<Integer> expected = new HashSet<Integer>();
+    expected.add(1);
+    expected.add(2);
+    expected.add(3);
+    assertEquals(expected, combiner.terminate());
+  }
+
   @Test
   public void testSum() throws Exception {
     Sum sum = new Sum();
@@ -145,6 +190,30 @@ public class AggregatorJUnitTest {
     assertEquals(expected, ((Number) apqn.terminate()).floatValue(), 0);
   }
 
+  @Test
+  public void testAvgBucketNodeCombiner() throws Exception {
+    AvgBucketNode bucket1 = new AvgBucketNode();
+    bucket1.accumulate(1);
+    bucket1.accumulate(2);
+    AvgBucketNode bucket2 = new AvgBucketNode();
+    bucket2.accumulate(3);
+    bucket2.accumulate(null);
+    AvgBucketNode bucket3 = new AvgBucketNode();
+    bucket3.accumulate(6);
+
+    AvgBucketNodeCombiner combiner = new AvgBucketNodeCombiner();
+    combiner.accumulate(bucket1.terminate());
+    combiner.accumulate(bucket2.terminate());
+    Object[] combined = (Object[]) combiner.terminate();
+    assertEquals(3, ((Number) combined[0]).intValue());
+    assertEquals(6, ((Number) combined[1]).intValue());
+
+    AvgPRQueryNode apqn = new AvgPRQueryNode();
+    apqn.accumulate(combined);
+    apqn.accumulate(bucket3.terminate());
+    assertEquals(3, ((Number) apqn.terminate()).intValue());
+  }
+
   @Test
   public void testAvgDistinct() throws Exception {
     AvgDistinct avg = new AvgDistinct();
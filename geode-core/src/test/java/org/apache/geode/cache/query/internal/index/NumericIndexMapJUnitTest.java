@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class NumericIndexMapJUnitTest {
+
+  private final NumericIndexMap map = new NumericIndexMap();
+
+  private final SkipListIndexMap expected = new SkipListIndexMap();
+
+  @Test
+  public void randomIntegerOperationsMatchSkipList() {
+    randomOperations(i -> i, 5000);
+
+    assertThat(map.usesFallback()).isFalse();
+  }
+
+  @Test
+  public void randomDoubleOperationsMatchSkipList() {
+    randomOperations(i -> i % 7 == 0 ? -0.0 : (i - 500) / 3.0, 5000);
+
+    assertThat(map.usesFallback()).isFalse();
+  }
+
+  @Test
+  public void randomTimestampOperationsMatchSkipList() {
+    randomOperations(i -> new Timestamp(1500000000000L + i * 1000L), 5000);
+
+    assertThat(map.usesFallback()).isFalse();
+  }
+
+  @Test
+  public void nullAndUndefinedKeysAreKeptApartFromPages() {
+    put(IndexManager.NULL, "null");
+    put(QueryService.UNDEFINED, "undefined");
+    for (int i = 0; i < 10; i++) {
+      put(i, "v" + i);
+    }
+
+    // the comparator does not order NULL and UNDEFINED consistently, so the skip list is not
+    // iterated in descending order here
+    assertThat(map.size()).isEqualTo(12);
+    assertThat(map.get(IndexManager.NULL)).isEqualTo("null");
+    assertThat(entries(map.entryIterator(IndexManager.NULL, true, IndexManager.NULL, true, false)))
+        .extracting(Map.Entry::getValue).containsExactly("null");
+    assertThat(entries(map.entryIterator(null, false, null, false, false)))
+        .extracting(Map.Entry::getValue).startsWith("null", "undefined", "v0").endsWith("v9");
+    assertThat(entries(map.entryIterator(null, false, null, false, true)))
+        .extracting(Map.Entry::getValue).startsWith("v9").endsWith("v0", "undefined", "null");
+    assertThat(entries(map.entryIterator(3, true, null, false, false))).hasSize(7);
+  }
+
+  @Test
+  public void keysOfAnotherTypeMoveMappingsToSkipList() {
+    for (int i = 0; i < 1000; i++) {
+      put(i, "v" + i);
+    }
+    put(IndexManager.NULL, "null");
+
+    put(1000L, "long");
+
+    assertThat(map.usesFallback()).isTrue();
+    assertMatches();
+    assertThat(map.get(500L)).isEqualTo("v500");
+  }
+
+  @Test
+  public void timestampsWithNanosMoveMappingsToSkipList() {
+    Timestamp timestamp = new Timestamp(1500000000000L);
+    timestamp.setNanos(1);
+
+    put(new Timestamp(1400000000000L), "millis");
+    put(timestamp, "nanos");
+
+    assertThat(map.usesFallback()).isTrue();
+    assertMatches();
+  }
+
+  @Test
+  public void probesOfOtherNumericTypesFindKeys() {
+    for (int i = 0; i < 1000; i++) {
+      put(i, "v" + i);
+    }
+
+    assertThat(map.get(500L)).isEqualTo("v500");
+    assertThat(map.get(500.0)).isEqualTo("v500");
+    assertThat(entries(map.entryIterator(10.5, true, 20L, false, false))).hasSize(9);
+    assertThat(entries(map.entryIterator(10.5, true, 20L, true, true)))
+        .extracting(Map.Entry::getKey).startsWith(20, 19).endsWith(11);
+  }
+
+  @Test
+  public void clearRemovesAllMappings() {
+    for (int i = 0; i < 1000; i++) {
+      put(i, "v" + i);
+    }
+    put(1000L, "long");
+
+    map.clear();
+    expected.clear();
+    put(1.5, "double");
+
+    assertThat(map.usesFallback()).isFalse();
+    assertMatches();
+  }
+
+  private void randomOperations(IntFunction<Object> keys, int operations) {
+    Random random = new Random(7);
+    for (int i = 0; i < operations; i++) {
+      Object key = keys.apply(random.nextInt(2000));
+      String value = "v" + random.nextInt(3);
+      switch (random.nextInt(6)) {
+        case 0:
+          assertThat(map.putIfAbsent(key, value)).isEqualTo(expected.putIfAbsent(key, value));
+          break;
+        case 1:
+          assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+          break;
+        case 2:
+          assertThat(map.remove(key, value)).isEqualTo(expected.remove(key, value));
+          break;
+        case 3:
+          String newValue = "v" + random.nextInt(3);
+          assertThat(map.replace(key, value, newValue))
+              .isEqualTo(expected.replace(key, value, newValue));
+          break;
+        default:
+          assertThat(map.putIfAbsent(key, value)).isEqualTo(expected.putIfAbsent(key, value));
+          assertThat(map.get(key)).isEqualTo(expected.get(key));
+      }
+    }
+    assertMatches();
+    for (int i = 0; i < 100; i++) {
+      Object start = keys.apply(random.nextInt(2000));
+      Object end = keys.apply(random.nextInt(2000));
+      if (expected.comparator().compare(start, end) > 0) {
+        Object swap = start;
+        start = end;
+        end = swap;
+      }
+      boolean startInclusive = random.nextBoolean();
+      boolean endInclusive = random.nextBoolean();
+      boolean descending = random.nextBoolean();
+      assertThat(
+          entries(map.entryIterator(start, startInclusive, end, endInclusive, descending)))
+              .isEqualTo(entries(
+                  expected.entryIterator(start, startInclusive, end, endInclusive, descending)));
+      assertThat(entries(map.entryIterator(null, false, end, endInclusive, descending))).isEqualTo(
+          entries(expected.entryIterator(null, false, end, endInclusive, descending)));
+      assertThat(entries(map.entryIterator(start, startInclusive, null, false, descending)))
+          .isEqualTo(
+              entries(expected.entryIterator(start, startInclusive, null, false, descending)));
+    }
+  }
+
+  private void put(Object key, Object value) {
+    map.put(key, value);
+    expected.put(key, value);
+  }
+
+  private void assertMatches() {
+    assertThat(map.size()).isEqualTo(expected.size());
+    assertThat(entries(map.entrySet().iterator()))
+        .isEqualTo(entries(expected.entrySet().iterator()));
+    assertThat(entries(map.entryIterator(null, false, null, false, true)))
+        .isEqualTo(entries(expected.entryIterator(null, false, null, false, true)));
+  }
+
+  private static List<Map.Entry<Object, Object>> entries(
+      Iterator<Map.Entry<Object, Object>> iterator) {
+    List<Map.Entry<Object, Object>> entries = new ArrayList<>();
+    while (iterator.hasNext()) {
+      Map.Entry<Object, Object> entry = iterator.next();
+      entries.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+    }
+    return entries;
+  }
+}
@@ -14,9 +14,12 @@
  */
 package org.apache.geode.cache.query.partitioned;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -138,6 +141,48 @@ public class PRQueryNumThreadsJUnitTest {
     }
   }
 
+  @Test
+  public void testQueriesOnSplitBucketsReturnTheResultsOfSequentialQueries() throws Exception {
+    Region region = PartitionedRegionTestHelper.createPartitionedRegion(regionName, "100", 0);
+    PortfolioData[] portfolios = new PortfolioData[1000];
+    for (int j = 0; j < portfolios.length; j++) {
+      portfolios[j] = new PortfolioData(j);
+    }
+    String path = "/" + region.getName();
+    String[] queryStrings = new String[] {"select * from " + path + " p where p.ID < 500",
+        "select count(*) from " + path, "select count(*) from " + path + " p where p.ID >= 100",
+        "select distinct p.status from " + path + " p order by p.status",
+        "select p.ID from " + path + " p where p.ID > 10 order by p.ID desc limit 20",
+        "select p.status, count(*), sum(p.ID) from " + path + " p group by p.status"};
+    try {
+      populateData(region, portfolios);
+      List<List> expected = new ArrayList<>();
+      for (String queryString : queryStrings) {
+        expected.add(execute(region, queryString));
+      }
+
+      PRQueryProcessor.TEST_NUM_THREADS = 10;
+      // split each bucket of about 9 entries in two
+      PRQueryProcessor.TEST_BUCKET_SPLIT_SIZE = 5;
+      for (int i = 0; i < queryStrings.length; i++) {
+        assertEquals(queryStrings[i], expected.get(i), execute(region, queryStrings[i]));
+      }
+    } finally {
+      PRQueryProcessor.TEST_NUM_THREADS = 0;
+      PRQueryProcessor.TEST_BUCKET_SPLIT_SIZE = 0;
+      region.close();
+    }
+  }
+
+  private List execute(Region region, String queryString) throws Exception {
+    Query query = region.getCache().getQueryService().newQuery(queryString);
+    List results = ((SelectResults) query.execute()).asList();
+    if (!queryString.contains("order by")) {
+      results.sort((result1, result2) -> result1.toString().compareTo(result2.toString()));
+    }
+    return results;
+  }
+
   /**
    * Populates the region with the Objects stores in the data Object array.
    *
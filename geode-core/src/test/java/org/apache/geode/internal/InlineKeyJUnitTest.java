@@ -22,6 +22,8 @@ import static org.junit.Assert.assertTrue;
 import java.util.Properties;
 import java.util.UUID;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -30,6 +32,7 @@ import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.internal.cache.*;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapAsciiStringKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapIntKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapLongKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapObjectKey;
@@ -40,6 +43,18 @@ import org.apache.geode.test.junit.categories.IntegrationTest;
 
 @Category(IntegrationTest.class)
 public class InlineKeyJUnitTest {
+  private boolean inlineAsciiStringKeys;
+
+  @Before
+  public void setUp() {
+    inlineAsciiStringKeys = InlineKeyHelper.INLINE_ASCII_STRING_KEYS;
+  }
+
+  @After
+  public void tearDown() {
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = inlineAsciiStringKeys;
+  }
+
   private GemFireCacheImpl createCache() {
     Properties props = new Properties();
     props.setProperty(LOCATORS, "");
@@ -54,6 +69,7 @@ public class InlineKeyJUnitTest {
 
   @Test
   public void testInlineKeys() {
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = true;
     GemFireCacheImpl gfc = createCache();
     try {
       Region r = gfc.createRegionFactory(RegionShortcut.LOCAL).setConcurrencyChecksEnabled(false)
@@ -95,7 +111,16 @@ public class InlineKeyJUnitTest {
             lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapStringKey2);
       }
 
-      key = getAsciiString(16);
+      for (int i = 16; i <= InlineKeyHelper.MAX_INLINE_ASCII_STRING_KEY; i++) {
+        key = getAsciiString(i);
+        r.create(key, null);
+        assertEquals(true, r.containsKey(key));
+        assertTrue("expected ascii string entry but was " + lr.getRegionEntry(key).getClass(),
+            lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapAsciiStringKey);
+        assertEquals(key, lr.getRegionEntry(key).getKey());
+      }
+
+      key = getAsciiString(InlineKeyHelper.MAX_INLINE_ASCII_STRING_KEY + 1);
       r.create(key, null);
       assertEquals(true, r.containsKey(key));
       assertTrue("expected object entry but was " + lr.getRegionEntry(key).getClass(),
@@ -127,6 +152,24 @@ public class InlineKeyJUnitTest {
     }
   }
 
+  @Test
+  public void testAsciiStringKeysAreNotInlinedByDefault() {
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = false;
+    GemFireCacheImpl gfc = createCache();
+    try {
+      Region r = gfc.createRegionFactory(RegionShortcut.LOCAL).setConcurrencyChecksEnabled(false)
+          .create("inlineKeyRegion");
+      LocalRegion lr = (LocalRegion) r;
+      Object key = getAsciiString(16);
+      r.create(key, null);
+      assertEquals(true, r.containsKey(key));
+      assertTrue("expected object entry but was " + lr.getRegionEntry(key).getClass(),
+          lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapObjectKey);
+    } finally {
+      closeCache(gfc);
+    }
+  }
+
   private static String getAsciiString(int len) {
     StringBuilder sb = new StringBuilder();
     char asciiChar = 'a';
@@ -180,5 +223,43 @@ public class InlineKeyJUnitTest {
     re2 = new VMThinRegionEntryHeapObjectKey(null, "123456789012345", null);
     // System.out.println("VMThinRegionEntryObjectKey=" + getMemSize(re2));
     assertTrue(getMemSize(re) < getMemSize(re2));
+
+    // an inline ascii key saves the String header and one byte per char, which is what makes
+    // creating a String on every getKey() worth it for regions with many such keys
+    re = new VMThinRegionEntryHeapAsciiStringKey(null, getAsciiString(40), null);
+    re2 = new VMThinRegionEntryHeapObjectKey(null, getAsciiString(40), null);
+    assertTrue(getMemSize(re2) - getMemSize(re) >= 40 + 16);
+  }
+
+  @Test
+  public void testInlineKeyBytesSaved() {
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = true;
+    GemFireCacheImpl gfc = createCache();
+    try {
+      LocalRegion inlined = (LocalRegion) gfc.createRegionFactory(RegionShortcut.LOCAL)
+          .setConcurrencyChecksEnabled(false).create("inlinedKeys");
+      LocalRegion notInlined = (LocalRegion) gfc.createRegionFactory(RegionShortcut.LOCAL)
+          .setConcurrencyChecksEnabled(false).create("notInlinedKeys");
+      assertEquals(0, inlined.getRegionMap().estimateInlineKeyBytesSaved());
+      for (int i = 0; i < 100; i++) {
+        inlined.put(i, "value");
+        inlined.put(getAsciiString(20) + i, "value");
+        notInlined.put(getNonAsciiString(20) + i, "value");
+      }
+
+      long saved = inlined.getRegionMap().estimateInlineKeyBytesSaved();
+      long intKeySaved = getMemSize(new VMThinRegionEntryHeapObjectKey(null, 1, null))
+          - getMemSize(new VMThinRegionEntryHeapIntKey(null, 1, null));
+      long asciiKeySaved =
+          getMemSize(new VMThinRegionEntryHeapObjectKey(null, getAsciiString(22), null))
+              - getMemSize(new VMThinRegionEntryHeapAsciiStringKey(null, getAsciiString(22), null));
+      assertTrue("expected each entry to save bytes but saved " + saved,
+          saved >= 100 * (intKeySaved + asciiKeySaved) - 100 * 8);
+      assertEquals(0, notInlined.getRegionMap().estimateInlineKeyBytesSaved());
+
+      assertEquals(saved, inlined.estimateInlineKeyBytesSaved());
+    } finally {
+      closeCache(gfc);
+    }
   }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.EntryNotFoundException;
+import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class AsyncRegionImplTest {
+
+  private final LocalRegion region = mock(LocalRegion.class);
+
+  private final AsyncRegionImpl<String, String> asyncRegion = new AsyncRegionImpl<>(region);
+
+  @After
+  public void unsetDistributedSystem() {
+    EventID.unsetDS();
+  }
+
+  @Test
+  public void getOfRegionWithoutPoolCompletesOnCallingThread() throws Exception {
+    when(region.get("key")).thenReturn("value");
+
+    CompletableFuture<String> future = asyncRegion.getAsync("key");
+
+    assertThat(future).isDone();
+    assertThat(future.get()).isEqualTo("value");
+  }
+
+  @Test
+  public void failedOperationCompletesFutureExceptionally() {
+    EntryNotFoundException exception = new EntryNotFoundException("key");
+    when(region.get("key")).thenThrow(exception);
+
+    Throwable thrown = catchThrowable(() -> asyncRegion.getAsync("key").get());
+
+    assertThat(thrown).isInstanceOf(ExecutionException.class).hasCause(exception);
+  }
+
+  @Test
+  public void putOfRegionWithoutPoolPutsOnCallingThread() {
+    CompletableFuture<Void> future = asyncRegion.putAsync("key", "value");
+
+    assertThat(future).isDone();
+    verify(region).put("key", "value");
+  }
+
+  @Test
+  public void eventIdsOfDifferentSourcesHaveDifferentThreadIds() {
+    EventID.ThreadAndSequenceIDWrapper ids1 = new EventID.ThreadAndSequenceIDWrapper();
+    EventID.ThreadAndSequenceIDWrapper ids2 = new EventID.ThreadAndSequenceIDWrapper();
+    DistributedSystem system = mock(DistributedSystem.class);
+    when(system.getDistributedMember()).thenReturn(new InternalDistributedMember("localhost", 1));
+
+    EventID first = new EventID(system, ids1);
+    EventID second = new EventID(system, ids1);
+    EventID other = new EventID(system, ids2);
+
+    assertThat(second.getThreadID()).isEqualTo(first.getThreadID());
+    assertThat(second.getSequenceID()).isEqualTo(first.getSequenceID() + 1);
+    assertThat(other.getThreadID()).isNotEqualTo(first.getThreadID());
+  }
+}
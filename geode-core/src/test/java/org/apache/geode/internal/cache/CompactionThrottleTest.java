@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompactionThrottleTest {
+
+  private DiskStoreStats stats;
+
+  @Before
+  public void setup() {
+    stats = mock(DiskStoreStats.class);
+  }
+
+  @Test
+  public void pauseNanosMakesUpTheRemainingBudget() {
+    long second = TimeUnit.SECONDS.toNanos(1);
+
+    assertThat(CompactionThrottle.getPauseNanos(1000, 0, 1000)).isEqualTo(second);
+    assertThat(CompactionThrottle.getPauseNanos(1000, second / 4, 1000))
+        .isEqualTo(second * 3 / 4);
+    assertThat(CompactionThrottle.getPauseNanos(1000, second * 2, 1000)).isEqualTo(0);
+    assertThat(CompactionThrottle.getPauseNanos(0, 0, 1000)).isEqualTo(0);
+  }
+
+  @Test
+  public void chunkIsFullAfterChunkSizeEntries() {
+    CompactionThrottle throttle = new CompactionThrottle(Long.MAX_VALUE, 3, stats);
+
+    throttle.entryCompacted(10);
+    throttle.entryCompacted(10);
+    assertThat(throttle.isChunkFull()).isFalse();
+    throttle.entryCompacted(10);
+    assertThat(throttle.isChunkFull()).isTrue();
+
+    assertThat(throttle.pause(() -> true)).isTrue();
+    assertThat(throttle.isChunkFull()).isFalse();
+  }
+
+  @Test
+  public void pauseWaitsForTheRateAndRecordsIt() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 1, stats);
+    throttle.entryCompacted(50);
+
+    long start = System.nanoTime();
+    assertThat(throttle.pause(() -> true)).isTrue();
+
+    assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(40));
+    verify(stats).incCompactThrottleTime(anyLong());
+  }
+
+  @Test
+  public void pauseReturnsFalseOnceCompactorIsStopped() {
+    CompactionThrottle throttle = new CompactionThrottle(1, 1, stats);
+    throttle.entryCompacted(1024 * 1024);
+
+    long start = System.nanoTime();
+    assertThat(throttle.pause(() -> false)).isFalse();
+
+    assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(10));
+    assertThat(throttle.isChunkFull()).isFalse();
+  }
+}
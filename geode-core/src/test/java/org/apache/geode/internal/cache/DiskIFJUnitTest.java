@@ -281,6 +281,50 @@ public class DiskIFJUnitTest extends DiskRegionTestingBase {
     assertTrue(dr.getOfflineAndEqualMembers().isEmpty());
   }
 
+  /**
+   * Make sure the init file compacts its dead records once the percentage of live records drops
+   * to the configured threshold.
+   */
+  @Test
+  public void testInitFileCompactThreshold() throws Exception {
+    diskProps.setPersistBackup(true);
+    diskProps.setRegionName("testInitFileCompactThreshold");
+    diskProps.setDiskDirs(dirs);
+    PersistentMemberID memberId = createNewPMID();
+    // a threshold of 0 keeps the init file from being compacted
+    System.setProperty(DiskInitFile.COMPACT_THRESHOLD_PROPERTY_NAME, "0");
+    LocalRegion lr;
+    try {
+      lr = (LocalRegion) DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, diskProps,
+          Scope.LOCAL);
+    } finally {
+      System.clearProperty(DiskInitFile.COMPACT_THRESHOLD_PROPERTY_NAME);
+    }
+    DiskRegion dr = lr.getDiskRegion();
+    for (int i = 0; i < 500; i++) {
+      dr.memberOnline(memberId);
+      dr.memberOffline(memberId);
+    }
+    assertTrue(dr.getDiskStore().getDiskInitFile().getTotalRecordCount() > 1000);
+    close(lr);
+
+    // the default threshold compacts the dead records as soon as the file is written to
+    lr = (LocalRegion) DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, diskProps,
+        Scope.LOCAL);
+    dr = lr.getDiskRegion();
+    int totalRecordCount = dr.getDiskStore().getDiskInitFile().getTotalRecordCount();
+    assertTrue("expected " + totalRecordCount + " to be less than 100", totalRecordCount < 100);
+    assertTrue(dr.getOnlineMembers().isEmpty());
+    assertEquals(Collections.singleton(memberId), dr.getOfflineMembers());
+    close(lr);
+
+    lr = (LocalRegion) DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, diskProps,
+        Scope.LOCAL);
+    dr = lr.getDiskRegion();
+    assertTrue(dr.getOnlineMembers().isEmpty());
+    assertEquals(Collections.singleton(memberId), dr.getOfflineMembers());
+  }
+
   @Test
   public void testAboutToDestroy() throws Exception {
     diskProps.setPersistBackup(true);
@@ -1208,6 +1208,53 @@ public class DiskRegRecoveryJUnitTest extends DiskRegionTestingBase {
     region.close();
   }
 
+  @Test
+  public void testRecoveryWithMultipleRecoveryThreads() throws Exception {
+    String oldValue = System.getProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME);
+    System.setProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, "4");
+    try {
+      diskProps.setDiskDirs(dirs);
+      diskProps.setPersistBackup(true);
+      diskProps.setSynchronous(true);
+      diskProps.setRolling(false);
+      diskProps.setRegionName("testRecoveryWithMultipleRecoveryThreads");
+      region = DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, diskProps, Scope.LOCAL);
+      DiskStore store = cache.findDiskStore(region.getAttributes().getDiskStoreName());
+
+      // spread the creates and destroys over several oplogs so that the drf of a newer oplog
+      // holds destroys of entries created in older ones
+      for (int oplog = 0; oplog < 8; oplog++) {
+        for (int i = 0; i < 10; i++) {
+          region.put(oplog * 10 + i, "value" + (oplog * 10 + i));
+        }
+        if (oplog > 0) {
+          region.destroy((oplog - 1) * 10);
+        }
+        store.forceRoll();
+      }
+
+      // Force a recovery
+      GemFireCacheImpl.getInstance().close();
+      cache = createCache();
+      region = DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, diskProps, Scope.LOCAL);
+
+      assertEquals(73, region.size());
+      for (int key = 0; key < 80; key++) {
+        if (key % 10 == 0 && key < 70) {
+          assertFalse(region.containsKey(key));
+        } else {
+          assertEquals("value" + key, region.get(key));
+        }
+      }
+    } finally {
+      if (oldValue != null) {
+        System.setProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME, oldValue);
+      } else {
+        System.clearProperty(DiskStoreImpl.RECOVERY_THREADS_PROPERTY_NAME);
+      }
+    }
+  }
+
   @Test
   public void testRecoverValuesFalse() {
     String oldValue = System.getProperty(DiskStoreImpl.RECOVER_VALUE_PROPERTY_NAME);
@@ -2724,6 +2724,47 @@ public class DiskRegionJUnitTest extends DiskRegionTestingBase {
         stats.getDiskTasksWaiting() >= 0);
   }
 
+  /**
+   * Confirm that a compaction limited to a rate still compacts every live entry forward
+   */
+  @Test
+  public void testThrottledCompaction() throws Exception {
+    System.setProperty(DiskStoreImpl.COMPACTION_MAX_MB_PER_SEC_PROPERTY_NAME, "1");
+    System.setProperty(DiskStoreImpl.COMPACTION_CHUNK_SIZE_PROPERTY_NAME, "10");
+    try {
+      DiskRegionProperties props = new DiskRegionProperties();
+      props.setRegionName("testThrottledCompaction");
+      props.setRolling(false);
+      props.setDiskDirs(dirs);
+      props.setAllowForceCompaction(true);
+      props.setPersistBackup(true);
+      props.setCompactionThreshold(90);
+      region = DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, props, Scope.LOCAL);
+      DiskRegion dr = ((LocalRegion) region).getDiskRegion();
+      byte[] value = new byte[1024];
+      for (int i = 0; i < 100; i++) {
+        region.put(i, value);
+      }
+      for (int i = 0; i < 100; i += 2) {
+        region.remove(i);
+      }
+      Oplog oplog = dr.testHook_getChild();
+      boolean compacted = ((LocalRegion) region).getDiskStore().forceCompaction();
+      assertEquals(true, compacted);
+      assertEquals(true, oplog.testConfirmCompacted());
+      DiskStoreStats stats = dr.getDiskStore().getStats();
+      // the tombstones left by the removes are copied forward too
+      assertEquals(100, stats.getCompactUpdates());
+      assertTrue(stats.getCompactThrottleTime() > 0);
+      for (int i = 1; i < 100; i += 2) {
+        assertEquals(value.length, ((byte[]) region.get(i)).length);
+      }
+    } finally {
+      System.clearProperty(DiskStoreImpl.COMPACTION_MAX_MB_PER_SEC_PROPERTY_NAME);
+      System.clearProperty(DiskStoreImpl.COMPACTION_CHUNK_SIZE_PROPERTY_NAME);
+    }
+  }
+
   @Test
   public void testBug40876() throws Exception {
     DiskRegionProperties props = new DiskRegionProperties();
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.DiskAccessException;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class GroupCommitterTest {
+
+  private final Object oplogLock = new Object();
+  private final AtomicInteger flushes = new AtomicInteger();
+  private final AtomicLong durableTicket = new AtomicLong();
+
+  private DiskStoreStats stats;
+  private GroupCommitter groupCommitter;
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    stats = mock(DiskStoreStats.class);
+    executor = Executors.newFixedThreadPool(16);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void commitFlushesOwnTicket() {
+    groupCommitter = new GroupCommitter(this::flush, 0, stats);
+
+    groupCommitter.commit(takeTicket());
+
+    assertThat(durableTicket.get()).isEqualTo(1);
+    assertThat(flushes.get()).isEqualTo(1);
+    verify(stats, times(1)).endGroupCommit(1);
+  }
+
+  @Test
+  public void commitOfAlreadyFlushedTicketDoesNotFlush() {
+    groupCommitter = new GroupCommitter(this::flush, 0, stats);
+    long first = takeTicket();
+    long second = takeTicket();
+
+    groupCommitter.commit(second);
+    groupCommitter.commit(first);
+
+    assertThat(flushes.get()).isEqualTo(1);
+    verify(stats, times(1)).endGroupCommit(2);
+  }
+
+  @Test
+  public void concurrentWritersShareFlushes() throws Exception {
+    groupCommitter =
+        new GroupCommitter(this::flush, TimeUnit.MILLISECONDS.toNanos(5), stats);
+    final int writers = 16;
+    final int writesPerWriter = 50;
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < writers; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < writesPerWriter; j++) {
+          long ticket = takeTicket();
+          groupCommitter.commit(ticket);
+          assertThat(durableTicket.get()).isGreaterThanOrEqualTo(ticket);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get(1, TimeUnit.MINUTES);
+    }
+
+    assertThat(durableTicket.get()).isEqualTo(writers * writesPerWriter);
+    assertThat(flushes.get()).isLessThan(writers * writesPerWriter);
+  }
+
+  @Test
+  public void failedFlushIsRetriedByNextWriter() {
+    AtomicInteger attempts = new AtomicInteger();
+    groupCommitter = new GroupCommitter(() -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new DiskAccessException("flush failed");
+      }
+      return flush();
+    }, 0, stats);
+    long ticket = takeTicket();
+
+    assertThatThrownBy(() -> groupCommitter.commit(ticket))
+        .isInstanceOf(DiskAccessException.class);
+    groupCommitter.commit(ticket);
+
+    assertThat(durableTicket.get()).isEqualTo(ticket);
+  }
+
+  private long takeTicket() {
+    synchronized (oplogLock) {
+      return groupCommitter.nextTicket();
+    }
+  }
+
+  private long flush() {
+    synchronized (oplogLock) {
+      long lastTicket = groupCommitter.getLastTicket();
+      flushes.incrementAndGet();
+      durableTicket.set(lastTicket);
+      return lastTicket;
+    }
+  }
+}
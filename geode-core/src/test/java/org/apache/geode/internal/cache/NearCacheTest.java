@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.statistics.DummyStatisticsFactory;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class NearCacheTest {
+
+  private final NearCache nearCache = new NearCache(new DummyStatisticsFactory(), "/region");
+
+  @Test
+  public void isFetchingUntilEveryFetchOfKeyHasEnded() {
+    nearCache.startFetch("key");
+    nearCache.startFetch(Arrays.asList("key", "other"));
+
+    nearCache.endFetch("key");
+    assertThat(nearCache.isFetching("key")).isTrue();
+
+    nearCache.endFetch(Arrays.asList("key", "other"));
+    assertThat(nearCache.isFetching("key")).isFalse();
+    assertThat(nearCache.isFetching("other")).isFalse();
+  }
+
+  @Test
+  public void endFetchOfKeyNotBeingFetchedIsIgnored() {
+    nearCache.endFetch("key");
+    nearCache.startFetch("key");
+
+    assertThat(nearCache.isFetching("key")).isTrue();
+  }
+
+  @Test
+  public void statsCountHitsAndMisses() {
+    nearCache.getStats().incHits(3);
+    nearCache.getStats().incMisses(1);
+
+    assertThat(nearCache.getStats().getHits()).isEqualTo(3);
+    assertThat(nearCache.getStats().getMisses()).isEqualTo(1);
+  }
+}
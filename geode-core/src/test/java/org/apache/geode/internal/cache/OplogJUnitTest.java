@@ -1806,6 +1806,87 @@ public class OplogJUnitTest extends DiskRegionTestingBase {
     assertEquals(oplogTypes.length, verified.size());
   }
 
+  @Test
+  public void testFaultInFromMappedInactiveCrf() throws Exception {
+    String oldValue = System.getProperty(DiskStoreImpl.MAP_INACTIVE_CRFS_PROPERTY_NAME);
+    System.setProperty(DiskStoreImpl.MAP_INACTIVE_CRFS_PROPERTY_NAME, "true");
+    try {
+      diskProps.setPersistBackup(true);
+      diskProps.setRolling(false);
+      diskProps.setSynchronous(true);
+      diskProps.setOverflow(true);
+      diskProps.setOverFlowCapacity(1);
+      region = DiskRegionHelperFactory.getSyncOverFlowAndPersistRegion(cache, diskProps);
+      DiskRegion dr = ((LocalRegion) region).getDiskRegion();
+      for (int i = 0; i < 10; i++) {
+        region.put("key" + i, "value" + i);
+      }
+      dr.forceRolling();
+      DiskStoreStats stats = dr.getDiskStore().getStats();
+      long mappedReadsBefore = stats.getOplogMappedReads();
+
+      // all but the last value were evicted and live in the crf that is now inactive
+      for (int i = 0; i < 9; i++) {
+        assertEquals("value" + i, region.get("key" + i));
+      }
+      assertTrue(stats.getOplogMappedReads() > mappedReadsBefore);
+    } finally {
+      if (oldValue != null) {
+        System.setProperty(DiskStoreImpl.MAP_INACTIVE_CRFS_PROPERTY_NAME, oldValue);
+      } else {
+        System.clearProperty(DiskStoreImpl.MAP_INACTIVE_CRFS_PROPERTY_NAME);
+      }
+    }
+  }
+
+  @Test
+  public void testGroupCommitOfConcurrentSyncWrites() throws Exception {
+    String oldValue = System.getProperty(DiskStoreImpl.GROUP_COMMIT_WINDOW_MICROS_PROPERTY_NAME);
+    System.setProperty(DiskStoreImpl.GROUP_COMMIT_WINDOW_MICROS_PROPERTY_NAME, "100");
+    try {
+      diskProps.setPersistBackup(true);
+      diskProps.setRolling(false);
+      diskProps.setSynchronous(true);
+      diskProps.setOverflow(false);
+      region = DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, diskProps, Scope.LOCAL);
+      DiskStoreStats stats = ((LocalRegion) region).getDiskRegion().getDiskStore().getStats();
+
+      final int threads = 8;
+      final int putsPerThread = 100;
+      Thread[] writers = new Thread[threads];
+      for (int t = 0; t < threads; t++) {
+        final int thread = t;
+        writers[t] = new Thread(() -> {
+          for (int i = 0; i < putsPerThread; i++) {
+            region.put(thread + "-" + i, i);
+          }
+        });
+        writers[t].start();
+      }
+      for (Thread writer : writers) {
+        ThreadUtils.join(writer, 60 * 1000);
+      }
+      assertEquals(threads * putsPerThread, stats.getGroupCommitWrites());
+      assertTrue(stats.getGroupCommits() > 0);
+      assertTrue(stats.getGroupCommits() <= stats.getGroupCommitWrites());
+
+      region.close();
+      region = DiskRegionHelperFactory.getSyncPersistOnlyRegion(cache, diskProps, Scope.LOCAL);
+      assertEquals(threads * putsPerThread, region.size());
+      for (int t = 0; t < threads; t++) {
+        for (int i = 0; i < putsPerThread; i++) {
+          assertEquals(i, region.get(t + "-" + i));
+        }
+      }
+    } finally {
+      if (oldValue != null) {
+        System.setProperty(DiskStoreImpl.GROUP_COMMIT_WINDOW_MICROS_PROPERTY_NAME, oldValue);
+      } else {
+        System.clearProperty(DiskStoreImpl.GROUP_COMMIT_WINDOW_MICROS_PROPERTY_NAME);
+      }
+    }
+  }
+
   /**
    * Tests if without rolling the region size before close is same as after recreation
    */
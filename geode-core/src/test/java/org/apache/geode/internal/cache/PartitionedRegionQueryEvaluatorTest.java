@@ -21,6 +21,7 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -39,6 +40,7 @@ import org.apache.geode.cache.CacheException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledSortCriterion;
 import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.LinkedResultSet;
@@ -47,6 +49,7 @@ import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.partitioned.RegionAdvisor;
+import org.apache.geode.internal.cache.partitioned.StreamingFlowControl;
 import org.apache.geode.test.fake.Fakes;
 import org.apache.geode.test.junit.categories.UnitTest;
 
@@ -205,6 +208,229 @@ public class PartitionedRegionQueryEvaluatorTest {
     assertTrue(results.isEmpty());
   }
 
+  @Test
+  public void testRemoteAndLocalResultsAreStreamedToReceiver() throws Exception {
+    List resultsForMember1 = createResultObjects("1", "2", "3");
+    List resultsForMember2 = createResultObjects("4", "5", "6");
+    when(query.isRemoteQuery()).thenReturn(true);
+
+    PartitionedQueryScenario scenario = new PartitionedQueryScenario(localNode, allNodes,
+        noFailingMembers, createFakeBucketMap(), new ProcessDataFaker() {
+          public void processData(PartitionedRegionQueryEvaluator prqe) {
+            assertTrue(prqe.processData(resultsForMember2, remoteNodeA, 0, true));
+          }
+
+          public void executeQueryLocally(Collection resultsCollector) {
+            resultsCollector.add(resultsForMember1);
+          }
+        });
+
+    Set allBucketsToQuery = scenario.getAllBucketsToQuery();
+    Queue<PartitionedQueryScenario> scenarios = createScenariosQueue(scenario);
+    dataStore.setScenarios(scenarios);
+
+    PartitionedRegionQueryEvaluator prqe = new ExtendedPartitionedRegionQueryEvaluator(system, pr,
+        query, null, new LinkedResultSet(), allBucketsToQuery, scenarios);
+    RecordingReceiver receiver = new RecordingReceiver();
+    assertTrue(prqe.setStreamingResultsReceiver(receiver));
+    SelectResults results = prqe.queryBuckets(null);
+
+    List expectedResults = new LinkedList();
+    expectedResults.addAll(resultsForMember1);
+    expectedResults.addAll(resultsForMember2);
+    assertTrue(results.isEmpty());
+    assertTrue(receiver.started);
+    assertTrue(receiver.ended);
+    assertEquals(2, receiver.chunks);
+    assertEquals(expectedResults, receiver.results);
+  }
+
+  @Test
+  public void testStreamingStopsWhenLimitIsReached() throws Exception {
+    List resultsForMember1 = createResultObjects("1", "2", "3");
+    List resultsForMember2 = createResultObjects("4", "5", "6");
+    when(query.isRemoteQuery()).thenReturn(true);
+    when(query.getLimit(any())).thenReturn(4);
+
+    PartitionedQueryScenario scenario = new PartitionedQueryScenario(localNode, allNodes,
+        noFailingMembers, createFakeBucketMap(), new ProcessDataFaker() {
+          public void processData(PartitionedRegionQueryEvaluator prqe) {
+            assertFalse(prqe.processData(resultsForMember2, remoteNodeA, 0, false));
+          }
+
+          public void executeQueryLocally(Collection resultsCollector) {
+            resultsCollector.add(resultsForMember1);
+          }
+        });
+
+    Set allBucketsToQuery = scenario.getAllBucketsToQuery();
+    Queue<PartitionedQueryScenario> scenarios = createScenariosQueue(scenario);
+    dataStore.setScenarios(scenarios);
+
+    PartitionedRegionQueryEvaluator prqe = new ExtendedPartitionedRegionQueryEvaluator(system, pr,
+        query, null, new LinkedResultSet(), allBucketsToQuery, scenarios);
+    RecordingReceiver receiver = new RecordingReceiver();
+    assertTrue(prqe.setStreamingResultsReceiver(receiver));
+    prqe.queryBuckets(null);
+
+    assertTrue(receiver.ended);
+    assertEquals(createResultObjects("1", "2", "3", "4"), receiver.results);
+    // no more results are wanted once the query is done
+    assertFalse(prqe.processData(createResultObjects("7"), remoteNodeB, 0, true));
+    assertEquals(4, receiver.results.size());
+  }
+
+  @Test
+  public void testPermitsAreGivenForChunksPassedOnToReceiver() throws Exception {
+    when(query.isRemoteQuery()).thenReturn(true);
+
+    PartitionedQueryScenario scenario = new PartitionedQueryScenario(localNode, allNodes,
+        noFailingMembers, createFakeBucketMap(), new ProcessDataFaker() {
+          public void processData(PartitionedRegionQueryEvaluator prqe) {
+            // the second chunk of remoteNodeA comes before its first, with its flow control id
+            assertTrue(prqe.processData(createResultObjects("6"), remoteNodeA, 1, true));
+            assertTrue(prqe.processData(
+                createResultObjects(new StreamingFlowControl.FlowControlId(7), "4", "5"),
+                remoteNodeA, 0, false));
+          }
+
+          public void executeQueryLocally(Collection resultsCollector) {
+            resultsCollector.add(createResultObjects("1", "2", "3"));
+          }
+        });
+
+    Set allBucketsToQuery = scenario.getAllBucketsToQuery();
+    Queue<PartitionedQueryScenario> scenarios = createScenariosQueue(scenario);
+    dataStore.setScenarios(scenarios);
+
+    ExtendedPartitionedRegionQueryEvaluator prqe = new ExtendedPartitionedRegionQueryEvaluator(
+        system, pr, query, null, new LinkedResultSet(), allBucketsToQuery, scenarios);
+    RecordingReceiver receiver = new RecordingReceiver();
+    assertTrue(prqe.setStreamingResultsReceiver(receiver));
+    prqe.queryBuckets(null);
+
+    assertEquals(createResultObjects("1", "2", "3", "6", "4", "5"), receiver.results);
+    assertEquals(Collections.nCopies(2, remoteNodeA + ":7:false"), prqe.permits);
+  }
+
+  @Test
+  public void testMembersAreReleasedWhenLimitIsReached() throws Exception {
+    when(query.isRemoteQuery()).thenReturn(true);
+    when(query.getLimit(any())).thenReturn(2);
+
+    PartitionedQueryScenario scenario = new PartitionedQueryScenario(localNode, allNodes,
+        noFailingMembers, createFakeBucketMap(), new ProcessDataFaker() {
+          public void processData(PartitionedRegionQueryEvaluator prqe) {
+            assertFalse(prqe.processData(
+                createResultObjects(new StreamingFlowControl.FlowControlId(7), "1", "2", "3"),
+                remoteNodeA, 0, false));
+          }
+
+          public void executeQueryLocally(Collection resultsCollector) {}
+        });
+
+    Set allBucketsToQuery = scenario.getAllBucketsToQuery();
+    Queue<PartitionedQueryScenario> scenarios = createScenariosQueue(scenario);
+    dataStore.setScenarios(scenarios);
+
+    ExtendedPartitionedRegionQueryEvaluator prqe = new ExtendedPartitionedRegionQueryEvaluator(
+        system, pr, query, null, new LinkedResultSet(), allBucketsToQuery, scenarios);
+    RecordingReceiver receiver = new RecordingReceiver();
+    assertTrue(prqe.setStreamingResultsReceiver(receiver));
+    prqe.queryBuckets(null);
+
+    assertEquals(createResultObjects("1", "2"), receiver.results);
+    assertEquals(Collections.singletonList(remoteNodeA + ":7:true"), prqe.permits);
+  }
+
+  @Test
+  public void testBucketsOfFailedMemberThatStreamedResultsAreNotRetried() throws Exception {
+    List resultsForMember1 = createResultObjects("1", "2", "3");
+    List resultsForMember2 = createResultObjects("A", "B", "C");
+    when(query.isRemoteQuery()).thenReturn(true);
+
+    Set<InternalDistributedMember> failingMembers = new HashSet<>();
+    failingMembers.add(remoteNodeA);
+    PartitionedQueryScenario scenario = new PartitionedQueryScenario(localNode, allNodes,
+        failingMembers, createFakeBucketMap(), new ProcessDataFaker() {
+          public void processData(PartitionedRegionQueryEvaluator prqe) {
+            prqe.processData(resultsForMember2, remoteNodeA, 0, false);
+          }
+
+          public void executeQueryLocally(Collection resultsCollector) {
+            resultsCollector.add(resultsForMember1);
+          }
+        });
+
+    Set allBucketsToQuery = scenario.getAllBucketsToQuery();
+    Queue<PartitionedQueryScenario> scenarios = createScenariosQueue(scenario);
+    dataStore.setScenarios(scenarios);
+
+    PartitionedRegionQueryEvaluator prqe = new ExtendedPartitionedRegionQueryEvaluator(system, pr,
+        query, null, new LinkedResultSet(), allBucketsToQuery, scenarios);
+    RecordingReceiver receiver = new RecordingReceiver();
+    assertTrue(prqe.setStreamingResultsReceiver(receiver));
+    try {
+      prqe.queryBuckets(null);
+      fail("Expected a QueryException");
+    } catch (QueryException expected) {
+      assertTrue(expected.getMessage().contains("streamed"));
+    }
+    assertFalse(receiver.ended);
+  }
+
+  @Test
+  public void testOrderedResultsAreMergedAsTheyAreStreamed() throws Exception {
+    List resultsForMember1 = createResultObjects("1", "4", "7");
+    when(query.isRemoteQuery()).thenReturn(true);
+    CompiledSelect select = query.getSimpleSelect();
+    when(select.isOrderBy()).thenReturn(true);
+    CompiledSortCriterion criterion = mock(CompiledSortCriterion.class);
+    when(criterion.evaluate(any(), any())).then(invocation -> invocation.getArguments()[0]);
+    when(select.getOrderByAttrs()).thenReturn(Collections.singletonList(criterion));
+    RecordingReceiver receiver = new RecordingReceiver();
+
+    PartitionedQueryScenario scenario = new PartitionedQueryScenario(localNode, allNodes,
+        noFailingMembers, createFakeBucketMap(), new ProcessDataFaker() {
+          public void processData(PartitionedRegionQueryEvaluator prqe) {
+            // the second chunk of remoteNodeA comes before its first
+            assertTrue(prqe.processData(createResultObjects("5", "8"), remoteNodeA, 1, true));
+            assertTrue(prqe.processData(createResultObjects("3", "6", "9"), remoteNodeB, 0, true));
+            assertTrue(receiver.results.isEmpty());
+            assertTrue(prqe.processData(createResultObjects("2"), remoteNodeA, 0, false));
+          }
+
+          public void executeQueryLocally(Collection resultsCollector) {
+            resultsCollector.add(resultsForMember1);
+          }
+        });
+
+    Set allBucketsToQuery = scenario.getAllBucketsToQuery();
+    Queue<PartitionedQueryScenario> scenarios = createScenariosQueue(scenario);
+    dataStore.setScenarios(scenarios);
+
+    PartitionedRegionQueryEvaluator prqe = new ExtendedPartitionedRegionQueryEvaluator(system, pr,
+        query, null, new LinkedResultSet(), allBucketsToQuery, scenarios);
+    assertTrue(prqe.setStreamingResultsReceiver(receiver));
+    prqe.queryBuckets(null);
+
+    assertTrue(receiver.ended);
+    assertEquals(createResultObjects("1", "2", "3", "4", "5", "6", "7", "8", "9"),
+        receiver.results);
+  }
+
+  @Test
+  public void testDistinctOrderedResultsAreNotStreamed() throws Exception {
+    when(query.isRemoteQuery()).thenReturn(true);
+    when(query.getSimpleSelect().isOrderBy()).thenReturn(true);
+    when(query.getSimpleSelect().isDistinct()).thenReturn(true);
+
+    PartitionedRegionQueryEvaluator prqe = new PartitionedRegionQueryEvaluator(system, pr, query,
+        null, new LinkedResultSet(), new HashSet<>(createBucketList(1, 2, 3)));
+
+    assertFalse(prqe.setStreamingResultsReceiver(new RecordingReceiver()));
+  }
+
   @Test
   public void testGetAllNodesShouldBeRandomized() {
     List bucketList = createBucketList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
@@ -281,6 +507,9 @@ public class PartitionedRegionQueryEvaluatorTest {
     // pass through so we can fake out the executeQuery locally
     PRQueryProcessor extendedPRQueryProcessor;
 
+    // the permits given to stream chunks, as member:flowControlId:releaseAll
+    List<String> permits = new ArrayList<>();
+
     public ExtendedPartitionedRegionQueryEvaluator(InternalDistributedSystem sys,
         PartitionedRegion pr, DefaultQuery query, Object[] parameters,
         SelectResults cumulativeResults, Set<Integer> bucketsToQuery,
@@ -315,6 +544,12 @@ public class PartitionedRegionQueryEvaluatorTest {
       return null;
     }
 
+    @Override
+    protected void sendPermit(InternalDistributedMember member, int flowControlId,
+        boolean releaseAll) {
+      permits.add(member + ":" + flowControlId + ":" + releaseAll);
+    }
+
     @Override
     protected PRQueryProcessor createLocalPRQueryProcessor(List<Integer> bucketList) {
       return extendedPRQueryProcessor;
@@ -362,6 +597,18 @@ public class PartitionedRegionQueryEvaluatorTest {
         this.scenarios = scenarios;
       }
 
+      @Override
+      void startWaitingForChunks() {}
+
+      @Override
+      boolean isWaitingForChunks() {
+        // the chunks are processed by waitForCacheOrQueryException
+        return false;
+      }
+
+      @Override
+      void stopWaitingForChunks() {}
+
       @Override
       public Set<InternalDistributedMember> waitForCacheOrQueryException()
           throws CacheException, QueryException {
@@ -380,6 +627,30 @@ public class PartitionedRegionQueryEvaluatorTest {
     }
   }
 
+  private static class RecordingReceiver
+      implements PartitionedRegionQueryEvaluator.StreamingResultsReceiver {
+    private boolean started;
+    private boolean ended;
+    private int chunks;
+    private List results = new ArrayList();
+
+    @Override
+    public void start(SelectResults results) {
+      this.started = true;
+    }
+
+    @Override
+    public void receive(Collection results) {
+      this.chunks++;
+      this.results.addAll(results);
+    }
+
+    @Override
+    public void end() {
+      this.ended = true;
+    }
+  }
+
   private interface ProcessDataFaker {
     void processData(PartitionedRegionQueryEvaluator processor);
 
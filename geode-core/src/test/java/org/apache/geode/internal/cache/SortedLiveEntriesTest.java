@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.Oplog.SortedLiveEntries;
+import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.persistence.DiskRegionView;
+import org.apache.geode.internal.cache.versions.VersionHolder;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class SortedLiveEntriesTest {
+
+  @Test
+  public void sortsEntriesOfAllRegionsByOffset() {
+    DiskRegionView region1 = mock(DiskRegionView.class);
+    DiskRegionView region2 = mock(DiskRegionView.class);
+    DiskEntry at30 = entryAt(30);
+    DiskEntry at10 = entryAt(10);
+    DiskEntry at20 = entryAt(20);
+    DiskEntry at5 = entryAt(5);
+    SortedLiveEntries liveEntries = new SortedLiveEntries(1);
+
+    liveEntries.addRegion(region1);
+    liveEntries.add(at30, null);
+    liveEntries.add(at10, null);
+    liveEntries.addRegion(region2);
+    liveEntries.add(at20, null);
+    liveEntries.add(at5, null);
+    liveEntries.sort();
+
+    assertThat(liveEntries.size()).isEqualTo(4);
+    assertThat(liveEntries.getDiskEntry(0)).isSameAs(at5);
+    assertThat(liveEntries.getDiskRegionView(0)).isSameAs(region2);
+    assertThat(liveEntries.getDiskEntry(1)).isSameAs(at10);
+    assertThat(liveEntries.getDiskRegionView(1)).isSameAs(region1);
+    assertThat(liveEntries.getDiskEntry(2)).isSameAs(at20);
+    assertThat(liveEntries.getDiskRegionView(2)).isSameAs(region2);
+    assertThat(liveEntries.getDiskEntry(3)).isSameAs(at30);
+    assertThat(liveEntries.getDiskRegionView(3)).isSameAs(region1);
+  }
+
+  @Test
+  public void versionTagsFollowTheirEntries() {
+    DiskEntry at20 = entryAt(20);
+    DiskEntry at10 = entryAt(10);
+    DiskEntry at30 = entryAt(30);
+    VersionHolder tag = mock(VersionHolder.class);
+    SortedLiveEntries liveEntries = new SortedLiveEntries(3);
+
+    liveEntries.addRegion(mock(DiskRegionView.class));
+    liveEntries.add(at20, null);
+    liveEntries.add(at10, tag);
+    liveEntries.add(at30, null);
+    liveEntries.sort();
+
+    assertThat(liveEntries.getVersionTag(0)).isSameAs(tag);
+    assertThat(liveEntries.getVersionTag(1)).isNull();
+    assertThat(liveEntries.getVersionTag(2)).isNull();
+  }
+
+  private DiskEntry entryAt(long offset) {
+    DiskEntry entry = mock(DiskEntry.class);
+    DiskId diskId = mock(DiskId.class);
+    when(diskId.getOffsetInOplog()).thenReturn(offset);
+    when(entry.getDiskId()).thenReturn(diskId);
+    return entry;
+  }
+}
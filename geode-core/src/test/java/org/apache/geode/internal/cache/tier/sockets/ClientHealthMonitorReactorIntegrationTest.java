@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Just like its parent but reads client messages on reactor threads.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class ClientHealthMonitorReactorIntegrationTest extends ClientHealthMonitorIntegrationTest {
+  @Rule
+  public RestoreSystemProperties restoreReactorProperty = new RestoreSystemProperties();
+
+  @Before
+  public void enableReactor() {
+    System.setProperty(AcceptorImpl.REACTOR_THREADS_PROPERTY_NAME, "2");
+  }
+
+  protected int getMaxThreads() {
+    return 2;
+  }
+}
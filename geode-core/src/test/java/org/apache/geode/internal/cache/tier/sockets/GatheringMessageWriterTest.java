@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class GatheringMessageWriterTest {
+
+  private final ByteBuffer commBuffer = ByteBuffer.allocateDirect(16);
+
+  private final RecordingChannel channel = new RecordingChannel(7);
+
+  private final GatheringMessageWriter writer = new GatheringMessageWriter(channel, commBuffer);
+
+  @Test
+  public void writesBytesAlreadyInCommBufferFirst() throws Exception {
+    commBuffer.put(bytes(0, 5));
+
+    writer.write(ByteBuffer.wrap(bytes(5, 3)));
+    writer.flush();
+
+    assertThat(channel.written()).isEqualTo(bytes(0, 8));
+    assertThat(writer.getBytesWritten()).isEqualTo(8);
+    assertThat(commBuffer.position()).isZero();
+  }
+
+  @Test
+  public void copiesLargeHeapBuffersThroughCommBuffer() throws Exception {
+    writer.write(ByteBuffer.wrap(bytes(0, 50)));
+    writer.flush();
+
+    assertThat(channel.written()).isEqualTo(bytes(0, 50));
+    assertThat(channel.directBuffersWritten).containsOnly(commBuffer.capacity());
+  }
+
+  @Test
+  public void writesLargeDirectBuffersWithoutCopying() throws Exception {
+    ByteBuffer large = ByteBuffer.allocateDirect(40);
+    large.put(bytes(3, 40)).flip();
+
+    writer.write(ByteBuffer.wrap(bytes(0, 3)));
+    writer.write(large);
+    writer.write((byte) 43);
+    writer.flush();
+
+    assertThat(channel.written()).isEqualTo(bytes(0, 44));
+    assertThat(channel.directBuffersWritten).contains(40);
+  }
+
+  @Test
+  public void ensureRemainingWritesPendingBytesWhenCommBufferIsFull() throws Exception {
+    writer.write(ByteBuffer.wrap(bytes(0, 14)));
+
+    writer.ensureRemaining(5);
+
+    assertThat(channel.written()).isEqualTo(bytes(0, 14));
+    assertThat(commBuffer.remaining()).isEqualTo(commBuffer.capacity());
+  }
+
+  private static byte[] bytes(int start, int length) {
+    byte[] result = new byte[length];
+    for (int i = 0; i < length; i++) {
+      result[i] = (byte) (start + i);
+    }
+    return result;
+  }
+
+  /**
+   * Writes at most maxBytesPerWrite bytes per call, like a socket with a full send buffer, and
+   * records the capacity of each direct buffer it writes from.
+   */
+  private static class RecordingChannel implements GatheringByteChannel {
+    private final int maxBytesPerWrite;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final List<Integer> directBuffersWritten = new ArrayList<>();
+
+    RecordingChannel(int maxBytesPerWrite) {
+      this.maxBytesPerWrite = maxBytesPerWrite;
+    }
+
+    byte[] written() {
+      return out.toByteArray();
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+      int count = 0;
+      for (int i = offset; i < offset + length && count < maxBytesPerWrite; i++) {
+        ByteBuffer src = srcs[i];
+        if (src.isDirect() && src.hasRemaining()) {
+          directBuffersWritten.add(src.capacity());
+        }
+        while (src.hasRemaining() && count < maxBytesPerWrite) {
+          out.write(src.get());
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      return (int) write(new ByteBuffer[] {src});
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
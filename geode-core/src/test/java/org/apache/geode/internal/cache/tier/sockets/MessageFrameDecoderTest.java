@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class MessageFrameDecoderTest {
+
+  private static final int MAX_MESSAGE_LENGTH = 100000;
+
+  private final MessageFrameDecoder decoder = new MessageFrameDecoder(MAX_MESSAGE_LENGTH);
+
+  private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(8);
+
+  @Test
+  public void readsMessageDeliveredInPieces() throws Exception {
+    byte[] message = message(MessageType.PUT, 20);
+    PartialChannel channel = new PartialChannel();
+
+    channel.arrive(Arrays.copyOfRange(message, 0, 3));
+    assertThat(decoder.readFrom(channel, readBuffer)).isFalse();
+    channel.arrive(Arrays.copyOfRange(message, 3, 25));
+    assertThat(decoder.readFrom(channel, readBuffer)).isFalse();
+    channel.arrive(Arrays.copyOfRange(message, 25, message.length));
+    assertThat(decoder.readFrom(channel, readBuffer)).isTrue();
+
+    assertThat(decoder.takeFrame()).isEqualTo(message);
+  }
+
+  @Test
+  public void doesNotReadPastEndOfMessage() throws Exception {
+    byte[] first = message(MessageType.PUT, 10);
+    byte[] second = message(MessageType.REQUEST, 0);
+    byte[] both = new byte[first.length + second.length];
+    System.arraycopy(first, 0, both, 0, first.length);
+    System.arraycopy(second, 0, both, first.length, second.length);
+    PartialChannel channel = new PartialChannel();
+    channel.arrive(both);
+
+    assertThat(decoder.readFrom(channel, readBuffer)).isTrue();
+    assertThat(decoder.takeFrame()).isEqualTo(first);
+    assertThat(decoder.readFrom(channel, readBuffer)).isTrue();
+    assertThat(decoder.takeFrame()).isEqualTo(second);
+  }
+
+  @Test
+  public void throwsEOFExceptionIfClientClosesConnection() throws Exception {
+    byte[] message = message(MessageType.PUT, 10);
+    PartialChannel channel = new PartialChannel();
+    channel.arrive(Arrays.copyOfRange(message, 0, 20));
+
+    assertThat(decoder.readFrom(channel, readBuffer)).isFalse();
+    channel.closed = true;
+    assertThatThrownBy(() -> decoder.readFrom(channel, readBuffer))
+        .isInstanceOf(EOFException.class);
+  }
+
+  @Test
+  public void throwsIOExceptionForInvalidMessageType() throws Exception {
+    PartialChannel channel = new PartialChannel();
+    channel.arrive(message(-42, 0));
+
+    assertThatThrownBy(() -> decoder.readFrom(channel, readBuffer))
+        .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  public void readsMessageLargerThanInitialFrame() throws Exception {
+    byte[] message = message(MessageType.PUT, 3 * MessageFrameDecoder.INITIAL_FRAME_SIZE + 5);
+    PartialChannel channel = new PartialChannel();
+    channel.arrive(message);
+
+    assertThat(decoder.readFrom(channel, ByteBuffer.allocateDirect(1000))).isTrue();
+
+    assertThat(decoder.takeFrame()).isEqualTo(message);
+  }
+
+  @Test
+  public void throwsIOExceptionForOversizedHeaderBeforeReadingPayload() throws Exception {
+    byte[] header = Arrays.copyOf(message(MessageType.PUT, 0), Message.FIXED_LENGTH);
+    ByteBuffer.wrap(header).putInt(4, Integer.MAX_VALUE - Message.FIXED_LENGTH);
+    PartialChannel channel = new PartialChannel();
+    channel.arrive(header);
+    channel.arrive(new byte[10]);
+
+    assertThatThrownBy(() -> decoder.readFrom(channel, readBuffer))
+        .isInstanceOf(IOException.class);
+    assertThat(channel.available).hasSize(10);
+  }
+
+  private static byte[] message(int type, int payloadLength) {
+    ByteBuffer bb = ByteBuffer.allocate(Message.FIXED_LENGTH + payloadLength);
+    bb.putInt(type).putInt(payloadLength).putInt(payloadLength == 0 ? 0 : 1).putInt(7)
+        .put((byte) 0);
+    for (int i = 0; i < payloadLength; i++) {
+      bb.put((byte) i);
+    }
+    return bb.array();
+  }
+
+  /**
+   * Only has the bytes that have arrived so far, like a non-blocking socket.
+   */
+  private static class PartialChannel implements ReadableByteChannel {
+    private final Deque<Byte> available = new ArrayDeque<>();
+    private boolean closed;
+
+    void arrive(byte[] bytes) {
+      for (byte b : bytes) {
+        available.add(b);
+      }
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      if (available.isEmpty()) {
+        return closed ? -1 : 0;
+      }
+      int count = 0;
+      while (dst.hasRemaining() && !available.isEmpty()) {
+        dst.put(available.remove());
+        count++;
+      }
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache.tier.sockets;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -34,6 +35,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 import org.apache.geode.test.junit.categories.UnitTest;
 
@@ -106,6 +108,32 @@ public class MessageJUnitTest {
     }
   }
 
+  @Test
+  public void receiveReadsFrameInsteadOfSocket() throws Exception {
+    ByteArrayOutputStream sent = new ByteArrayOutputStream();
+    Message request = new Message(2, Version.CURRENT);
+    request.setComms(mock(Socket.class), mock(InputStream.class), sent, ByteBuffer.allocate(100),
+        mock(MessageStats.class));
+    request.setMessageType(MessageType.PUT);
+    request.setTransactionId(7);
+    request.addStringPart("key");
+    request.addBytesPart(new byte[300]);
+    request.send();
+
+    InputStream socketInput = mock(InputStream.class);
+    this.message.setComms(mock(Socket.class), socketInput, mock(OutputStream.class),
+        ByteBuffer.allocate(100), mock(MessageStats.class));
+    this.message.setFrame(sent.toByteArray());
+    this.message.receive();
+
+    verifyZeroInteractions(socketInput);
+    assertEquals(MessageType.PUT, this.message.getMessageType());
+    assertEquals(7, this.message.getTransactionId());
+    assertEquals(2, this.message.getNumberOfParts());
+    assertEquals("key", this.message.getPart(0).getString());
+    assertEquals(300, this.message.getPart(1).getSerializedForm().length);
+  }
+
   /**
    * geode-1468: Message should clear the chunks in its Parts when performing cleanup.
    */
@@ -14,16 +14,22 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.offheap.AddressableMemoryManager;
+import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.test.junit.categories.UnitTest;
 
 @Category(UnitTest.class)
@@ -39,4 +45,71 @@ public class PartTest {
 
     verify(mockPart, times(1)).writeTo(mockOutputStream, mockByteBuffer);
   }
+
+  @Test
+  public void writesOffHeapValueWithoutDirectBufferToGatheringWriter() throws Exception {
+    byte[] value = new byte[20000];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = (byte) i;
+    }
+    long addr = AddressableMemoryManager.allocate(value.length);
+    try {
+      AddressableMemoryManager.writeBytes(addr, value, 0, value.length);
+      StoredObject storedObject = mock(StoredObject.class);
+      when(storedObject.hasRefCount()).thenReturn(true);
+      when(storedObject.getDataSize()).thenReturn(value.length);
+      when(storedObject.getAddressForReadingData(0, value.length)).thenReturn(addr);
+      Part part = new Part();
+      part.setPartState(storedObject, false);
+      ByteArrayOutputStream written = new ByteArrayOutputStream();
+      GatheringMessageWriter writer =
+          new GatheringMessageWriter(new StreamChannel(written), ByteBuffer.allocate(1024));
+
+      part.writeTo(writer);
+      writer.flush();
+
+      assertThat(written.toByteArray()).isEqualTo(value);
+    } finally {
+      AddressableMemoryManager.free(addr);
+    }
+  }
+
+  private static class StreamChannel implements GatheringByteChannel {
+    private final ByteArrayOutputStream out;
+
+    StreamChannel(ByteArrayOutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+      long count = 0;
+      for (int i = offset; i < offset + length; i++) {
+        count += write(srcs[i]);
+      }
+      return count;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs) {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      int count = src.remaining();
+      while (src.hasRemaining()) {
+        out.write(src.get());
+      }
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
 }
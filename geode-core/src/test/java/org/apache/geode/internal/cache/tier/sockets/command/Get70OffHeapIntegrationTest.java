@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.CacheTransactionManager;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.OffHeapTestUtil;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.cache.tier.sockets.CacheServerStats;
+import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.offheap.OffHeapStoredObject;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Checks that Get70 and GetAll70 send off-heap values without leaking or over-releasing the
+ * reference they take on each value.
+ */
+@Category(IntegrationTest.class)
+public class Get70OffHeapIntegrationTest {
+
+  private static final String REGION_NAME = "region1";
+  private static final Object[] KEYS = new Object[] {"key1", "key2", "key3"};
+
+  private InternalCache cache;
+  private ServerConnection serverConnection;
+  private SecurityService securityService;
+  private Message responseMessage;
+  private ChunkedMessage chunkedResponseMessage;
+
+  @Before
+  public void setUp() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    props.setProperty(OFF_HEAP_MEMORY_SIZE, "2m");
+    this.cache = (InternalCache) new CacheFactory(props).create();
+
+    this.securityService = mock(SecurityService.class);
+    when(this.securityService.postProcess(any(), any(), any(), anyBoolean()))
+        .thenAnswer(invocation -> invocation.getArgument(2));
+
+    this.responseMessage = mock(Message.class);
+    this.chunkedResponseMessage = mock(ChunkedMessage.class);
+    this.serverConnection = mock(ServerConnection.class);
+    when(this.serverConnection.getCache()).thenReturn(this.cache);
+    when(this.serverConnection.getCacheServerStats()).thenReturn(mock(CacheServerStats.class));
+    when(this.serverConnection.getCachedRegionHelper()).thenReturn(mock(CachedRegionHelper.class));
+    when(this.serverConnection.getResponseMessage()).thenReturn(this.responseMessage);
+    when(this.serverConnection.getErrorResponseMessage()).thenReturn(mock(Message.class));
+    when(this.serverConnection.getChunkedResponseMessage())
+        .thenReturn(this.chunkedResponseMessage);
+    when(this.serverConnection.getClientVersion()).thenReturn(Version.CURRENT);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.cache.close();
+  }
+
+  @Test
+  public void getFromReplicatedRegionReleasesValue() throws Exception {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE);
+
+    assertGetRetainsValueOnlyWhileSending(region, KEYS[0], 1);
+
+    OffHeapTestUtil.checkOrphans(this.cache);
+  }
+
+  @Test
+  public void getFromPartitionedRegionReleasesValue() throws Exception {
+    LocalRegion region = createRegion(RegionShortcut.PARTITION);
+
+    assertGetRetainsValueOnlyWhileSending(region, KEYS[0], 1);
+
+    OffHeapTestUtil.checkOrphans(this.cache);
+  }
+
+  @Test
+  public void getInTransactionReleasesValue() throws Exception {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE);
+    CacheTransactionManager txManager = this.cache.getCacheTransactionManager();
+    txManager.begin();
+    try {
+      // read the entry into the transaction first so that Get70 reads it from the TXState, which
+      // holds a heap copy of the value, so no reference is taken on the off-heap value
+      region.get(KEYS[0]);
+
+      assertGetRetainsValueOnlyWhileSending(region, KEYS[0], 0);
+    } finally {
+      txManager.rollback();
+    }
+
+    assertThat(getRefCount(region, KEYS[0])).isEqualTo(1);
+    OffHeapTestUtil.checkOrphans(this.cache);
+  }
+
+  @Test
+  public void getAllFromReplicatedRegionReleasesValues() throws Exception {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE);
+
+    assertGetAllRetainsValuesOnlyWhileSending(region, 1);
+
+    OffHeapTestUtil.checkOrphans(this.cache);
+  }
+
+  @Test
+  public void getAllFromPartitionedRegionReleasesValues() throws Exception {
+    LocalRegion region = createRegion(RegionShortcut.PARTITION);
+
+    assertGetAllRetainsValuesOnlyWhileSending(region, 1);
+
+    OffHeapTestUtil.checkOrphans(this.cache);
+  }
+
+  @Test
+  public void getAllInTransactionReleasesValues() throws Exception {
+    LocalRegion region = createRegion(RegionShortcut.REPLICATE);
+    CacheTransactionManager txManager = this.cache.getCacheTransactionManager();
+    txManager.begin();
+    try {
+      for (Object key : KEYS) {
+        region.get(key);
+      }
+
+      assertGetAllRetainsValuesOnlyWhileSending(region, 0);
+    } finally {
+      txManager.rollback();
+    }
+
+    for (Object key : KEYS) {
+      assertThat(getRefCount(region, key)).isEqualTo(1);
+    }
+    OffHeapTestUtil.checkOrphans(this.cache);
+  }
+
+  private LocalRegion createRegion(RegionShortcut shortcut) {
+    Region<Object, Object> region =
+        this.cache.createRegionFactory(shortcut).setOffHeap(true).create(REGION_NAME);
+    for (Object key : KEYS) {
+      // large enough not to be encoded in the address, so the value has a reference count
+      region.put(key, "value of " + key + " that is stored off-heap with a reference count");
+    }
+    return (LocalRegion) region;
+  }
+
+  private void assertGetRetainsValueOnlyWhileSending(LocalRegion region, Object key,
+      int referencesWhileSending) throws Exception {
+    int refCountBefore = getRefCount(region, key);
+    int[] refCountWhileSending = new int[1];
+    doAnswer(invocation -> {
+      refCountWhileSending[0] = getRefCount(region, key);
+      return null;
+    }).when(this.responseMessage).send(this.serverConnection);
+
+    new Get70().cmdExecute(createGetMessage(key), this.serverConnection,
+        this.securityService, 0);
+
+    verify(this.responseMessage).send(this.serverConnection);
+    assertThat(refCountWhileSending[0]).isEqualTo(refCountBefore + referencesWhileSending);
+    assertThat(getRefCount(region, key)).isEqualTo(refCountBefore);
+  }
+
+  private void assertGetAllRetainsValuesOnlyWhileSending(LocalRegion region,
+      int referencesWhileSending) throws Exception {
+    int[] refCountsBefore = new int[KEYS.length];
+    for (int i = 0; i < KEYS.length; i++) {
+      refCountsBefore[i] = getRefCount(region, KEYS[i]);
+    }
+    int[] refCountsWhileSending = new int[KEYS.length];
+    doAnswer(invocation -> {
+      for (int i = 0; i < KEYS.length; i++) {
+        refCountsWhileSending[i] = getRefCount(region, KEYS[i]);
+      }
+      return null;
+    }).when(this.chunkedResponseMessage).sendChunk(this.serverConnection);
+
+    new GetAll70().cmdExecute(createGetAllMessage(), this.serverConnection,
+        this.securityService, 0);
+
+    verify(this.chunkedResponseMessage).sendChunk(this.serverConnection);
+    for (int i = 0; i < KEYS.length; i++) {
+      assertThat(refCountsWhileSending[i]).isEqualTo(refCountsBefore[i] + referencesWhileSending);
+      assertThat(getRefCount(region, KEYS[i])).isEqualTo(refCountsBefore[i]);
+    }
+  }
+
+  private Message createGetMessage(Object key) throws Exception {
+    Message message = mock(Message.class);
+    Part regionNamePart = mock(Part.class);
+    Part keyPart = mock(Part.class);
+    when(regionNamePart.getString()).thenReturn(REGION_NAME);
+    when(keyPart.getStringOrObject()).thenReturn(key);
+    when(message.getNumberOfParts()).thenReturn(2);
+    when(message.getPart(eq(0))).thenReturn(regionNamePart);
+    when(message.getPart(eq(1))).thenReturn(keyPart);
+    return message;
+  }
+
+  private Message createGetAllMessage() throws Exception {
+    Message message = mock(Message.class);
+    Part regionNamePart = mock(Part.class);
+    Part keysPart = mock(Part.class);
+    Part requestSerializableValuesPart = mock(Part.class);
+    when(regionNamePart.getString()).thenReturn(REGION_NAME);
+    when(keysPart.getObject()).thenReturn(KEYS);
+    when(requestSerializableValuesPart.getInt()).thenReturn(0);
+    when(message.getPart(eq(0))).thenReturn(regionNamePart);
+    when(message.getPart(eq(1))).thenReturn(keysPart);
+    when(message.getPart(eq(2))).thenReturn(requestSerializableValuesPart);
+    return message;
+  }
+
+  private static int getRefCount(LocalRegion region, Object key) {
+    RegionEntry entry;
+    if (region instanceof PartitionedRegion) {
+      entry = ((PartitionedRegion) region).getBucketRegion(key).getRegionEntry(key);
+    } else {
+      entry = region.getRegionEntry(key);
+    }
+    return ((OffHeapStoredObject) entry.getValue()).getRefCount();
+  }
+}
@@ -16,6 +16,7 @@ package org.apache.geode.internal.cache.tier.sockets.command;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
@@ -39,6 +40,7 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.tier.CachedRegionHelper;
 import org.apache.geode.internal.cache.tier.sockets.AcceptorImpl;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
 import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.Part;
@@ -134,6 +136,23 @@ public class RegisterInterest61Test {
     verify(this.chunkedResponseMessage).sendChunk(this.serverConnection);
   }
 
+  @Test
+  public void nearCacheInterestIsRegisteredAsNearCache() throws Exception {
+    when(this.securityService.isClientSecurityRequired()).thenReturn(false);
+    AcceptorImpl acceptor = mock(AcceptorImpl.class);
+    CacheClientNotifier notifier = mock(CacheClientNotifier.class);
+    when(acceptor.getCacheClientNotifier()).thenReturn(notifier);
+    when(this.serverConnection.getAcceptor()).thenReturn(acceptor);
+    when(this.notifyPart.getObject()).thenReturn(new byte[] {0x01, 0x01});
+
+    this.registerInterest61.cmdExecute(this.message, this.serverConnection, this.securityService,
+        0);
+
+    verify(notifier).registerClientInterest(eq(REGION_NAME), eq(KEY), any(), anyInt(),
+        anyBoolean(), eq(true), eq(true), eq(true), anyInt(), eq(true));
+    verify(this.chunkedResponseMessage).sendChunk(this.serverConnection);
+  }
+
   @Test
   public void integratedSecurityShouldSucceedIfAuthorized() throws Exception {
     when(this.securityService.isClientSecurityRequired()).thenReturn(true);
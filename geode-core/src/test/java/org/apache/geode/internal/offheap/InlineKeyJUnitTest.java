@@ -22,6 +22,8 @@ import static org.junit.Assert.assertTrue;
 import java.util.Properties;
 import java.util.UUID;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -33,6 +35,7 @@ import org.apache.geode.distributed.ConfigurationProperties;
 import org.apache.geode.internal.cache.*;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapIntKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapLongKey;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapAsciiStringKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapObjectKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStringKey1;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStringKey2;
@@ -41,6 +44,19 @@ import org.apache.geode.test.junit.categories.IntegrationTest;
 
 @Category(IntegrationTest.class)
 public class InlineKeyJUnitTest {
+  private boolean inlineAsciiStringKeys;
+
+  @Before
+  public void setUp() {
+    inlineAsciiStringKeys = InlineKeyHelper.INLINE_ASCII_STRING_KEYS;
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = true;
+  }
+
+  @After
+  public void tearDown() {
+    InlineKeyHelper.INLINE_ASCII_STRING_KEYS = inlineAsciiStringKeys;
+  }
+
   private GemFireCacheImpl createCache() {
     Properties props = new Properties();
     props.setProperty(LOCATORS, "");
@@ -160,6 +176,12 @@ public class InlineKeyJUnitTest {
       key = "1234567890123456";
       r.create(key, null);
       assertEquals(true, r.containsKey(key));
+      assertTrue("expected ascii string entry but was " + lr.getRegionEntry(key).getClass(),
+          lr.getRegionEntry(key) instanceof VMThinRegionEntryOffHeapAsciiStringKey);
+
+      key = "1234567890123456\u8888";
+      r.create(key, null);
+      assertEquals(true, r.containsKey(key));
       assertTrue("expected string object but was " + lr.getRegionEntry(key).getClass(),
           lr.getRegionEntry(key) instanceof VMThinRegionEntryOffHeapObjectKey);
 
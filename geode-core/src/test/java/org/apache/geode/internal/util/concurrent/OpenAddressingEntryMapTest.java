@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OpenAddressingEntryMapTest {
+
+  private OpenAddressingEntryMap<Object, String> map;
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    map = new OpenAddressingEntryMap<>(0, 0.75f, 4,
+        new CustomEntryConcurrentHashMap.DefaultHashEntryCreator<>());
+    executor = Executors.newFixedThreadPool(8);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void putGetAndRemove() {
+    assertThat(map.put("a", "1")).isNull();
+    assertThat(map.put("a", "2")).isEqualTo("1");
+    assertThat(map.putIfAbsent("a", "3")).isEqualTo("2");
+    assertThat(map.putIfAbsent("b", "3")).isNull();
+
+    assertThat(map.get("a")).isEqualTo("2");
+    assertThat(map.get("b")).isEqualTo("3");
+    assertThat(map.get("c")).isNull();
+    assertThat(map.size()).isEqualTo(2);
+
+    assertThat(map.remove("a", "1")).isFalse();
+    assertThat(map.remove("a", "2")).isTrue();
+    assertThat(map.remove("b")).isEqualTo("3");
+    assertThat(map.containsKey("a")).isFalse();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void growsToHoldManyEntries() {
+    for (int i = 0; i < 100_000; i++) {
+      map.put(i, Integer.toString(i));
+    }
+
+    assertThat(map.size()).isEqualTo(100_000);
+    for (int i = 0; i < 100_000; i++) {
+      assertThat(map.get(i)).isEqualTo(Integer.toString(i));
+    }
+  }
+
+  @Test
+  public void findsKeysProbedPastRemovedSlots() {
+    List<CollidingKey> keys = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      CollidingKey key = new CollidingKey(i);
+      keys.add(key);
+      map.put(key, "v" + i);
+    }
+    for (int i = 0; i < 20; i += 2) {
+      map.remove(keys.get(i));
+    }
+
+    for (int i = 0; i < 20; i++) {
+      assertThat(map.get(keys.get(i))).isEqualTo(i % 2 == 0 ? null : "v" + i);
+    }
+
+    for (int i = 0; i < 20; i += 2) {
+      map.put(keys.get(i), "w" + i);
+    }
+    for (int i = 0; i < 20; i++) {
+      assertThat(map.get(keys.get(i))).isEqualTo((i % 2 == 0 ? "w" : "v") + i);
+    }
+    assertThat(map.size()).isEqualTo(20);
+  }
+
+  @Test
+  public void repeatedInsertAndRemoveDoesNotLoseEntries() {
+    for (int i = 0; i < 100; i++) {
+      map.put("stable" + i, "s");
+    }
+    for (int round = 0; round < 1000; round++) {
+      for (int i = 0; i < 50; i++) {
+        map.put(round + "-" + i, "t");
+      }
+      for (int i = 0; i < 50; i++) {
+        map.remove(round + "-" + i);
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(100);
+    for (int i = 0; i < 100; i++) {
+      assertThat(map.get("stable" + i)).isEqualTo("s");
+    }
+  }
+
+  @Test
+  public void iteratorsSeeAllEntriesAndSupportRemove() {
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, Integer.toString(i));
+    }
+
+    Set<Object> keys = new HashSet<>(map.keySet());
+    assertThat(keys).hasSize(1000);
+    assertThat(map.values()).hasSize(1000);
+    Set<Object> reusedKeys = new HashSet<>();
+    for (Map.Entry<Object, String> entry : map.entrySetWithReusableEntries()) {
+      assertThat(entry.getValue()).isEqualTo(entry.getKey().toString());
+      reusedKeys.add(entry.getKey());
+    }
+    assertThat(reusedKeys).isEqualTo(keys);
+
+    for (Iterator<Object> it = map.keySet().iterator(); it.hasNext();) {
+      if ((Integer) it.next() % 2 == 0) {
+        it.remove();
+      }
+    }
+    assertThat(map.size()).isEqualTo(500);
+    assertThat(map.get(2)).isNull();
+    assertThat(map.get(3)).isEqualTo("3");
+  }
+
+  @Test
+  public void clearEmptiesMap() {
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, Integer.toString(i));
+    }
+
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(1)).isNull();
+    assertThat(map.keySet().iterator().hasNext()).isFalse();
+    map.put(1, "1");
+    assertThat(map.get(1)).isEqualTo("1");
+  }
+
+  @Test
+  public void readersAlwaysFindStableKeysWhileOtherKeysChange() throws Exception {
+    final int stableKeys = 1000;
+    for (int i = 0; i < stableKeys; i++) {
+      map.put(i, "stable");
+    }
+    final AtomicBoolean done = new AtomicBoolean();
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> writers = new ArrayList<>();
+    for (int w = 0; w < 4; w++) {
+      final int writer = w;
+      writers.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < 20_000; i++) {
+          String key = writer + "-" + (i % 500);
+          if (map.putIfAbsent(key, "churn") != null) {
+            map.remove(key);
+          }
+        }
+        return null;
+      }));
+    }
+    List<Future<?>> readers = new ArrayList<>();
+    for (int r = 0; r < 4; r++) {
+      readers.add(executor.submit(() -> {
+        start.await();
+        while (!done.get()) {
+          for (int i = 0; i < stableKeys; i++) {
+            assertThat(map.get(i)).isEqualTo("stable");
+          }
+        }
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> writer : writers) {
+      writer.get(1, TimeUnit.MINUTES);
+    }
+    done.set(true);
+    for (Future<?> reader : readers) {
+      reader.get(1, TimeUnit.MINUTES);
+    }
+  }
+
+  private static class CollidingKey {
+    private final int id;
+
+    CollidingKey(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class VirtualThreadsTest {
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  @Test
+  public void createThreadFactoryReturnsNullIfNotEnabled() {
+    System.clearProperty(VirtualThreads.USE_VIRTUAL_THREADS_PROPERTY);
+
+    assertThat(VirtualThreads.isEnabled()).isFalse();
+    assertThat(VirtualThreads.createThreadFactory((t, e) -> {
+    })).isNull();
+  }
+
+  @Test
+  public void createThreadFactoryReturnsNullIfJvmHasNoVirtualThreads() {
+    assumeTrue(!hasVirtualThreads());
+    System.setProperty(VirtualThreads.USE_VIRTUAL_THREADS_PROPERTY, "true");
+
+    assertThat(VirtualThreads.createThreadFactory((t, e) -> {
+    })).isNull();
+  }
+
+  @Test
+  public void createdThreadsAreVirtualAndReportUncaughtExceptions() throws Exception {
+    assumeTrue(hasVirtualThreads());
+    System.setProperty(VirtualThreads.USE_VIRTUAL_THREADS_PROPERTY, "true");
+    AtomicReference<Throwable> uncaught = new AtomicReference<>();
+    RuntimeException failure = new RuntimeException("expected");
+
+    ThreadFactory factory = VirtualThreads.createThreadFactory((t, e) -> uncaught.set(e));
+    Thread thread = factory.newThread(() -> {
+      throw failure;
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+    assertThat(uncaught.get()).isSameAs(failure);
+  }
+
+  private static boolean hasVirtualThreads() {
+    try {
+      Thread.class.getMethod("ofVirtual").invoke(null);
+      return true;
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+}